@@ -0,0 +1,82 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the evaluation throughput of a compiled {@link ExpressionFunction} with the same expression
+ * written by hand as a lambda and with walking its syntax tree on every evaluation.
+ *
+ * Each invocation sums the function over the midpoints of the partitions with {@link Rectangle#heightSum},
+ * so the score is the number of function evaluations per second in the integration loop.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Djmh.args="ExpressionFunctionBenchmark"
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionFunctionBenchmark {
+
+    /** Number of evaluations per invocation. */
+    private static final int PARTITIONS = 1_000_000;
+
+    /** Benchmarked expression. */
+    @Param({"polynomial", "gaussian"})
+    private String expression;
+
+    private FunctionModel handWritten;
+    private FunctionModel compiled;
+    private FunctionModel interpreted;
+    private double h;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String text;
+        if ("polynomial".equals(expression)) {
+            text = "1.5*x^3 - 2.5*x^2 + 4*x - 1";
+            handWritten = x -> 1.5 * (x * (x * x)) - 2.5 * (x * x) + 4 * x - 1;
+        } else {
+            text = "sin(x)*exp(-x^2)";
+            handWritten = x -> Math.sin(x) * Math.exp(-(x * x));
+        }
+        compiled = ExpressionFunction.compile(text);
+        interpreted = ExpressionParser.parse(text)::evaluate;
+        h = 7.0 / PARTITIONS;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double handWritten() {
+        return Rectangle.heightSum(handWritten, -3, h, 0, PARTITIONS, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double compiled() {
+        return Rectangle.heightSum(compiled, -3, h, 0, PARTITIONS, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double interpreted() {
+        return Rectangle.heightSum(interpreted, -3, h, 0, PARTITIONS, null);
+    }
+}
@@ -0,0 +1,89 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the evaluation throughput of {@link LinearFunction} and {@link QuadraticFunction}, whose coefficients
+ * are validated once by {@link FunctionData}, with the previous implementation validating the coefficients
+ * and x on every call.
+ *
+ * Each invocation sums the function over the midpoints of the partitions with {@link Rectangle#heightSum},
+ * so the score is the number of function evaluations per second in the integration loop.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Djmh.args="FunctionEvaluationBenchmark"
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FunctionEvaluationBenchmark {
+
+    /** Number of evaluations per invocation. */
+    private static final int PARTITIONS = 1_000_000;
+
+    /** Type of the evaluated polynomial. */
+    @Param({"linear", "quadratic"})
+    private String functionType;
+
+    private FunctionModel validatedOnce;
+    private FunctionModel validatedPerCall;
+    private double h;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean linear = "linear".equals(functionType);
+        validatedOnce = linear ? new LinearFunction(-2.5, 4) : new QuadraticFunction(1.5, -2.5, 4);
+        validatedPerCall = linear ? new CheckedFunction(0, -2.5, 4) : new CheckedFunction(1.5, -2.5, 4);
+        h = 7.0 / PARTITIONS;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double before() {
+        return Rectangle.heightSum(validatedPerCall, -3, h, 0, PARTITIONS, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double after() {
+        return Rectangle.heightSum(validatedOnce, -3, h, 0, PARTITIONS, null);
+    }
+
+    /**
+     * The previous evaluate method, checking the coefficients and x for NaN and infinity on every call.
+     *
+     * @param a Coefficient for the quadratic term (x²).
+     * @param b Coefficient for the linear term (x).
+     * @param c Constant term.
+     */
+    private record CheckedFunction(double a, double b, double c) implements FunctionModel {
+        @Override
+        public double evaluate(double x) {
+            if (Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c) || Double.isInfinite(a) || Double.isInfinite(b) || Double.isInfinite(c)) {
+                throw new IllegalArgumentException("Coefficients a, b, and c cannot be NaN or infinite.");
+            }
+            if (Double.isInfinite(x) || Double.isNaN(x)) {
+                throw new IllegalArgumentException("x value cannot be NaN or infinite.");
+            }
+            return a * x * x + b * x + c;
+        }
+    }
+}
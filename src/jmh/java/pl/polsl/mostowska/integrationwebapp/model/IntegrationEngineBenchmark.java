@@ -0,0 +1,99 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the production path of every integration method through a shared {@link IntegrationEngine}
+ * across partition counts, function types and thread counts.
+ *
+ * The {@code parallelism} parameter sets the worker threads of the engine's fork/join pool, while
+ * {@link #singleRequest()} and {@link #concurrentRequests()} measure one caller and one caller per processor,
+ * like concurrent servlet requests sharing the engine. The {@code lambda} function type is the same polynomial
+ * as {@code quadratic} behind a plain {@link FunctionModel}, so it cannot use the closed-form or vector paths.
+ * With {@code closedForm=true} the rectangle and trapezoidal sums of the linear and quadratic functions take the
+ * O(1) closed-form path; with {@code false} they are summed node by node like any other function.
+ *
+ * The full matrix takes hours; narrow it with JMH options, for example:
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="IntegrationEngineBenchmark.singleRequest -p method=rectangle -p partitions=1000,100000000 -p closedForm=false"
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class IntegrationEngineBenchmark {
+
+    /** Request name of the integration method, see {@link IntegrationMethod#fromName(String)}. */
+    @Param({"rectangle", "trapezoid", "simpson", "adaptiveSimpson", "gaussKronrod", "romberg"})
+    private String method;
+
+    /** Number of partitions, or the limit of subintervals for the adaptive methods. */
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    private int partitions;
+
+    /** Type of the integrated function. */
+    @Param({"linear", "quadratic", "lambda"})
+    private String functionType;
+
+    /** Number of worker threads of the engine. */
+    @Param({"1", "4"})
+    private int parallelism;
+
+    /** Whether the engine computes the sums of linear and quadratic functions in closed form. */
+    @Param({"false", "true"})
+    private boolean closedForm;
+
+    private IntegrationEngine engine;
+    private IntegrationMethod integrationMethod;
+    private FunctionModel function;
+    private IntegrationParameters parameters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EngineSettings defaults = EngineSettings.defaults();
+        engine = new IntegrationEngine(new EngineSettings(defaults.parallelThreshold(), defaults.chunkPartitions(),
+                parallelism, closedForm));
+        integrationMethod = IntegrationMethod.fromName(method);
+        function = switch (functionType) {
+            case "linear" -> new LinearFunction(-2.5, 4);
+            case "quadratic" -> new QuadraticFunction(1.5, -2.5, 4);
+            default -> x -> 1.5 * x * x - 2.5 * x + 4;
+        };
+        parameters = new IntegrationParameters(-3, 4, partitions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double singleRequest() {
+        return engine.integrate(integrationMethod, function, parameters).value();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double concurrentRequests() {
+        return engine.integrate(integrationMethod, function, parameters).value();
+    }
+}
@@ -0,0 +1,92 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the evaluation throughput of a {@link PolynomialFunction} with the plain and the fused Horner scheme,
+ * the same polynomial compiled from its text as an {@link ExpressionFunction}, and summing its terms with {@link Math#pow}.
+ *
+ * Each invocation sums the function over the midpoints of the partitions with {@link Rectangle#heightSum},
+ * so the score is the number of function evaluations per second in the integration loop.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Djmh.args="PolynomialFunctionBenchmark"
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolynomialFunctionBenchmark {
+
+    /** Number of evaluations per invocation. */
+    private static final int PARTITIONS = 1_000_000;
+
+    /** Degree of the benchmarked polynomial. */
+    @Param({"5", "20"})
+    private int degree;
+
+    private FunctionModel horner;
+    private FunctionModel fused;
+    private FunctionModel compiled;
+    private FunctionModel powers;
+    private double h;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] coefficients = new Random(42).doubles(degree + 1, -1, 1).toArray();
+        PolynomialFunction polynomial = new PolynomialFunction(coefficients);
+        horner = polynomial;
+        fused = new PolynomialFunction(coefficients, true);
+        compiled = ExpressionFunction.compile(polynomial.toString());
+        powers = x -> {
+            double sum = 0;
+            for (int i = 0; i < coefficients.length; i++) {
+                sum += coefficients[i] * Math.pow(x, i);
+            }
+            return sum;
+        };
+        h = 2.0 / PARTITIONS;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double horner() {
+        return Rectangle.heightSum(horner, -1, h, 0, PARTITIONS, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double fused() {
+        return Rectangle.heightSum(fused, -1, h, 0, PARTITIONS, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double compiled() {
+        return Rectangle.heightSum(compiled, -1, h, 0, PARTITIONS, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PARTITIONS)
+    public double powers() {
+        return Rectangle.heightSum(powers, -1, h, 0, PARTITIONS, null);
+    }
+}
@@ -0,0 +1,88 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput and the accuracy of the {@link Summation} strategies of the rectangle method.
+ *
+ * Next to the number of integrations per second, every trial prints the error of the integral,
+ * the absolute difference between the computed value and the exact integral. The {@code quadratic} function
+ * is summed by the vector kernels and {@code sine} by the scalar loop; the closed form is disabled so both are
+ * evaluated point by point. The discretization error falls with h², so at many partitions the rounding
+ * error of the summation decides the accuracy.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Djmh.args="SummationBenchmark"
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 4)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SummationBenchmark {
+
+    /** Request name of the summation strategy, see {@link Summation#fromName(String)}. */
+    @Param({"naive", "neumaier", "pairwise"})
+    private String summation;
+
+    /** Number of partitions. */
+    @Param({"1000000", "100000000"})
+    private int partitions;
+
+    /** Type of the integrated function. */
+    @Param({"quadratic", "sine"})
+    private String functionType;
+
+    private IntegrationEngine engine;
+    private FunctionModel function;
+    private IntegrationParameters parameters;
+    private IntegrationOptions options;
+    private double exact;
+    private double value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, EngineSettings.DEFAULT_CHUNK_PARTITIONS, 1, false));
+        if ("quadratic".equals(functionType)) {
+            // Integral of 3x² + x over [0, 1] is 1 + 1/2
+            function = new QuadraticFunction(3, 1, 0);
+            parameters = new IntegrationParameters(0, 1, partitions);
+            exact = 1.5;
+        } else {
+            // Integral of sin over [0, π] is 2
+            function = Math::sin;
+            parameters = new IntegrationParameters(0, Math.PI, partitions);
+            exact = 2;
+        }
+        options = IntegrationOptions.defaults().withSummation(Summation.fromName(summation));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+        System.out.printf("%nAccuracy: %s, %s summation, %d partitions: error %.3e%n",
+                functionType, summation, partitions, Math.abs(value - exact));
+    }
+
+    @Benchmark
+    public double rectangle() {
+        value = engine.integrate(IntegrationMethod.RECTANGLE, function, parameters, options).value();
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the vectorized polynomial kernels with the scalar path calling
+ * {@link FunctionModel#evaluate(double)} once per point.
+ *
+ * Run with: mvn -P benchmark test-compile exec:exec -Djmh.args="VectorKernelBenchmark"
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VectorKernelBenchmark {
+
+    /** Number of partitions. */
+    @Param({"1000", "1000000"})
+    private int partitions;
+
+    /** Type of the integrated polynomial. */
+    @Param({"linear", "quadratic"})
+    private String functionType;
+
+    private FunctionModel function;
+    private FunctionData coefficients;
+    private double lowerBound;
+    private double h;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!PolynomialKernels.isAvailable()) {
+            throw new IllegalStateException("Run the benchmark with --add-modules jdk.incubator.vector.");
+        }
+        function = "linear".equals(functionType) ? new LinearFunction(-2.5, 4) : new QuadraticFunction(1.5, -2.5, 4);
+        coefficients = PolynomialKernels.coefficients(function);
+        lowerBound = -3;
+        h = 7.0 / partitions;
+    }
+
+    @Benchmark
+    public double scalarMidpoints() {
+        return Rectangle.heightSum(function, lowerBound, h, 0, partitions, null);
+    }
+
+    @Benchmark
+    public double vectorMidpoints() {
+        return PolynomialKernels.midpointSum(coefficients, lowerBound, h, 0, partitions);
+    }
+
+    @Benchmark
+    public double scalarNodes() {
+        return Trapezoid.nodeSum(function, lowerBound, h, 1, partitions, null);
+    }
+
+    @Benchmark
+    public double vectorNodes() {
+        return PolynomialKernels.nodeSum(coefficients, lowerBound, h, 1, partitions);
+    }
+}
@@ -0,0 +1,95 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Abstract base class for integration methods driven by an accuracy target instead of a fixed number of partitions.
+ * The method refines the approximation until its error estimate meets the {@link Tolerance},
+ * using the number of partitions from the {@link IntegrationParameters} only as an upper limit
+ * on the number of subintervals.
+ * 
+ * After each calculation the achieved error estimate and the number of function evaluations are available.
+ * Sample capture is not supported by these methods.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Getter
+@Setter
+public abstract class AdaptiveIntegrationModel extends IntegrationModel {
+    /**
+     * Accuracy target of the integration.
+     */
+    private Tolerance tolerance = Tolerance.defaults();
+
+    /**
+     * Estimated absolute error of the last calculation.
+     */
+    @Setter(AccessLevel.NONE)
+    private double errorEstimate = Double.NaN;
+
+    /**
+     * Number of function evaluations of the last calculation.
+     */
+    @Setter(AccessLevel.NONE)
+    private long evaluations;
+
+    /**
+     * Performs the integration until the error estimate meets the tolerance or the subinterval limit is reached.
+     * 
+     * @return The approximated value of the integral.
+     * @throws IllegalArgumentException If the parameters are invalid or the result is not a finite number.
+     * @throws IllegalStateException If no function is set.
+     */
+    @Override
+    public double calculate() {
+        IntegrationParameters params = getParameters();
+        validate(params);
+        if (getFunction() == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
+        Estimate estimate = estimate(getFunction(), params, tolerance);
+        errorEstimate = estimate.errorEstimate();
+        evaluations = estimate.evaluations();
+        return requireFinite(estimate.value());
+    }
+
+    /**
+     * Integrates the function over validated parameters.
+     * Implementations must not use the state of the model, so that {@link IntegrationEngine} can share them.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     */
+    protected abstract Estimate estimate(FunctionModel function, IntegrationParameters params, Tolerance tolerance);
+
+    /**
+     * Validates the integration parameters for the tolerance-driven methods.
+     * 
+     * @param params The integration parameters.
+     * @throws NullPointerException If the parameters object is null.
+     * @throws IllegalArgumentException If the subinterval limit is less than or equal to 0,
+     *         if a bound is NaN or infinite, or if the upper bound is less than the lower bound.
+     */
+    static void validate(IntegrationParameters params) {
+        if (params == null) {
+            throw new NullPointerException("Parameters object cannot be null.");
+        }
+        if (params.partitions() <= 0) {
+            throw new IllegalArgumentException("Number of partitions must be a valid positive number, not Infinity, NaN, or zero.");
+        }
+        if (Double.isInfinite(params.upperBound()) || Double.isNaN(params.upperBound())) {
+            throw new IllegalArgumentException("Upper bound (b) must be a valid number (not NaN or Infinity).");
+        }
+        if (Double.isInfinite(params.lowerBound()) || Double.isNaN(params.lowerBound())) {
+            throw new IllegalArgumentException("Lower bound (a) must be a valid number (not NaN or Infinity).");
+        }
+        if (params.upperBound() < params.lowerBound()) {
+            throw new IllegalArgumentException("Upper bound (b) cannot be less than lower bound (a).");
+        }
+    }
+}
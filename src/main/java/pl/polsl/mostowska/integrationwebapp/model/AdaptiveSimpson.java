@@ -0,0 +1,111 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Implementation of the adaptive Simpson method.
+ * Each subinterval is split in two until the Simpson sums of its halves agree with the sum
+ * of the whole subinterval, so the function is only evaluated densely where it is hard to integrate.
+ * The error target is shared out between the halves at every split.
+ * 
+ * An interval is accepted when |S(left) + S(right) - S(whole)| / 15 is within its share of the tolerance,
+ * and the returned value includes the corresponding Richardson correction.
+ * The number of partitions limits the total number of subintervals.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class AdaptiveSimpson extends AdaptiveIntegrationModel {
+
+    /** Maximum depth of the subdivision, which keeps the recursion bounded. */
+    private static final int MAX_DEPTH = 50;
+
+    /**
+     * Integrates the function with the adaptive Simpson method.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     */
+    @Override
+    protected Estimate estimate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        return integrate(function, params, tolerance);
+    }
+
+    /**
+     * Integrates the function with the adaptive Simpson method without using the state of a model.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     * @throws IllegalStateException If the function is null.
+     */
+    static Estimate integrate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
+        double a = params.lowerBound();
+        double b = params.upperBound();
+        double fa = function.evaluate(a);
+        double fm = function.evaluate((a + b) / 2);
+        double fb = function.evaluate(b);
+        double whole = (b - a) / 6 * (fa + 4 * fm + fb);
+
+        Progress progress = new Progress(params.partitions());
+        // The relative tolerance refers to the first, coarse estimate of the integral
+        double value = refine(function, a, b, fa, fm, fb, whole, tolerance.target(whole), 0, progress);
+        return new Estimate(value, progress.error, progress.evaluations);
+    }
+
+    /**
+     * Integrates the function over one subinterval, splitting it until the tolerance is met.
+     * 
+     * @param function The function to integrate.
+     * @param a The lower bound of the subinterval.
+     * @param b The upper bound of the subinterval.
+     * @param fa The function value at a.
+     * @param fm The function value at the midpoint.
+     * @param fb The function value at b.
+     * @param whole The Simpson sum of the subinterval.
+     * @param target The error accepted for the subinterval.
+     * @param depth The number of splits leading to the subinterval.
+     * @param progress The evaluation count, error estimate and number of subintervals so far.
+     * @return The approximated integral over the subinterval.
+     */
+    private static double refine(FunctionModel function, double a, double b, double fa, double fm, double fb,
+            double whole, double target, int depth, Progress progress) {
+        double m = (a + b) / 2;
+        double flm = function.evaluate((a + m) / 2);
+        double frm = function.evaluate((m + b) / 2);
+        progress.evaluations += 2;
+        double left = (m - a) / 6 * (fa + 4 * flm + fm);
+        double right = (b - m) / 6 * (fm + 4 * frm + fb);
+        double difference = left + right - whole;
+
+        if (Math.abs(difference) <= 15 * target || depth >= MAX_DEPTH || progress.intervals >= progress.maxIntervals) {
+            progress.error += Math.abs(difference) / 15;
+            return left + right + difference / 15;
+        }
+        progress.intervals++;
+        return refine(function, a, m, fa, flm, fm, left, target / 2, depth + 1, progress)
+                + refine(function, m, b, fm, frm, fb, right, target / 2, depth + 1, progress);
+    }
+
+    /**
+     * Mutable state of one integration, local to the calling thread.
+     */
+    private static final class Progress {
+        /** Maximum number of subintervals. */
+        private final int maxIntervals;
+        /** Number of subintervals so far. */
+        private int intervals = 1;
+        /** Number of function evaluations so far. */
+        private long evaluations = 3;
+        /** Sum of the error estimates of the accepted subintervals. */
+        private double error;
+
+        private Progress(int maxIntervals) {
+            this.maxIntervals = maxIntervals;
+        }
+    }
+}
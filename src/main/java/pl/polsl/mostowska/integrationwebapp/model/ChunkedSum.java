@@ -0,0 +1,88 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task summing the function values of an integration split into fixed-size chunks.
+ *
+ * The range of chunks is always halved at the same index and the partial sums are always added
+ * as left plus right, so the shape of the addition tree depends only on the number of chunks.
+ * The result is therefore bit-for-bit reproducible for the same chunking,
+ * no matter which worker thread steals which task.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+final class ChunkedSum extends RecursiveTask<Double> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Computes the sum of the function values over one range of partition indices.
+     */
+    @FunctionalInterface
+    interface RangeSum {
+        /**
+         * Sums the function values for the partition indices from {@code from} (inclusive) to {@code to} (exclusive).
+         *
+         * @param from the first index
+         * @param to the index after the last one
+         * @return the sum of the function values in the range
+         */
+        double sum(int from, int to);
+    }
+
+    /** Kernel summing one chunk. */
+    private final transient RangeSum kernel;
+    /** Index of the first partition of the whole range. */
+    private final int start;
+    /** Index after the last partition of the whole range. */
+    private final int end;
+    /** Number of partitions per chunk. */
+    private final int chunkPartitions;
+    /** Index of the first chunk handled by this task. */
+    private final int firstChunk;
+    /** Index after the last chunk handled by this task. */
+    private final int lastChunk;
+
+    /**
+     * Creates a task summing all chunks of the range from {@code start} (inclusive) to {@code end} (exclusive).
+     *
+     * @param kernel the kernel summing one chunk
+     * @param start the index of the first partition
+     * @param end the index after the last partition
+     * @param chunkPartitions the number of partitions per chunk
+     */
+    ChunkedSum(RangeSum kernel, int start, int end, int chunkPartitions) {
+        this(kernel, start, end, chunkPartitions, 0, (int) ((end - start + (long) chunkPartitions - 1) / chunkPartitions));
+    }
+
+    private ChunkedSum(RangeSum kernel, int start, int end, int chunkPartitions, int firstChunk, int lastChunk) {
+        this.kernel = kernel;
+        this.start = start;
+        this.end = end;
+        this.chunkPartitions = chunkPartitions;
+        this.firstChunk = firstChunk;
+        this.lastChunk = lastChunk;
+    }
+
+    /**
+     * Sums the chunks of this task, splitting the work in halves until a single chunk remains.
+     *
+     * @return the sum of the function values of all chunks of this task
+     */
+    @Override
+    protected Double compute() {
+        if (lastChunk - firstChunk <= 1) {
+            int from = start + (int) ((long) firstChunk * chunkPartitions);
+            int to = (int) Math.min(end, from + (long) chunkPartitions);
+            return kernel.sum(from, to);
+        }
+        int middle = (firstChunk + lastChunk) >>> 1;
+        ChunkedSum left = new ChunkedSum(kernel, start, end, chunkPartitions, firstChunk, middle);
+        ChunkedSum right = new ChunkedSum(kernel, start, end, chunkPartitions, middle, lastChunk);
+        left.fork();
+        double rightSum = right.compute();
+        return left.join() + rightSum;
+    }
+}
@@ -0,0 +1,176 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Closed-form integrals and quadrature sums for polynomials f(x) = ax² + bx + c.
+ *
+ * For a polynomial of degree at most two the error of the rectangle (midpoint) rule and of the trapezoidal rule
+ * depends only on the constant second derivative f'' = 2a:
+ * <pre>
+ *   midpoint sum    M = I - a (B - A) h² / 12
+ *   trapezoidal sum T = I + a (B - A) h² / 6
+ * </pre>
+ * where I is the exact integral over [A, B] and h = (B - A) / n.
+ * These identities are exact, so both sums are computed in constant time for any number of partitions.
+ *
+ * For a {@link PolynomialFunction} of higher degree the Euler-Maclaurin formula has only finitely many non-zero terms,
+ * since the derivatives above the degree vanish, and is exact as well:
+ * <pre>
+ *   T = I + Σ B₂ₖ / (2k)! h²ᵏ (f⁽²ᵏ⁻¹⁾(B) - f⁽²ᵏ⁻¹⁾(A))
+ *   M = I + Σ B₂ₖ(½) / (2k)! h²ᵏ (f⁽²ᵏ⁻¹⁾(B) - f⁽²ᵏ⁻¹⁾(A)),   B₂ₖ(½) = (2¹⁻²ᵏ - 1) B₂ₖ
+ * </pre>
+ * with the Bernoulli numbers B₂ₖ, summed for 2k - 1 up to the degree.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+final class ClosedFormIntegrals {
+
+    /**
+     * Smallest number of partitions for which the sums of polynomials of degree above two are calculated
+     * with the Euler-Maclaurin formula. For a few wide partitions its terms can be much larger than the sum
+     * and cancel, while evaluating so few points directly is cheap anyway.
+     */
+    static final int MIN_EULER_MACLAURIN_PARTITIONS = 1024;
+
+    /** Bernoulli numbers B₂, B₄, ..., B₃₀, enough for the derivatives of a polynomial of degree {@link PolynomialFunction#MAX_DEGREE}. */
+    private static final double[] BERNOULLI = {
+        1.0 / 6, -1.0 / 30, 1.0 / 42, -1.0 / 30, 5.0 / 66, -691.0 / 2730, 7.0 / 6, -3617.0 / 510,
+        43867.0 / 798, -174611.0 / 330, 854513.0 / 138, -236364091.0 / 2730, 8553103.0 / 6,
+        -23749461029.0 / 870, 8615841276005.0 / 14322
+    };
+
+    private ClosedFormIntegrals() {
+    }
+
+    /**
+     * Calculates the exact integral of the polynomial over [lowerBound, upperBound].
+     * The antiderivative differences are factored by (B - A), which avoids cancellation for narrow intervals far from zero.
+     *
+     * @param data the coefficients of the polynomial
+     * @param lowerBound the lower bound A
+     * @param upperBound the upper bound B
+     * @return the exact integral
+     */
+    static double exact(FunctionData data, double lowerBound, double upperBound) {
+        double width = upperBound - lowerBound;
+        // (B³ - A³) / 3 = (B - A)(B² + AB + A²) / 3 and (B² - A²) / 2 = (B - A)(B + A) / 2
+        double squares = upperBound * upperBound + upperBound * lowerBound + lowerBound * lowerBound;
+        return width * (data.a() * squares / 3 + data.b() * (upperBound + lowerBound) / 2 + data.c());
+    }
+
+    /**
+     * Calculates the value the rectangle (midpoint) method gives for the polynomial.
+     *
+     * @param data the coefficients of the polynomial
+     * @param params the validated integration parameters
+     * @return the rectangle method result
+     */
+    static double rectangle(FunctionData data, IntegrationParameters params) {
+        double width = params.upperBound() - params.lowerBound();
+        double h = width / params.partitions();
+        return exact(data, params.lowerBound(), params.upperBound()) - data.a() * width * h * h / 12;
+    }
+
+    /**
+     * Calculates the value the trapezoidal method gives for the polynomial.
+     *
+     * @param data the coefficients of the polynomial
+     * @param params the validated integration parameters
+     * @return the trapezoidal method result
+     */
+    static double trapezoid(FunctionData data, IntegrationParameters params) {
+        double width = params.upperBound() - params.lowerBound();
+        double h = width / params.partitions();
+        return exact(data, params.lowerBound(), params.upperBound()) + data.a() * width * h * h / 6;
+    }
+
+    /**
+     * Calculates the exact integral of a polynomial of any degree over [lowerBound, upperBound].
+     * Like for quadratic functions, every difference Bᵏ⁺¹ - Aᵏ⁺¹ is factored by (B - A); the remaining factors
+     * sₖ = (Bᵏ - Aᵏ) / (B - A) follow the recurrence sₖ₊₁ = B sₖ + Aᵏ.
+     *
+     * @param coefficients the coefficients indexed by the power of x
+     * @param lowerBound the lower bound A
+     * @param upperBound the upper bound B
+     * @return the exact integral
+     */
+    static double exact(double[] coefficients, double lowerBound, double upperBound) {
+        double sum = 0;
+        double factor = 1;
+        double power = 1;
+        for (int i = 0; i < coefficients.length; i++) {
+            sum += coefficients[i] * factor / (i + 1);
+            power *= lowerBound;
+            factor = upperBound * factor + power;
+        }
+        return (upperBound - lowerBound) * sum;
+    }
+
+    /**
+     * Calculates the value the rectangle (midpoint) method gives for a polynomial of any degree.
+     *
+     * @param coefficients the coefficients indexed by the power of x
+     * @param params the validated integration parameters
+     * @return the rectangle method result
+     */
+    static double rectangle(double[] coefficients, IntegrationParameters params) {
+        return eulerMaclaurin(coefficients, params, true);
+    }
+
+    /**
+     * Calculates the value the trapezoidal method gives for a polynomial of any degree.
+     *
+     * @param coefficients the coefficients indexed by the power of x
+     * @param params the validated integration parameters
+     * @return the trapezoidal method result
+     */
+    static double trapezoid(double[] coefficients, IntegrationParameters params) {
+        return eulerMaclaurin(coefficients, params, false);
+    }
+
+    /**
+     * Adds the Euler-Maclaurin corrections to the exact integral.
+     * The derivatives are taken from the Taylor coefficients tⱼ = f⁽ʲ⁾(x) / j! at both bounds,
+     * so the term of B₂ₖ is B₂ₖ / (2k) h²ᵏ (t₂ₖ₋₁(B) - t₂ₖ₋₁(A)).
+     *
+     * @param coefficients the coefficients indexed by the power of x
+     * @param params the validated integration parameters
+     * @param midpoint whether the midpoint sum is calculated instead of the trapezoidal sum
+     * @return the sum of the method
+     */
+    private static double eulerMaclaurin(double[] coefficients, IntegrationParameters params, boolean midpoint) {
+        double lowerBound = params.lowerBound();
+        double upperBound = params.upperBound();
+        double h = (upperBound - lowerBound) / params.partitions();
+        double[] upper = taylor(coefficients, upperBound);
+        double[] lower = taylor(coefficients, lowerBound);
+        double correction = 0;
+        double h2 = h * h;
+        double hPower = h2;
+        double midpointFactor = 0.5;
+        for (int k = 1; 2 * k - 1 < coefficients.length; k++) {
+            double term = BERNOULLI[k - 1] / (2 * k) * hPower * (upper[2 * k - 1] - lower[2 * k - 1]);
+            correction += midpoint ? (midpointFactor - 1) * term : term;
+            hPower *= h2;
+            midpointFactor /= 4;
+        }
+        return exact(coefficients, lowerBound, upperBound) + correction;
+    }
+
+    /**
+     * Calculates the Taylor coefficients of a polynomial at a point by repeated synthetic division.
+     *
+     * @param coefficients the coefficients indexed by the power of x
+     * @param x the point
+     * @return the coefficients tⱼ = f⁽ʲ⁾(x) / j! of the polynomial in powers of (t - x)
+     */
+    private static double[] taylor(double[] coefficients, double x) {
+        double[] shifted = coefficients.clone();
+        for (int j = 0; j < shifted.length - 1; j++) {
+            for (int i = shifted.length - 2; i >= j; i--) {
+                shifted[i] += x * shifted[i + 1];
+            }
+        }
+        return shifted;
+    }
+}
@@ -0,0 +1,54 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the configuration of an {@link IntegrationEngine}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ *
+ * The use of a record ensures immutability, so the settings cannot change while the engine is in use.
+ *
+ * @param parallelThreshold The number of partitions from which an integration is split into chunks
+ *                          and evaluated in parallel.
+ * @param chunkPartitions The number of partitions evaluated by one parallel task.
+ * @param parallelism The number of worker threads of the engine's own fork/join pool;
+ *                    1 disables parallel integration.
+ * @param closedForm Whether linear, quadratic and polynomial functions are integrated with the closed-form
+ *                   formulas of the rectangle and trapezoidal sums instead of evaluating every partition.
+ */
+public record EngineSettings(int parallelThreshold, int chunkPartitions, int parallelism, boolean closedForm) {
+
+    /** Default number of partitions from which an integration runs in parallel. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+    /** Default number of partitions evaluated by one parallel task. */
+    public static final int DEFAULT_CHUNK_PARTITIONS = 1 << 16;
+
+    /**
+     * Validates the settings.
+     *
+     * @throws IllegalArgumentException if any of the values is not positive.
+     */
+    public EngineSettings {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be a positive number.");
+        }
+        if (chunkPartitions <= 0) {
+            throw new IllegalArgumentException("Number of partitions per chunk must be a positive number.");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be a positive number.");
+        }
+    }
+
+    /**
+     * Returns the default settings, using one worker thread per available processor
+     * and the closed-form formulas for polynomials.
+     *
+     * @return the default settings
+     */
+    public static EngineSettings defaults() {
+        return new EngineSettings(DEFAULT_PARALLEL_THRESHOLD, DEFAULT_CHUNK_PARTITIONS,
+                Runtime.getRuntime().availableProcessors(), true);
+    }
+}
@@ -0,0 +1,13 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the outcome of a tolerance-driven integration method.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ * 
+ * @param value The approximated value of the integral.
+ * @param errorEstimate The estimated absolute error of the value.
+ * @param evaluations The number of function evaluations performed.
+ */
+public record Estimate(double value, double errorEstimate, long evaluations) { }
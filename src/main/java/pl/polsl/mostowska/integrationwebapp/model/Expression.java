@@ -0,0 +1,267 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Syntax tree of a user-defined expression in the variable x, created by {@link ExpressionParser}.
+ * The tree is only walked when an expression is compiled by {@link ExpressionCompiler};
+ * {@link #evaluate(double)} interprets it directly and serves as the reference for the compiled code.
+ * {@link #toString()} returns the normalized text of the expression, fully parenthesized and without spaces,
+ * so equivalent spellings of an expression share one compiled function.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+sealed interface Expression {
+
+    /**
+     * Evaluates the expression by walking the tree.
+     *
+     * @param x the value of the variable
+     * @return the value of the expression
+     */
+    double evaluate(double x);
+
+    /**
+     * A number.
+     *
+     * @param value The value of the number.
+     */
+    record Constant(double value) implements Expression {
+        @Override
+        public double evaluate(double x) {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    /**
+     * The variable x.
+     */
+    record Variable() implements Expression {
+        @Override
+        public double evaluate(double x) {
+            return x;
+        }
+
+        @Override
+        public String toString() {
+            return "x";
+        }
+    }
+
+    /**
+     * The negation of an expression.
+     *
+     * @param operand The negated expression.
+     */
+    record Negation(Expression operand) implements Expression {
+        @Override
+        public double evaluate(double x) {
+            return -operand.evaluate(x);
+        }
+
+        @Override
+        public String toString() {
+            return "(-" + operand + ")";
+        }
+    }
+
+    /**
+     * An addition, subtraction, multiplication or division.
+     *
+     * @param operator The operator: '+', '-', '*' or '/'.
+     * @param left The left operand.
+     * @param right The right operand.
+     */
+    record Binary(char operator, Expression left, Expression right) implements Expression {
+        @Override
+        public double evaluate(double x) {
+            double l = left.evaluate(x);
+            double r = right.evaluate(x);
+            return switch (operator) {
+                case '+' -> l + r;
+                case '-' -> l - r;
+                case '*' -> l * r;
+                default -> l / r;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + operator + right + ")";
+        }
+    }
+
+    /**
+     * A power. Small integer exponents are calculated by multiplication, the others by {@link Math#pow(double, double)}.
+     *
+     * @param base The base.
+     * @param exponent The exponent.
+     */
+    record Power(Expression base, Expression exponent) implements Expression {
+        @Override
+        public double evaluate(double x) {
+            double b = base.evaluate(x);
+            return switch (integerExponent()) {
+                case 2 -> b * b;
+                case 3 -> b * (b * b);
+                case 4 -> {
+                    double square = b * b;
+                    yield square * square;
+                }
+                default -> Math.pow(b, exponent.evaluate(x));
+            };
+        }
+
+        /**
+         * Returns the exponent if it is the constant 2, 3 or 4.
+         *
+         * @return the exponent, or 0 if it is another expression
+         */
+        int integerExponent() {
+            if (exponent instanceof Constant constant) {
+                double value = constant.value();
+                if (value == 2 || value == 3 || value == 4) {
+                    return (int) value;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + base + "^" + exponent + ")";
+        }
+    }
+
+    /**
+     * A call of a function of {@link Math}.
+     *
+     * @param function The called function.
+     * @param arguments The arguments, as many as the function takes.
+     */
+    record Call(MathFunction function, List<Expression> arguments) implements Expression {
+
+        /**
+         * Creates a call.
+         *
+         * @throws IllegalArgumentException if the number of arguments does not match the function.
+         */
+        public Call {
+            arguments = List.copyOf(arguments);
+            if (arguments.size() != function.getArity()) {
+                throw new IllegalArgumentException("Function " + function.getName() + " takes "
+                        + function.getArity() + " argument(s).");
+            }
+        }
+
+        @Override
+        public double evaluate(double x) {
+            return function.getArity() == 1
+                    ? function.apply(arguments.get(0).evaluate(x))
+                    : function.apply(arguments.get(0).evaluate(x), arguments.get(1).evaluate(x));
+        }
+
+        @Override
+        public String toString() {
+            return function.getName() + arguments.stream().map(Expression::toString).collect(Collectors.joining(",", "(", ")"));
+        }
+    }
+
+    /**
+     * Enumeration of the functions that can be called in an expression, all implemented by {@link Math}.
+     */
+    enum MathFunction {
+        SIN("sin", "sin", Math::sin),
+        COS("cos", "cos", Math::cos),
+        TAN("tan", "tan", Math::tan),
+        ASIN("asin", "asin", Math::asin),
+        ACOS("acos", "acos", Math::acos),
+        ATAN("atan", "atan", Math::atan),
+        SINH("sinh", "sinh", Math::sinh),
+        COSH("cosh", "cosh", Math::cosh),
+        TANH("tanh", "tanh", Math::tanh),
+        EXP("exp", "exp", Math::exp),
+        LOG("log", "log", Math::log),
+        LOG10("log10", "log10", Math::log10),
+        SQRT("sqrt", "sqrt", Math::sqrt),
+        CBRT("cbrt", "cbrt", Math::cbrt),
+        ABS("abs", "abs", Math::abs),
+        FLOOR("floor", "floor", Math::floor),
+        CEIL("ceil", "ceil", Math::ceil),
+        POW("pow", "pow", Math::pow),
+        ATAN2("atan2", "atan2", Math::atan2),
+        HYPOT("hypot", "hypot", Math::hypot),
+        MIN("min", "min", Math::min),
+        MAX("max", "max", Math::max);
+
+        /** Name of the function in expressions. */
+        private final String name;
+        /** Name of the static method of {@link Math}. */
+        private final String methodName;
+        /** Implementation of a function of one argument, or null. */
+        private final DoubleUnaryOperator unary;
+        /** Implementation of a function of two arguments, or null. */
+        private final DoubleBinaryOperator binary;
+
+        MathFunction(String name, String methodName, DoubleUnaryOperator unary) {
+            this.name = name;
+            this.methodName = methodName;
+            this.unary = unary;
+            this.binary = null;
+        }
+
+        MathFunction(String name, String methodName, DoubleBinaryOperator binary) {
+            this.name = name;
+            this.methodName = methodName;
+            this.unary = null;
+            this.binary = binary;
+        }
+
+        /**
+         * Finds the function with the given name; "ln" is accepted for the natural logarithm.
+         *
+         * @param name the name used in the expression
+         * @return the function, or null if there is none
+         */
+        static MathFunction fromName(String name) {
+            if ("ln".equals(name)) {
+                return LOG;
+            }
+            for (MathFunction function : values()) {
+                if (function.name.equals(name)) {
+                    return function;
+                }
+            }
+            return null;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getMethodName() {
+            return methodName;
+        }
+
+        int getArity() {
+            return unary != null ? 1 : 2;
+        }
+
+        double apply(double argument) {
+            return unary.applyAsDouble(argument);
+        }
+
+        double apply(double first, double second) {
+            return binary.applyAsDouble(first, second);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiles expressions into subclasses of {@link ExpressionFunction}.
+ *
+ * For every expression a class file is generated whose {@code evaluate(double)} method evaluates the syntax tree
+ * with JVM double arithmetic and calls of {@link Math}, and it is loaded as a hidden class in this package.
+ * The generated code has no branches, so it needs no stack map frames. Hidden classes are unloaded when their
+ * function is no longer used, so evicting a function from the cache releases its class.
+ *
+ * The most recently used functions are cached by the normalized text of their expression.
+ * The class is thread-safe.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+final class ExpressionCompiler {
+
+    /** Number of cached compiled functions. */
+    static final int CACHE_SIZE = 256;
+
+    private static final String CLASS_NAME = "pl/polsl/mostowska/integrationwebapp/model/CompiledExpression";
+    private static final String SUPER_NAME = "pl/polsl/mostowska/integrationwebapp/model/ExpressionFunction";
+
+    // Opcodes of the generated code
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int LDC2_W = 0x14;
+    private static final int DLOAD_1 = 0x27;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int DUP2 = 0x5c;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DNEG = 0x77;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+
+    /** Compiled functions by normalized expression, least recently used first. */
+    private static final Map<String, ExpressionFunction> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ExpressionFunction> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Returns the compiled function of an expression, compiling it if it is not cached.
+     *
+     * @param text the text of the expression
+     * @return the compiled function
+     * @throws IllegalArgumentException if the expression is not valid or its normalized text is too long
+     */
+    static ExpressionFunction compile(String text) {
+        Expression expression = ExpressionParser.parse(text);
+        String normalized = expression.toString();
+        // The normalized text names the stored function, so it has to fit the name column
+        if (normalized.length() > ExpressionParser.MAX_LENGTH) {
+            throw new IllegalArgumentException("Normalized expression cannot be longer than " + ExpressionParser.MAX_LENGTH + " characters.");
+        }
+        return CACHE.computeIfAbsent(normalized, key -> define(expression, key));
+    }
+
+    /**
+     * Returns the number of cached functions.
+     *
+     * @return the size of the cache
+     */
+    static int cachedFunctions() {
+        return CACHE.size();
+    }
+
+    /**
+     * Generates, loads and instantiates the class of an expression.
+     *
+     * @param expression the syntax tree
+     * @param normalized the normalized text of the expression
+     * @return the compiled function
+     */
+    private static ExpressionFunction define(Expression expression, String normalized) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile(expression), true);
+            return (ExpressionFunction) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, String.class))
+                    .invoke(normalized);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Expression could not be compiled: " + normalized, e);
+        }
+    }
+
+    /**
+     * Generates the class file of an expression.
+     *
+     * @param expression the syntax tree
+     * @return the bytes of the class file
+     */
+    static byte[] classFile(Expression expression) {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef(SUPER_NAME);
+        int superInit = pool.methodRef(SUPER_NAME, "<init>", "(Ljava/lang/String;)V");
+        int initName = pool.utf8("<init>");
+        int initType = pool.utf8("(Ljava/lang/String;)V");
+        int evaluateName = pool.utf8("evaluate");
+        int evaluateType = pool.utf8("(D)D");
+        int codeName = pool.utf8("Code");
+
+        ByteArrayOutputStream init = new ByteArrayOutputStream();
+        init.write(ALOAD_0);
+        init.write(ALOAD_1);
+        init.write(INVOKESPECIAL);
+        writeShort(init, superInit);
+        init.write(RETURN);
+
+        ByteArrayOutputStream evaluate = new ByteArrayOutputStream();
+        emit(expression, evaluate, pool);
+        evaluate.write(DRETURN);
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            pool.writeTo(out);
+            out.writeShort(0x0031); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces, implemented by the superclass
+            out.writeShort(0); // fields
+            out.writeShort(2); // methods
+            writeMethod(out, initName, initType, codeName, 2, 2, init.toByteArray());
+            // The operand stack holds doubles of two words each; locals are this and x
+            writeMethod(out, evaluateName, evaluateType, codeName, maxStack(expression), 3, evaluate.toByteArray());
+            out.writeShort(0); // class attributes
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Emits the code leaving the value of an expression on the operand stack.
+     *
+     * @param expression the expression
+     * @param code the code of the method
+     * @param pool the constant pool of the class
+     */
+    private static void emit(Expression expression, ByteArrayOutputStream code, ConstantPool pool) {
+        switch (expression) {
+            case Expression.Constant constant -> {
+                long bits = Double.doubleToRawLongBits(constant.value());
+                if (bits == Double.doubleToRawLongBits(0.0)) {
+                    code.write(DCONST_0);
+                } else if (bits == Double.doubleToRawLongBits(1.0)) {
+                    code.write(DCONST_1);
+                } else {
+                    code.write(LDC2_W);
+                    writeShort(code, pool.doubleConstant(constant.value()));
+                }
+            }
+            case Expression.Variable variable -> code.write(DLOAD_1);
+            case Expression.Negation negation -> {
+                emit(negation.operand(), code, pool);
+                code.write(DNEG);
+            }
+            case Expression.Binary binary -> {
+                emit(binary.left(), code, pool);
+                emit(binary.right(), code, pool);
+                code.write(switch (binary.operator()) {
+                    case '+' -> DADD;
+                    case '-' -> DSUB;
+                    case '*' -> DMUL;
+                    default -> DDIV;
+                });
+            }
+            case Expression.Power power -> {
+                emit(power.base(), code, pool);
+                switch (power.integerExponent()) {
+                    case 2 -> {
+                        code.write(DUP2);
+                        code.write(DMUL);
+                    }
+                    case 3 -> {
+                        code.write(DUP2);
+                        code.write(DUP2);
+                        code.write(DMUL);
+                        code.write(DMUL);
+                    }
+                    case 4 -> {
+                        code.write(DUP2);
+                        code.write(DMUL);
+                        code.write(DUP2);
+                        code.write(DMUL);
+                    }
+                    default -> {
+                        emit(power.exponent(), code, pool);
+                        code.write(INVOKESTATIC);
+                        writeShort(code, pool.methodRef("java/lang/Math", "pow", "(DD)D"));
+                    }
+                }
+            }
+            case Expression.Call call -> {
+                call.arguments().forEach(argument -> emit(argument, code, pool));
+                code.write(INVOKESTATIC);
+                writeShort(code, pool.methodRef("java/lang/Math", call.function().getMethodName(),
+                        call.function().getArity() == 1 ? "(D)D" : "(DD)D"));
+            }
+        }
+    }
+
+    /**
+     * Calculates the largest number of operand stack words used while evaluating an expression.
+     *
+     * @param expression the expression
+     * @return the maximum stack size in words
+     */
+    static int maxStack(Expression expression) {
+        return switch (expression) {
+            case Expression.Constant constant -> 2;
+            case Expression.Variable variable -> 2;
+            case Expression.Negation negation -> maxStack(negation.operand());
+            case Expression.Binary binary -> Math.max(maxStack(binary.left()), 2 + maxStack(binary.right()));
+            case Expression.Power power -> switch (power.integerExponent()) {
+                case 2, 4 -> Math.max(maxStack(power.base()), 4);
+                case 3 -> Math.max(maxStack(power.base()), 6);
+                default -> Math.max(maxStack(power.base()), 2 + maxStack(power.exponent()));
+            };
+            case Expression.Call call -> {
+                int max = 2;
+                for (int i = 0; i < call.arguments().size(); i++) {
+                    max = Math.max(max, 2 * i + maxStack(call.arguments().get(i)));
+                }
+                yield max;
+            }
+        };
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int type, int codeName,
+            int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(type);
+        out.writeShort(1); // attributes
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // code attributes
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Constant pool of a generated class, reusing equal entries.
+     */
+    private static final class ConstantPool {
+        private static final int UTF8 = 1;
+        private static final int DOUBLE = 6;
+        private static final int CLASS = 7;
+        private static final int METHOD_REF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        /** Index of the next entry; entries are numbered from 1. */
+        private int next = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, 1, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String name) {
+            int nameIndex = utf8(name);
+            return entry("C" + name, 1, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + descriptor, 1, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + owner + "." + name + descriptor, 1, () -> {
+                out.writeByte(METHOD_REF);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        int doubleConstant(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            // A double takes two entries of the pool
+            return entry("D" + bits, 2, () -> {
+                out.writeByte(DOUBLE);
+                out.writeLong(bits);
+            });
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(next);
+            target.write(bytes.toByteArray());
+        }
+
+        private int entry(String key, int size, Writer writer) {
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            int added = next;
+            next += size;
+            indexes.put(key, added);
+            return added;
+        }
+
+        @FunctionalInterface
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+}
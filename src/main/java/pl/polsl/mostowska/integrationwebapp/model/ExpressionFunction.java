@@ -0,0 +1,51 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import lombok.Getter;
+
+/**
+ * Function defined by a user expression in the variable x, such as {@code sin(x)*exp(-x^2)}.
+ *
+ * Instances are created by {@link #compile(String)}, which parses the expression and generates a class
+ * whose {@link #evaluate(double)} method contains the arithmetic of the expression as plain bytecode.
+ * The JIT compiler therefore optimizes it like a hand-written function, without walking a syntax tree
+ * on every evaluation. Every distinct expression is compiled once and cached by its normalized text.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public abstract class ExpressionFunction implements FunctionModel {
+
+    /** Normalized text of the expression, fully parenthesized and without spaces. */
+    @Getter
+    private final String expression;
+
+    /**
+     * Creates the function; called by the generated subclasses.
+     *
+     * @param expression the normalized text of the expression
+     */
+    protected ExpressionFunction(String expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Returns the compiled function of an expression, compiling it on first use.
+     *
+     * @param expression the text of the expression in the variable x
+     * @return the compiled function
+     * @throws IllegalArgumentException if the expression is empty, too long or not valid
+     */
+    public static ExpressionFunction compile(String expression) {
+        return ExpressionCompiler.compile(expression);
+    }
+
+    /**
+     * Returns the normalized text of the expression.
+     *
+     * @return the expression
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
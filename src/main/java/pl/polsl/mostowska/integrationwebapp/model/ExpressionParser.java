@@ -0,0 +1,241 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive descent parser of user-defined expressions in the variable x.
+ *
+ * The grammar, from the lowest to the highest precedence:
+ * <pre>
+ *   expression := term (('+' | '-') term)*
+ *   term       := unary (('*' | '/') unary)*
+ *   unary      := ('-' | '+') unary | power
+ *   power      := primary ('^' unary)?
+ *   primary    := number | 'x' | 'pi' | 'e' | name '(' expression (',' expression)* ')' | '(' expression ')'
+ * </pre>
+ * The power is right-associative and binds tighter than the unary minus, so {@code -x^2} is {@code -(x^2)}.
+ * The available functions are listed by {@link Expression.MathFunction}.
+ * Subexpressions without x are folded into constants while parsing.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+final class ExpressionParser {
+
+    /** Longest accepted expression text. */
+    static final int MAX_LENGTH = 1000;
+
+    /** Deepest accepted nesting of parentheses, function calls and operators. */
+    static final int MAX_DEPTH = 100;
+
+    /** Text being parsed. */
+    private final String text;
+
+    /** Position of the next character. */
+    private int position;
+
+    /** Current nesting depth. */
+    private int depth;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses an expression.
+     *
+     * @param text the text of the expression, e.g. {@code sin(x)*exp(-x^2)}
+     * @return the syntax tree of the expression
+     * @throws IllegalArgumentException if the text is empty, too long or not a valid expression
+     */
+    static Expression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Expression cannot be empty.");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Expression cannot be longer than " + MAX_LENGTH + " characters.");
+        }
+        ExpressionParser parser = new ExpressionParser(text);
+        Expression expression = parser.expression();
+        parser.skipSpaces();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected character '" + text.charAt(parser.position) + "'");
+        }
+        return expression;
+    }
+
+    private Expression expression() {
+        enter();
+        Expression left = term();
+        while (true) {
+            if (accept('+')) {
+                left = fold(new Expression.Binary('+', left, term()));
+            } else if (accept('-')) {
+                left = fold(new Expression.Binary('-', left, term()));
+            } else {
+                depth--;
+                return left;
+            }
+        }
+    }
+
+    private Expression term() {
+        Expression left = unary();
+        while (true) {
+            if (accept('*')) {
+                left = fold(new Expression.Binary('*', left, unary()));
+            } else if (accept('/')) {
+                left = fold(new Expression.Binary('/', left, unary()));
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression unary() {
+        enter();
+        Expression result;
+        if (accept('-')) {
+            result = fold(new Expression.Negation(unary()));
+        } else if (accept('+')) {
+            result = unary();
+        } else {
+            result = power();
+        }
+        depth--;
+        return result;
+    }
+
+    private Expression power() {
+        Expression base = primary();
+        if (accept('^')) {
+            return fold(new Expression.Power(base, unary()));
+        }
+        return base;
+    }
+
+    private Expression primary() {
+        skipSpaces();
+        if (position >= text.length()) {
+            throw error("Unexpected end");
+        }
+        char ch = text.charAt(position);
+        if (ch == '(') {
+            position++;
+            Expression inner = expression();
+            expect(')');
+            return inner;
+        }
+        if (Character.isDigit(ch) || ch == '.') {
+            return number();
+        }
+        if (Character.isLetter(ch)) {
+            int start = position;
+            while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            String name = text.substring(start, position);
+            switch (name) {
+                case "x":
+                    return new Expression.Variable();
+                case "pi":
+                    return new Expression.Constant(Math.PI);
+                case "e":
+                    return new Expression.Constant(Math.E);
+                default:
+                    break;
+            }
+            Expression.MathFunction function = Expression.MathFunction.fromName(name);
+            if (function == null) {
+                position = start;
+                throw error("Unknown name '" + name + "'");
+            }
+            expect('(');
+            List<Expression> arguments = new ArrayList<>(2);
+            arguments.add(expression());
+            while (accept(',')) {
+                arguments.add(expression());
+            }
+            expect(')');
+            return fold(new Expression.Call(function, arguments));
+        }
+        throw error("Unexpected character '" + ch + "'");
+    }
+
+    private Expression number() {
+        int start = position;
+        while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+            position++;
+        }
+        // An exponent is only read if digits follow, so that "2*e" keeps the constant e
+        if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            int exponent = position + 1;
+            if (exponent < text.length() && (text.charAt(exponent) == '+' || text.charAt(exponent) == '-')) {
+                exponent++;
+            }
+            if (exponent < text.length() && Character.isDigit(text.charAt(exponent))) {
+                position = exponent;
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+            }
+        }
+        try {
+            return new Expression.Constant(Double.parseDouble(text.substring(start, position)));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number");
+        }
+    }
+
+    /**
+     * Replaces an expression without the variable by its value.
+     *
+     * @param expression the expression whose operands have been folded already
+     * @return a constant, or the same expression if it depends on x
+     */
+    private static Expression fold(Expression expression) {
+        boolean constant = switch (expression) {
+            case Expression.Negation negation -> negation.operand() instanceof Expression.Constant;
+            case Expression.Binary binary -> binary.left() instanceof Expression.Constant
+                    && binary.right() instanceof Expression.Constant;
+            case Expression.Power power -> power.base() instanceof Expression.Constant
+                    && power.exponent() instanceof Expression.Constant;
+            case Expression.Call call -> call.arguments().stream().allMatch(Expression.Constant.class::isInstance);
+            default -> false;
+        };
+        return constant ? new Expression.Constant(expression.evaluate(0)) : expression;
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Expression is nested too deeply");
+        }
+    }
+
+    private boolean accept(char expected) {
+        skipSpaces();
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private void skipSpaces() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + (position + 1) + " of the expression.");
+    }
+}
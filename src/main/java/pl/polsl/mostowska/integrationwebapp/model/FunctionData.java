@@ -6,12 +6,25 @@ package pl.polsl.mostowska.integrationwebapp.model;
  * which could be applied, for example, in a quadratic function: f(x) = ax² + bx + c.
  * 
  * @author Wiktoria Mostowska
- * @version 1.0
+ * @version 1.1
  * 
  * The use of a record in Java provides an immutable and concise representation of data.
+ * The coefficients are validated once here, so functions built from them do not check them on every evaluation.
  * 
  * @param a Coefficient for the quadratic term (x²).
  * @param b Coefficient for the linear term (x).
  * @param c Constant term.
  */
-public record FunctionData(double a, double b, double c) { }
+public record FunctionData(double a, double b, double c) {
+
+    /**
+     * Validates the coefficients.
+     * 
+     * @throws IllegalArgumentException if any of the coefficients is NaN or infinite.
+     */
+    public FunctionData {
+        if (!Double.isFinite(a) || !Double.isFinite(b) || !Double.isFinite(c)) {
+            throw new IllegalArgumentException("Coefficients a, b, and c cannot be NaN or infinite.");
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package pl.polsl.mostowska.integrationwebapp.model;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,12 +17,20 @@ import java.util.List;
 /**
  * Entity class representing a mathematical function.
  * This class is used to store the parameters of a function in the database.
+ * Every function is stored once, enforced by a unique constraint on its name and coefficients,
+ * see {@link FunctionRepository}. The coefficients are indexed, so stored results can be found
+ * by the function they belong to. User-defined expression functions are stored with their normalized expression
+ * as the name and zero coefficients, see {@link ExpressionFunction}.
+ * Polynomial functions are stored with their text as the name, their coefficients of x², x and 1 as a, b and c,
+ * and all coefficients packed into a binary column, see {@link PolynomialFunction#pack()}.
  * 
  * @author Wiktoria Mostowska
- * @version 1.0
+ * @version 1.3
  */
 @Entity
-@Table(name = "Functions")
+@Table(name = "Functions",
+        uniqueConstraints = @UniqueConstraint(name = "UQ_FUNCTIONS", columnNames = {"functionName", "a", "b", "c"}),
+        indexes = @Index(name = "IDX_FUNCTIONS_COEFFICIENTS", columnList = "a, b, c"))
 public class FunctionEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -27,11 +38,15 @@ public class FunctionEntity implements Serializable {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
     
+    @Column(length = 1000)
     private String functionName;
     private Double a;
     private Double b;
     private Double c;
 
+    @Column(length = PolynomialFunction.MAX_PACKED_LENGTH)
+    private byte[] coefficients;
+
     @OneToMany(mappedBy = "function", cascade = CascadeType.ALL)
     private List<ResultsEntity> results = new ArrayList<>();
 
@@ -125,6 +140,34 @@ public class FunctionEntity implements Serializable {
         this.c = c;
     }
 
+    /**
+     * Gets the packed coefficients of a polynomial function.
+     * 
+     * @return the packed coefficients, or null if the function is not a polynomial function
+     */
+    public byte[] getCoefficients() {
+        return coefficients;
+    }
+
+    /**
+     * Sets the packed coefficients of a polynomial function.
+     * 
+     * @param coefficients the packed coefficients, or null if the function is not a polynomial function
+     */
+    public void setCoefficients(byte[] coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Reads the polynomial function from its packed coefficients.
+     * 
+     * @return the polynomial function, or null if the function is not a polynomial function
+     * @throws IllegalArgumentException if the packed coefficients are corrupted
+     */
+    public PolynomialFunction toPolynomial() {
+        return coefficients == null ? null : PolynomialFunction.unpack(coefficients);
+    }
+
     /**
      * Gets the list of results associated with this function.
      * 
@@ -0,0 +1,184 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores every distinct function once in the {@code Functions} table and remembers the ids of recently used functions.
+ * The table has a unique constraint on (functionName, a, b, c). A function is first looked up through that index
+ * and only inserted if it is missing; if a concurrent request inserts the same function first, the unique constraint
+ * rejects the second insert and the row of the first one is used.
+ * Polynomial functions are stored under their text, which identifies them, together with the packed coefficients.
+ *
+ * The ids of the most recently used functions are cached, so a repeated function costs no database round trip.
+ * The class is thread-safe and is shared by all request threads.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public final class FunctionRepository {
+
+    /** Default number of cached function ids. */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    /** Factory of the entity managers used for the lookups and inserts. */
+    private final EntityManagerFactory emf;
+
+    /** Ids of the most recently used functions. */
+    private final Map<FunctionKey, Long> ids;
+
+    /**
+     * Creates a repository with the default id cache size.
+     *
+     * @param emf The factory of the entity managers.
+     */
+    public FunctionRepository(EntityManagerFactory emf) {
+        this(emf, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a repository.
+     *
+     * @param emf The factory of the entity managers.
+     * @param cacheSize The number of cached function ids.
+     * @throws IllegalArgumentException If the cache size is not positive.
+     */
+    public FunctionRepository(EntityManagerFactory emf, int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Size of the function id cache must be a positive number.");
+        }
+        this.emf = emf;
+        this.ids = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FunctionKey, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the id of the stored function, inserting the function if it is not stored yet.
+     *
+     * @param functionName The name of the function (e.g., "linear", "quadratic").
+     * @param a The coefficient a.
+     * @param b The coefficient b.
+     * @param c The coefficient c.
+     * @return The id of the function row.
+     * @throws PersistenceException If the function can be neither found nor inserted.
+     */
+    public Long findOrCreate(String functionName, double a, double b, double c) {
+        return findOrCreate(functionName, a, b, c, null);
+    }
+
+    /**
+     * Returns the id of the stored function, inserting the function with its packed coefficients if it is not stored yet.
+     * The packed coefficients are only written by the insert; the function is identified by its name and a, b and c.
+     *
+     * @param functionName The name of the function, the text of a polynomial function.
+     * @param a The coefficient a.
+     * @param b The coefficient b.
+     * @param c The coefficient c.
+     * @param coefficients The packed coefficients of a polynomial function, see {@link PolynomialFunction#pack()},
+     *                     or null for other functions.
+     * @return The id of the function row.
+     * @throws PersistenceException If the function can be neither found nor inserted.
+     */
+    public Long findOrCreate(String functionName, double a, double b, double c, byte[] coefficients) {
+        // Adding 0.0 turns -0.0 into 0.0, so both zeros share one row and one cache entry
+        FunctionKey key = new FunctionKey(functionName, a + 0.0, b + 0.0, c + 0.0);
+        Long id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        id = find(key);
+        if (id == null) {
+            id = insert(key, coefficients);
+        }
+        if (id == null) {
+            // Another request inserted the same function after the lookup
+            id = find(key);
+        }
+        if (id == null) {
+            throw new PersistenceException("Function " + functionName + " could not be stored.");
+        }
+        ids.put(key, id);
+        return id;
+    }
+
+    /**
+     * Returns the number of cached function ids.
+     *
+     * @return the number of cached ids
+     */
+    public int cachedIds() {
+        return ids.size();
+    }
+
+    /**
+     * Finds the id of a stored function through the unique index.
+     *
+     * @param key The function.
+     * @return The id of the function row, or null if it is not stored.
+     */
+    private Long find(FunctionKey key) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Long> found = em.createQuery("SELECT f.id FROM FunctionEntity f WHERE f.functionName = :functionName"
+                    + " AND f.a = :a AND f.b = :b AND f.c = :c", Long.class)
+                    .setParameter("functionName", key.functionName())
+                    .setParameter("a", key.a())
+                    .setParameter("b", key.b())
+                    .setParameter("c", key.c())
+                    .setMaxResults(1)
+                    .getResultList();
+            return found.isEmpty() ? null : found.get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Inserts a function in its own transaction.
+     *
+     * @param key The function.
+     * @param coefficients The packed coefficients, or null.
+     * @return The id of the new row, or null if the insert was rejected, e.g. by the unique constraint.
+     */
+    private Long insert(FunctionKey key, byte[] coefficients) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            FunctionEntity function = new FunctionEntity();
+            function.setFunctionName(key.functionName());
+            function.setA(key.a());
+            function.setB(key.b());
+            function.setC(key.c());
+            function.setCoefficients(coefficients);
+            em.getTransaction().begin();
+            em.persist(function);
+            em.getTransaction().commit();
+            return function.getId();
+        } catch (PersistenceException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            return null;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * The unique columns of a stored function.
+     *
+     * @param functionName The name of the function.
+     * @param a The coefficient a.
+     * @param b The coefficient b.
+     * @param c The coefficient c.
+     */
+    private record FunctionKey(String functionName, double a, double b, double c) { }
+}
@@ -0,0 +1,149 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.PriorityQueue;
+
+/**
+ * Implementation of the adaptive Gauss-Kronrod G7-K15 method.
+ * Every subinterval is integrated with the 15-point Kronrod rule, and the difference from the embedded
+ * 7-point Gauss rule, which reuses 7 of the 15 function values, serves as its error estimate.
+ * The subinterval with the largest error is bisected until the total error meets the tolerance
+ * or the number of subintervals reaches the number of partitions.
+ * 
+ * The rule is exact for polynomials up to degree 22, so smooth functions usually need a single subinterval.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class GaussKronrod extends AdaptiveIntegrationModel {
+
+    /** Kronrod nodes on [-1, 1] in decreasing order; the odd indices are the Gauss nodes. */
+    private static final double[] KRONROD_NODES = {
+        0.991455371120812639206854697526329,
+        0.949107912342758524526189684047851,
+        0.864864423359769072789712788640926,
+        0.741531185599394439863864773280788,
+        0.586087235467691130294144845693013,
+        0.405845151377397166906606412076961,
+        0.207784955007898467600689403773245,
+        0.0
+    };
+
+    /** Kronrod weights of the nodes above. */
+    private static final double[] KRONROD_WEIGHTS = {
+        0.022935322010529224963732008058970,
+        0.063092092629978553290700663189204,
+        0.104790010322250183839876322541518,
+        0.140653259715525918745189590510238,
+        0.169004726639267902826583426598550,
+        0.190350578064785409913256402421014,
+        0.204432940075298892414161999234649,
+        0.209482141084727828012999174891714
+    };
+
+    /** Gauss weights of the nodes at the odd indices above. */
+    private static final double[] GAUSS_WEIGHTS = {
+        0.129484966168869693270611432679082,
+        0.279705391489276667901467771423780,
+        0.381830050505118944950369775488975,
+        0.417959183673469387755102040816327
+    };
+
+    /** Number of function evaluations of the rule on one subinterval. */
+    private static final int RULE_EVALUATIONS = 15;
+
+    /**
+     * Integrates the function with the adaptive Gauss-Kronrod method.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     */
+    @Override
+    protected Estimate estimate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        return integrate(function, params, tolerance);
+    }
+
+    /**
+     * Integrates the function with the adaptive Gauss-Kronrod method without using the state of a model.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     * @throws IllegalStateException If the function is null.
+     */
+    static Estimate integrate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
+        // Subintervals ordered by decreasing error estimate
+        PriorityQueue<Segment> segments = new PriorityQueue<>((s1, s2) -> Double.compare(s2.error(), s1.error()));
+        Segment first = rule(function, params.lowerBound(), params.upperBound());
+        segments.add(first);
+        long evaluations = RULE_EVALUATIONS;
+        double value = first.value();
+        double error = first.error();
+
+        while (error > tolerance.target(value) && segments.size() < params.partitions()) {
+            Segment worst = segments.poll();
+            double middle = (worst.lowerBound() + worst.upperBound()) / 2;
+            if (middle <= worst.lowerBound() || middle >= worst.upperBound()) {
+                // The subinterval cannot be split any further in double precision
+                segments.add(worst);
+                break;
+            }
+            Segment left = rule(function, worst.lowerBound(), middle);
+            Segment right = rule(function, middle, worst.upperBound());
+            segments.add(left);
+            segments.add(right);
+            evaluations += 2 * RULE_EVALUATIONS;
+            value += left.value() + right.value() - worst.value();
+            error += left.error() + right.error() - worst.error();
+        }
+
+        // Sum again from scratch to drop the rounding errors of the running totals
+        value = 0;
+        error = 0;
+        for (Segment segment : segments) {
+            value += segment.value();
+            error += segment.error();
+        }
+        return new Estimate(value, error, evaluations);
+    }
+
+    /**
+     * Applies the G7-K15 rule to one subinterval.
+     * 
+     * @param function The function to integrate.
+     * @param lowerBound The lower bound of the subinterval.
+     * @param upperBound The upper bound of the subinterval.
+     * @return The subinterval with its Kronrod value and error estimate.
+     */
+    private static Segment rule(FunctionModel function, double lowerBound, double upperBound) {
+        double center = (lowerBound + upperBound) / 2;
+        double halfWidth = (upperBound - lowerBound) / 2;
+        double fc = function.evaluate(center);
+        double kronrod = KRONROD_WEIGHTS[7] * fc;
+        double gauss = GAUSS_WEIGHTS[3] * fc;
+        for (int j = 0; j < 7; j++) {
+            double dx = halfWidth * KRONROD_NODES[j];
+            double pair = function.evaluate(center - dx) + function.evaluate(center + dx);
+            kronrod += KRONROD_WEIGHTS[j] * pair;
+            if (j % 2 == 1) {
+                gauss += GAUSS_WEIGHTS[j / 2] * pair;
+            }
+        }
+        return new Segment(lowerBound, upperBound, kronrod * halfWidth, Math.abs((kronrod - gauss) * halfWidth));
+    }
+
+    /**
+     * A subinterval with its integral and error estimate.
+     * 
+     * @param lowerBound The lower bound of the subinterval.
+     * @param upperBound The upper bound of the subinterval.
+     * @param value The Kronrod estimate of the integral.
+     * @param error The estimated absolute error.
+     */
+    private record Segment(double lowerBound, double upperBound, double value, double error) { }
+}
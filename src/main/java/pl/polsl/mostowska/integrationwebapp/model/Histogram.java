@@ -0,0 +1,157 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative long values, such as latencies in nanoseconds or numbers of partitions,
+ * with log-linear buckets in the style of HdrHistogram.
+ * Every power of two is split into {@link #SUB_BUCKETS} buckets of equal width, so a value is known
+ * to within 1/{@value #SUB_BUCKETS} of itself over the whole range of long, with a fixed array of
+ * {@link #BUCKETS} counters and no configuration.
+ *
+ * Recording is lock-free: it finds the bucket with a few shifts and increments one element of an
+ * {@link AtomicLongArray}, so request threads never wait for each other or for a reader.
+ * A {@link Snapshot} copies the counters without stopping the recording, so its buckets may miss
+ * values recorded while it was taken, but its total count is always the sum of its buckets.
+ *
+ * Bucket i holds the values greater than the upper bound of bucket i - 1 and at most {@link #upperBound(int)},
+ * so counts up to a power of two are exact, as the le buckets of the Prometheus format require.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public final class Histogram {
+
+    /** Number of bits of a value, below its highest one, that select the bucket within a power of two. */
+    static final int SUB_BUCKET_BITS = 3;
+
+    /** Number of buckets per power of two. */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets covering all non-negative long values. */
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records a value; negative values are recorded as 0.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        counts.getAndIncrement(bucket(recorded));
+        sum.add(recorded);
+    }
+
+    /**
+     * Copies the current counters.
+     *
+     * @return The snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.sum());
+    }
+
+    /**
+     * Finds the bucket of a value.
+     * The values 0 to {@value #SUB_BUCKETS} have a bucket each; above them, the highest bit of value - 1
+     * selects the power of two and the next {@link #SUB_BUCKET_BITS} bits the bucket within it.
+     *
+     * @param value The non-negative value.
+     * @return The index of the bucket.
+     */
+    static int bucket(long value) {
+        // Shifting by one makes the upper bounds of the buckets inclusive
+        long shifted = Math.max(value - 1, 0);
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(shifted);
+        if (highestBit < SUB_BUCKET_BITS) {
+            return (int) shifted;
+        }
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (shifted >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the largest value held by a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The inclusive upper bound of the bucket; Long.MAX_VALUE for the last bucket.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1));
+        long bound = (subBucket + 1) << shift;
+        return bound <= 0 ? Long.MAX_VALUE : bound;
+    }
+
+    /**
+     * Represents the counters of a histogram at one moment.
+     *
+     * @param counts The number of values in every bucket.
+     * @param sum The sum of the recorded values.
+     */
+    public record Snapshot(long[] counts, long sum) {
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the total count of the buckets
+         */
+        public long count() {
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+            return count;
+        }
+
+        /**
+         * Counts the values that are at most the given bound.
+         * The count is exact if the bound is the upper bound of a bucket, such as a power of two;
+         * otherwise the values of the bucket containing the bound are not counted.
+         *
+         * @param bound The inclusive bound.
+         * @return the number of values at most the bound
+         */
+        public long countAtMost(long bound) {
+            long count = 0;
+            for (int i = 0; i < counts.length && upperBound(i) <= bound; i++) {
+                count += counts[i];
+            }
+            return count;
+        }
+
+        /**
+         * Estimates a percentile of the recorded values.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return the upper bound of the bucket holding the percentile, at most 1/{@value Histogram#SUB_BUCKETS}
+         *         above the exact value, or 0 if nothing has been recorded
+         * @throws IllegalArgumentException If the percentile is not between 0 and 100.
+         */
+        public long percentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count()));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
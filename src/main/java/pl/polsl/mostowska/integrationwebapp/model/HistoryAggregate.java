@@ -0,0 +1,17 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the aggregate of a group of stored results, calculated by the database.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ *
+ * @param group The value the results are grouped by (method, function name or number of partitions),
+ *              or null if they are not grouped.
+ * @param count The number of results.
+ * @param minResult The smallest result.
+ * @param maxResult The largest result.
+ * @param avgResult The average result.
+ */
+public record HistoryAggregate(Object group, long count, Double minResult, Double maxResult, Double avgResult) {
+}
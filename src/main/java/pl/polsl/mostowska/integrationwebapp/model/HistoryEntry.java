@@ -0,0 +1,29 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one stored result of the calculation history together with its function.
+ * Entries are created by a JPQL constructor expression, so reading them does not load managed entities.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ *
+ * @param id The id of the stored result.
+ * @param method The request name of the integration method.
+ * @param lowerBound The lower integration bound.
+ * @param upperBound The upper integration bound.
+ * @param partitions The number of partitions.
+ * @param result The calculated integral.
+ * @param errorEstimate The error estimate of an adaptive method, or null.
+ * @param evaluations The number of function evaluations, or null for results stored before it was recorded.
+ * @param function The name of the function.
+ * @param a The coefficient a.
+ * @param b The coefficient b.
+ * @param c The coefficient c.
+ * @param createdAt The time of the calculation, or null for results stored before it was recorded.
+ */
+public record HistoryEntry(Long id, String method, Double lowerBound, Double upperBound, Integer partitions,
+        Double result, Double errorEstimate, Long evaluations, String function, Double a, Double b, Double c,
+        LocalDateTime createdAt) {
+}
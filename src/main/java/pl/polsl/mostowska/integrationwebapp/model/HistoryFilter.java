@@ -0,0 +1,151 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the conditions selecting stored results from the calculation history.
+ * Every condition is optional; a null value does not restrict the results.
+ * The conditions are turned into a JPQL WHERE clause over the result {@code r} and its function {@code f},
+ * so the database filters the rows instead of the application.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ *
+ * The use of a record ensures immutability, so a filter can be validated once and reused.
+ *
+ * @param method The request name of the integration method (e.g., "rectangle").
+ * @param function The name of the function ("linear" or "quadratic"), "polynomial" for any polynomial function
+ *                 or "expression" for any user-defined expression.
+ * @param a The range of the coefficient a.
+ * @param b The range of the coefficient b.
+ * @param c The range of the coefficient c.
+ * @param lowerBound The range of the lower integration bound.
+ * @param upperBound The range of the upper integration bound.
+ * @param from The first day on which the results were calculated.
+ * @param to The last day on which the results were calculated.
+ */
+public record HistoryFilter(String method, String function, Range a, Range b, Range c,
+        Range lowerBound, Range upperBound, LocalDate from, LocalDate to) {
+
+    /** Filter selecting every stored result. */
+    public static final HistoryFilter ALL = new HistoryFilter(null, null, null, null, null, null, null, null, null);
+
+    /**
+     * Represents an inclusive range of values; a null limit leaves that side open.
+     *
+     * @param min The smallest accepted value.
+     * @param max The largest accepted value.
+     */
+    public record Range(Double min, Double max) {
+
+        /**
+         * Validates the range.
+         *
+         * @throws IllegalArgumentException if a limit is not a finite number or the minimum is greater than the maximum.
+         */
+        public Range {
+            if (min != null && !Double.isFinite(min) || max != null && !Double.isFinite(max)) {
+                throw new IllegalArgumentException("Range limits must be finite numbers.");
+            }
+            if (min != null && max != null && min > max) {
+                throw new IllegalArgumentException("Range minimum cannot be greater than its maximum.");
+            }
+        }
+    }
+
+    /**
+     * Validates the filter.
+     *
+     * @throws IllegalArgumentException if the method or the function is unknown or the first day is after the last one.
+     */
+    public HistoryFilter {
+        if (method != null && IntegrationMethod.fromName(method) == null) {
+            throw new IllegalArgumentException("Unknown integration method: " + method);
+        }
+        if (function != null && !"linear".equals(function) && !"quadratic".equals(function)
+                && !"polynomial".equals(function) && !"expression".equals(function)) {
+            throw new IllegalArgumentException("Unknown function: " + function);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("First day cannot be after the last day.");
+        }
+    }
+
+    /**
+     * Returns the JPQL WHERE clause of the filter.
+     *
+     * @return the clause starting with " WHERE ", or an empty string if the filter selects every result
+     */
+    public String where() {
+        List<String> conditions = new ArrayList<>();
+        collect(conditions, new LinkedHashMap<>());
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Returns the values of the named parameters used by {@link #where()}.
+     *
+     * @return the parameter values by name, in the order of the conditions
+     */
+    public Map<String, Object> parameters() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        collect(new ArrayList<>(), parameters);
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Collects the conditions and their parameter values.
+     *
+     * @param conditions the list receiving the JPQL conditions
+     * @param parameters the map receiving the parameter values
+     */
+    private void collect(List<String> conditions, Map<String, Object> parameters) {
+        if (method != null) {
+            conditions.add("r.method = :method");
+            parameters.put("method", method);
+        }
+        if ("polynomial".equals(function)) {
+            // Only polynomial functions have packed coefficients
+            conditions.add("f.coefficients IS NOT NULL");
+        } else if ("expression".equals(function)) {
+            // Expression functions are stored under their expression text
+            conditions.add("f.functionName NOT IN ('linear', 'quadratic') AND f.coefficients IS NULL");
+        } else if (function != null) {
+            conditions.add("f.functionName = :function");
+            parameters.put("function", function);
+        }
+        range(conditions, parameters, "f.a", "a", a);
+        range(conditions, parameters, "f.b", "b", b);
+        range(conditions, parameters, "f.c", "c", c);
+        range(conditions, parameters, "r.lowerBound", "lowerBound", lowerBound);
+        range(conditions, parameters, "r.upperBound", "upperBound", upperBound);
+        if (from != null) {
+            conditions.add("r.createdAt >= :from");
+            parameters.put("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            // The last day is included, so the results are compared with the start of the following day
+            conditions.add("r.createdAt < :to");
+            parameters.put("to", to.plusDays(1).atStartOfDay());
+        }
+    }
+
+    private static void range(List<String> conditions, Map<String, Object> parameters, String path, String name, Range range) {
+        if (range == null) {
+            return;
+        }
+        if (range.min() != null) {
+            conditions.add(path + " >= :" + name + "Min");
+            parameters.put(name + "Min", range.min());
+        }
+        if (range.max() != null) {
+            conditions.add(path + " <= :" + name + "Max");
+            parameters.put(name + "Max", range.max());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Enumeration of the groupings of the history aggregates.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@AllArgsConstructor
+public enum HistoryGrouping {
+    /** One aggregate over all selected results. */
+    NONE("none", null),
+    /** One aggregate per integration method. */
+    METHOD("method", "r.method"),
+    /** One aggregate per function name. */
+    FUNCTION("function", "f.functionName"),
+    /** One aggregate per number of partitions. */
+    PARTITIONS("partitions", "r.partitions");
+
+    /** Name of the grouping in requests. */
+    private final String name;
+
+    /** JPQL path the results are grouped by, or null if they are not grouped. */
+    private final String path;
+
+    /**
+     * Returns the JPQL path the results are grouped by.
+     *
+     * @return the path, or null if the results are not grouped
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Finds the grouping with the given request name.
+     *
+     * @param name the name of the grouping (e.g., "method", "partitions"); null selects no grouping
+     * @return the matching grouping, or null if there is none
+     */
+    public static HistoryGrouping fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return NONE;
+        }
+        for (HistoryGrouping grouping : values()) {
+            if (grouping.name.equals(name)) {
+                return grouping;
+            }
+        }
+        return null;
+    }
+}
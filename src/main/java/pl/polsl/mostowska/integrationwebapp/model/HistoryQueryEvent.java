@@ -0,0 +1,57 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of one query reading the calculation history from the database.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Name("pl.polsl.mostowska.integrationwebapp.HistoryQuery")
+@Label("History Query")
+@Category({"Integration Web App"})
+@Description("Query reading the calculation history")
+@StackTrace(false)
+public final class HistoryQueryEvent extends Event {
+
+    /** Kind of the query: page, find or aggregate. */
+    @Label("Query")
+    String query;
+
+    /** Integration method the results were filtered by, or null. */
+    @Label("Method")
+    String method;
+
+    /** Maximum number of rows, or 0 if the query is not limited. */
+    @Label("Limit")
+    int limit;
+
+    /** Number of rows read. */
+    @Label("Rows")
+    int rows;
+
+    /**
+     * Ends the event and commits it, if a recording wants it.
+     *
+     * @param query The kind of the query.
+     * @param method The integration method the results were filtered by, or null.
+     * @param limit The maximum number of rows, or 0 if the query is not limited.
+     * @param rows The number of rows read.
+     */
+    public void commit(String query, String method, int limit, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.query = query;
+            this.method = method;
+            this.limit = limit;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents one calculation kept in the in-memory history.
+ * The record stores only numbers and the method, so it is small and cheap to create;
+ * the text shown to the user is built by {@link #format()} only when the history is viewed.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ *
+ * The use of a record ensures immutability, so records can be shared between request threads.
+ *
+ * @param method The integration method.
+ * @param result The calculated integral.
+ * @param errorEstimate The error estimate of an adaptive method, or NaN.
+ * @param lowerBound The lower integration bound.
+ * @param upperBound The upper integration bound.
+ * @param partitions The number of partitions, or the limit on the subintervals of an adaptive method.
+ * @param evaluations The number of function evaluations.
+ * @param type The type of the function; a linear function does not use a.
+ * @param a The coefficient a of a linear or quadratic function.
+ * @param b The coefficient b of a linear or quadratic function.
+ * @param c The coefficient c of a linear or quadratic function.
+ * @param expression The normalized expression of a user-defined function or the text of a polynomial function,
+ *                   or null for a linear or quadratic function.
+ */
+public record HistoryRecord(IntegrationMethod method, double result, double errorEstimate,
+        double lowerBound, double upperBound, int partitions, long evaluations,
+        IntegrationMetrics.FunctionType type, double a, double b, double c, String expression) {
+
+    /**
+     * Formats the calculation as shown on the result and history pages.
+     *
+     * @return the description of the calculation
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder(160)
+                .append("Method: ").append(method.getName()).append(", Result: ").append(result);
+        if (!Double.isNaN(errorEstimate)) {
+            text.append(" ± ").append(errorEstimate);
+        }
+        text.append(" for bounds [").append(lowerBound).append(", ").append(upperBound).append("] and ");
+        if (method.isAdaptive()) {
+            text.append("at most ").append(partitions).append(" subintervals, ");
+        } else {
+            text.append(partitions).append(" partitions, ");
+        }
+        text.append(evaluations).append(" evaluations, for function: ");
+        if (expression != null) {
+            String label = type == IntegrationMetrics.FunctionType.POLYNOMIAL ? "polynomial" : "expression";
+            return text.append(label).append(" f(x) = ").append(expression).toString();
+        }
+        boolean quadratic = type == IntegrationMetrics.FunctionType.QUADRATIC;
+        text.append(quadratic ? "quadratic" : "linear").append(" f(x) = ");
+        if (quadratic) {
+            text.append(a).append("x² + ");
+        }
+        return text.append(b).append("x + ").append(c).toString();
+    }
+}
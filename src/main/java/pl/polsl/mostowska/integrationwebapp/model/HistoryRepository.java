@@ -0,0 +1,95 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * Reads the calculation history with the filtering and aggregation done by the database.
+ * Both queries apply a {@link HistoryFilter} as a WHERE clause, and the aggregates are calculated
+ * with COUNT, MIN, MAX and AVG in SQL, so only the selected page or the aggregated values leave the database.
+ * The class is thread-safe and is shared by all request threads.
+ * Every query is recorded as a {@link HistoryQueryEvent} while a JDK Flight Recorder recording is running.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public final class HistoryRepository {
+
+    /** Factory of the entity managers used for the queries. */
+    private final EntityManagerFactory emf;
+
+    /**
+     * Creates a repository.
+     *
+     * @param emf The factory of the entity managers.
+     */
+    public HistoryRepository(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * Returns a page of the selected results, newest first.
+     *
+     * @param filter The conditions the results must meet.
+     * @param after The id the page starts after, or null for the first page.
+     * @param limit The maximum number of results.
+     * @return The selected results ordered by descending id.
+     */
+    public List<HistoryEntry> find(HistoryFilter filter, Long after, int limit) {
+        String where = filter.where();
+        if (after != null) {
+            where += (where.isEmpty() ? " WHERE " : " AND ") + "r.id < :after";
+        }
+        HistoryQueryEvent event = new HistoryQueryEvent();
+        event.begin();
+        EntityManager em = emf.createEntityManager();
+        try {
+            TypedQuery<HistoryEntry> query = em.createQuery("SELECT NEW " + HistoryEntry.class.getName()
+                    + "(r.id, r.method, r.lowerBound, r.upperBound, r.partitions, r.result, r.errorEstimate,"
+                    + " r.evaluations, f.functionName, f.a, f.b, f.c, r.createdAt)"
+                    + " FROM ResultsEntity r JOIN r.function f" + where + " ORDER BY r.id DESC", HistoryEntry.class);
+            filter.parameters().forEach(query::setParameter);
+            if (after != null) {
+                query.setParameter("after", after);
+            }
+            List<HistoryEntry> page = query.setMaxResults(limit).getResultList();
+            event.commit("find", filter.method(), limit, page.size());
+            return page;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Calculates the count and the minimum, maximum and average result of the selected results.
+     *
+     * @param filter The conditions the results must meet.
+     * @param grouping The grouping of the results.
+     * @return One aggregate per group ordered by the grouped value, or a single aggregate if the results are not grouped.
+     */
+    public List<HistoryAggregate> aggregate(HistoryFilter filter, HistoryGrouping grouping) {
+        String path = grouping.getPath();
+        String jpql = "SELECT " + (path == null ? "" : path + ", ")
+                + "COUNT(r), MIN(r.result), MAX(r.result), AVG(r.result)"
+                + " FROM ResultsEntity r JOIN r.function f" + filter.where()
+                + (path == null ? "" : " GROUP BY " + path + " ORDER BY " + path);
+        HistoryQueryEvent event = new HistoryQueryEvent();
+        event.begin();
+        EntityManager em = emf.createEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
+            filter.parameters().forEach(query::setParameter);
+            List<Object[]> rows = query.getResultList();
+            event.commit("aggregate", filter.method(), 0, rows.size());
+            return rows.stream().map(row -> {
+                int i = path == null ? 0 : 1;
+                return new HistoryAggregate(path == null ? null : row[0], ((Number) row[i]).longValue(),
+                        (Double) row[i + 1], (Double) row[i + 2], (Double) row[i + 3]);
+            }).toList();
+        } finally {
+            em.close();
+        }
+    }
+}
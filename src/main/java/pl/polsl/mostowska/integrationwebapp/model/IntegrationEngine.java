@@ -0,0 +1,370 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Stateless entry point for numerical integration.
+ * Unlike the {@link IntegrationModel} subclasses, the engine does not store the function, the parameters
+ * or the captured values between calls. Every call works only on its arguments and local variables
+ * and returns an immutable {@link IntegrationResult}, so a single engine can be shared by all request threads
+ * without any locking.
+ *
+ * Integrations with at least {@link EngineSettings#parallelThreshold()} partitions are split into chunks
+ * and evaluated on the engine's own fork/join pool, so they cannot use up the threads of the servlet container
+ * or of the common pool. Independent integrations, such as the jobs of a batch request, can be run on the same pool
+ * with {@link #invokeAll(List, Function)}. The pool is released by {@link #close()}.
+ * The function values of every chunk are added up with the {@link Summation} of the options,
+ * and the chunk sums are added in a balanced tree.
+ * If the engine is given {@link IntegrationMetrics}, the compute time and the function evaluations
+ * of every successful integration are recorded there. Every successful integration is also recorded
+ * as an {@link IntegrationEvent} while a JDK Flight Recorder recording is running.
+ *
+ * @author Wiktoria Mostowska
+ * @version 2.7
+ */
+public final class IntegrationEngine implements AutoCloseable {
+
+    /** Configuration of the engine. */
+    @Getter
+    private final EngineSettings settings;
+
+    /** Pool evaluating the chunks of parallel integrations; worker threads are started on demand. */
+    private final ForkJoinPool pool;
+
+    /** Metrics recording the computed integrations, or null. */
+    private final IntegrationMetrics metrics;
+
+    /**
+     * Creates an engine with the default settings.
+     */
+    public IntegrationEngine() {
+        this(EngineSettings.defaults());
+    }
+
+    /**
+     * Creates an engine with the given settings.
+     *
+     * @param settings The configuration of the engine.
+     */
+    public IntegrationEngine(EngineSettings settings) {
+        this(settings, null);
+    }
+
+    /**
+     * Creates an engine with the given settings, recording the computed integrations.
+     *
+     * @param settings The configuration of the engine.
+     * @param metrics The metrics recording the compute time and the function evaluations, or null.
+     */
+    public IntegrationEngine(EngineSettings settings, IntegrationMetrics metrics) {
+        this.settings = settings;
+        this.metrics = metrics;
+        this.pool = new ForkJoinPool(settings.parallelism(), IntegrationEngine::newWorkerThread, null, false);
+    }
+
+    /**
+     * Integrates the function with the default options.
+     *
+     * @param method The integration method.
+     * @param function The function to integrate.
+     * @param parameters The integration bounds and number of partitions.
+     * @return The result of the integration.
+     * @throws NullPointerException If the parameters object is null.
+     * @throws IllegalArgumentException If the method is null or the parameters are invalid.
+     * @throws IllegalStateException If no function is given.
+     */
+    public IntegrationResult integrate(IntegrationMethod method, FunctionModel function, IntegrationParameters parameters) {
+        return integrate(method, function, parameters, IntegrationOptions.defaults());
+    }
+
+    /**
+     * Integrates the function with the given options.
+     * The rectangle and trapezoidal sums of linear and quadratic functions are computed in closed form
+     * without evaluating the function, so the result reports zero evaluations.
+     * Otherwise the integration runs in parallel if the number of partitions reaches the parallel threshold,
+     * the engine has more than one worker thread and no samples are captured.
+     * The adaptive methods stop at the tolerance of the options, use the number of partitions
+     * only as a limit on the number of subintervals, report their error estimate and never capture samples.
+     * The Romberg method also returns its extrapolation table if the options request it.
+     *
+     * @param method The integration method.
+     * @param function The function to integrate.
+     * @param parameters The integration bounds and number of partitions.
+     * @param options The integration options.
+     * @return The result of the integration.
+     * @throws NullPointerException If the parameters object is null.
+     * @throws IllegalArgumentException If the method is null, the parameters are invalid or the result is not a finite number.
+     * @throws IllegalStateException If no function is given.
+     */
+    public IntegrationResult integrate(IntegrationMethod method, FunctionModel function,
+            IntegrationParameters parameters, IntegrationOptions options) {
+        return integrate(method, function, parameters, options, null);
+    }
+
+    /**
+     * Integrates the function with the given options, reporting the progress and stopping if it is cancelled.
+     * With a progress tracker, the rectangle and trapezoidal sums are always split into chunks on the engine's pool,
+     * the same way as a parallel integration, and the tracker is updated and checked after every chunk.
+     * Closed-form and adaptive integrations only check the cancellation before they start.
+     *
+     * @param method The integration method.
+     * @param function The function to integrate.
+     * @param parameters The integration bounds and number of partitions.
+     * @param options The integration options.
+     * @param progress The progress tracker of the integration, or null if it is not tracked.
+     * @return The result of the integration.
+     * @throws NullPointerException If the parameters object is null.
+     * @throws IllegalArgumentException If the method is null, the parameters are invalid or the result is not a finite number.
+     * @throws IllegalStateException If no function is given.
+     * @throws java.util.concurrent.CancellationException If the integration has been cancelled through the tracker.
+     */
+    public IntegrationResult integrate(IntegrationMethod method, FunctionModel function,
+            IntegrationParameters parameters, IntegrationOptions options, IntegrationProgress progress) {
+        if (method == null) {
+            throw new IllegalArgumentException("Integration method cannot be null.");
+        }
+        long start = System.nanoTime();
+        IntegrationEvent event = new IntegrationEvent();
+        event.begin();
+        SampleBuffer samples = null;
+        double value;
+        long evaluations;
+        double errorEstimate = Double.NaN;
+        List<double[]> rombergTable = null;
+        if (progress != null) {
+            progress.checkCancelled();
+            progress.start(parameters.partitions());
+        }
+        switch (method) {
+            case RECTANGLE -> {
+                Rectangle.validate(parameters);
+                FunctionData closedForm = closedFormCoefficients(function, options);
+                double[] polynomial = closedFormPolynomial(function, parameters, options);
+                if (closedForm != null) {
+                    value = ClosedFormIntegrals.rectangle(closedForm, parameters);
+                    evaluations = 0;
+                } else if (polynomial != null) {
+                    value = ClosedFormIntegrals.rectangle(polynomial, parameters);
+                    evaluations = 0;
+                } else if (options.sampleCapture().isEnabled()) {
+                    samples = options.sampleCapture().newBuffer(parameters.partitions());
+                    value = Rectangle.integrate(function, parameters, samples, options.summation());
+                    evaluations = parameters.partitions();
+                } else {
+                    value = rectangle(requireFunction(function), parameters, options.summation(), progress);
+                    evaluations = parameters.partitions();
+                }
+            }
+            case TRAPEZOID -> {
+                Trapezoid.validate(parameters);
+                FunctionData closedForm = closedFormCoefficients(function, options);
+                double[] polynomial = closedFormPolynomial(function, parameters, options);
+                if (closedForm != null) {
+                    value = ClosedFormIntegrals.trapezoid(closedForm, parameters);
+                    evaluations = 0;
+                } else if (polynomial != null) {
+                    value = ClosedFormIntegrals.trapezoid(polynomial, parameters);
+                    evaluations = 0;
+                } else if (options.sampleCapture().isEnabled()) {
+                    samples = options.sampleCapture().newBuffer(parameters.partitions() + 1L);
+                    value = Trapezoid.integrate(function, parameters, samples, options.summation());
+                    evaluations = parameters.partitions() + 1L;
+                } else {
+                    value = trapezoid(requireFunction(function), parameters, options.summation(), progress);
+                    evaluations = parameters.partitions() + 1L;
+                }
+            }
+            case SIMPSON, ADAPTIVE_SIMPSON, GAUSS_KRONROD, ROMBERG -> {
+                AdaptiveIntegrationModel.validate(parameters);
+                if (method == IntegrationMethod.ROMBERG && options.rombergTable()) {
+                    rombergTable = new ArrayList<>();
+                }
+                Estimate estimate = switch (method) {
+                    case SIMPSON -> Simpson.integrate(function, parameters, options.tolerance());
+                    case ADAPTIVE_SIMPSON -> AdaptiveSimpson.integrate(function, parameters, options.tolerance());
+                    case ROMBERG -> Romberg.integrate(function, parameters, options.tolerance(), rombergTable);
+                    default -> GaussKronrod.integrate(function, parameters, options.tolerance());
+                };
+                value = estimate.value();
+                evaluations = estimate.evaluations();
+                errorEstimate = estimate.errorEstimate();
+            }
+            default -> throw new IllegalArgumentException("Unsupported integration method: " + method);
+        }
+        if (progress != null) {
+            progress.finish();
+        }
+        IntegrationResult result = new IntegrationResult(method, parameters, IntegrationModel.requireFinite(value), evaluations,
+                errorEstimate, samples == null ? IntegrationModel.NO_SAMPLES : samples.toArray(),
+                rombergTable == null ? new double[0][] : rombergTable.toArray(double[][]::new));
+        if (metrics != null) {
+            metrics.recordIntegration(result, System.nanoTime() - start);
+        }
+        event.commit(function, result);
+        return result;
+    }
+
+    /**
+     * Runs independent tasks, such as the integrations of a batch, in parallel on the engine's fork/join pool.
+     * Integrations started by a task split their partitions on the same pool, so a batch never uses more
+     * than the engine's worker threads. With a parallelism of 1 or a single task, the tasks run in the calling thread.
+     *
+     * @param <T> The type of the task inputs.
+     * @param <R> The type of the task results.
+     * @param inputs The inputs of the tasks.
+     * @param task The task applied to every input; it should handle its own failures.
+     * @return The results in the order of the inputs.
+     * @throws RuntimeException If a task throws an exception, the first one is rethrown.
+     */
+    public <T, R> List<R> invokeAll(List<T> inputs, Function<? super T, ? extends R> task) {
+        if (settings.parallelism() == 1 || inputs.size() < 2) {
+            return inputs.stream().<R>map(task).toList();
+        }
+        List<ForkJoinTask<R>> tasks = inputs.stream()
+                .map(input -> ForkJoinTask.<R>adapt(() -> task.apply(input)))
+                .toList();
+        return pool.submit(() -> ForkJoinTask.invokeAll(tasks).stream().map(ForkJoinTask::join).toList()).join();
+    }
+
+    /**
+     * Shuts down the engine's fork/join pool.
+     * Integrations already running are completed; the engine must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Returns the coefficients of the function if its rectangle or trapezoidal sum can be computed in closed form.
+     *
+     * @param function The function to integrate.
+     * @param options The integration options.
+     * @return The coefficients of a linear or quadratic function, or null if the sum has to be evaluated point by point
+     */
+    private FunctionData closedFormCoefficients(FunctionModel function, IntegrationOptions options) {
+        if (!settings.closedForm() || options.sampleCapture().isEnabled()) {
+            return null;
+        }
+        return PolynomialKernels.coefficients(function);
+    }
+
+    /**
+     * Returns the coefficients of a polynomial of degree above two if its rectangle or trapezoidal sum
+     * can be computed in closed form with the Euler-Maclaurin formula.
+     *
+     * @param function The function to integrate.
+     * @param parameters The validated integration parameters.
+     * @param options The integration options.
+     * @return The coefficients indexed by the power of x, or null if the sum has to be evaluated point by point
+     */
+    private double[] closedFormPolynomial(FunctionModel function, IntegrationParameters parameters, IntegrationOptions options) {
+        if (!settings.closedForm() || options.sampleCapture().isEnabled()
+                || parameters.partitions() < ClosedFormIntegrals.MIN_EULER_MACLAURIN_PARTITIONS) {
+            return null;
+        }
+        return function instanceof PolynomialFunction polynomial && polynomial.getDegree() > 2 ? polynomial.coefficients() : null;
+    }
+
+    /**
+     * Integrates the function with the rectangle method without capturing samples.
+     * Linear and quadratic functions are summed with the vectorized kernels when the Vector API is available.
+     *
+     * @param function The function to integrate.
+     * @param parameters The validated integration parameters.
+     * @param summation The strategy adding up the function values of every chunk.
+     * @param progress The progress tracker, or null.
+     * @return The approximated value of the integral.
+     */
+    private double rectangle(FunctionModel function, IntegrationParameters parameters, Summation summation,
+            IntegrationProgress progress) {
+        double lowerBound = parameters.lowerBound();
+        double h = (parameters.upperBound() - lowerBound) / parameters.partitions();
+        FunctionData polynomial = PolynomialKernels.isAvailable() ? PolynomialKernels.coefficients(function) : null;
+        ChunkedSum.RangeSum kernel = polynomial != null
+                ? (from, to) -> PolynomialKernels.midpointSum(polynomial, lowerBound, h, from, to, summation)
+                : (from, to) -> Rectangle.heightSum(function, lowerBound, h, from, to, null, summation);
+        return sum(kernel, 0, parameters.partitions(), progress) * h;
+    }
+
+    /**
+     * Integrates the function with the trapezoidal method without capturing samples.
+     * Linear and quadratic functions are summed with the vectorized kernels when the Vector API is available.
+     *
+     * @param function The function to integrate.
+     * @param parameters The validated integration parameters.
+     * @param summation The strategy adding up the function values of every chunk.
+     * @param progress The progress tracker, or null.
+     * @return The approximated value of the integral.
+     */
+    private double trapezoid(FunctionModel function, IntegrationParameters parameters, Summation summation,
+            IntegrationProgress progress) {
+        double lowerBound = parameters.lowerBound();
+        double h = (parameters.upperBound() - lowerBound) / parameters.partitions();
+        double endpoints = 0.5 * (function.evaluate(lowerBound) + function.evaluate(parameters.upperBound()));
+        FunctionData polynomial = PolynomialKernels.isAvailable() ? PolynomialKernels.coefficients(function) : null;
+        ChunkedSum.RangeSum kernel = polynomial != null
+                ? (from, to) -> PolynomialKernels.nodeSum(polynomial, lowerBound, h, from, to, summation)
+                : (from, to) -> Trapezoid.nodeSum(function, lowerBound, h, from, to, null, summation);
+        return (endpoints + sum(kernel, 1, parameters.partitions(), progress)) * h;
+    }
+
+    /**
+     * Sums the function values over a range of partition indices, in parallel on the fork/join pool
+     * if the range reaches the parallel threshold and the engine has more than one worker thread.
+     *
+     * @param kernel The kernel summing the function values of a range.
+     * @param from The first index.
+     * @param to The index after the last one.
+     * @param progress The progress tracker, or null; a tracked sum is always split into chunks on the pool.
+     * @return The sum of the function values.
+     */
+    private double sum(ChunkedSum.RangeSum kernel, int from, int to, IntegrationProgress progress) {
+        if (progress != null) {
+            ChunkedSum.RangeSum tracked = (chunkFrom, chunkTo) -> {
+                progress.checkCancelled();
+                double chunkSum = kernel.sum(chunkFrom, chunkTo);
+                progress.advance(chunkTo - chunkFrom);
+                return chunkSum;
+            };
+            return pool.invoke(new ChunkedSum(tracked, from, to, settings.chunkPartitions()));
+        }
+        if (settings.parallelism() > 1 && to - from >= settings.parallelThreshold()) {
+            return pool.invoke(new ChunkedSum(kernel, from, to, settings.chunkPartitions()));
+        }
+        return kernel.sum(from, to);
+    }
+
+    /**
+     * Checks that a function has been given.
+     *
+     * @param function The function to integrate.
+     * @return The same function.
+     * @throws IllegalStateException If the function is null.
+     */
+    private static FunctionModel requireFunction(FunctionModel function) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
+        return function;
+    }
+
+    /**
+     * Creates a named daemon worker thread for the engine's pool.
+     *
+     * @param pool The pool the thread belongs to.
+     * @return The new worker thread.
+     */
+    private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("integration-worker-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,77 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Locale;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of one integration computed by the {@link IntegrationEngine}.
+ * Integrations answered from the result cache or the database are not computed and have no event.
+ *
+ * Like all JFR events, the event costs almost nothing while no recording is running:
+ * {@link #shouldCommit()} is false and the fields are not set. The stack trace is not recorded,
+ * so a recording of every integration stays cheap as well. Record it with, e.g.,
+ * {@code -XX:StartFlightRecording=filename=integration.jfr} and view it with {@code jfr print --events Integration}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Name("pl.polsl.mostowska.integrationwebapp.Integration")
+@Label("Integration")
+@Category({"Integration Web App"})
+@Description("Computation of an integral by the integration engine")
+@StackTrace(false)
+public final class IntegrationEvent extends Event {
+
+    /** Name of the integration method. */
+    @Label("Method")
+    String method;
+
+    /** Type of the integrated function. */
+    @Label("Function")
+    String function;
+
+    /** Lower bound of the integration. */
+    @Label("Lower Bound")
+    double lowerBound;
+
+    /** Upper bound of the integration. */
+    @Label("Upper Bound")
+    double upperBound;
+
+    /** Number of partitions, or the limit of subintervals of an adaptive method. */
+    @Label("Partitions")
+    int partitions;
+
+    /** Number of function evaluations. */
+    @Label("Evaluations")
+    long evaluations;
+
+    /** Whether the sum was computed in closed form without evaluating the function. */
+    @Label("Closed Form")
+    boolean closedForm;
+
+    /**
+     * Ends the event and commits it with the fields of the result, if a recording wants it.
+     *
+     * @param function The integrated function.
+     * @param result The result of the integration.
+     */
+    void commit(FunctionModel function, IntegrationResult result) {
+        end();
+        if (shouldCommit()) {
+            method = result.method().getName();
+            this.function = IntegrationMetrics.FunctionType.of(function).name().toLowerCase(Locale.ROOT);
+            lowerBound = result.parameters().lowerBound();
+            upperBound = result.parameters().upperBound();
+            partitions = result.parameters().partitions();
+            evaluations = result.evaluations();
+            closedForm = result.evaluations() == 0 && !result.method().isAdaptive();
+            commit();
+        }
+    }
+}
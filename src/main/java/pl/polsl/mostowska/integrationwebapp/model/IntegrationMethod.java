@@ -0,0 +1,51 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Enumeration of the numerical integration methods supported by {@link IntegrationEngine}.
+ * Each method is identified by the name used in requests and stored in the database.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+@AllArgsConstructor
+@Getter
+public enum IntegrationMethod {
+    /** Rectangle (midpoint) method, see {@link Rectangle}. */
+    RECTANGLE("rectangle", false),
+    /** Trapezoidal method, see {@link Trapezoid}. */
+    TRAPEZOID("trapezoid", false),
+    /** Composite Simpson method, see {@link Simpson}. */
+    SIMPSON("simpson", true),
+    /** Adaptive Simpson method, see {@link AdaptiveSimpson}. */
+    ADAPTIVE_SIMPSON("adaptiveSimpson", true),
+    /** Adaptive Gauss-Kronrod G7-K15 method, see {@link GaussKronrod}. */
+    GAUSS_KRONROD("gaussKronrod", true),
+    /** Romberg method, see {@link Romberg}. */
+    ROMBERG("romberg", true);
+
+    /** Name of the method used in requests. */
+    private final String name;
+
+    /**
+     * Whether the method stops at a {@link Tolerance} and treats the number of partitions only as a limit.
+     */
+    private final boolean adaptive;
+
+    /**
+     * Finds the method with the given request name.
+     *
+     * @param name the name of the method (e.g., "rectangle", "trapezoid", "gaussKronrod")
+     * @return the matching method, or null if there is none
+     */
+    public static IntegrationMethod fromName(String name) {
+        for (IntegrationMethod method : values()) {
+            if (method.name.equals(name)) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
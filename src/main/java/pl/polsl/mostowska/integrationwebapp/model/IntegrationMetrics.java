@@ -0,0 +1,298 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Setter;
+
+/**
+ * Operational metrics of the integration service, exposed in the Prometheus text format by {@link #scrape()}.
+ *
+ * The service records integration requests per method and function type, the compute time and the function
+ * evaluations of every integration, the partitions per request, the latency of the persistence transactions,
+ * the duration of the servlet requests and the errors. The hit ratio of the result cache and the queue
+ * of the background writer are read from them when the metrics are scraped.
+ * Function evaluations per second are the rate of {@code integration_function_evaluations_total};
+ * divided by the rate of {@code integration_compute_seconds_sum}, they give the evaluations per second of computation.
+ *
+ * Counters are {@link LongAdder}s and latencies are recorded in lock-free {@link Histogram}s, so recording
+ * never blocks a request thread. All label combinations except the servlet names are created up front,
+ * so every series is exported from the start and recording never allocates.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public final class IntegrationMetrics {
+
+    /** Content type of the Prometheus text exposition format. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Upper bounds of the exported latency buckets in nanoseconds: powers of four from about 4 µs to 69 s. */
+    static final long[] LATENCY_BOUNDS = powersOfFour(6, 18);
+
+    /** Upper bounds of the exported partition buckets: powers of four from 1 to 2³⁰. */
+    static final long[] PARTITION_BOUNDS = powersOfFour(0, 15);
+
+    /** Factor converting nanoseconds to seconds. */
+    private static final double SECONDS_PER_NANO = 1e-9;
+
+    /**
+     * Enumeration of the function types the requests are counted by.
+     */
+    public enum FunctionType {
+        /** A {@link LinearFunction}. */
+        LINEAR,
+        /** A {@link QuadraticFunction}. */
+        QUADRATIC,
+        /** A {@link PolynomialFunction}. */
+        POLYNOMIAL,
+        /** A compiled {@link ExpressionFunction}. */
+        EXPRESSION,
+        /** Any other function. */
+        OTHER;
+
+        /**
+         * Finds the type of a function.
+         *
+         * @param function the function, may be null
+         * @return the type of the function
+         */
+        public static FunctionType of(FunctionModel function) {
+            return switch (function) {
+                case LinearFunction linear -> LINEAR;
+                case QuadraticFunction quadratic -> QUADRATIC;
+                case PolynomialFunction polynomial -> POLYNOMIAL;
+                case ExpressionFunction expression -> EXPRESSION;
+                case null, default -> OTHER;
+            };
+        }
+    }
+
+    /**
+     * Enumeration of the errors counted by kind.
+     */
+    public enum ErrorKind {
+        /** A request rejected because of invalid input. */
+        INVALID_REQUEST,
+        /** A request that failed with an unexpected exception. */
+        FAILURE,
+        /** A result that could not be stored in the database. */
+        PERSISTENCE
+    }
+
+    /**
+     * Enumeration of the ways results are stored, the persistence latency is recorded by.
+     */
+    public enum PersistenceMode {
+        /** One result stored in the request thread. */
+        REQUEST,
+        /** A batch stored by the background {@link ResultWriter}. */
+        WRITE_BEHIND,
+        /** The results of a batch request stored in one transaction. */
+        BATCH
+    }
+
+    /** Integration requests, indexed by the ordinals of the method and the function type. */
+    private final LongAdder[][] requests = new LongAdder[IntegrationMethod.values().length][FunctionType.values().length];
+    private final Map<IntegrationMethod, Histogram> computeTimes = new EnumMap<>(IntegrationMethod.class);
+    private final Map<IntegrationMethod, LongAdder> evaluations = new EnumMap<>(IntegrationMethod.class);
+    private final Histogram partitions = new Histogram();
+    private final Map<PersistenceMode, Histogram> persistenceTimes = new EnumMap<>(PersistenceMode.class);
+    private final Map<ErrorKind, LongAdder> errors = new EnumMap<>(ErrorKind.class);
+    private final Map<String, Histogram> servletTimes = new ConcurrentHashMap<>();
+
+    /** Result cache whose statistics are exported, or null. */
+    @Setter
+    private volatile ResultCache cache;
+
+    /** Background writer whose queue is exported, or null. */
+    @Setter
+    private volatile ResultWriter resultWriter;
+
+    /**
+     * Creates the metrics with all counters at zero.
+     */
+    public IntegrationMetrics() {
+        for (LongAdder[] byFunction : requests) {
+            for (int i = 0; i < byFunction.length; i++) {
+                byFunction[i] = new LongAdder();
+            }
+        }
+        for (IntegrationMethod method : IntegrationMethod.values()) {
+            computeTimes.put(method, new Histogram());
+            evaluations.put(method, new LongAdder());
+        }
+        for (PersistenceMode mode : PersistenceMode.values()) {
+            persistenceTimes.put(mode, new Histogram());
+        }
+        for (ErrorKind kind : ErrorKind.values()) {
+            errors.put(kind, new LongAdder());
+        }
+    }
+
+    /**
+     * Records an integration request, whether it is computed or answered from a cache.
+     *
+     * @param method The integration method.
+     * @param function The function to integrate.
+     * @param parameters The integration bounds and number of partitions.
+     */
+    public void recordRequest(IntegrationMethod method, FunctionModel function, IntegrationParameters parameters) {
+        requests[method.ordinal()][FunctionType.of(function).ordinal()].increment();
+        partitions.record(parameters.partitions());
+    }
+
+    /**
+     * Records a computed integration.
+     *
+     * @param result The result of the integration.
+     * @param nanos The compute time in nanoseconds.
+     */
+    public void recordIntegration(IntegrationResult result, long nanos) {
+        computeTimes.get(result.method()).record(nanos);
+        evaluations.get(result.method()).add(result.evaluations());
+    }
+
+    /**
+     * Records a persistence transaction.
+     *
+     * @param mode The way the results were stored.
+     * @param nanos The duration of the transaction in nanoseconds.
+     */
+    public void recordPersistence(PersistenceMode mode, long nanos) {
+        persistenceTimes.get(mode).record(nanos);
+    }
+
+    /**
+     * Records an error.
+     *
+     * @param kind The kind of the error.
+     */
+    public void recordError(ErrorKind kind) {
+        errors.get(kind).increment();
+    }
+
+    /**
+     * Records a servlet request.
+     *
+     * @param servlet The name of the servlet.
+     * @param nanos The duration of the request in nanoseconds.
+     */
+    public void recordServletRequest(String servlet, long nanos) {
+        servletTimes.computeIfAbsent(servlet, name -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Returns the number of requests recorded for a method and a function type.
+     *
+     * @param method The integration method.
+     * @param type The function type.
+     * @return the number of requests
+     */
+    public long requests(IntegrationMethod method, FunctionType type) {
+        return requests[method.ordinal()][type.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of errors of a kind.
+     *
+     * @param kind The kind of the errors.
+     * @return the number of errors
+     */
+    public long errors(ErrorKind kind) {
+        return errors.get(kind).sum();
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text format.
+     *
+     * @return the metrics page
+     */
+    public String scrape() {
+        PrometheusText text = new PrometheusText();
+
+        text.family("integration_requests_total", "counter", "Integration requests by method and function type.");
+        for (IntegrationMethod method : IntegrationMethod.values()) {
+            for (FunctionType type : FunctionType.values()) {
+                text.sample("integration_requests_total", PrometheusText.labels("method", method.getName(), "function", label(type)),
+                        requests(method, type));
+            }
+        }
+
+        text.family("integration_compute_seconds", "histogram", "Time spent computing integrals by method.");
+        computeTimes.forEach((method, histogram) -> text.histogram("integration_compute_seconds",
+                new String[] {"method", method.getName()}, histogram.snapshot(), LATENCY_BOUNDS, SECONDS_PER_NANO));
+
+        text.family("integration_function_evaluations_total", "counter", "Function evaluations of computed integrals by method.");
+        evaluations.forEach((method, count) -> text.sample("integration_function_evaluations_total",
+                PrometheusText.labels("method", method.getName()), count.sum()));
+
+        text.family("integration_partitions", "histogram", "Partitions per integration request.");
+        text.histogram("integration_partitions", new String[0], partitions.snapshot(), PARTITION_BOUNDS, 1);
+
+        text.family("integration_persistence_seconds", "histogram", "Duration of the transactions storing results.");
+        persistenceTimes.forEach((mode, histogram) -> text.histogram("integration_persistence_seconds",
+                new String[] {"mode", label(mode)}, histogram.snapshot(), LATENCY_BOUNDS, SECONDS_PER_NANO));
+
+        text.family("integration_errors_total", "counter", "Errors by kind.");
+        errors.forEach((kind, count) -> text.sample("integration_errors_total", PrometheusText.labels("kind", label(kind)), count.sum()));
+
+        text.family("integration_servlet_request_seconds", "histogram", "Duration of the servlet requests.");
+        new TreeMap<>(servletTimes).forEach((servlet, histogram) -> text.histogram("integration_servlet_request_seconds",
+                new String[] {"servlet", servlet}, histogram.snapshot(), LATENCY_BOUNDS, SECONDS_PER_NANO));
+
+        ResultCache currentCache = cache;
+        if (currentCache != null) {
+            ResultCache.Statistics statistics = currentCache.getStatistics();
+            text.family("integration_cache_hits_total", "counter", "Requests answered from the result cache.")
+                    .sample("integration_cache_hits_total", "", statistics.hits());
+            text.family("integration_cache_misses_total", "counter", "Requests not found in the result cache.")
+                    .sample("integration_cache_misses_total", "", statistics.misses());
+            text.family("integration_cache_evictions_total", "counter", "Results evicted because the cache was full.")
+                    .sample("integration_cache_evictions_total", "", statistics.evictions());
+            text.family("integration_cache_expirations_total", "counter", "Results removed because they expired.")
+                    .sample("integration_cache_expirations_total", "", statistics.expirations());
+            text.family("integration_cache_entries", "gauge", "Results in the cache.")
+                    .sample("integration_cache_entries", "", statistics.size());
+            text.family("integration_cache_hit_ratio", "gauge", "Ratio of cache hits to all cache lookups.")
+                    .sample("integration_cache_hit_ratio", "", statistics.hitRatio());
+        }
+
+        ResultWriter currentWriter = resultWriter;
+        if (currentWriter != null) {
+            text.family("integration_write_behind_pending", "gauge", "Results waiting to be stored by the background writer.")
+                    .sample("integration_write_behind_pending", "", currentWriter.pending());
+            text.family("integration_write_behind_written_total", "counter", "Results stored by the background writer.")
+                    .sample("integration_write_behind_written_total", "", currentWriter.written());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns the label value of an enumeration constant.
+     *
+     * @param constant The constant.
+     * @return the name of the constant in lower case
+     */
+    private static String label(Enum<?> constant) {
+        return constant.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Creates the powers of four between two exponents.
+     *
+     * @param from The first exponent.
+     * @param to The last exponent.
+     * @return the powers 4^from to 4^to
+     */
+    private static long[] powersOfFour(int from, int to) {
+        long[] powers = new long[to - from + 1];
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] = 1L << (2 * (from + i));
+        }
+        return powers;
+    }
+}
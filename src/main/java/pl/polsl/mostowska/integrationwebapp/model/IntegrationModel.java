@@ -1,6 +1,4 @@
 package pl.polsl.mostowska.integrationwebapp.model;
-import java.util.ArrayList;
-import java.util.List;
 import lombok.*;
 
 /**
@@ -8,7 +6,7 @@ import lombok.*;
  * This class provides a framework for implementing various numerical integration methods,
  * such as the trapezoidal rule or Simpson's rule.
  * 
- * It manages integration parameters, the function to be integrated, and intermediate results.
+ * It manages integration parameters, the function to be integrated, and optionally captured intermediate values.
  * 
  * Subclasses must provide a specific implementation for the `calculate()` method.
  * 
@@ -16,13 +14,18 @@ import lombok.*;
  * like getters, setters, and constructors.
  * 
  * @author Wiktoria Mostowska
- * @version 3.0
+ * @version 3.1
  */
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 public abstract class IntegrationModel { 
+    /**
+     * Shared empty array returned when no values were captured.
+     */
+    protected static final double[] NO_SAMPLES = new double[0];
+    
     /**
      * Parameters defining the integration range and the number of partitions.
      */
@@ -34,9 +37,16 @@ public abstract class IntegrationModel {
     private FunctionData data;
     
     /**
-     * List to store intermediate results or computed values during integration.
+     * Settings controlling whether intermediate function values are captured during integration.
+     * Capturing is disabled by default.
+     */
+    private SampleCapture sampleCapture = SampleCapture.off();
+    
+    /**
+     * Function values captured during the last calculation, empty when capturing is disabled.
      */
-    private List<Double> results = new ArrayList<>();
+    @Setter(AccessLevel.PROTECTED)
+    private double[] samples = NO_SAMPLES;
     
     /**
      * Sets the function to be integrated.
@@ -73,6 +83,16 @@ public abstract class IntegrationModel {
     protected FunctionModel getFunction() {
         return function;
     }
+    /**
+     * Creates the buffer for the values captured during a calculation.
+     * 
+     * @param sampleCount The number of function values produced by the calculation.
+     * @return A new buffer, or null if capturing is disabled.
+     */
+    SampleBuffer newSampleBuffer(long sampleCount) {
+        return sampleCapture == null ? null : sampleCapture.newBuffer(sampleCount);
+    }
+    
     /**
      * Abstract method to calculate the integral.
      * This method must be implemented by subclasses to define the specific integration logic.
@@ -96,4 +116,20 @@ public abstract class IntegrationModel {
         }
         return function.evaluate(x);
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks that the result of an integration is a finite number.
+     * The functions do not validate x or their values on every evaluation; a NaN or infinite value
+     * at any point propagates to the sum and is detected here once.
+     *
+     * @param value The result of the integration.
+     * @return The same value.
+     * @throws IllegalArgumentException If the value is NaN or infinite.
+     */
+    static double requireFinite(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Integration result is not a finite number.");
+        }
+        return value;
+    }
+}
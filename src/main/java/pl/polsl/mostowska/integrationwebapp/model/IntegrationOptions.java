@@ -0,0 +1,89 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the optional settings of a single integration performed by {@link IntegrationEngine}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.3
+ *
+ * The use of a record ensures immutability, so one instance can be shared between requests.
+ *
+ * @param sampleCapture Settings controlling whether intermediate function values are captured.
+ * @param tolerance The accuracy target of the adaptive methods; ignored by the other methods.
+ * @param rombergTable Whether the Romberg method returns its full extrapolation table; ignored by the other methods.
+ * @param summation The strategy adding up the function values of the rectangle and trapezoidal methods;
+ *                  ignored by the other methods and by the closed-form sums of polynomials.
+ */
+public record IntegrationOptions(SampleCapture sampleCapture, Tolerance tolerance, boolean rombergTable, Summation summation) {
+
+    /** Shared instance with the default settings. */
+    private static final IntegrationOptions DEFAULTS =
+            new IntegrationOptions(SampleCapture.off(), Tolerance.defaults(), false, Summation.NEUMAIER);
+
+    /**
+     * Validates the options.
+     *
+     * @throws IllegalArgumentException if the sample capture settings, the tolerance or the summation strategy are null.
+     */
+    public IntegrationOptions {
+        if (sampleCapture == null) {
+            throw new IllegalArgumentException("Sample capture settings cannot be null.");
+        }
+        if (tolerance == null) {
+            throw new IllegalArgumentException("Tolerance cannot be null.");
+        }
+        if (summation == null) {
+            throw new IllegalArgumentException("Summation strategy cannot be null.");
+        }
+    }
+
+    /**
+     * Returns the default options, with sample capture disabled, the default tolerance, without the Romberg table
+     * and with compensated summation.
+     *
+     * @return the default options
+     */
+    public static IntegrationOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a copy of these options with different sample capture settings.
+     *
+     * @param sampleCapture the sample capture settings
+     * @return the modified options
+     */
+    public IntegrationOptions withSampleCapture(SampleCapture sampleCapture) {
+        return new IntegrationOptions(sampleCapture, tolerance, rombergTable, summation);
+    }
+
+    /**
+     * Returns a copy of these options with a different tolerance.
+     *
+     * @param tolerance the accuracy target of the adaptive methods
+     * @return the modified options
+     */
+    public IntegrationOptions withTolerance(Tolerance tolerance) {
+        return new IntegrationOptions(sampleCapture, tolerance, rombergTable, summation);
+    }
+
+    /**
+     * Returns a copy of these options with the Romberg table requested or not.
+     *
+     * @param rombergTable whether the Romberg method returns its full extrapolation table
+     * @return the modified options
+     */
+    public IntegrationOptions withRombergTable(boolean rombergTable) {
+        return new IntegrationOptions(sampleCapture, tolerance, rombergTable, summation);
+    }
+
+    /**
+     * Returns a copy of these options with a different summation strategy.
+     *
+     * @param summation the strategy adding up the function values of the rectangle and trapezoidal methods
+     * @return the modified options
+     */
+    public IntegrationOptions withSummation(Summation summation) {
+        return new IntegrationOptions(sampleCapture, tolerance, rombergTable, summation);
+    }
+}
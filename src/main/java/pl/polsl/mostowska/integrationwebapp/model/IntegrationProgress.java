@@ -0,0 +1,93 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the progress of one integration and lets another thread cancel it.
+ * The engine reports every summed chunk of partitions, so the fraction done can be read at any time,
+ * and checks the cancellation flag before every chunk, so a cancelled integration stops within one chunk.
+ * Closed-form and adaptive integrations are reported as done only when they finish.
+ * The class is thread-safe; a tracker is used for a single integration.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public final class IntegrationProgress {
+
+    /** Number of partitions of the integration, 0 until the integration starts. */
+    private volatile long total;
+
+    /** Number of partitions summed so far. */
+    private final AtomicLong done = new AtomicLong();
+
+    /** Whether the integration should stop. */
+    private volatile boolean cancelled;
+
+    /**
+     * Requests the integration to stop. The engine then throws a {@link CancellationException}
+     * before it sums the next chunk.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the integration has been asked to stop.
+     *
+     * @return true if {@link #cancel()} has been called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the fraction of the partitions summed so far.
+     *
+     * @return a number from 0 (not started) to 1 (done)
+     */
+    public double fraction() {
+        long partitions = total;
+        return partitions == 0 ? 0 : Math.min(1.0, (double) done.get() / partitions);
+    }
+
+    /**
+     * Records the start of an integration.
+     *
+     * @param partitions the number of partitions to sum
+     */
+    void start(long partitions) {
+        done.set(0);
+        total = Math.max(1, partitions);
+    }
+
+    /**
+     * Records summed partitions.
+     *
+     * @param partitions the number of partitions summed by a chunk
+     */
+    void advance(long partitions) {
+        done.addAndGet(partitions);
+    }
+
+    /**
+     * Records the end of an integration.
+     */
+    void finish() {
+        if (total == 0) {
+            total = 1;
+        }
+        done.set(total);
+    }
+
+    /**
+     * Stops the integration if it has been cancelled.
+     *
+     * @throws CancellationException if {@link #cancel()} has been called
+     */
+    void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Integration cancelled.");
+        }
+    }
+}
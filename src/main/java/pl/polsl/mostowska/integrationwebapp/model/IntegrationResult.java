@@ -0,0 +1,79 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the immutable outcome of an integration performed by {@link IntegrationEngine}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ *
+ * The captured samples and the Romberg table are copied on the way in and out, so a result can be shared between threads.
+ *
+ * @param method The integration method used.
+ * @param parameters The integration bounds and number of partitions.
+ * @param value The approximated value of the integral.
+ * @param evaluations The number of function evaluations performed.
+ * @param errorEstimate The estimated absolute error of the value, NaN if the method does not estimate it.
+ * @param samples The captured function values, empty if capturing was disabled.
+ * @param rombergTable The rows of the Romberg table, where row k holds k + 1 entries;
+ *                     empty for other methods or if the table was not requested.
+ */
+public record IntegrationResult(IntegrationMethod method, IntegrationParameters parameters,
+        double value, long evaluations, double errorEstimate, double[] samples, double[][] rombergTable) {
+
+    /** Shared empty Romberg table. */
+    private static final double[][] NO_TABLE = new double[0][];
+
+    /**
+     * Creates a result, copying the captured samples and the Romberg table.
+     */
+    public IntegrationResult {
+        samples = samples.length == 0 ? IntegrationModel.NO_SAMPLES : samples.clone();
+        rombergTable = copy(rombergTable);
+    }
+
+    /**
+     * Returns a copy of the captured function values.
+     *
+     * @return the captured samples, empty if capturing was disabled
+     */
+    @Override
+    public double[] samples() {
+        return samples.length == 0 ? samples : samples.clone();
+    }
+
+    /**
+     * Returns the number of captured function values without copying them.
+     *
+     * @return the number of captured samples
+     */
+    public int sampleCount() {
+        return samples.length;
+    }
+
+    /**
+     * Returns a copy of the Romberg table.
+     *
+     * @return the rows of the Romberg table, empty if there is none
+     */
+    @Override
+    public double[][] rombergTable() {
+        return copy(rombergTable);
+    }
+
+    /**
+     * Copies a table row by row.
+     *
+     * @param table the table to copy
+     * @return the copy, or the shared empty table if the table is empty
+     */
+    private static double[][] copy(double[][] table) {
+        if (table.length == 0) {
+            return NO_TABLE;
+        }
+        double[][] copy = new double[table.length][];
+        for (int k = 0; k < table.length; k++) {
+            copy[k] = table[k].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,333 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs long integrations as background jobs, so a request only submits a job and returns its id at once.
+ *
+ * Jobs run on a dedicated executor with a fixed number of threads and a bounded queue; when the queue is full,
+ * new jobs are rejected instead of piling up. Every job has an {@link IntegrationProgress}, so its progress
+ * can be polled and it can be cancelled while it is queued or running. Finished jobs are kept until
+ * more than the configured number of jobs have finished after them.
+ * The class is thread-safe and is shared by all request threads.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public final class JobManager implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(JobManager.class.getName());
+
+    /**
+     * Enumeration of the states of a job.
+     */
+    public enum State {
+        /** Waiting for a free thread. */
+        QUEUED,
+        /** Being integrated. */
+        RUNNING,
+        /** Finished with a result. */
+        COMPLETED,
+        /** Finished with an error. */
+        FAILED,
+        /** Stopped by a cancellation. */
+        CANCELLED;
+
+        /**
+         * Checks whether the state is final.
+         *
+         * @return true if the job has finished
+         */
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    /**
+     * Represents the state of a job at one moment.
+     *
+     * @param id The id of the job.
+     * @param state The state of the job.
+     * @param progress The fraction of the partitions summed, from 0 to 1.
+     * @param result The result, or null if the job has not completed.
+     * @param error The reason the job failed, or null.
+     */
+    public record Snapshot(String id, State state, double progress, IntegrationResult result, String error) {
+    }
+
+    /**
+     * A submitted job.
+     */
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final IntegrationProgress progress = new IntegrationProgress();
+        private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+        private volatile IntegrationResult result;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        private Snapshot snapshot() {
+            State current = state.get();
+            return new Snapshot(id, current, current == State.COMPLETED ? 1.0 : progress.fraction(), result, error);
+        }
+    }
+
+    /** Engine integrating the jobs. */
+    private final IntegrationEngine engine;
+
+    /** Executor running the jobs. */
+    private final ThreadPoolExecutor executor;
+
+    /** Thread sending the snapshots to the watchers of jobs. */
+    private final ScheduledExecutorService ticker;
+
+    /** Submitted jobs by id. */
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /** Ids of the finished jobs, oldest first. */
+    private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+    /** Number of ids in {@link #finished}. */
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    /** Number of finished jobs that are kept. */
+    private final int retainedJobs;
+
+    /**
+     * Creates a job manager.
+     *
+     * @param engine The engine integrating the jobs.
+     * @param threads The number of jobs running at the same time.
+     * @param queueCapacity The number of jobs that can wait for a thread.
+     * @param retainedJobs The number of finished jobs that are kept.
+     * @throws IllegalArgumentException If a number is not positive.
+     */
+    public JobManager(IntegrationEngine engine, int threads, int queueCapacity, int retainedJobs) {
+        if (threads <= 0 || queueCapacity <= 0 || retainedJobs <= 0) {
+            throw new IllegalArgumentException("Threads, queue capacity and retained jobs must be positive numbers.");
+        }
+        this.engine = engine;
+        this.retainedJobs = retainedJobs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "integration-job-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "integration-job-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits an integration.
+     *
+     * @param method The integration method.
+     * @param function The function to integrate.
+     * @param parameters The integration bounds and number of partitions.
+     * @param options The integration options.
+     * @param onSuccess Called with the result in the job thread when the integration completes, or null.
+     * @return The id of the job.
+     * @throws IllegalArgumentException If the method or the function is missing or the parameters are invalid;
+     *         the job is then not submitted.
+     * @throws RejectedExecutionException If the queue is full or the manager is closed.
+     */
+    public String submit(IntegrationMethod method, FunctionModel function, IntegrationParameters parameters,
+            IntegrationOptions options, Consumer<IntegrationResult> onSuccess) {
+        if (method == null || function == null || parameters == null) {
+            throw new IllegalArgumentException("Method, function and parameters of a job cannot be null.");
+        }
+        // Invalid parameters are rejected now instead of failing the job later
+        switch (method) {
+            case RECTANGLE -> Rectangle.validate(parameters);
+            case TRAPEZOID -> Trapezoid.validate(parameters);
+            default -> AdaptiveIntegrationModel.validate(parameters);
+        }
+        Job job = new Job();
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job, method, function, parameters, options, onSuccess));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.id;
+    }
+
+    /**
+     * Returns the state of a job.
+     *
+     * @param id The id of the job.
+     * @return The state of the job, or null if there is no such job.
+     */
+    public Snapshot status(String id) {
+        Job job = jobs.get(id);
+        return job == null ? null : job.snapshot();
+    }
+
+    /**
+     * Cancels a job. A queued job is removed from the queue; a running job stops before its next chunk of partitions.
+     * Finished jobs are not changed.
+     *
+     * @param id The id of the job.
+     * @return The state of the job after the cancellation, or null if there is no such job.
+     */
+    public Snapshot cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        job.progress.cancel();
+        if (job.state.compareAndSet(State.QUEUED, State.CANCELLED)) {
+            Future<?> future = job.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+            executor.purge();
+            retire(job);
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Sends the state of a job to a listener periodically until the job finishes.
+     * The listener is called on the watcher thread and is called last with the final state.
+     * If the listener throws an exception, for example because the client has disconnected, watching stops.
+     *
+     * @param id The id of the job.
+     * @param listener The listener receiving the states.
+     * @param periodMillis The time between two states in milliseconds.
+     * @return false if there is no such job
+     */
+    public boolean watch(String id, Consumer<Snapshot> listener, long periodMillis) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return false;
+        }
+        AtomicReference<ScheduledFuture<?>> schedule = new AtomicReference<>();
+        // The first run may start before the schedule is stored, so a stopped watch cancels itself on its next run
+        AtomicBoolean stopped = new AtomicBoolean();
+        schedule.set(ticker.scheduleAtFixedRate(() -> {
+            if (stopped.get()) {
+                cancelSchedule(schedule);
+                return;
+            }
+            Snapshot snapshot = job.snapshot();
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                stopped.set(true);
+            }
+            if (snapshot.state().isFinished()) {
+                stopped.set(true);
+            }
+            if (stopped.get()) {
+                cancelSchedule(schedule);
+            }
+        }, 0, periodMillis, TimeUnit.MILLISECONDS));
+        return true;
+    }
+
+    /**
+     * Returns the number of jobs waiting for a thread.
+     *
+     * @return The length of the queue.
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of jobs running now.
+     *
+     * @return The number of busy threads.
+     */
+    public int running() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Cancels all jobs and stops the threads of the manager.
+     */
+    @Override
+    public void close() {
+        jobs.values().forEach(job -> job.progress.cancel());
+        executor.shutdownNow();
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Integrates a job in the job thread.
+     */
+    private void run(Job job, IntegrationMethod method, FunctionModel function, IntegrationParameters parameters,
+            IntegrationOptions options, Consumer<IntegrationResult> onSuccess) {
+        if (!job.state.compareAndSet(State.QUEUED, State.RUNNING)) {
+            return;
+        }
+        try {
+            IntegrationResult result = engine.integrate(method, function, parameters, options, job.progress);
+            job.result = result;
+            job.state.set(State.COMPLETED);
+            if (onSuccess != null) {
+                try {
+                    onSuccess.accept(result);
+                } catch (RuntimeException e) {
+                    // The result is kept even if storing it fails
+                    LOGGER.log(Level.WARNING, "Storing the result of job " + job.id + " failed.", e);
+                }
+            }
+        } catch (CancellationException e) {
+            job.state.set(State.CANCELLED);
+        } catch (RuntimeException e) {
+            job.error = e.getMessage();
+            job.state.set(State.FAILED);
+        } finally {
+            retire(job);
+        }
+    }
+
+    /**
+     * Records a finished job and drops the oldest finished jobs beyond the retained number.
+     *
+     * @param job The finished job.
+     */
+    private void retire(Job job) {
+        finished.add(job.id);
+        if (finishedCount.incrementAndGet() > retainedJobs) {
+            String oldest = finished.poll();
+            if (oldest != null) {
+                finishedCount.decrementAndGet();
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    private static void cancelSchedule(AtomicReference<ScheduledFuture<?>> schedule) {
+        ScheduledFuture<?> future = schedule.get();
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+}
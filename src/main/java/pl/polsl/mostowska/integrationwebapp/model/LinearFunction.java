@@ -14,7 +14,7 @@ import lombok.Getter;
  * Lombok annotations are used to generate the constructor and getter methods automatically.
  * 
  * @author Wiktoria Mostowska
- * @version 2.0
+ * @version 2.2
  */
 @AllArgsConstructor
 @Getter
@@ -31,8 +31,12 @@ public class LinearFunction implements FunctionModel {
      * 
      * @param b Coefficient for the linear term (x).
      * @param c Constant term.
+     * @throws IllegalArgumentException If a coefficient is NaN or infinite.
      */
     public LinearFunction(double b, double c) {
+        if (!Double.isFinite(b) || !Double.isFinite(c)) {
+            throw new IllegalArgumentException("Coefficients b and c cannot be NaN or infinite.");
+        }
         this.data = new FunctionData(0, b, c); // a = 0 for linear function
     }
 
@@ -40,17 +44,15 @@ public class LinearFunction implements FunctionModel {
      * Evaluates the linear function at the given input value.
      * The formula used is f(x) = bx + c.
      * 
+     * The coefficients are validated by {@link FunctionData} and x is not checked, so this method can be called
+     * in the innermost integration loop; a NaN or infinite x yields a non-finite value,
+     * which the integration methods reject once for the whole sum.
+     * 
      * @param x The input value.
      * @return The result of the function evaluated at x.
      */
     @Override
     public double evaluate(double x) {
-        if (Double.isNaN(data.b()) || Double.isNaN(data.c()) || Double.isInfinite(data.b()) || Double.isInfinite(data.c())) {
-            throw new IllegalArgumentException("Coefficients b and c cannot be NaN or infinite.");
-        }
-        if (Double.isNaN(x) || Double.isInfinite(x)) {
-            throw new IllegalArgumentException("x value cannot be NaN or infinite.");
-        }
         return data.b() * x + data.c();
     }
 }
@@ -0,0 +1,75 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.List;
+import java.util.Locale;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of one transaction storing integration results in the database.
+ * A transaction of the request thread stores one result; the background writer and batch requests store many,
+ * in which case the partitions and evaluations are the totals of the stored results.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Name("pl.polsl.mostowska.integrationwebapp.Persist")
+@Label("Persist Results")
+@Category({"Integration Web App"})
+@Description("Transaction storing integration results")
+@StackTrace(false)
+public final class PersistEvent extends Event {
+
+    /** Way the results were stored, see {@link IntegrationMetrics.PersistenceMode}. */
+    @Label("Mode")
+    String mode;
+
+    /** Integration method of the results, or null if they were computed with different methods. */
+    @Label("Method")
+    String method;
+
+    /** Number of stored results. */
+    @Label("Results")
+    int results;
+
+    /** Total number of partitions of the stored results. */
+    @Label("Partitions")
+    long partitions;
+
+    /** Total number of function evaluations of the stored results. */
+    @Label("Evaluations")
+    long evaluations;
+
+    /** Whether the transaction was committed. */
+    @Label("Committed")
+    boolean committed;
+
+    /**
+     * Ends the event and commits it with the description of the stored results, if a recording wants it.
+     *
+     * @param mode The way the results were stored.
+     * @param stored The stored results.
+     * @param committed Whether the transaction was committed.
+     */
+    public void commit(IntegrationMetrics.PersistenceMode mode, List<ResultsEntity> stored, boolean committed) {
+        end();
+        if (shouldCommit()) {
+            this.mode = mode.name().toLowerCase(Locale.ROOT);
+            this.committed = committed;
+            results = stored.size();
+            method = stored.isEmpty() ? null : stored.get(0).getMethod();
+            for (ResultsEntity result : stored) {
+                partitions += result.getPartitions() == null ? 0 : result.getPartitions();
+                evaluations += result.getEvaluations() == null ? 0 : result.getEvaluations();
+                if (method != null && !method.equals(result.getMethod())) {
+                    method = null;
+                }
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Represents a polynomial of any degree up to {@link #MAX_DEGREE},
+ * f(x) = c₀ + c₁x + c₂x² + ... + cₙxⁿ.
+ * The coefficients are kept in a primitive array indexed by the power of x and the function is evaluated
+ * with Horner's scheme, ((cₙx + cₙ₋₁)x + ...)x + c₀, which needs one multiplication and one addition per degree.
+ * With the fused variant every step is a single {@link Math#fma} with one rounding, which is more accurate and
+ * as fast on processors with FMA instructions, but much slower on processors without them.
+ *
+ * The coefficients are validated once when the function is created, trailing zero coefficients are dropped,
+ * and the array is never exposed, so the function is immutable and can be shared by all request threads.
+ * The exact integral is calculated in closed form, see {@link #integral(double, double)}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public final class PolynomialFunction implements FunctionModel {
+
+    /** Highest supported degree. */
+    public static final int MAX_DEGREE = 30;
+
+    /** Length of the packed form of a polynomial of the highest supported degree, in bytes. */
+    public static final int MAX_PACKED_LENGTH = Double.BYTES * (MAX_DEGREE + 1);
+
+    /** Coefficients indexed by the power of x; the last one is not zero unless the polynomial is constant. */
+    private final double[] coefficients;
+
+    /** Whether every Horner step is evaluated as a fused multiply-add. */
+    @Getter
+    private final boolean fused;
+
+    /**
+     * Creates a polynomial evaluated with the plain Horner scheme.
+     *
+     * @param coefficients The coefficients c₀, c₁, ..., cₙ, indexed by the power of x.
+     * @throws IllegalArgumentException If there are no coefficients, a coefficient is NaN or infinite
+     *                                  or the degree is greater than {@link #MAX_DEGREE}.
+     */
+    public PolynomialFunction(double... coefficients) {
+        this(coefficients, false);
+    }
+
+    /**
+     * Creates a polynomial.
+     *
+     * @param coefficients The coefficients c₀, c₁, ..., cₙ, indexed by the power of x.
+     * @param fused Whether every Horner step is evaluated as a fused multiply-add.
+     * @throws IllegalArgumentException If there are no coefficients, a coefficient is NaN or infinite
+     *                                  or the degree is greater than {@link #MAX_DEGREE}.
+     */
+    public PolynomialFunction(double[] coefficients, boolean fused) {
+        if (coefficients == null || coefficients.length == 0) {
+            throw new IllegalArgumentException("A polynomial needs at least one coefficient.");
+        }
+        int length = coefficients.length;
+        while (length > 1 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        if (length > MAX_DEGREE + 1) {
+            throw new IllegalArgumentException("Degree of a polynomial cannot be greater than " + MAX_DEGREE + ".");
+        }
+        this.coefficients = new double[length];
+        for (int i = 0; i < length; i++) {
+            if (!Double.isFinite(coefficients[i])) {
+                throw new IllegalArgumentException("Coefficients cannot be NaN or infinite.");
+            }
+            // Adding 0.0 turns -0.0 into 0.0, so equal polynomials have equal text and packed forms
+            this.coefficients[i] = coefficients[i] + 0.0;
+        }
+        this.fused = fused;
+    }
+
+    /**
+     * Creates a polynomial from its coefficients written from the highest power of x down,
+     * in the order of a, b and c in ax² + bx + c.
+     *
+     * @param coefficients The coefficients cₙ, ..., c₁, c₀.
+     * @return The polynomial evaluated with the plain Horner scheme.
+     * @throws IllegalArgumentException If the coefficients are not valid.
+     */
+    public static PolynomialFunction fromHighestPower(double... coefficients) {
+        if (coefficients == null) {
+            throw new IllegalArgumentException("A polynomial needs at least one coefficient.");
+        }
+        double[] reversed = new double[coefficients.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            reversed[i] = coefficients[coefficients.length - 1 - i];
+        }
+        return new PolynomialFunction(reversed);
+    }
+
+    /**
+     * Parses a comma-separated list of coefficients written from the highest power of x down,
+     * e.g. "1, 0, -2" for x² - 2.
+     *
+     * @param text The list of coefficients.
+     * @return The polynomial evaluated with the plain Horner scheme.
+     * @throws IllegalArgumentException If the text is empty, a coefficient is not a number
+     *                                  or the coefficients are not valid.
+     */
+    public static PolynomialFunction parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("A polynomial needs at least one coefficient.");
+        }
+        String[] parts = text.split(",", -1);
+        if (parts.length > MAX_DEGREE + 1) {
+            throw new IllegalArgumentException("Degree of a polynomial cannot be greater than " + MAX_DEGREE + ".");
+        }
+        double[] coefficients = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                coefficients[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid coefficient: '" + parts[i].trim() + "'.");
+            }
+        }
+        return fromHighestPower(coefficients);
+    }
+
+    /**
+     * Reads a polynomial from its packed form, see {@link #pack()}.
+     *
+     * @param packed The coefficients c₀, c₁, ..., cₙ as little-endian IEEE 754 doubles.
+     * @return The polynomial evaluated with the plain Horner scheme.
+     * @throws IllegalArgumentException If the length of the packed form is not a positive multiple of 8
+     *                                  or the coefficients are not valid.
+     */
+    public static PolynomialFunction unpack(byte[] packed) {
+        if (packed == null || packed.length == 0 || packed.length % Double.BYTES != 0) {
+            throw new IllegalArgumentException("Packed coefficients must be a positive multiple of " + Double.BYTES + " bytes.");
+        }
+        if (packed.length > MAX_PACKED_LENGTH) {
+            throw new IllegalArgumentException("Degree of a polynomial cannot be greater than " + MAX_DEGREE + ".");
+        }
+        double[] coefficients = new double[packed.length / Double.BYTES];
+        ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(coefficients);
+        return new PolynomialFunction(coefficients);
+    }
+
+    /**
+     * Returns the packed form of the coefficients stored in the database:
+     * c₀, c₁, ..., cₙ as little-endian IEEE 754 doubles, 8 bytes per coefficient.
+     *
+     * @return The packed coefficients.
+     */
+    public byte[] pack() {
+        ByteBuffer packed = ByteBuffer.allocate(coefficients.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        packed.asDoubleBuffer().put(coefficients);
+        return packed.array();
+    }
+
+    /**
+     * Returns the degree of the polynomial; a constant polynomial has degree 0.
+     *
+     * @return The degree.
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Returns a copy of the coefficients.
+     *
+     * @return The coefficients c₀, c₁, ..., cₙ, indexed by the power of x.
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * Returns the coefficient of a power of x.
+     *
+     * @param power The power of x.
+     * @return The coefficient, or 0 if the power is greater than the degree.
+     * @throws IllegalArgumentException If the power is negative.
+     */
+    public double coefficient(int power) {
+        if (power < 0) {
+            throw new IllegalArgumentException("Power of x cannot be negative.");
+        }
+        return power < coefficients.length ? coefficients[power] : 0;
+    }
+
+    /**
+     * Evaluates the polynomial with Horner's scheme.
+     *
+     * Like the other functions, x is not checked, so this method can be called in the innermost integration loop;
+     * a NaN or infinite x yields a non-finite value, which the integration methods reject once for the whole sum.
+     *
+     * @param x The input value.
+     * @return The value of the polynomial at x.
+     */
+    @Override
+    public double evaluate(double x) {
+        double[] c = coefficients;
+        double value = c[c.length - 1];
+        if (fused) {
+            for (int i = c.length - 2; i >= 0; i--) {
+                value = Math.fma(value, x, c[i]);
+            }
+        } else {
+            for (int i = c.length - 2; i >= 0; i--) {
+                value = value * x + c[i];
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Calculates the exact integral of the polynomial over [lowerBound, upperBound].
+     *
+     * @param lowerBound The lower bound.
+     * @param upperBound The upper bound.
+     * @return The exact integral, negative if the upper bound is less than the lower bound.
+     */
+    public double integral(double lowerBound, double upperBound) {
+        return ClosedFormIntegrals.exact(coefficients, lowerBound, upperBound);
+    }
+
+    /**
+     * Returns the coefficients without copying them, for the closed-form sums.
+     *
+     * @return The coefficients indexed by the power of x; the array must not be modified.
+     */
+    double[] coefficients() {
+        return coefficients;
+    }
+
+    /**
+     * Compares the coefficients and the evaluation variant.
+     *
+     * @param object The object to compare with.
+     * @return true if the object is a polynomial with the same coefficients evaluated the same way.
+     */
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof PolynomialFunction other && fused == other.fused
+                && Arrays.equals(coefficients, other.coefficients);
+    }
+
+    /**
+     * Returns a hash code of the coefficients and the evaluation variant.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(coefficients) + Boolean.hashCode(fused);
+    }
+
+    /**
+     * Returns the polynomial written from the highest power of x down, e.g. "1.5*x^3 - 2.0*x + 1.0".
+     * Zero coefficients are left out and the text can be compiled by {@link ExpressionFunction#compile(String)};
+     * it is also the name under which the polynomial is stored.
+     *
+     * @return The text of the polynomial.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int power = coefficients.length - 1; power >= 0; power--) {
+            double coefficient = coefficients[power];
+            if (coefficient == 0 && (power > 0 || !text.isEmpty())) {
+                continue;
+            }
+            if (text.isEmpty()) {
+                text.append(coefficient);
+            } else {
+                text.append(coefficient < 0 ? " - " : " + ").append(Math.abs(coefficient));
+            }
+            if (power > 0) {
+                text.append("*x");
+            }
+            if (power > 1) {
+                text.append('^').append(power);
+            }
+        }
+        return text.toString();
+    }
+}
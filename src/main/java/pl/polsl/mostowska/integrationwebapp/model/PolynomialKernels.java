@@ -0,0 +1,153 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Fast summation kernels for the polynomial functions {@link LinearFunction}, {@link QuadraticFunction}
+ * and {@link PolynomialFunction}s of degree at most two.
+ *
+ * The kernels evaluate f(x) = ax² + bx + c directly from the coefficients over SIMD lanes
+ * using the incubating Vector API ({@code jdk.incubator.vector}), instead of calling
+ * {@link FunctionModel#evaluate(double)} once per point. The Vector API is only used if the module
+ * has been added to the JVM ({@code --add-modules jdk.incubator.vector}); otherwise {@link #isAvailable()}
+ * returns false and the engine keeps using the scalar path of {@link Rectangle} and {@link Trapezoid}.
+ *
+ * All Vector API types are confined to {@link VectorPolynomialKernels}, which is never loaded
+ * when the module is missing.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ */
+final class PolynomialKernels {
+
+    /** Name of the incubator module providing the Vector API. */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Largest number of values summed by the vector kernel in one block of pairwise summation.
+     * Every lane accumulator of a block adds up at most 256 values, like the scalar blocks,
+     * while the setup of the vectors is spread over enough values.
+     */
+    static final int VECTOR_PAIRWISE_BLOCK = 4096;
+
+    /** Whether the vectorized kernels can be used in this JVM. */
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()
+            && !Boolean.getBoolean("integration.vector.disabled");
+
+    private PolynomialKernels() {
+    }
+
+    /**
+     * Checks whether the vectorized kernels can be used.
+     *
+     * @return true if the Vector API module is present and not disabled
+     *         with the {@code integration.vector.disabled} system property
+     */
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Returns the coefficients of a polynomial function supported by the kernels.
+     *
+     * @param function the function to integrate
+     * @return the coefficients a, b and c of f(x) = ax² + bx + c, or null if the function is not
+     *         a linear or quadratic function or a polynomial of degree at most two
+     */
+    static FunctionData coefficients(FunctionModel function) {
+        if (function instanceof QuadraticFunction quadratic) {
+            return quadratic.getData();
+        } else if (function instanceof LinearFunction linear) {
+            // The quadratic coefficient of a linear function is ignored by its evaluate method.
+            return new FunctionData(0, linear.getData().b(), linear.getData().c());
+        } else if (function instanceof PolynomialFunction polynomial && polynomial.getDegree() <= 2) {
+            return new FunctionData(polynomial.coefficient(2), polynomial.coefficient(1), polynomial.coefficient(0));
+        }
+        return null;
+    }
+
+    /**
+     * Sums the polynomial at the midpoints lowerBound + (i + 1/2)h for i from {@code from} (inclusive)
+     * to {@code to} (exclusive) with the default {@link Summation}.
+     *
+     * @param data the coefficients of the polynomial
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param from the index of the first subinterval
+     * @param to the index after the last subinterval
+     * @return the sum of the polynomial values
+     */
+    static double midpointSum(FunctionData data, double lowerBound, double h, int from, int to) {
+        return midpointSum(data, lowerBound, h, from, to, IntegrationOptions.defaults().summation());
+    }
+
+    /**
+     * Sums the polynomial at the midpoints lowerBound + (i + 1/2)h for i from {@code from} (inclusive)
+     * to {@code to} (exclusive).
+     *
+     * @param data the coefficients of the polynomial
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param from the index of the first subinterval
+     * @param to the index after the last subinterval
+     * @param summation the strategy adding up the values
+     * @return the sum of the polynomial values
+     */
+    static double midpointSum(FunctionData data, double lowerBound, double h, int from, int to, Summation summation) {
+        return sum(data, lowerBound, h, h / 2, from, to, summation);
+    }
+
+    /**
+     * Sums the polynomial at the nodes lowerBound + ih for i from {@code from} (inclusive) to {@code to} (exclusive)
+     * with the default {@link Summation}.
+     *
+     * @param data the coefficients of the polynomial
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param from the index of the first node
+     * @param to the index after the last node
+     * @return the sum of the polynomial values
+     */
+    static double nodeSum(FunctionData data, double lowerBound, double h, int from, int to) {
+        return nodeSum(data, lowerBound, h, from, to, IntegrationOptions.defaults().summation());
+    }
+
+    /**
+     * Sums the polynomial at the nodes lowerBound + ih for i from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param data the coefficients of the polynomial
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param from the index of the first node
+     * @param to the index after the last node
+     * @param summation the strategy adding up the values
+     * @return the sum of the polynomial values
+     */
+    static double nodeSum(FunctionData data, double lowerBound, double h, int from, int to, Summation summation) {
+        return sum(data, lowerBound, h, 0.0, from, to, summation);
+    }
+
+    /**
+     * Sums the polynomial at the points lowerBound + ih + shift with the vectorized kernel of the summation strategy.
+     * Pairwise summation adds up blocks summed by the naive vector kernel, so it vectorizes as well as the naive sum.
+     *
+     * @param data the coefficients of the polynomial
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @param summation the strategy adding up the values
+     * @return the sum of the polynomial values
+     */
+    private static double sum(FunctionData data, double lowerBound, double h, double shift, int from, int to, Summation summation) {
+        double a = data.a();
+        double b = data.b();
+        double c = data.c();
+        return switch (summation) {
+            case NAIVE -> VectorPolynomialKernels.sum(a, b, c, lowerBound, h, shift, from, to);
+            case NEUMAIER -> VectorPolynomialKernels.compensatedSum(a, b, c, lowerBound, h, shift, from, to);
+            case PAIRWISE -> Summation.pairwise(
+                    (blockFrom, blockTo) -> VectorPolynomialKernels.sum(a, b, c, lowerBound, h, shift, blockFrom, blockTo),
+                    VECTOR_PAIRWISE_BLOCK, from, to);
+        };
+    }
+}
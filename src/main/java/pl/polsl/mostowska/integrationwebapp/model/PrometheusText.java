@@ -0,0 +1,127 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Builder of a metrics page in the Prometheus text exposition format, version 0.0.4.
+ * Every metric family starts with its HELP and TYPE lines, followed by one line per sample:
+ * the name, the labels in braces and the value.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+final class PrometheusText {
+
+    private final StringBuilder text = new StringBuilder(4096);
+
+    /**
+     * Starts a metric family.
+     *
+     * @param name The name of the metric.
+     * @param type The type of the metric: counter, gauge or histogram.
+     * @param help The description of the metric.
+     * @return this builder
+     */
+    PrometheusText family(String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /**
+     * Adds a sample with an integer value.
+     *
+     * @param name The name of the sample.
+     * @param labels The labels formatted by {@link #labels(String...)}, or an empty string.
+     * @param value The value.
+     * @return this builder
+     */
+    PrometheusText sample(String name, String labels, long value) {
+        text.append(name).append(labels).append(' ').append(value).append('\n');
+        return this;
+    }
+
+    /**
+     * Adds a sample with a floating-point value.
+     *
+     * @param name The name of the sample.
+     * @param labels The labels formatted by {@link #labels(String...)}, or an empty string.
+     * @param value The value.
+     * @return this builder
+     */
+    PrometheusText sample(String name, String labels, double value) {
+        text.append(name).append(labels).append(' ').append(number(value)).append('\n');
+        return this;
+    }
+
+    /**
+     * Adds the samples of a histogram: the cumulative buckets, the sum and the count.
+     *
+     * @param name The name of the histogram family.
+     * @param labels The labels of the histogram as name-value pairs.
+     * @param snapshot The counters of the histogram.
+     * @param bounds The upper bounds of the exported buckets in recorded units, in increasing order;
+     *               they should be powers of two, so the counts are exact.
+     * @param scale The factor converting recorded units to the exported unit, e.g. 1e-9 for nanoseconds to seconds.
+     * @return this builder
+     */
+    PrometheusText histogram(String name, String[] labels, Histogram.Snapshot snapshot, long[] bounds, double scale) {
+        String[] bucketLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, bucketLabels, 0, labels.length);
+        bucketLabels[labels.length] = "le";
+        long count = snapshot.count();
+        for (long bound : bounds) {
+            bucketLabels[labels.length + 1] = number(bound * scale);
+            sample(name + "_bucket", labels(bucketLabels), snapshot.countAtMost(bound));
+        }
+        bucketLabels[labels.length + 1] = "+Inf";
+        sample(name + "_bucket", labels(bucketLabels), count);
+        sample(name + "_sum", labels(labels), snapshot.sum() * scale);
+        return sample(name + "_count", labels(labels), count);
+    }
+
+    /**
+     * Formats labels.
+     *
+     * @param namesAndValues The names and values of the labels, alternating.
+     * @return the labels in braces with escaped values, or an empty string if there are none
+     */
+    static String labels(String... namesAndValues) {
+        if (namesAndValues.length == 0) {
+            return "";
+        }
+        StringBuilder labels = new StringBuilder("{");
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            String value = namesAndValues[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+            labels.append(namesAndValues[i]).append("=\"").append(value).append('"');
+        }
+        return labels.append('}').toString();
+    }
+
+    /**
+     * Formats a floating-point value the way Prometheus parses it.
+     *
+     * @param value The value.
+     * @return the value, with +Inf, -Inf and NaN for the special values
+     */
+    static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Returns the metrics page.
+     *
+     * @return the text of all families added so far
+     */
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
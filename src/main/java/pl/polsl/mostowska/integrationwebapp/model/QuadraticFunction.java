@@ -10,7 +10,7 @@ import lombok.Getter;
  * Lombok annotations are used to automatically generate the constructor and getter methods.
  * 
  * @author Wiktoria Mostowska
- * @version 2.0
+ * @version 2.1
  */
 @AllArgsConstructor
 @Getter
@@ -27,6 +27,7 @@ public class QuadraticFunction implements FunctionModel {
      * @param a Coefficient for the quadratic term (x²).
      * @param b Coefficient for the linear term (x).
      * @param c Constant term.
+     * @throws IllegalArgumentException If a coefficient is NaN or infinite.
      */
     public QuadraticFunction(double a, double b, double c) {
         this.data = new FunctionData(a, b, c);
@@ -36,17 +37,15 @@ public class QuadraticFunction implements FunctionModel {
      * Evaluates the quadratic function at the given input value.
      * The formula used is f(x) = ax² + bx + c.
      * 
+     * The coefficients are validated by {@link FunctionData} and x is not checked, so this method can be called
+     * in the innermost integration loop; a NaN or infinite x yields a non-finite value,
+     * which the integration methods reject once for the whole sum.
+     * 
      * @param x The input value.
      * @return The result of the function evaluated at x.
      */
     @Override
     public double evaluate(double x) {
-        if (Double.isNaN(data.a()) || Double.isNaN(data.b()) || Double.isNaN(data.c()) || Double.isInfinite(data.a()) || Double.isInfinite(data.b()) || Double.isInfinite(data.c())) {
-            throw new IllegalArgumentException("Coefficients a, b, and c cannot be NaN or infinite.");
-        }
-        if (Double.isInfinite(x) || Double.isNaN(x)) {
-            throw new IllegalArgumentException("x value cannot be NaN or infinite.");
-        }
         return data.a() * x * x + data.b() * x + data.c();
     }
 }
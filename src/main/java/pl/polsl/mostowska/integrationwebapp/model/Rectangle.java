@@ -1,7 +1,4 @@
 package pl.polsl.mostowska.integrationwebapp.model;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.IntStream;
 import pl.polsl.mostowska.integrationwebapp.IntegrationErrorHandler;
 
 /**
@@ -11,9 +8,10 @@ import pl.polsl.mostowska.integrationwebapp.IntegrationErrorHandler;
  * The height of each rectangle is determined by the value of the function at the midpoint of the corresponding subinterval.
  * 
  * This class extends the `IntegrationModel` abstract class and provides the concrete implementation of the `calculate` method.
+ * The calculation itself is implemented by stateless static methods shared with {@link IntegrationEngine}.
  * 
  * @author Wiktoria Mostowska
- * @version 3.0
+ * @version 3.1
  */
 public class Rectangle extends IntegrationModel {
     /** Instance of the error handler to manage exceptions. */
@@ -26,21 +24,39 @@ public class Rectangle extends IntegrationModel {
     public Rectangle() {
         this.errorHandler = new IntegrationErrorHandler();
     }
-    
+
     /**
      * Performs numerical integration using the rectangle method.
      * This method divides the interval [a, b] into `n` equal partitions and calculates the area of rectangles.
      * The height of each rectangle is determined by evaluating the function at the midpoint of each subinterval.
      * 
-     * The result is the sum of all rectangle areas.
+     * The result is the sum of all rectangle areas, added up with the default {@link Summation}.
+     * The heights are stored only if sample capture is enabled, so by default no memory is allocated per partition.
      * 
      * @return The approximated value of the integral.
-     * @throws IllegalArgumentException If the number of partitions is less than or equal to 0 or if the upper bound is less than the lower bound.
+     * @throws IllegalArgumentException If the number of partitions is less than or equal to 0, if the upper bound is less than the lower bound, or if the result is not a finite number.
      */
     @Override
     public double calculate() {
         // Retrieve the integration parameters (lower bound, upper bound, number of partitions).
         IntegrationParameters params = getParameters(); // Get integration parameters
+        validate(params);
+        // Buffer for the captured rectangle heights, null when capturing is disabled.
+        SampleBuffer samples = newSampleBuffer(params.partitions());
+        double result = integrate(getFunction(), params, samples, IntegrationOptions.defaults().summation());
+        setSamples(samples == null ? NO_SAMPLES : samples.toArray());
+        return requireFinite(result);
+    }
+
+    /**
+     * Validates the integration parameters for the rectangle method.
+     * 
+     * @param params The integration parameters.
+     * @throws NullPointerException If the parameters object is null.
+     * @throws IllegalArgumentException If the number of partitions is less than or equal to 0,
+     *         if a bound is NaN or infinite, or if the upper bound is less than the lower bound.
+     */
+    static void validate(IntegrationParameters params) {
         // Check if the parameters object is null
         if (params == null) {
             throw new NullPointerException("Parameters object cannot be null.");
@@ -63,32 +79,62 @@ public class Rectangle extends IntegrationModel {
         if (params.upperBound() < params.lowerBound()) {
             throw new IllegalArgumentException("Upper bound (b) cannot be less than lower bound (a).");
         }
+    }
+
+    /**
+     * Integrates the function over validated parameters using the rectangle method.
+     * This method keeps no state, so it may be called concurrently from many threads.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters.
+     * @param samples The buffer for captured heights, or null if capturing is disabled.
+     * @param summation The strategy adding up the heights.
+     * @return The approximated value of the integral.
+     * @throws IllegalStateException If no function is given.
+     */
+    static double integrate(FunctionModel function, IntegrationParameters params, SampleBuffer samples, Summation summation) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
         // Calculate the width of each rectangle (h).
         double h = (params.upperBound() - params.lowerBound()) / params.partitions();
-        // Clear the results list to ensure no residual data from previous calculations.
-        getResults().clear();
-        // List to store the height of each rectangle for intermediate results.
-        List<Double> values = new ArrayList<>();
-        
-        // Use a functional approach with IntStream to calculate rectangle areas.
-        IntStream.range(0, params.partitions())
-         .forEach(i -> {
-             // Calculate the x-coordinate at the midpoint of the current subinterval.
-             double x = params.lowerBound() + i * h + h / 2;
-             // Calculate the rectangle height by evaluating the function at x.
-             double rectangleHeight = evaluateFunction(x);
-             // Store the rectangle height in the results list.
-             getResults().add(rectangleHeight);
-             // Add the rectangle height to the intermediate values list.
-             values.add(rectangleHeight);            
-         });
-        
-        // Calculate the total sum of rectangle heights using the stream API.
-        double sum = values.stream()
-                   .mapToDouble(Double::doubleValue)
-                   .sum();
-
         // Multiply the total sum by the rectangle width (h) to get the final integral value.
-        return sum * h;
+        return heightSum(function, params.lowerBound(), h, 0, params.partitions(), samples, summation) * h;
+    }
+
+    /**
+     * Sums the rectangle heights of the subintervals from {@code from} (inclusive) to {@code to} (exclusive)
+     * with the default {@link Summation}.
+     * 
+     * @param function The function to integrate.
+     * @param lowerBound The lower bound of the whole integration range.
+     * @param h The width of each rectangle.
+     * @param from The index of the first subinterval.
+     * @param to The index after the last subinterval.
+     * @param samples The buffer for captured heights, or null if capturing is disabled.
+     * @return The sum of the rectangle heights in the range.
+     */
+    static double heightSum(FunctionModel function, double lowerBound, double h, int from, int to, SampleBuffer samples) {
+        return heightSum(function, lowerBound, h, from, to, samples, IntegrationOptions.defaults().summation());
+    }
+
+    /**
+     * Sums the rectangle heights of the subintervals from {@code from} (inclusive) to {@code to} (exclusive).
+     * The whole integral is the sum over all subintervals multiplied by the width,
+     * so consecutive ranges can be summed independently, for example on different threads.
+     * 
+     * @param function The function to integrate.
+     * @param lowerBound The lower bound of the whole integration range.
+     * @param h The width of each rectangle.
+     * @param from The index of the first subinterval.
+     * @param to The index after the last subinterval.
+     * @param samples The buffer for captured heights, or null if capturing is disabled.
+     * @param summation The strategy adding up the heights.
+     * @return The sum of the rectangle heights in the range.
+     */
+    static double heightSum(FunctionModel function, double lowerBound, double h, int from, int to, SampleBuffer samples,
+            Summation summation) {
+        // The height of each rectangle is the value of the function at the midpoint of its subinterval
+        return summation.sum(function, lowerBound, h, h / 2, from, to, samples);
     }
 }
@@ -0,0 +1,186 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.Getter;
+
+/**
+ * Bounded in-process cache of integration results, keyed by the canonical {@link ResultKey} of the request.
+ * When the cache is full, the least recently used entry is evicted. Entries can also expire after a fixed time.
+ *
+ * All operations are thread-safe. The map is only locked for the lookup and the insertion;
+ * results are computed outside the lock, so a slow integration never blocks other requests.
+ * Two concurrent misses for the same key may both compute the result, and the later one is kept.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public final class ResultCache {
+
+    /** Maximum number of cached results. */
+    @Getter
+    private final int maxEntries;
+
+    /** Time after which an entry expires, in nanoseconds; 0 if entries do not expire. */
+    private final long ttlNanos;
+
+    /** Source of the current time in nanoseconds. */
+    private final LongSupplier clock;
+
+    /** Cached entries in access order, from the least to the most recently used. */
+    private final LinkedHashMap<ResultKey, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries The maximum number of cached results.
+     * @param ttlSeconds The time after which an entry expires, in seconds; 0 if entries do not expire.
+     * @throws IllegalArgumentException If the maximum number of entries is not positive or the time is negative.
+     */
+    public ResultCache(int maxEntries, long ttlSeconds) {
+        this(maxEntries, TimeUnit.SECONDS.toNanos(ttlSeconds), System::nanoTime);
+    }
+
+    /**
+     * Creates a cache with the given clock.
+     *
+     * @param maxEntries The maximum number of cached results.
+     * @param ttlNanos The time after which an entry expires, in nanoseconds; 0 if entries do not expire.
+     * @param clock The source of the current time in nanoseconds.
+     * @throws IllegalArgumentException If the maximum number of entries is not positive or the time is negative.
+     */
+    ResultCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum number of cached results must be a positive number.");
+        }
+        if (ttlNanos < 0) {
+            throw new IllegalArgumentException("Time to live cannot be negative.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached result for the key, or computes and caches it.
+     *
+     * @param key The canonical key of the request.
+     * @param computation The integration performed on a miss.
+     * @return The cached or computed result.
+     */
+    public IntegrationResult getOrCompute(ResultKey key, Supplier<IntegrationResult> computation) {
+        IntegrationResult cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        IntegrationResult result = computation.get();
+        put(key, result);
+        return result;
+    }
+
+    /**
+     * Returns the cached result for the key and counts a hit or a miss.
+     *
+     * @param key The canonical key of the request.
+     * @return The cached result, or null if there is none or it has expired.
+     */
+    public IntegrationResult get(ResultKey key) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && ttlNanos != 0 && now - entry.storedAt() >= ttlNanos) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.result();
+        }
+    }
+
+    /**
+     * Caches a result, evicting the least recently used entries if the cache is full.
+     *
+     * @param key The canonical key of the request.
+     * @param result The result of the request.
+     */
+    public void put(ResultKey key, IntegrationResult result) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            entries.put(key, new Entry(result, now));
+            Iterator<Map.Entry<ResultKey, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached results. The counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the current counters and size of the cache.
+     *
+     * @return The statistics of the cache.
+     */
+    public Statistics getStatistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+    }
+
+    /**
+     * A cached result with the time it was stored.
+     *
+     * @param result The cached result.
+     * @param storedAt The time the result was stored, in nanoseconds of the clock.
+     */
+    private record Entry(IntegrationResult result, long storedAt) { }
+
+    /**
+     * Represents a snapshot of the cache counters.
+     *
+     * @param hits The number of requests answered from the cache.
+     * @param misses The number of requests not found in the cache.
+     * @param evictions The number of entries removed because the cache was full.
+     * @param expirations The number of entries removed because they expired.
+     * @param size The current number of cached results.
+     */
+    public record Statistics(long hits, long misses, long evictions, long expirations, int size) {
+
+        /**
+         * Calculates the ratio of hits to all lookups.
+         *
+         * @return the hit ratio, 0 if there were no lookups
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
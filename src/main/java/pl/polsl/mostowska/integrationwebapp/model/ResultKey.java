@@ -0,0 +1,49 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the canonical form of an integration request, used as the key of the {@link ResultCache}.
+ * Two requests with equal keys always produce the same result.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ *
+ * The function is identified by its polynomial coefficients, so a linear function and a quadratic function
+ * with a = 0 share a key. Negative zeros are replaced by positive zeros, the tolerance is only part
+ * of the key for the adaptive methods, and the summation strategy only for the rectangle and trapezoidal methods.
+ *
+ * @param method The integration method.
+ * @param coefficients The coefficients a, b and c of f(x) = ax² + bx + c.
+ * @param parameters The integration bounds and number of partitions.
+ * @param tolerance The accuracy target of an adaptive method, null for the other methods.
+ * @param rombergTable Whether the Romberg table is requested; always false for the other methods.
+ * @param summation The summation strategy of the rectangle or trapezoidal method, null for the other methods.
+ */
+public record ResultKey(IntegrationMethod method, FunctionData coefficients, IntegrationParameters parameters,
+        Tolerance tolerance, boolean rombergTable, Summation summation) {
+
+    /**
+     * Creates the key of an integration request, if its result can be cached.
+     * Only linear and quadratic functions are identified by value; results with captured samples are not cached.
+     *
+     * @param method The integration method.
+     * @param function The function to integrate.
+     * @param parameters The integration bounds and number of partitions.
+     * @param options The integration options.
+     * @return the canonical key, or null if the result cannot be cached
+     */
+    public static ResultKey of(IntegrationMethod method, FunctionModel function,
+            IntegrationParameters parameters, IntegrationOptions options) {
+        FunctionData data = PolynomialKernels.coefficients(function);
+        if (method == null || data == null || parameters == null || options.sampleCapture().isEnabled()) {
+            return null;
+        }
+        // Adding 0.0 turns -0.0 into 0.0, which records would otherwise treat as a different component
+        FunctionData coefficients = new FunctionData(data.a() + 0.0, data.b() + 0.0, data.c() + 0.0);
+        IntegrationParameters bounds = new IntegrationParameters(parameters.lowerBound() + 0.0,
+                parameters.upperBound() + 0.0, parameters.partitions());
+        return new ResultKey(method, coefficients, bounds,
+                method.isAdaptive() ? options.tolerance() : null,
+                method == IntegrationMethod.ROMBERG && options.rombergTable(),
+                method.isAdaptive() ? null : options.summation());
+    }
+}
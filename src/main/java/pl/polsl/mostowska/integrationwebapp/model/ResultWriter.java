@@ -0,0 +1,347 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind persistence of integration results.
+ * Request threads only put the results on a bounded queue; a single background thread drains the queue
+ * and inserts the results in batched transactions, so the response no longer waits for the database.
+ *
+ * A batch is written as soon as it holds {@code batchSize} results, or when the first result in it
+ * has waited for the flush interval. If the queue is full, {@link #submit} blocks until the writer
+ * catches up, which slows down the requests instead of dropping results or exhausting memory.
+ * {@link #close()} writes all queued results before it returns, including results queued while it runs;
+ * only if the background thread does not finish in time are the remaining results logged and counted as failed.
+ *
+ * Within a transaction the inserts are sent as JDBC batches if the persistence provider is configured
+ * for batch writing (see persistence.xml).
+ * If the writer is given {@link IntegrationMetrics}, the duration of every transaction and the failed results are recorded there.
+ * Every transaction is also recorded as a {@link PersistEvent} while a JDK Flight Recorder recording is running.
+ * Failed transactions are logged with the size of their batch; no exception ends the background thread,
+ * so results submitted after a failure are still written.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.5
+ */
+public final class ResultWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ResultWriter.class.getName());
+
+    /** Time close() waits for the queued results to be written. */
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final EntityManagerFactory emf;
+    private final FunctionRepository functions;
+    private final int batchSize;
+    private final long flushNanos;
+    private final BlockingQueue<PendingResult> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /** Metrics recording the transactions and the failed results, or null. */
+    private final IntegrationMetrics metrics;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param emf The factory of the entity managers.
+     * @param functions The repository storing the functions of the results.
+     * @param queueCapacity The maximum number of queued results.
+     * @param batchSize The maximum number of results inserted in one transaction.
+     * @param flushMillis The maximum time a queued result waits for its batch to fill up, in milliseconds.
+     * @throws IllegalArgumentException If a size is not positive or the flush interval is negative.
+     */
+    public ResultWriter(EntityManagerFactory emf, FunctionRepository functions, int queueCapacity, int batchSize, long flushMillis) {
+        this(emf, functions, queueCapacity, batchSize, flushMillis, null);
+    }
+
+    /**
+     * Creates a writer recording its transactions and starts its background thread.
+     *
+     * @param emf The factory of the entity managers.
+     * @param functions The repository storing the functions of the results.
+     * @param queueCapacity The maximum number of queued results.
+     * @param batchSize The maximum number of results inserted in one transaction.
+     * @param flushMillis The maximum time a queued result waits for its batch to fill up, in milliseconds.
+     * @param metrics The metrics recording the transactions and the failed results, or null.
+     * @throws IllegalArgumentException If a size is not positive or the flush interval is negative.
+     */
+    public ResultWriter(EntityManagerFactory emf, FunctionRepository functions, int queueCapacity, int batchSize, long flushMillis,
+            IntegrationMetrics metrics) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive numbers.");
+        }
+        if (flushMillis < 0) {
+            throw new IllegalArgumentException("Flush interval cannot be negative.");
+        }
+        this.emf = emf;
+        this.functions = functions;
+        this.batchSize = batchSize;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        this.metrics = metrics;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "result-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a result for insertion, blocking while the queue is full.
+     * If the writer is closed or the waiting thread is interrupted, the result is written in the calling thread.
+     *
+     * @param result The result to persist; it must not be used by the caller afterwards.
+     * @param functionName The name of the function.
+     * @param a The coefficient a.
+     * @param b The coefficient b.
+     * @param c The coefficient c.
+     */
+    public void submit(ResultsEntity result, String functionName, double a, double b, double c) {
+        submit(result, functionName, a, b, c, null);
+    }
+
+    /**
+     * Queues a result of a function with packed coefficients for insertion, blocking while the queue is full.
+     * If the writer is closed or the waiting thread is interrupted, the result is written in the calling thread.
+     *
+     * @param result The result to persist; it must not be used by the caller afterwards.
+     * @param functionName The name of the function.
+     * @param a The coefficient a.
+     * @param b The coefficient b.
+     * @param c The coefficient c.
+     * @param coefficients The packed coefficients of a polynomial function, or null.
+     */
+    public void submit(ResultsEntity result, String functionName, double a, double b, double c, byte[] coefficients) {
+        PendingResult pending = new PendingResult(result, functionName, a, b, c, coefficients);
+        if (!closed) {
+            try {
+                queue.put(pending);
+                if (closed) {
+                    // close() may have started after the check, and the writer thread may already have exited
+                    writeRemaining();
+                }
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        write(List.of(pending));
+    }
+
+    /**
+     * Stops accepting results and waits until all queued results are written.
+     * Results still queued after the background thread has finished are written by the calling thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) {
+            writeRemaining();
+            return;
+        }
+        List<PendingResult> lost = new ArrayList<>();
+        queue.drainTo(lost);
+        if (!lost.isEmpty()) {
+            LOGGER.log(Level.SEVERE, "The result writer did not finish in " + CLOSE_TIMEOUT_SECONDS + " s; "
+                    + lost.size() + " queued results are not stored.");
+            lost.forEach(pending -> fail());
+        }
+    }
+
+    /**
+     * Returns the number of results waiting to be written.
+     *
+     * @return the number of queued results
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of results written so far.
+     *
+     * @return the number of written results
+     */
+    public long written() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of results that could not be written.
+     *
+     * @return the number of failed results
+     */
+    public long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * Returns the number of batches committed so far.
+     *
+     * @return the number of committed batches
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * Drains the queue in batches until the writer is closed and the queue is empty.
+     */
+    private void run() {
+        List<PendingResult> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                // The timeout lets the thread notice close() while the queue is empty
+                PendingResult first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || closed) {
+                        break;
+                    }
+                    PendingResult next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Interruption only ends the wait; the loop still drains the queue before exiting
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    // An unexpected exception must not end the thread and leave the queue undrained
+                    LOGGER.log(Level.SEVERE, "Writing a batch of " + batch.size() + " results failed.", e);
+                    batch.forEach(pending -> fail());
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the queued results in the calling thread, in batches of at most batchSize results.
+     */
+    private void writeRemaining() {
+        List<PendingResult> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts a batch of results in one transaction.
+     * If the transaction fails, the results are retried one by one, so a single bad result does not lose the others.
+     *
+     * @param batch The results to insert.
+     */
+    private void write(List<PendingResult> batch) {
+        if (insert(batch)) {
+            return;
+        }
+        if (batch.size() == 1) {
+            fail();
+            return;
+        }
+        for (PendingResult pending : batch) {
+            if (!insert(List.of(pending))) {
+                fail();
+            }
+        }
+    }
+
+    /**
+     * Counts a result that could not be written.
+     */
+    private void fail() {
+        failed.increment();
+        if (metrics != null) {
+            metrics.recordError(IntegrationMetrics.ErrorKind.PERSISTENCE);
+        }
+    }
+
+    /**
+     * Inserts results in one transaction.
+     * Any runtime exception, including one thrown while storing the functions, rolls the transaction back.
+     *
+     * @param batch The results to insert.
+     * @return true if the transaction was committed
+     */
+    private boolean insert(List<PendingResult> batch) {
+        long start = System.nanoTime();
+        PersistEvent event = new PersistEvent();
+        event.begin();
+        List<ResultsEntity> results = batch.stream().map(PendingResult::result).toList();
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Long> functionIds = new ArrayList<>(batch.size());
+            for (PendingResult pending : batch) {
+                functionIds.add(functions.findOrCreate(pending.functionName(), pending.a(), pending.b(), pending.c(), pending.coefficients()));
+            }
+            em.getTransaction().begin();
+            for (int i = 0; i < batch.size(); i++) {
+                ResultsEntity result = batch.get(i).result();
+                // A rolled back attempt may already have assigned an id
+                result.setId(null);
+                result.setFunction(em.getReference(FunctionEntity.class, functionIds.get(i)));
+                em.persist(result);
+            }
+            em.getTransaction().commit();
+            written.add(batch.size());
+            batches.increment();
+            if (metrics != null) {
+                metrics.recordPersistence(IntegrationMetrics.PersistenceMode.WRITE_BEHIND, System.nanoTime() - start);
+            }
+            event.commit(IntegrationMetrics.PersistenceMode.WRITE_BEHIND, results, true);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Inserting a batch of " + batch.size() + " results failed.", e);
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            event.commit(IntegrationMetrics.PersistenceMode.WRITE_BEHIND, results, false);
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * A queued result with the function it belongs to.
+     *
+     * @param result The result to persist.
+     * @param functionName The name of the function.
+     * @param a The coefficient a.
+     * @param b The coefficient b.
+     * @param c The coefficient c.
+     * @param coefficients The packed coefficients of a polynomial function, or null.
+     */
+    private record PendingResult(ResultsEntity result, String functionName, double a, double b, double c,
+            byte[] coefficients) { }
+}
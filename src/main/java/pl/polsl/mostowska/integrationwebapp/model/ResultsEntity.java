@@ -4,20 +4,32 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 
 /**
  * Entity class representing the result of a numerical integration calculation.
  * This class is used for storing the integration parameters and result in the database.
+ * Stored results are looked up again before recomputing a request, which is supported by a composite index
+ * on the method, bounds, partitions and function. The history is read newest first,
+ * page by page, through a descending index on the id. The time of the calculation and the number of partitions
+ * are indexed for the filters and aggregates of {@link HistoryRepository}.
  * 
  * @author Wiktoria Mostowska
- * @version 2.0
+ * @version 2.3
  */
 @Entity
-@Table(name = "Result")
+@Table(name = "Result", indexes = {
+    @Index(name = "IDX_RESULT_LOOKUP", columnList = "method, lowerBound, upperBound, partitions, function_id"),
+    @Index(name = "IDX_RESULT_ID_DESC", columnList = "id DESC"),
+    @Index(name = "IDX_RESULT_CREATED_AT", columnList = "createdAt"),
+    @Index(name = "IDX_RESULT_PARTITIONS", columnList = "partitions, result")
+})
 public class ResultsEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -35,6 +47,9 @@ public class ResultsEntity implements Serializable {
     private Double upperBound;
     private Integer partitions;
     private Double result;
+    private Double errorEstimate;
+    private Long evaluations;
+    private LocalDateTime createdAt;
 
     /**
      * Gets the ID of the result entity.
@@ -162,6 +177,70 @@ public class ResultsEntity implements Serializable {
         this.result = result;
     }
 
+    /**
+     * Gets the estimated absolute error of the result.
+     * 
+     * @return the error estimate, or null if the method does not estimate its error
+     */
+    public Double getErrorEstimate() {
+        return errorEstimate;
+    }
+
+    /**
+     * Sets the estimated absolute error of the result.
+     * 
+     * @param errorEstimate the error estimate, or null if the method does not estimate its error
+     */
+    public void setErrorEstimate(Double errorEstimate) {
+        this.errorEstimate = errorEstimate;
+    }
+
+    /**
+     * Gets the number of function evaluations performed by the calculation.
+     * 
+     * @return the number of function evaluations
+     */
+    public Long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Sets the number of function evaluations performed by the calculation.
+     * 
+     * @param evaluations the number of function evaluations
+     */
+    public void setEvaluations(Long evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * Gets the time at which the result was calculated.
+     * 
+     * @return the time of the calculation, or null for results stored before it was recorded
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time at which the result was calculated.
+     * 
+     * @param createdAt the time of the calculation
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Records the time of the calculation when the result is first stored, unless it has been set already.
+     */
+    @PrePersist
+    void onPersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
     /**
      * Returns a hash code for this entity. 
      * The hash code is based on the ID field.
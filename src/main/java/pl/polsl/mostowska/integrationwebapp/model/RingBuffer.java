@@ -0,0 +1,112 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.Getter;
+
+/**
+ * Fixed-capacity buffer keeping the most recently added elements, safe for any number of concurrent writers and readers
+ * without locking.
+ *
+ * Every added element gets the next number of a global sequence and is stored in the slot of that number
+ * modulo the capacity, together with its number. A writer only replaces a slot holding an older number,
+ * so a slow writer cannot overwrite a newer element. Readers check the number of every slot they read,
+ * so they skip slots that are not written yet or have already been reused, and never return an element twice.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ *
+ * @param <T> The type of the elements.
+ */
+public final class RingBuffer<T> {
+
+    /**
+     * An element together with its sequence number.
+     *
+     * @param sequence The number of the element in the order of adding.
+     * @param element The element.
+     */
+    private record Slot<T>(long sequence, T element) {
+    }
+
+    /** Maximum number of kept elements. */
+    @Getter
+    private final int capacity;
+
+    /** Slots of the buffer; an element with sequence number s is stored in slot s modulo the capacity. */
+    private final AtomicReferenceArray<Slot<T>> slots;
+
+    /** Sequence number of the next added element, which is also the number of elements added so far. */
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity The maximum number of kept elements.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of the ring buffer must be a positive number.");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Adds an element, replacing the oldest one if the buffer is full.
+     *
+     * @param element The element to add.
+     * @throws IllegalArgumentException If the element is null.
+     */
+    public void add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element of the ring buffer cannot be null.");
+        }
+        long sequence = next.getAndIncrement();
+        Slot<T> slot = new Slot<>(sequence, element);
+        // Keeps the newer of the two elements if a writer one full cycle ahead has already used the slot
+        slots.accumulateAndGet((int) (sequence % capacity), slot,
+                (current, added) -> current == null || current.sequence() < added.sequence() ? added : current);
+    }
+
+    /**
+     * Returns the kept elements, newest first.
+     * Elements added while the snapshot is taken may or may not be included.
+     *
+     * @return A new list of at most {@link #getCapacity()} elements.
+     */
+    public List<T> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+        List<T> elements = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Slot<T> slot = slots.get((int) (sequence % capacity));
+            // A different number means the slot is not written yet or already holds a newer element
+            if (slot != null && slot.sequence() == sequence) {
+                elements.add(slot.element());
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Returns the number of elements added since the buffer was created, including the replaced ones.
+     *
+     * @return The number of added elements.
+     */
+    public long added() {
+        return next.get();
+    }
+
+    /**
+     * Returns the number of kept elements.
+     *
+     * @return The number of elements, at most {@link #getCapacity()}.
+     */
+    public int size() {
+        return (int) Math.min(next.get(), capacity);
+    }
+}
@@ -0,0 +1,127 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Implementation of the Romberg method.
+ * Row k of the Romberg table starts with the trapezoidal sum for 2^k subintervals, obtained from the
+ * previous row's sum by evaluating the function only at the new midpoints, so no evaluation is ever repeated.
+ * The remaining entries apply Richardson extrapolation:
+ * <pre>
+ *   R(k, j) = R(k, j-1) + (R(k, j-1) - R(k-1, j-1)) / (4^j - 1)
+ * </pre>
+ * The refinement stops when two successive diagonal entries agree within the tolerance, or when the next row
+ * would exceed the number of partitions. The error is estimated as |R(k, k) - R(k-1, k-1)|.
+ * 
+ * Polynomials of degree up to three are integrated exactly from the second row on.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Getter
+@Setter
+public class Romberg extends AdaptiveIntegrationModel {
+
+    /** Maximum number of rows after the first, which keeps the number of subintervals within an int. */
+    private static final int MAX_LEVEL = 30;
+
+    /**
+     * Whether the full Romberg table of the last calculation is kept.
+     */
+    private boolean tableRequested;
+
+    /**
+     * The Romberg table of the last calculation, row by row, if it was requested.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double[][] table = new double[0][];
+
+    /**
+     * Integrates the function with the Romberg method, keeping the table if it was requested.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     */
+    @Override
+    protected Estimate estimate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        List<double[]> rows = tableRequested ? new ArrayList<>() : null;
+        Estimate estimate = integrate(function, params, tolerance, rows);
+        table = rows == null ? new double[0][] : rows.toArray(double[][]::new);
+        return estimate;
+    }
+
+    /**
+     * Returns a copy of the Romberg table of the last calculation.
+     * 
+     * @return the rows of the table, where row k holds k + 1 entries; empty if the table was not requested
+     */
+    public double[][] getTable() {
+        double[][] copy = new double[table.length][];
+        for (int k = 0; k < table.length; k++) {
+            copy[k] = table[k].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Integrates the function with the Romberg method without using the state of a model.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @param table The list receiving the rows of the Romberg table, or null if the table is not needed.
+     * @return The value, error estimate and number of function evaluations.
+     * @throws IllegalStateException If the function is null.
+     */
+    static Estimate integrate(FunctionModel function, IntegrationParameters params, Tolerance tolerance, List<double[]> table) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
+        double lowerBound = params.lowerBound();
+        double width = params.upperBound() - lowerBound;
+        double[] previous = {0.5 * width * (function.evaluate(lowerBound) + function.evaluate(params.upperBound()))};
+        long evaluations = 2;
+        if (table != null) {
+            table.add(previous);
+        }
+        if (width == 0) {
+            return new Estimate(0, 0, evaluations);
+        }
+
+        for (int k = 1; ; k++) {
+            long n = 1L << k;
+            double h = width / n;
+            double midpoints = 0;
+            for (long i = 1; i < n; i += 2) {
+                midpoints += function.evaluate(lowerBound + i * h);
+            }
+            evaluations += n / 2;
+
+            double[] row = new double[k + 1];
+            row[0] = 0.5 * previous[0] + h * midpoints;
+            double factor = 1;
+            for (int j = 1; j <= k; j++) {
+                factor *= 4;
+                row[j] = row[j - 1] + (row[j - 1] - previous[j - 1]) / (factor - 1);
+            }
+            if (table != null) {
+                table.add(row);
+            }
+
+            double error = Math.abs(row[k] - previous[k - 1]);
+            // A single extrapolation step can agree by chance, so at least two are required
+            boolean converged = k > 1 && error <= tolerance.target(row[k]);
+            if (converged || n * 2 > params.partitions() || k == MAX_LEVEL) {
+                return new Estimate(row[k], error, evaluations);
+            }
+            previous = row;
+        }
+    }
+}
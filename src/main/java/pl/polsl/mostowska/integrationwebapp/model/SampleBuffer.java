@@ -0,0 +1,96 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size primitive buffer for the function values captured during one integration.
+ * The buffer is allocated once for the expected number of values, so recording a value never allocates.
+ *
+ * Instances are created by {@link SampleCapture#newBuffer(long)} and are not thread-safe.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+final class SampleBuffer {
+    /** Number of values produced by the integration. */
+    private final long sampleCount;
+    /** Distance between captured values, or 0 when the minimum and maximum of each bucket are kept. */
+    private final long stride;
+    /** Captured values, or the minimum of each bucket. */
+    private final double[] values;
+    /** Maximum of each bucket, or null when values are captured with a stride. */
+    private final double[] maxima;
+
+    private SampleBuffer(long sampleCount, long stride, double[] values, double[] maxima) {
+        this.sampleCount = sampleCount;
+        this.stride = stride;
+        this.values = values;
+        this.maxima = maxima;
+    }
+
+    /**
+     * Creates a buffer keeping every {@code stride}-th value.
+     *
+     * @param sampleCount the number of values produced by the integration
+     * @param stride the distance between captured values
+     * @return a new buffer
+     */
+    static SampleBuffer strided(long sampleCount, long stride) {
+        return new SampleBuffer(sampleCount, stride, new double[(int) ((sampleCount + stride - 1) / stride)], null);
+    }
+
+    /**
+     * Creates a buffer keeping the minimum and maximum of each bucket.
+     *
+     * @param sampleCount the number of values produced by the integration
+     * @param buckets the number of buckets
+     * @return a new buffer
+     */
+    static SampleBuffer minMax(long sampleCount, int buckets) {
+        double[] minima = new double[buckets];
+        double[] maxima = new double[buckets];
+        Arrays.fill(minima, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxima, Double.NEGATIVE_INFINITY);
+        return new SampleBuffer(sampleCount, 0, minima, maxima);
+    }
+
+    /**
+     * Records the value produced at the given position of the integration.
+     *
+     * @param index the position of the value, from 0 to the number of values minus one
+     * @param value the function value
+     */
+    void record(int index, double value) {
+        if (maxima == null) {
+            if (index % stride == 0) {
+                values[(int) (index / stride)] = value;
+            }
+        } else {
+            int bucket = (int) ((long) index * values.length / sampleCount);
+            if (value < values[bucket]) {
+                values[bucket] = value;
+            }
+            if (value > maxima[bucket]) {
+                maxima[bucket] = value;
+            }
+        }
+    }
+
+    /**
+     * Returns the captured values.
+     * For the minimum and maximum mode the array holds the minimum and maximum of consecutive buckets in turn.
+     *
+     * @return the captured values
+     */
+    double[] toArray() {
+        if (maxima == null) {
+            return values;
+        }
+        double[] result = new double[2 * values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[2 * i] = values[i];
+            result[2 * i + 1] = maxima[i];
+        }
+        return result;
+    }
+}
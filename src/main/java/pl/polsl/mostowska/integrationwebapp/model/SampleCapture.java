@@ -0,0 +1,153 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Describes whether and how the intermediate function values of an integration are captured.
+ * Capturing is disabled by default, in which case the integration does not allocate any memory
+ * for intermediate values. At most {@link #MAX_POINTS} points or buckets are captured, whatever the number
+ * of partitions: a full capture of more values is downsampled with a stride, so a single request
+ * cannot allocate more than a fixed amount of memory for its samples.
+ *
+ * The use of a record ensures immutability, so one instance can be shared between requests.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ *
+ * @param mode The capture mode.
+ * @param points The number of captured points for {@link Mode#STRIDED},
+ *               or the number of buckets for {@link Mode#MIN_MAX}. Ignored for other modes.
+ */
+public record SampleCapture(Mode mode, int points) {
+
+    /**
+     * Available capture modes.
+     */
+    public enum Mode {
+        /** No values are captured. */
+        OFF,
+        /** Every value is captured into a primitive array. */
+        FULL,
+        /** Every k-th value is captured, so that at most the given number of points is kept. */
+        STRIDED,
+        /** The values are split into buckets and the minimum and maximum of each bucket are kept. */
+        MIN_MAX
+    }
+
+    /** Largest number of captured values of a full or strided capture, and of buckets of a min/max capture. */
+    public static final int MAX_POINTS = 10_000;
+
+    /** Shared instance with capturing disabled. */
+    private static final SampleCapture OFF = new SampleCapture(Mode.OFF, 0);
+
+    /**
+     * Validates the capture settings.
+     *
+     * @throws IllegalArgumentException if the mode is null or the number of points is not between 1 and
+     *                                  {@link #MAX_POINTS} for a downsampling mode.
+     */
+    public SampleCapture {
+        if (mode == null) {
+            throw new IllegalArgumentException("Capture mode cannot be null.");
+        }
+        if ((mode == Mode.STRIDED || mode == Mode.MIN_MAX) && points <= 0) {
+            throw new IllegalArgumentException("Number of captured points must be a positive number.");
+        }
+        if ((mode == Mode.STRIDED || mode == Mode.MIN_MAX) && points > MAX_POINTS) {
+            throw new IllegalArgumentException("Number of captured points cannot be greater than " + MAX_POINTS + ".");
+        }
+    }
+
+    /**
+     * Returns the settings with capturing disabled.
+     *
+     * @return capture settings for {@link Mode#OFF}
+     */
+    public static SampleCapture off() {
+        return OFF;
+    }
+
+    /**
+     * Returns the settings capturing every value, or {@link #MAX_POINTS} values with a stride if there are more.
+     *
+     * @return capture settings for {@link Mode#FULL}
+     */
+    public static SampleCapture full() {
+        return new SampleCapture(Mode.FULL, 0);
+    }
+
+    /**
+     * Returns the settings capturing every k-th value.
+     *
+     * @param points the maximum number of captured values
+     * @return capture settings for {@link Mode#STRIDED}
+     */
+    public static SampleCapture strided(int points) {
+        return new SampleCapture(Mode.STRIDED, points);
+    }
+
+    /**
+     * Returns the settings capturing the minimum and maximum of each bucket.
+     *
+     * @param buckets the number of buckets
+     * @return capture settings for {@link Mode#MIN_MAX}
+     */
+    public static SampleCapture minMax(int buckets) {
+        return new SampleCapture(Mode.MIN_MAX, buckets);
+    }
+
+    /**
+     * Creates capture settings from textual request parameters.
+     *
+     * @param mode the mode name ("off", "full", "strided", "minmax"); null or empty means off
+     * @param points the number of points or buckets; may be null for "off" and "full"
+     * @return the capture settings
+     * @throws IllegalArgumentException if the mode is unknown or the number of points is invalid.
+     */
+    public static SampleCapture parse(String mode, String points) {
+        if (mode == null || mode.isEmpty()) {
+            return OFF;
+        }
+        return switch (mode) {
+            case "off" -> OFF;
+            case "full" -> full();
+            case "strided" -> strided(Integer.parseInt(points));
+            case "minmax" -> minMax(Integer.parseInt(points));
+            default -> throw new IllegalArgumentException("Unknown capture mode: " + mode);
+        };
+    }
+
+    /**
+     * Checks whether any values are captured.
+     *
+     * @return true if the mode is other than {@link Mode#OFF}
+     */
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * Creates a buffer for capturing the given number of values.
+     * The count is a long, because the trapezoidal method produces one value more than its number of partitions.
+     *
+     * @param sampleCount the number of values produced by the integration
+     * @return a new buffer holding at most {@link #MAX_POINTS} values or buckets, or null if capturing is disabled
+     */
+    SampleBuffer newBuffer(long sampleCount) {
+        return switch (mode) {
+            case OFF -> null;
+            case FULL -> SampleBuffer.strided(sampleCount, stride(sampleCount, MAX_POINTS));
+            case STRIDED -> SampleBuffer.strided(sampleCount, stride(sampleCount, points));
+            case MIN_MAX -> SampleBuffer.minMax(sampleCount, (int) Math.min(points, sampleCount));
+        };
+    }
+
+    /**
+     * Calculates the smallest stride keeping at most the given number of values.
+     *
+     * @param sampleCount the number of values produced by the integration
+     * @param points the maximum number of captured values
+     * @return the distance between captured values, at least 1
+     */
+    private static long stride(long sampleCount, int points) {
+        return Math.max(1, (sampleCount + points - 1) / points);
+    }
+}
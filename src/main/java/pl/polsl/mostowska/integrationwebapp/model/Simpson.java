@@ -0,0 +1,82 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Implementation of the composite Simpson method.
+ * The number of subintervals is doubled, starting from two, until two successive Simpson sums
+ * agree within the tolerance. Every refinement only evaluates the function at the new midpoints:
+ * the previous nodes are kept in the trapezoidal sum T(n), and the Simpson sum is obtained from
+ * S(2n) = (4 T(2n) - T(n)) / 3.
+ * 
+ * The error of S(2n) is estimated as |S(2n) - S(n)| / 15, and the returned value includes
+ * the corresponding Richardson correction.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class Simpson extends AdaptiveIntegrationModel {
+
+    /**
+     * Integrates the function with the composite Simpson method.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     */
+    @Override
+    protected Estimate estimate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        return integrate(function, params, tolerance);
+    }
+
+    /**
+     * Integrates the function with the composite Simpson method without using the state of a model.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters; the number of partitions limits the number of subintervals.
+     * @param tolerance The accuracy target.
+     * @return The value, error estimate and number of function evaluations.
+     * @throws IllegalStateException If the function is null.
+     */
+    static Estimate integrate(FunctionModel function, IntegrationParameters params, Tolerance tolerance) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
+        double lowerBound = params.lowerBound();
+        double width = params.upperBound() - lowerBound;
+        long evaluations = 2;
+        double trapezoid = 0.5 * width * (function.evaluate(lowerBound) + function.evaluate(params.upperBound()));
+        if (width == 0) {
+            return new Estimate(0, 0, evaluations);
+        }
+
+        double simpson = Double.NaN;
+        // Simpson's rule needs at least two subintervals, even if the limit is lower
+        for (long n = 2; ; n *= 2) {
+            double h = width / n;
+            double midpoints = 0;
+            for (long i = 1; i < n; i += 2) {
+                midpoints += function.evaluate(lowerBound + i * h);
+            }
+            evaluations += n / 2;
+            double refined = 0.5 * trapezoid + h * midpoints;
+            double next = (4 * refined - trapezoid) / 3;
+            trapezoid = refined;
+
+            double value = next;
+            double error;
+            if (Double.isNaN(simpson)) {
+                // Without a previous Simpson sum, compare against the trapezoidal sum
+                error = Math.abs(next - refined);
+            } else {
+                double difference = next - simpson;
+                error = Math.abs(difference) / 15;
+                value += difference / 15;
+            }
+            simpson = next;
+            boolean converged = n > 2 && error <= tolerance.target(value);
+            if (converged || n * 2 > params.partitions()) {
+                return new Estimate(value, error, evaluations);
+            }
+        }
+    }
+}
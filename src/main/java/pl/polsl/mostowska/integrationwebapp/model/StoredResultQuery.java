@@ -0,0 +1,58 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents the JPQL query finding the stored result of a request equivalent to a {@link ResultKey},
+ * so the result can be reused instead of computed again.
+ *
+ * Only the rows of linear and quadratic functions are identified by their coefficients a, b and c.
+ * Expression functions are stored under their expression text with zero coefficients, and polynomial functions
+ * store only their three lowest coefficients there, next to the packed ones; so the query selects the functions
+ * by name and without packed coefficients, and never answers a request with the result of another kind of function.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ *
+ * @param jpql The query selecting the stored results {@code r} of the functions {@code f}.
+ * @param parameters The values of the named parameters of the query.
+ */
+public record StoredResultQuery(String jpql, Map<String, Object> parameters) {
+
+    /**
+     * Creates the query of a request, if its result may be taken from the database.
+     * Romberg tables are not stored, so requests for them are always computed.
+     * Neither is the summation strategy, and the stored results were added up with the default one,
+     * so rectangle and trapezoid requests choosing another strategy are always computed as well.
+     * Results of the adaptive methods are only reused if their error estimate meets the requested tolerance.
+     *
+     * @param key The canonical key of the request.
+     * @return the query, or null if the request must be computed
+     */
+    public static StoredResultQuery of(ResultKey key) {
+        if (key.rombergTable()
+                || key.summation() != null && key.summation() != IntegrationOptions.defaults().summation()) {
+            return null;
+        }
+        String jpql = "SELECT r FROM ResultsEntity r JOIN r.function f WHERE r.method = :method"
+                + " AND r.lowerBound = :lowerBound AND r.upperBound = :upperBound AND r.partitions = :partitions"
+                + " AND f.functionName IN ('linear', 'quadratic') AND f.coefficients IS NULL"
+                + " AND f.a = :a AND f.b = :b AND f.c = :c AND r.result IS NOT NULL";
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("method", key.method().getName());
+        parameters.put("lowerBound", key.parameters().lowerBound());
+        parameters.put("upperBound", key.parameters().upperBound());
+        parameters.put("partitions", key.parameters().partitions());
+        parameters.put("a", key.coefficients().a());
+        parameters.put("b", key.coefficients().b());
+        parameters.put("c", key.coefficients().c());
+        if (key.tolerance() != null) {
+            jpql += " AND (r.errorEstimate <= :absolute OR r.errorEstimate <= :relative * ABS(r.result))";
+            parameters.put("absolute", key.tolerance().absolute());
+            parameters.put("relative", key.tolerance().relative());
+        }
+        return new StoredResultQuery(jpql, Collections.unmodifiableMap(parameters));
+    }
+}
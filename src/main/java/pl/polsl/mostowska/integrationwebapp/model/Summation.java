@@ -0,0 +1,198 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Enumeration of the strategies adding up the function values of the rectangle and trapezoidal sums.
+ * Each strategy is identified by the name used in requests.
+ *
+ * The rounding error of a sum of n values limits the accuracy of the methods long before the discretization error does
+ * at 10⁸ and more partitions. Naive summation loses up to about n·ε of the sum of the absolute values,
+ * pairwise summation about ε·log₂(n), and compensated summation about ε independently of n,
+ * where ε ≈ 1.1·10⁻¹⁶ is the unit roundoff of a double.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@AllArgsConstructor
+@Getter
+public enum Summation {
+    /** Adds the values one by one into a single double; the fastest, and the least accurate for many partitions. */
+    NAIVE("naive"),
+    /**
+     * Kahan-Babuška-Neumaier compensated summation. The rounding error of every addition is recovered exactly
+     * and accumulated separately, also when the added value is larger than the running sum.
+     */
+    NEUMAIER("neumaier"),
+    /**
+     * Blocked pairwise summation. The range is halved until at most {@link #PAIRWISE_BLOCK} values remain;
+     * a block is added up with independent accumulators, so the additions of the block can run in parallel
+     * or in vector lanes, and the block sums are added in a balanced tree.
+     */
+    PAIRWISE("pairwise");
+
+    /** Largest number of values added up directly by pairwise summation. */
+    static final int PAIRWISE_BLOCK = 256;
+
+    /** Name of the strategy used in requests. */
+    private final String name;
+
+    /**
+     * Finds the strategy with the given request name.
+     *
+     * @param name the name of the strategy (e.g., "naive", "neumaier", "pairwise")
+     * @return the matching strategy, or null if there is none
+     */
+    public static Summation fromName(String name) {
+        for (Summation summation : values()) {
+            if (summation.name.equals(name)) {
+                return summation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sums the function at the points x = lowerBound + ih + shift for i from {@code from} (inclusive)
+     * to {@code to} (exclusive) with this strategy.
+     *
+     * @param function the function to integrate
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval (h / 2 for midpoints, 0 for nodes)
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @param samples the buffer for captured values, or null if capturing is disabled
+     * @return the sum of the function values
+     */
+    double sum(FunctionModel function, double lowerBound, double h, double shift, int from, int to, SampleBuffer samples) {
+        return switch (this) {
+            case NAIVE -> naive(function, lowerBound, h, shift, from, to, samples);
+            case NEUMAIER -> neumaier(function, lowerBound, h, shift, from, to, samples);
+            case PAIRWISE -> pairwise((blockFrom, blockTo) -> block(function, lowerBound, h, shift, blockFrom, blockTo, samples),
+                    PAIRWISE_BLOCK, from, to);
+        };
+    }
+
+    /**
+     * Adds up the sums of blocks of a range in a balanced tree.
+     * The range is always halved at the same index, so the result depends only on the range and the block size.
+     *
+     * @param block the kernel summing a block of values
+     * @param blockSize the largest number of values summed by the kernel
+     * @param from the index of the first value
+     * @param to the index after the last value
+     * @return the sum of the values
+     */
+    static double pairwise(ChunkedSum.RangeSum block, int blockSize, int from, int to) {
+        if (to - from <= blockSize) {
+            return block.sum(from, to);
+        }
+        int middle = (from + to) >>> 1;
+        return pairwise(block, blockSize, from, middle) + pairwise(block, blockSize, middle, to);
+    }
+
+    /**
+     * Adds the values one by one.
+     *
+     * @param function the function to integrate
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @param samples the buffer for captured values, or null
+     * @return the sum of the function values
+     */
+    private static double naive(FunctionModel function, double lowerBound, double h, double shift, int from, int to,
+            SampleBuffer samples) {
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            double value = function.evaluate(lowerBound + i * h + shift);
+            if (samples != null) {
+                samples.record(i, value);
+            }
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Adds the values with Kahan-Babuška-Neumaier compensation.
+     * Only the running sum depends on the previous iteration through a single addition; the lost low-order
+     * bits are accumulated on the side, so the loop is not much slower than the naive one.
+     *
+     * @param function the function to integrate
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @param samples the buffer for captured values, or null
+     * @return the compensated sum of the function values
+     */
+    private static double neumaier(FunctionModel function, double lowerBound, double h, double shift, int from, int to,
+            SampleBuffer samples) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (int i = from; i < to; i++) {
+            double value = function.evaluate(lowerBound + i * h + shift);
+            if (samples != null) {
+                samples.record(i, value);
+            }
+            double total = sum + value;
+            // The larger operand keeps its bits; the rounding error is what the smaller one lost
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        double result = sum + compensation;
+        // An infinite value makes the compensation NaN; report the infinite sum instead
+        return Double.isNaN(result) && Double.isInfinite(sum) ? sum : result;
+    }
+
+    /**
+     * Adds up one block of pairwise summation with four independent accumulators.
+     *
+     * @param function the function to integrate
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @param samples the buffer for captured values, or null
+     * @return the sum of the function values in the block
+     */
+    private static double block(FunctionModel function, double lowerBound, double h, double shift, int from, int to,
+            SampleBuffer samples) {
+        double first = 0.0;
+        double second = 0.0;
+        double third = 0.0;
+        double fourth = 0.0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            double v0 = function.evaluate(lowerBound + i * h + shift);
+            double v1 = function.evaluate(lowerBound + (i + 1) * h + shift);
+            double v2 = function.evaluate(lowerBound + (i + 2) * h + shift);
+            double v3 = function.evaluate(lowerBound + (i + 3) * h + shift);
+            if (samples != null) {
+                samples.record(i, v0);
+                samples.record(i + 1, v1);
+                samples.record(i + 2, v2);
+                samples.record(i + 3, v3);
+            }
+            first += v0;
+            second += v1;
+            third += v2;
+            fourth += v3;
+        }
+        for (; i < to; i++) {
+            double value = function.evaluate(lowerBound + i * h + shift);
+            if (samples != null) {
+                samples.record(i, value);
+            }
+            first += value;
+        }
+        return (first + second) + (third + fourth);
+    }
+}
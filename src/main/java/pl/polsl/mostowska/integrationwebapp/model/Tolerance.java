@@ -0,0 +1,56 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+/**
+ * Represents the accuracy target of the tolerance-driven integration methods.
+ * An integration stops as soon as its error estimate is within the absolute tolerance
+ * or within the relative tolerance times the magnitude of the integral, whichever is larger.
+ * 
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ * 
+ * The use of a record ensures immutability, so one instance can be shared between requests.
+ * 
+ * @param absolute The absolute tolerance.
+ * @param relative The relative tolerance.
+ */
+public record Tolerance(double absolute, double relative) {
+
+    /** Default absolute and relative tolerance. */
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+
+    /** Shared instance with the default tolerances. */
+    private static final Tolerance DEFAULTS = new Tolerance(DEFAULT_TOLERANCE, DEFAULT_TOLERANCE);
+
+    /**
+     * Validates the tolerances.
+     * 
+     * @throws IllegalArgumentException if a tolerance is negative, NaN or infinite, or both are zero.
+     */
+    public Tolerance {
+        if (!Double.isFinite(absolute) || !Double.isFinite(relative) || absolute < 0 || relative < 0) {
+            throw new IllegalArgumentException("Tolerances must be non-negative numbers.");
+        }
+        if (absolute == 0 && relative == 0) {
+            throw new IllegalArgumentException("At least one tolerance must be positive.");
+        }
+    }
+
+    /**
+     * Returns the default tolerances.
+     * 
+     * @return tolerances of {@value #DEFAULT_TOLERANCE}
+     */
+    public static Tolerance defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Calculates the largest error accepted for an integral of the given value.
+     * 
+     * @param value the current estimate of the integral
+     * @return the accepted error
+     */
+    public double target(double value) {
+        return Math.max(absolute, relative * Math.abs(value));
+    }
+}
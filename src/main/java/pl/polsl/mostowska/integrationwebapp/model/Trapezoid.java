@@ -3,13 +3,14 @@ import pl.polsl.mostowska.integrationwebapp.IntegrationErrorHandler;
 
 /**
  * Implementation of numerical integration using the trapezoidal method.
- * This method approximates the integral by dividing the interval [a, b] into subintervals 
+ * This method approximates the integral by dividing the interval [a, b] into subintervals
  * and calculating the area of trapezoids under the curve.
  * 
  * The sum of the areas of these trapezoids is used to estimate the integral.
+ * The calculation itself is implemented by stateless static methods shared with {@link IntegrationEngine}.
  * 
  * @author Wiktoria Mostowska
- * @version 3.0
+ * @version 3.2
  */
 public class Trapezoid extends IntegrationModel {
     /** Instance of the error handler to manage exceptions. */
@@ -22,7 +23,7 @@ public class Trapezoid extends IntegrationModel {
     public Trapezoid() {
         this.errorHandler = new IntegrationErrorHandler();
     }
-    
+
     /**
      * Performs integration using the trapezoidal method.
      * The trapezoidal method approximates the area under the curve by dividing the interval [a, b] into 'n' partitions.
@@ -30,12 +31,29 @@ public class Trapezoid extends IntegrationModel {
      * The sum of these trapezoidal areas gives the approximation of the integral.
      * 
      * @return The approximated value of the integral.
-     * @throws IllegalArgumentException If the number of partitions is less than or equal to 0 or if the upper bound is less than the lower bound.
+     * @throws IllegalArgumentException If the number of partitions is less than or equal to 0, if the upper bound is less than the lower bound, or if the result is not a finite number.
      */
     @Override
     public double calculate(){
         // Retrieve the integration parameters (lower bound, upper bound, number of partitions).
         IntegrationParameters params = getParameters();
+        validate(params);
+        // Buffer for the captured heights at all n + 1 nodes, null when capturing is disabled.
+        SampleBuffer samples = newSampleBuffer(params.partitions() + 1L);
+        double result = integrate(getFunction(), params, samples, IntegrationOptions.defaults().summation());
+        setSamples(samples == null ? NO_SAMPLES : samples.toArray());
+        return requireFinite(result);
+    }
+
+    /**
+     * Validates the integration parameters for the trapezoidal method.
+     * 
+     * @param params The integration parameters.
+     * @throws NullPointerException If the parameters object is null.
+     * @throws IllegalArgumentException If the number of partitions is less than or equal to 0,
+     *         if a bound is NaN or infinite, or if the upper bound is less than the lower bound.
+     */
+    static void validate(IntegrationParameters params) {
         // Check if the parameters object is null
         if (params == null) {
             throw new NullPointerException("Parameters object cannot be null");
@@ -58,26 +76,70 @@ public class Trapezoid extends IntegrationModel {
         if (params.upperBound() < params.lowerBound()) {
             throw new IllegalArgumentException("Upper bound (b) cannot be less than the lower bound (a).");
         }
+    }
 
+    /**
+     * Integrates the function over validated parameters using the trapezoidal method.
+     * This method keeps no state, so it may be called concurrently from many threads.
+     * 
+     * @param function The function to integrate.
+     * @param params The validated integration parameters.
+     * @param samples The buffer for the heights at the n + 1 nodes, or null if capturing is disabled.
+     * @param summation The strategy adding up the heights at the internal nodes.
+     * @return The approximated value of the integral.
+     * @throws IllegalStateException If no function is given.
+     */
+    static double integrate(FunctionModel function, IntegrationParameters params, SampleBuffer samples, Summation summation) {
+        if (function == null) {
+            throw new IllegalStateException("No function selected for integration.");
+        }
         // Calculate the width of each subinterval (h).
         double h = (params.upperBound() - params.lowerBound()) / params.partitions();
-        // Clear the results list to ensure it only contains results from the current calculation.
-        getResults().clear();
-        // Initialize the sum with contributions from the endpoints of the interval.
-        double sum = 0.5 * (evaluateFunction(params.lowerBound()) + evaluateFunction(params.upperBound()));
-        // Iterate over the internal points of the interval, summing the function values.
-        for (int i = 1; i < params.partitions(); i++) {
-            // Calculate the x-coordinate of the current point.
-            double x = params.lowerBound() + i * h;
-            // Evaluate the function at x to get the height of the trapezoid.
-            double trapezoidHeight = evaluateFunction(x);
-            // Store the height in the results list for intermediate values.
-            getResults().add(trapezoidHeight);
-            // Add the height to the running sum.
-            sum += trapezoidHeight;
+        // Evaluate the function at the endpoints of the interval.
+        double lowerHeight = function.evaluate(params.lowerBound());
+        double upperHeight = function.evaluate(params.upperBound());
+        if (samples != null) {
+            samples.record(0, lowerHeight);
+            samples.record(params.partitions(), upperHeight);
         }
+        // Sum the function values at the internal points of the interval
+        // and add the contributions from the endpoints of the interval.
+        double sum = 0.5 * (lowerHeight + upperHeight) + nodeSum(function, params.lowerBound(), h, 1, params.partitions(), samples, summation);
         // Multiply the sum by the width of each subinterval (h) to get the final integral value.
         return sum * h;
-    }  
-}
+    }
+
+    /**
+     * Sums the function values at the nodes from {@code from} (inclusive) to {@code to} (exclusive)
+     * with the default {@link Summation}.
+     * 
+     * @param function The function to integrate.
+     * @param lowerBound The lower bound of the whole integration range.
+     * @param h The width of each subinterval.
+     * @param from The index of the first node.
+     * @param to The index after the last node.
+     * @param samples The buffer for captured heights, or null if capturing is disabled.
+     * @return The sum of the function values at the nodes in the range.
+     */
+    static double nodeSum(FunctionModel function, double lowerBound, double h, int from, int to, SampleBuffer samples) {
+        return nodeSum(function, lowerBound, h, from, to, samples, IntegrationOptions.defaults().summation());
+    }
 
+    /**
+     * Sums the function values at the nodes from {@code from} (inclusive) to {@code to} (exclusive).
+     * The internal nodes can be split into consecutive ranges and summed independently, for example on different threads.
+     * 
+     * @param function The function to integrate.
+     * @param lowerBound The lower bound of the whole integration range.
+     * @param h The width of each subinterval.
+     * @param from The index of the first node.
+     * @param to The index after the last node.
+     * @param samples The buffer for captured heights, or null if capturing is disabled.
+     * @param summation The strategy adding up the function values.
+     * @return The sum of the function values at the nodes in the range.
+     */
+    static double nodeSum(FunctionModel function, double lowerBound, double h, int from, int to, SampleBuffer samples,
+            Summation summation) {
+        return summation.sum(function, lowerBound, h, 0.0, from, to, samples);
+    }
+}
@@ -0,0 +1,150 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of the polynomial kernels.
+ * This class must only be used through {@link PolynomialKernels} after checking
+ * {@link PolynomialKernels#isAvailable()}, because loading it fails when the
+ * {@code jdk.incubator.vector} module is not present.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+final class VectorPolynomialKernels {
+
+    /** Widest vector shape supported by the processor. */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Lane offsets 0, 1, ..., L - 1 added to the index of the first point of each vector. */
+    private static final DoubleVector LANE_OFFSETS;
+
+    static {
+        double[] offsets = new double[SPECIES.length()];
+        for (int lane = 0; lane < offsets.length; lane++) {
+            offsets[lane] = lane;
+        }
+        LANE_OFFSETS = DoubleVector.fromArray(SPECIES, offsets, 0);
+    }
+
+    private VectorPolynomialKernels() {
+    }
+
+    /**
+     * Sums f(x) = ax² + bx + c at the points x = lowerBound + ih + shift for i from {@code from} (inclusive)
+     * to {@code to} (exclusive).
+     * The points and values are computed with the same operations as the scalar
+     * {@link QuadraticFunction#evaluate(double)}, so every value is identical; only the order of the additions differs.
+     *
+     * @param a the quadratic coefficient
+     * @param b the linear coefficient
+     * @param c the constant term
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval (h / 2 for midpoints, 0 for nodes)
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @return the sum of the polynomial values
+     */
+    static double sum(double a, double b, double c, double lowerBound, double h, double shift, int from, int to) {
+        int lanes = SPECIES.length();
+        DoubleVector va = DoubleVector.broadcast(SPECIES, a);
+        DoubleVector vb = DoubleVector.broadcast(SPECIES, b);
+        DoubleVector vc = DoubleVector.broadcast(SPECIES, c);
+        // Two independent accumulators hide the latency of the vector additions.
+        DoubleVector first = DoubleVector.zero(SPECIES);
+        DoubleVector second = DoubleVector.zero(SPECIES);
+        int i = from;
+        int pairBound = from + (to - from) / (2 * lanes) * (2 * lanes);
+        for (; i < pairBound; i += 2 * lanes) {
+            first = first.add(evaluate(va, vb, vc, lowerBound, h, shift, i));
+            second = second.add(evaluate(va, vb, vc, lowerBound, h, shift, i + lanes));
+        }
+        int vectorBound = from + SPECIES.loopBound(to - from);
+        for (; i < vectorBound; i += lanes) {
+            first = first.add(evaluate(va, vb, vc, lowerBound, h, shift, i));
+        }
+        double sum = first.add(second).reduceLanes(VectorOperators.ADD);
+        // Remaining points that do not fill a whole vector.
+        for (; i < to; i++) {
+            double x = lowerBound + i * h + shift;
+            sum += a * x * x + b * x + c;
+        }
+        return sum;
+    }
+
+    /**
+     * Sums f(x) = ax² + bx + c at the points x = lowerBound + ih + shift for i from {@code from} (inclusive)
+     * to {@code to} (exclusive) with Kahan-Babuška-Neumaier compensation in every lane.
+     * The lanes and their compensations are combined with the same compensated addition.
+     *
+     * @param a the quadratic coefficient
+     * @param b the linear coefficient
+     * @param c the constant term
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval (h / 2 for midpoints, 0 for nodes)
+     * @param from the index of the first point
+     * @param to the index after the last point
+     * @return the compensated sum of the polynomial values
+     */
+    static double compensatedSum(double a, double b, double c, double lowerBound, double h, double shift, int from, int to) {
+        int lanes = SPECIES.length();
+        DoubleVector va = DoubleVector.broadcast(SPECIES, a);
+        DoubleVector vb = DoubleVector.broadcast(SPECIES, b);
+        DoubleVector vc = DoubleVector.broadcast(SPECIES, c);
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        DoubleVector compensations = DoubleVector.zero(SPECIES);
+        int i = from;
+        int vectorBound = from + SPECIES.loopBound(to - from);
+        for (; i < vectorBound; i += lanes) {
+            DoubleVector values = evaluate(va, vb, vc, lowerBound, h, shift, i);
+            DoubleVector totals = sums.add(values);
+            VectorMask<Double> sumLarger = sums.abs().compare(VectorOperators.GE, values.abs());
+            // The rounding error is what the smaller operand lost
+            DoubleVector lost = values.sub(totals).add(sums).blend(sums.sub(totals).add(values), sumLarger);
+            compensations = compensations.add(lost);
+            sums = totals;
+        }
+        double[] laneSums = sums.toArray();
+        double sum = 0.0;
+        double compensation = compensations.reduceLanes(VectorOperators.ADD);
+        for (double laneSum : laneSums) {
+            double total = sum + laneSum;
+            compensation += Math.abs(sum) >= Math.abs(laneSum) ? (sum - total) + laneSum : (laneSum - total) + sum;
+            sum = total;
+        }
+        // Remaining points that do not fill a whole vector.
+        for (; i < to; i++) {
+            double x = lowerBound + i * h + shift;
+            double value = a * x * x + b * x + c;
+            double total = sum + value;
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        double result = sum + compensation;
+        // An infinite value makes the compensation NaN; report the infinite sum instead
+        return Double.isNaN(result) && Double.isInfinite(sum) ? sum : result;
+    }
+
+    /**
+     * Evaluates the polynomial at the points of one vector starting at index {@code i}.
+     *
+     * @param va the quadratic coefficient in all lanes
+     * @param vb the linear coefficient in all lanes
+     * @param vc the constant term in all lanes
+     * @param lowerBound the lower bound of the whole integration range
+     * @param h the width of each subinterval
+     * @param shift the offset of the point within its subinterval
+     * @param i the index of the point in the first lane
+     * @return the polynomial values in all lanes
+     */
+    private static DoubleVector evaluate(DoubleVector va, DoubleVector vb, DoubleVector vc,
+            double lowerBound, double h, double shift, int i) {
+        DoubleVector x = LANE_OFFSETS.add(i).mul(h).add(lowerBound).add(shift);
+        return va.mul(x).mul(x).add(vb.mul(x)).add(vc);
+    }
+}
@@ -0,0 +1,136 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import pl.polsl.mostowska.integrationwebapp.model.HistoryFilter;
+import pl.polsl.mostowska.integrationwebapp.model.HistoryGrouping;
+import pl.polsl.mostowska.integrationwebapp.model.HistoryRepository;
+
+/**
+ * REST resource filtering and aggregating the calculation history in the database.
+ *
+ * Both endpoints accept the same filter parameters: {@code method}, {@code function},
+ * {@code aMin}, {@code aMax}, {@code bMin}, {@code bMax}, {@code cMin}, {@code cMax},
+ * {@code lowerBoundMin}, {@code lowerBoundMax}, {@code upperBoundMin}, {@code upperBoundMax}
+ * and the days {@code from} and {@code to} (e.g., 2024-10-18, both inclusive).
+ * {@code GET resources/history} returns the selected results newest first, a page of {@code limit} results
+ * after the id {@code after}. {@code GET resources/history/aggregate} returns the count and the minimum,
+ * maximum and average result, optionally grouped by {@code groupBy=method|function|partitions}.
+ * Invalid parameters are answered with 400 Bad Request.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Path("history")
+@Produces(MediaType.APPLICATION_JSON)
+public class HistoryResource {
+    /** Number of results returned if no limit is given. */
+    static final int DEFAULT_PAGE_SIZE = 50;
+    /** Largest number of results returned at once. */
+    static final int MAX_PAGE_SIZE = 500;
+
+    private static HistoryRepository repository;
+
+    /**
+     * Returns a page of the selected results.
+     *
+     * @param uri the request URI with the filter and page parameters
+     * @return the selected results, or 400 Bad Request if a parameter is invalid
+     */
+    @GET
+    public Response find(@Context UriInfo uri) {
+        try {
+            MultivaluedMap<String, String> query = uri.getQueryParameters();
+            String after = query.getFirst("after");
+            String limit = query.getFirst("limit");
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Integer.parseInt(limit);
+            if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+            }
+            return Response.ok(repository().find(filter(query), after == null ? null : Long.valueOf(after), pageSize)).build();
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Returns the aggregates of the selected results.
+     *
+     * @param uri the request URI with the filter and grouping parameters
+     * @return the aggregates, or 400 Bad Request if a parameter is invalid
+     */
+    @GET
+    @Path("aggregate")
+    public Response aggregate(@Context UriInfo uri) {
+        try {
+            MultivaluedMap<String, String> query = uri.getQueryParameters();
+            HistoryGrouping grouping = HistoryGrouping.fromName(query.getFirst("groupBy"));
+            if (grouping == null) {
+                throw new IllegalArgumentException("Grouping must be method, function or partitions.");
+            }
+            return Response.ok(repository().aggregate(filter(query), grouping)).build();
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    /**
+     * Creates the filter from the query parameters.
+     *
+     * @param query the query parameters
+     * @return the filter
+     * @throws IllegalArgumentException if a parameter is not a valid value
+     */
+    private static HistoryFilter filter(MultivaluedMap<String, String> query) {
+        try {
+            return new HistoryFilter(query.getFirst("method"), query.getFirst("function"),
+                    range(query, "a"), range(query, "b"), range(query, "c"),
+                    range(query, "lowerBound"), range(query, "upperBound"),
+                    date(query.getFirst("from")), date(query.getFirst("to")));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Days must be given as yyyy-mm-dd.", e);
+        }
+    }
+
+    private static HistoryFilter.Range range(MultivaluedMap<String, String> query, String name) {
+        String min = query.getFirst(name + "Min");
+        String max = query.getFirst(name + "Max");
+        if (min == null && max == null) {
+            return null;
+        }
+        return new HistoryFilter.Range(min == null ? null : Double.valueOf(min), max == null ? null : Double.valueOf(max));
+    }
+
+    private static LocalDate date(String value) {
+        return value == null ? null : LocalDate.parse(value);
+    }
+
+    private static Response badRequest(IllegalArgumentException e) {
+        // NumberFormatException is an IllegalArgumentException with the unparsed text as its message
+        String message = e instanceof NumberFormatException ? "Invalid number format." : e.getMessage();
+        return Response.status(Response.Status.BAD_REQUEST).entity(message).type(MediaType.TEXT_PLAIN).build();
+    }
+
+    /**
+     * Returns the repository, creating the entity manager factory on first use.
+     *
+     * @return the shared history repository
+     */
+    private static synchronized HistoryRepository repository() {
+        if (repository == null) {
+            EntityManagerFactory emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
+            repository = new HistoryRepository(emf);
+        }
+        return repository;
+    }
+}
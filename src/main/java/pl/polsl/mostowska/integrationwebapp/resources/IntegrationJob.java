@@ -0,0 +1,98 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import pl.polsl.mostowska.integrationwebapp.model.*;
+
+/**
+ * Represents one integration requested through the REST API, as read from JSON.
+ * The fields have the names of the form parameters of the integration page;
+ * missing tolerances fall back to the defaults.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.4
+ *
+ * @param method The name of the integration method (e.g., "rectangle", "gaussKronrod").
+ * @param function The name of the function ("linear", "quadratic", "polynomial" or "expression").
+ * @param a The coefficient a, used only by quadratic functions.
+ * @param b The coefficient b.
+ * @param c The coefficient c.
+ * @param lowerBound The lower integration bound.
+ * @param upperBound The upper integration bound.
+ * @param partitions The number of partitions, or the limit on the subintervals of an adaptive method.
+ * @param absoluteTolerance The absolute tolerance of an adaptive method.
+ * @param relativeTolerance The relative tolerance of an adaptive method.
+ * @param expression The text of a user-defined expression in x, used only by expression functions.
+ * @param coefficients The coefficients of a polynomial from the highest power of x down, used only by polynomial functions.
+ * @param summation The name of the summation strategy of the rectangle and trapezoidal methods (e.g., "pairwise").
+ */
+public record IntegrationJob(String method, String function, Double a, Double b, Double c,
+        Double lowerBound, Double upperBound, Integer partitions,
+        Double absoluteTolerance, Double relativeTolerance, String expression,
+        double[] coefficients, String summation) {
+
+    /**
+     * Returns the integration method of the job.
+     *
+     * @return the method
+     * @throws IllegalArgumentException if the method is unknown
+     */
+    IntegrationMethod toMethod() {
+        IntegrationMethod integrationMethod = IntegrationMethod.fromName(method);
+        if (integrationMethod == null) {
+            throw new IllegalArgumentException("Unknown integration method: " + method);
+        }
+        return integrationMethod;
+    }
+
+    /**
+     * Creates the function of the job; missing coefficients are 0.
+     *
+     * @return a LinearFunction, a QuadraticFunction, a PolynomialFunction or a compiled ExpressionFunction
+     * @throws IllegalArgumentException if the function is unknown, a coefficient is not finite or the expression is invalid
+     */
+    FunctionModel toFunction() {
+        return switch (function == null ? "" : function) {
+            case "linear" -> new LinearFunction(valueOf(b), valueOf(c));
+            case "quadratic" -> new QuadraticFunction(valueOf(a), valueOf(b), valueOf(c));
+            case "polynomial" -> PolynomialFunction.fromHighestPower(coefficients);
+            case "expression" -> ExpressionFunction.compile(expression);
+            default -> throw new IllegalArgumentException("Unknown function: " + function);
+        };
+    }
+
+    /**
+     * Creates the integration parameters of the job.
+     *
+     * @return the parameters
+     * @throws IllegalArgumentException if the bounds or the number of partitions are missing
+     */
+    IntegrationParameters toParameters() {
+        if (lowerBound == null || upperBound == null || partitions == null) {
+            throw new IllegalArgumentException("The bounds and the number of partitions are required.");
+        }
+        return new IntegrationParameters(lowerBound, upperBound, partitions);
+    }
+
+    /**
+     * Creates the integration options of the job; missing tolerances and summation fall back to the defaults.
+     *
+     * @return the options
+     * @throws IllegalArgumentException if the tolerances are invalid or the summation is unknown
+     */
+    IntegrationOptions toOptions() {
+        IntegrationOptions options = IntegrationOptions.defaults().withTolerance(new Tolerance(
+                absoluteTolerance == null ? Tolerance.DEFAULT_TOLERANCE : absoluteTolerance,
+                relativeTolerance == null ? Tolerance.DEFAULT_TOLERANCE : relativeTolerance));
+        if (summation == null) {
+            return options;
+        }
+        Summation strategy = Summation.fromName(summation);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown summation: " + summation);
+        }
+        return options.withSummation(strategy);
+    }
+
+    private static double valueOf(Double coefficient) {
+        return coefficient == null ? 0 : coefficient;
+    }
+}
@@ -0,0 +1,39 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import pl.polsl.mostowska.integrationwebapp.model.IntegrationResult;
+
+/**
+ * Represents the answer to one {@link IntegrationJob}, as written to JSON.
+ * Either the result fields or the error are set.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ *
+ * @param value The calculated integral.
+ * @param errorEstimate The error estimate of an adaptive method.
+ * @param evaluations The number of function evaluations.
+ * @param error The reason the job failed.
+ */
+public record IntegrationOutcome(Double value, Double errorEstimate, Long evaluations, String error) {
+
+    /**
+     * Creates the answer of a successful job.
+     *
+     * @param result the result of the integration
+     * @return the answer
+     */
+    static IntegrationOutcome of(IntegrationResult result) {
+        return new IntegrationOutcome(result.value(),
+                Double.isNaN(result.errorEstimate()) ? null : result.errorEstimate(), result.evaluations(), null);
+    }
+
+    /**
+     * Creates the answer of a failed job.
+     *
+     * @param error the reason the job failed
+     * @return the answer
+     */
+    static IntegrationOutcome failed(String error) {
+        return new IntegrationOutcome(null, null, null, error);
+    }
+}
@@ -0,0 +1,243 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import jakarta.servlet.ServletContext;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import pl.polsl.mostowska.integrationwebapp.model.*;
+import pl.polsl.mostowska.integrationwebapp.servlet.IntegrationContextListener;
+
+/**
+ * REST resource integrating a batch of functions in one request.
+ *
+ * {@code POST resources/integrations} accepts a JSON array of {@link IntegrationJob}s and returns a JSON array
+ * of {@link IntegrationOutcome}s in the same order. The jobs are integrated in parallel on the shared engine,
+ * repeated jobs are answered from the shared result cache, and all successful results are stored
+ * in one database transaction. An invalid job is answered with its error and does not affect the other jobs.
+ * Every job, invalid job and transaction is recorded in the metrics of the application,
+ * and every transaction as a {@link PersistEvent}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.8
+ */
+@Path("integrations")
+public class IntegrationResource {
+    /** Largest number of jobs accepted in one request. */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final Logger LOGGER = Logger.getLogger(IntegrationResource.class.getName());
+
+    private static EntityManagerFactory emf;
+    private static FunctionRepository functions;
+
+    @Context
+    private ServletContext context;
+
+    /**
+     * Integrates a batch of jobs.
+     *
+     * @param jobs the jobs to integrate
+     * @return the outcomes in the order of the jobs, or 400 Bad Request if the batch is missing or too large
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response integrate(List<IntegrationJob> jobs) {
+        IntegrationMetrics metrics = (IntegrationMetrics) context.getAttribute(IntegrationContextListener.METRICS_ATTRIBUTE);
+        if (jobs == null || jobs.isEmpty() || jobs.size() > MAX_BATCH_SIZE) {
+            if (metrics != null) {
+                metrics.recordError(IntegrationMetrics.ErrorKind.INVALID_REQUEST);
+            }
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("The request must contain between 1 and " + MAX_BATCH_SIZE + " jobs.")
+                    .type(MediaType.TEXT_PLAIN).build();
+        }
+        IntegrationEngine engine = (IntegrationEngine) context.getAttribute(IntegrationContextListener.ENGINE_ATTRIBUTE);
+        ResultCache cache = (ResultCache) context.getAttribute(IntegrationContextListener.CACHE_ATTRIBUTE);
+        List<Completed> completed = engine.invokeAll(jobs, job -> integrate(engine, cache, metrics, job));
+
+        List<IntegrationOutcome> outcomes = new ArrayList<>(completed.size());
+        List<Completed> successful = new ArrayList<>(completed.size());
+        for (Completed job : completed) {
+            outcomes.add(job.outcome());
+            if (job.entity() != null) {
+                successful.add(job);
+            }
+        }
+        store(context, successful);
+        return Response.ok(outcomes).build();
+    }
+
+    /**
+     * Integrates one job, answering it from the result cache if possible.
+     *
+     * @param engine the shared integration engine
+     * @param cache the shared result cache, or null if it is disabled
+     * @param metrics the metrics recording the job, or null
+     * @param job the job to integrate
+     * @return the outcome, together with the entity and history record to store if the job succeeded
+     */
+    private static Completed integrate(IntegrationEngine engine, ResultCache cache, IntegrationMetrics metrics, IntegrationJob job) {
+        try {
+            if (job == null) {
+                throw new IllegalArgumentException("The job is missing.");
+            }
+            IntegrationMethod method = job.toMethod();
+            FunctionModel function = job.toFunction();
+            IntegrationParameters parameters = job.toParameters();
+            IntegrationOptions options = job.toOptions();
+            if (metrics != null) {
+                metrics.recordRequest(method, function, parameters);
+            }
+            ResultKey key = cache == null ? null : ResultKey.of(method, function, parameters, options);
+            IntegrationResult result = key == null
+                    ? engine.integrate(method, function, parameters, options)
+                    : cache.getOrCompute(key, () -> engine.integrate(method, function, parameters, options));
+            return Completed.of(job, function, result);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            if (metrics != null) {
+                metrics.recordError(IntegrationMetrics.ErrorKind.INVALID_REQUEST);
+            }
+            return new Completed(IntegrationOutcome.failed(e.getMessage()), null, null, null, 0, 0, 0, null);
+        }
+    }
+
+    /**
+     * Adds the successful jobs to the in-memory history and stores their results in one transaction.
+     *
+     * @param context the servlet context holding the history and the metrics
+     * @param successful the successful jobs
+     */
+    static void store(ServletContext context, List<Completed> successful) {
+        RingBuffer<HistoryRecord> history = IntegrationContextListener.history(context);
+        if (history != null) {
+            successful.forEach(job -> history.add(job.record()));
+        }
+        persistAll(successful, (IntegrationMetrics) context.getAttribute(IntegrationContextListener.METRICS_ATTRIBUTE));
+    }
+
+    /**
+     * Stores the results of the successful jobs in one transaction.
+     *
+     * @param completed the successful jobs
+     * @param metrics the metrics recording the transaction, or null
+     */
+    private static void persistAll(List<Completed> completed, IntegrationMetrics metrics) {
+        if (completed.isEmpty()) {
+            return;
+        }
+        initPersistence();
+        long start = System.nanoTime();
+        PersistEvent event = new PersistEvent();
+        event.begin();
+        List<ResultsEntity> entities = completed.stream().map(Completed::entity).toList();
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Long> functionIds = new ArrayList<>(completed.size());
+            for (Completed job : completed) {
+                functionIds.add(functions.findOrCreate(job.functionName(), job.a(), job.b(), job.c(), job.coefficients()));
+            }
+            em.getTransaction().begin();
+            for (int i = 0; i < completed.size(); i++) {
+                ResultsEntity entity = completed.get(i).entity();
+                entity.setFunction(em.getReference(FunctionEntity.class, functionIds.get(i)));
+                em.persist(entity);
+            }
+            em.getTransaction().commit();
+            if (metrics != null) {
+                metrics.recordPersistence(IntegrationMetrics.PersistenceMode.BATCH, System.nanoTime() - start);
+            }
+            event.commit(IntegrationMetrics.PersistenceMode.BATCH, entities, true);
+        } catch (PersistenceException e) {
+            LOGGER.log(Level.WARNING, "Storing a batch of " + completed.size() + " results failed.", e);
+            if (metrics != null) {
+                completed.forEach(job -> metrics.recordError(IntegrationMetrics.ErrorKind.PERSISTENCE));
+            }
+            event.commit(IntegrationMetrics.PersistenceMode.BATCH, entities, false);
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Creates the entity manager factory and the function repository on first use.
+     */
+    private static synchronized void initPersistence() {
+        if (emf == null) {
+            emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
+            functions = new FunctionRepository(emf);
+        }
+    }
+
+    /**
+     * A processed job.
+     *
+     * @param outcome The answer to the job.
+     * @param entity The result to store, or null if the job failed.
+     * @param record The record of the in-memory history, or null if the job failed.
+     * @param functionName The name of the stored function.
+     * @param a The stored coefficient a.
+     * @param b The stored coefficient b.
+     * @param c The stored coefficient c.
+     * @param coefficients The stored packed coefficients of a polynomial function, or null.
+     */
+    record Completed(IntegrationOutcome outcome, ResultsEntity entity, HistoryRecord record,
+            String functionName, double a, double b, double c, byte[] coefficients) {
+
+        /**
+         * Creates a successful job with the result to store.
+         *
+         * @param job the job
+         * @param function the function created from the job
+         * @param result the result of the integration
+         * @return the processed job
+         */
+        static Completed of(IntegrationJob job, FunctionModel function, IntegrationResult result) {
+            IntegrationMethod method = result.method();
+            IntegrationParameters parameters = result.parameters();
+            boolean quadratic = function instanceof QuadraticFunction;
+            PolynomialFunction polynomial = function instanceof PolynomialFunction p ? p : null;
+            String expression = function instanceof ExpressionFunction compiled ? compiled.getExpression()
+                    : polynomial != null ? polynomial.toString() : null;
+            double a = job.a() == null || expression != null ? 0 : job.a();
+            double b = job.b() == null || expression != null ? 0 : job.b();
+            double c = job.c() == null || expression != null ? 0 : job.c();
+            ResultsEntity entity = new ResultsEntity();
+            entity.setMethod(method.getName());
+            entity.setLowerBound(parameters.lowerBound());
+            entity.setUpperBound(parameters.upperBound());
+            entity.setPartitions(parameters.partitions());
+            entity.setResult(result.value());
+            entity.setErrorEstimate(Double.isNaN(result.errorEstimate()) ? null : result.errorEstimate());
+            entity.setEvaluations(result.evaluations());
+            entity.setCreatedAt(LocalDateTime.now());
+            HistoryRecord record = new HistoryRecord(method, result.value(), result.errorEstimate(), parameters.lowerBound(),
+                    parameters.upperBound(), parameters.partitions(), result.evaluations(), IntegrationMetrics.FunctionType.of(function),
+                    a, b, c, expression);
+            // Like in the integration page, linear functions are stored with a = 0, expression functions
+            // under their normalized expression and polynomial functions under their text with the packed coefficients
+            if (polynomial != null) {
+                return new Completed(IntegrationOutcome.of(result), entity, record, expression, polynomial.coefficient(2),
+                        polynomial.coefficient(1), polynomial.coefficient(0), polynomial.pack());
+            }
+            String functionName = expression != null ? expression : quadratic ? "quadratic" : "linear";
+            return new Completed(IntegrationOutcome.of(result), entity, record, functionName, quadratic ? a : 0, b, c, null);
+        }
+    }
+}
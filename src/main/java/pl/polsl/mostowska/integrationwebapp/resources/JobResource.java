@@ -0,0 +1,152 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import jakarta.servlet.ServletContext;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import pl.polsl.mostowska.integrationwebapp.model.*;
+import pl.polsl.mostowska.integrationwebapp.servlet.IntegrationContextListener;
+
+/**
+ * REST resource running long integrations as asynchronous jobs.
+ *
+ * {@code POST resources/jobs} accepts one {@link IntegrationJob} as JSON and answers 202 Accepted with the id
+ * of the job at once; the integration runs on the bounded executor of the shared {@link JobManager},
+ * so it does not hold a request thread. {@code GET resources/jobs/{id}} returns the state and progress of the job,
+ * {@code DELETE resources/jobs/{id}} cancels it, and {@code GET resources/jobs/{id}/events} streams
+ * its progress as Server-Sent Events, ending with a {@code result} event.
+ * Completed jobs are added to the history like the other integrations, and submitted jobs are recorded in the metrics.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ */
+@Path("jobs")
+@Produces(MediaType.APPLICATION_JSON)
+public class JobResource {
+    /** Time between two progress events in milliseconds. */
+    static final long EVENT_PERIOD_MILLIS = 500;
+
+    @Context
+    private ServletContext context;
+
+    /**
+     * Submits a job.
+     *
+     * @param job the job to integrate
+     * @param uri the request URI, used for the location of the job
+     * @return 202 Accepted with the state of the job, 400 Bad Request if the job is invalid,
+     *         or 503 Service Unavailable if too many jobs are waiting
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response submit(IntegrationJob job, @Context UriInfo uri) {
+        JobManager jobs = jobs();
+        IntegrationMetrics metrics = (IntegrationMetrics) context.getAttribute(IntegrationContextListener.METRICS_ATTRIBUTE);
+        try {
+            if (job == null) {
+                throw new IllegalArgumentException("The job is missing.");
+            }
+            IntegrationMethod method = job.toMethod();
+            FunctionModel function = job.toFunction();
+            IntegrationParameters parameters = job.toParameters();
+            IntegrationOptions options = job.toOptions();
+            if (metrics != null) {
+                metrics.recordRequest(method, function, parameters);
+            }
+            String id = jobs.submit(method, function, parameters, options, result -> IntegrationResource.store(context,
+                    List.of(IntegrationResource.Completed.of(job, function, result))));
+            return Response.accepted(JobView.of(jobs.status(id)))
+                    .location(uri.getAbsolutePathBuilder().path(id).build())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            if (metrics != null) {
+                metrics.recordError(IntegrationMetrics.ErrorKind.INVALID_REQUEST);
+            }
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).type(MediaType.TEXT_PLAIN).build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", 5)
+                    .entity("Too many jobs are waiting.").type(MediaType.TEXT_PLAIN).build();
+        }
+    }
+
+    /**
+     * Returns the state of a job.
+     *
+     * @param id the id of the job
+     * @return the state of the job, or 404 Not Found if there is no such job
+     */
+    @GET
+    @Path("{id}")
+    public Response status(@PathParam("id") String id) {
+        return view(jobs().status(id));
+    }
+
+    /**
+     * Cancels a job.
+     *
+     * @param id the id of the job
+     * @return the state of the job after the cancellation, or 404 Not Found if there is no such job
+     */
+    @DELETE
+    @Path("{id}")
+    public Response cancel(@PathParam("id") String id) {
+        return view(jobs().cancel(id));
+    }
+
+    /**
+     * Streams the progress of a job as Server-Sent Events until it finishes.
+     * Every event carries the state of the job as JSON; the last one is named {@code result}.
+     *
+     * @param id the id of the job
+     * @param sink the event stream to the client
+     * @param sse the factory of the events
+     */
+    @GET
+    @Path("{id}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void events(@PathParam("id") String id, @Context SseEventSink sink, @Context Sse sse) {
+        boolean found = jobs().watch(id, snapshot -> {
+            if (sink.isClosed()) {
+                throw new IllegalStateException("The client has disconnected.");
+            }
+            OutboundSseEvent event = sse.newEventBuilder()
+                    .name(snapshot.state().isFinished() ? "result" : "progress")
+                    .id(snapshot.id())
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(JobView.class, JobView.of(snapshot))
+                    .build();
+            sink.send(event);
+            if (snapshot.state().isFinished()) {
+                sink.close();
+            }
+        }, EVENT_PERIOD_MILLIS);
+        if (!found) {
+            sink.send(sse.newEventBuilder().name("error").data(String.class, "Unknown job: " + id).build());
+            sink.close();
+        }
+    }
+
+    private JobManager jobs() {
+        return (JobManager) context.getAttribute(IntegrationContextListener.JOBS_ATTRIBUTE);
+    }
+
+    private static Response view(JobManager.Snapshot snapshot) {
+        if (snapshot == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Unknown job.").type(MediaType.TEXT_PLAIN).build();
+        }
+        return Response.ok(JobView.of(snapshot)).build();
+    }
+}
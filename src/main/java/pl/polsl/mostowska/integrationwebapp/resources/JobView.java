@@ -0,0 +1,36 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import pl.polsl.mostowska.integrationwebapp.model.IntegrationResult;
+import pl.polsl.mostowska.integrationwebapp.model.JobManager;
+
+/**
+ * Represents the state of an asynchronous integration job, as written to JSON.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ *
+ * @param id The id of the job.
+ * @param state The state of the job (QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED).
+ * @param progress The fraction of the partitions summed, from 0 to 1.
+ * @param value The calculated integral, once the job has completed.
+ * @param errorEstimate The error estimate of an adaptive method, once the job has completed.
+ * @param evaluations The number of function evaluations, once the job has completed.
+ * @param error The reason the job failed.
+ */
+public record JobView(String id, String state, double progress, Double value, Double errorEstimate,
+        Long evaluations, String error) {
+
+    /**
+     * Creates the view of a job state.
+     *
+     * @param snapshot the state of the job
+     * @return the view
+     */
+    static JobView of(JobManager.Snapshot snapshot) {
+        IntegrationResult result = snapshot.result();
+        return new JobView(snapshot.id(), snapshot.state().name(), snapshot.progress(),
+                result == null ? null : result.value(),
+                result == null || Double.isNaN(result.errorEstimate()) ? null : result.errorEstimate(),
+                result == null ? null : result.evaluations(), snapshot.error());
+    }
+}
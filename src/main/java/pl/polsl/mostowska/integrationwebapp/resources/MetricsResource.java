@@ -0,0 +1,42 @@
+package pl.polsl.mostowska.integrationwebapp.resources;
+
+import jakarta.servlet.ServletContext;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import pl.polsl.mostowska.integrationwebapp.model.IntegrationMetrics;
+import pl.polsl.mostowska.integrationwebapp.servlet.IntegrationContextListener;
+
+/**
+ * REST resource exposing the metrics of the application to Prometheus.
+ *
+ * {@code GET resources/metrics} returns all {@link IntegrationMetrics} in the Prometheus text format.
+ * The page is built from the counters when it is requested, so scraping does not slow down the integrations.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+@Path("metrics")
+public class MetricsResource {
+
+    @Context
+    private ServletContext context;
+
+    /**
+     * Returns the metrics.
+     *
+     * @return the metrics page, or 503 Service Unavailable if the application has not created the metrics
+     */
+    @GET
+    @Produces(IntegrationMetrics.CONTENT_TYPE)
+    public Response scrape() {
+        if (!(context.getAttribute(IntegrationContextListener.METRICS_ATTRIBUTE) instanceof IntegrationMetrics metrics)) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Metrics are not available.")
+                    .type(MediaType.TEXT_PLAIN).build();
+        }
+        return Response.ok(metrics.scrape(), IntegrationMetrics.CONTENT_TYPE).build();
+    }
+}
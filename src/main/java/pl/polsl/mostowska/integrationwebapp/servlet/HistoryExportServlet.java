@@ -0,0 +1,143 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Servlet exporting the full calculation history as HTML, JSON Lines or CSV ({@code ?format=html|jsonl|csv}).
+ * The results are read through a forward-only, read-only JDBC cursor and written to the response one row
+ * at a time, so the heap usage does not depend on the number of stored results.
+ *
+ * The cursor is opened on the connection of the entity manager, because EclipseLink implements
+ * {@code getResultStream()} by reading the whole result list first. The query selects plain values
+ * instead of entities, and the driver fetches the rows in blocks of {@link #FETCH_SIZE}.
+ * No content length is set, so the container sends the response with chunked transfer encoding,
+ * and the writer is flushed every {@link #FLUSH_ROWS} rows.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+@WebServlet(name = "HistoryExportServlet", urlPatterns = {"/HistoryExport"})
+public class HistoryExportServlet extends HttpServlet {
+    /** Number of rows the JDBC driver fetches per round trip. */
+    static final int FETCH_SIZE = 500;
+    /** Number of rows written between two flushes of the response. */
+    static final int FLUSH_ROWS = 1000;
+    /** Number of columns selected by {@link #EXPORT_SQL}. */
+    static final int COLUMNS = 12;
+    /** Query of the exported columns, in the order {@link HistoryFormat} writes them. */
+    static final String EXPORT_SQL = "SELECT r.ID, r.METHOD, r.LOWERBOUND, r.UPPERBOUND, r.PARTITIONS,"
+            + " r.RESULT, r.ERRORESTIMATE, r.EVALUATIONS, f.FUNCTIONNAME, f.A, f.B, f.C"
+            + " FROM Result r JOIN Functions f ON r.function_id = f.ID ORDER BY r.ID";
+
+    private static EntityManagerFactory emf;
+
+    /**
+     * Initializes the servlet by creating the entity manager factory if it does not exist.
+     *
+     * @throws ServletException if an error occurs during servlet initialization.
+     */
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        if (emf == null) {
+            emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
+        }
+    }
+
+    /**
+     * Streams the stored results in the requested format, oldest first.
+     *
+     * @param request servlet request
+     * @param response servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        HistoryFormat format = HistoryFormat.fromName(request.getParameter("format"));
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Format must be html, jsonl or csv.");
+            return;
+        }
+        response.setContentType(format.getContentType());
+        if (format.getFileName() != null) {
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + format.getFileName() + "\"");
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try (PrintWriter out = response.getWriter()) {
+            // A resource-local entity manager hands out its connection only inside a transaction
+            em.getTransaction().begin();
+            export(em.unwrap(Connection.class), format, out);
+        } catch (PersistenceException | SQLException e) {
+            e.printStackTrace(); // replace with proper message for the client
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "The history could not be read.");
+            }
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    /**
+     * Writes all stored results read through a forward-only cursor.
+     * One row array is reused for every result, so only the rows of the current fetch block are held in memory.
+     *
+     * @param connection the connection to read the results from
+     * @param format the output format
+     * @param out the writer of the response
+     * @return the number of exported results
+     * @throws SQLException if the results cannot be read
+     */
+    static long export(Connection connection, HistoryFormat format, PrintWriter out) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            try (ResultSet rows = statement.executeQuery()) {
+                format.writeHeader(out);
+                Object[] row = new Object[COLUMNS];
+                long written = 0;
+                while (rows.next()) {
+                    for (int i = 0; i < COLUMNS; i++) {
+                        row[i] = rows.getObject(i + 1);
+                    }
+                    format.writeRow(out, row);
+                    if (++written % FLUSH_ROWS == 0) {
+                        out.flush();
+                    }
+                }
+                format.writeFooter(out);
+                return written;
+            }
+        }
+    }
+
+    /**
+     * Returns a short description of the servlet.
+     *
+     * @return a String containing servlet description
+     */
+    @Override
+    public String getServletInfo() {
+        return "Streaming export of the calculation history";
+    }
+}
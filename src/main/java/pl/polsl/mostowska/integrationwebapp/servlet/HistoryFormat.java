@@ -0,0 +1,221 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import java.io.PrintWriter;
+
+/**
+ * Output formats of the history export, writing one stored result at a time.
+ * Each row is the projection selected by {@link HistoryExportServlet}: id, method, lower bound, upper bound,
+ * partitions, result, error estimate, evaluations, function name and the coefficients a, b and c.
+ * Null values are written as empty cells, JSON nulls or a dash.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+enum HistoryFormat {
+    /** HTML table. */
+    HTML("html", "text/html;charset=UTF-8", null) {
+        @Override
+        void writeHeader(PrintWriter out) {
+            out.println("<!DOCTYPE html>");
+            out.println("<html>");
+            out.println("<head>");
+            out.println("<title>Calculation History Export</title>");
+            out.println("</head>");
+            out.println("<body>");
+            out.println("<table border='1'>");
+            out.print("<tr>");
+            for (String column : COLUMNS) {
+                out.append("<th>").append(column).append("</th>");
+            }
+            out.println("</tr>");
+        }
+
+        @Override
+        void writeRow(PrintWriter out, Object[] row) {
+            out.print("<tr>");
+            for (Object value : row) {
+                out.append("<td>");
+                if (value == null) {
+                    out.append('-');
+                } else {
+                    escapeHtml(out, value.toString());
+                }
+                out.append("</td>");
+            }
+            out.println("</tr>");
+        }
+
+        @Override
+        void writeFooter(PrintWriter out) {
+            out.println("</table>");
+            out.println("</body>");
+            out.println("</html>");
+        }
+    },
+    /** One JSON object per line. */
+    JSON_LINES("jsonl", "application/x-ndjson;charset=UTF-8", "history.jsonl") {
+        @Override
+        void writeRow(PrintWriter out, Object[] row) {
+            out.append('{');
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append('"').append(COLUMNS[i]).append("\":");
+                Object value = row[i];
+                if (value == null || value instanceof Double d && !Double.isFinite(d)) {
+                    out.append("null");
+                } else if (value instanceof Number) {
+                    out.append(value.toString());
+                } else {
+                    out.append('"');
+                    escapeJson(out, value.toString());
+                    out.append('"');
+                }
+            }
+            out.append('}').append('\n');
+        }
+    },
+    /** Comma-separated values with a header line. */
+    CSV("csv", "text/csv;charset=UTF-8", "history.csv") {
+        @Override
+        void writeHeader(PrintWriter out) {
+            out.append(String.join(",", COLUMNS)).append("\r\n");
+        }
+
+        @Override
+        void writeRow(PrintWriter out, Object[] row) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                if (row[i] != null) {
+                    escapeCsv(out, row[i].toString());
+                }
+            }
+            out.append("\r\n");
+        }
+    };
+
+    /** Names of the exported columns, in the order of the selected projection. */
+    static final String[] COLUMNS = {"id", "method", "lowerBound", "upperBound", "partitions", "result",
+        "errorEstimate", "evaluations", "function", "a", "b", "c"};
+
+    /** Name of the format in requests. */
+    private final String name;
+
+    /** Content type of the response. */
+    private final String contentType;
+
+    /** File name offered for download, or null if the export is shown in the browser. */
+    private final String fileName;
+
+    HistoryFormat(String name, String contentType, String fileName) {
+        this.name = name;
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Finds the format with the given request name.
+     *
+     * @param name the name of the format ("html", "jsonl" or "csv"); null selects HTML
+     * @return the matching format, or null if there is none
+     */
+    static HistoryFormat fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return HTML;
+        }
+        for (HistoryFormat format : values()) {
+            if (format.name.equals(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the content type of the response.
+     *
+     * @return the content type
+     */
+    String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the file name offered for download.
+     *
+     * @return the file name, or null if the export is shown in the browser
+     */
+    String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Writes what precedes the rows.
+     *
+     * @param out the response writer
+     */
+    void writeHeader(PrintWriter out) {
+    }
+
+    /**
+     * Writes one stored result.
+     *
+     * @param out the response writer
+     * @param row the values of the exported columns
+     */
+    abstract void writeRow(PrintWriter out, Object[] row);
+
+    /**
+     * Writes what follows the rows.
+     *
+     * @param out the response writer
+     */
+    void writeFooter(PrintWriter out) {
+    }
+
+    private static void escapeHtml(PrintWriter out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(ch);
+            }
+        }
+    }
+
+    private static void escapeJson(PrintWriter out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        out.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        out.append(ch);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void escapeCsv(PrintWriter out, String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
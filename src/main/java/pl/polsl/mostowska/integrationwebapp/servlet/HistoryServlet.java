@@ -4,13 +4,12 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import jakarta.persistence.PersistenceException;
-import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import java.io.IOException;
 import java.io.PrintWriter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.net.URLDecoder;
@@ -21,27 +20,34 @@ import pl.polsl.mostowska.integrationwebapp.model.*;
 
 /**
  * Servlet for displaying the calculation history of numerical integrations.
- * It retrieves the calculation history from the context and the last result from cookies.
+ * It shows the most recent calculations kept in memory, the last result from cookies
+ * and the results stored in the database.
+ * 
+ * The stored results are shown newest first, one page at a time, using keyset pagination:
+ * {@code ?after=<id>&limit=<n>} shows the n results with ids below the given id,
+ * so every page costs one indexed query regardless of how many results are stored.
+ * The duration of every request is recorded in the metrics of the application,
+ * and every page read from the database as a {@link HistoryQueryEvent}.
  * 
  * @author Wiktoria Mostowska
- * @version 2.0
+ * @version 2.7
  */
 @WebServlet(name = "HistoryServlet", urlPatterns = {"/HistoryServlet"})
-public class HistoryServlet extends HttpServlet {
+public class HistoryServlet extends MeteredServlet {
+    /** Number of results per page if no limit is given. */
+    static final int DEFAULT_PAGE_SIZE = 50;
+    /** Largest accepted number of results per page. */
+    static final int MAX_PAGE_SIZE = 500;
+
     private static EntityManagerFactory emf;
     /**
-     * Initializes the servlet by setting up context attributes for history.
-     * If they are not already present in the context, they are created.
+     * Initializes the servlet by creating the entity manager factory if it does not exist.
      *
      * @throws ServletException if an error occurs during servlet initialization.
      */
     @Override
     public void init() throws ServletException {
         super.init();
-    
-        if (getServletContext().getAttribute("history") == null) {
-            getServletContext().setAttribute("history", new ArrayList<String>());
-        }
         
         if (emf == null) {
             emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
@@ -62,7 +68,23 @@ public class HistoryServlet extends HttpServlet {
         response.setContentType("text/html;charset=UTF-8");
 
         // Retrieve the history of calculations stored in the servlet context
-        List<String> history = (List<String>) getServletContext().getAttribute("history");
+        RingBuffer<HistoryRecord> history = IntegrationContextListener.history(getServletContext());
+        
+        Long after;
+        int limit;
+        try {
+            String afterParam = request.getParameter("after");
+            String limitParam = request.getParameter("limit");
+            after = afterParam == null || afterParam.isEmpty() ? null : Long.valueOf(afterParam);
+            limit = limitParam == null || limitParam.isEmpty() ? DEFAULT_PAGE_SIZE : Integer.parseInt(limitParam);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid page parameters.");
+            return;
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+            return;
+        }
         
         try (PrintWriter out = response.getWriter()) {
             // Retrieve the last result from the cookie
@@ -86,37 +108,59 @@ public class HistoryServlet extends HttpServlet {
             out.println("<body>");
             out.println("<h1>Calculation History at " + request.getContextPath() + "</h1>");
             out.println("<p>Last Result from Cookies: " + lastResult + "</p>");
+            if (getServletContext().getAttribute(IntegrationContextListener.CACHE_ATTRIBUTE) instanceof ResultCache cache) {
+                ResultCache.Statistics statistics = cache.getStatistics();
+                out.println("<p>Result cache: " + statistics.size() + " of " + cache.getMaxEntries() + " entries, "
+                        + statistics.hits() + " hits, " + statistics.misses() + " misses, "
+                        + statistics.evictions() + " evictions, " + statistics.expirations() + " expirations</p>");
+            }
             // If history is empty, notify the user
-//            if (history == null || history.isEmpty()) {
-//                out.println("<p>No history available.</p>");
-//            } else {
-//                out.println("<ul>");
-//                for (String record : history) {
-//                    out.println("<li>" + record + "</li>");
-//                }
-//                out.println("</ul>");
-//            }
+            List<HistoryRecord> recent = history == null ? List.of() : history.snapshot();
+            if (recent.isEmpty()) {
+                out.println("<p>No recent calculations available.</p>");
+            } else {
+                out.println("<h2>Recent Calculations</h2>");
+                out.println("<ul>");
+                for (HistoryRecord record : recent) {
+                    out.println("<li>" + record.format() + "</li>");
+                }
+                out.println("</ul>");
+            }
             
-            List<ResultsEntity> results = findObjects();
+            // One extra row tells whether there is a next page
+            List<ResultsEntity> results = findObjects(after, limit + 1);
+            boolean hasNextPage = results.size() > limit;
+            if (hasNextPage) {
+                results = results.subList(0, limit);
+            }
             if (results.isEmpty()) {
                 out.println("<p>No history available in the database.</p>");
             } else {
                 out.println("<p>History from database</p>");
                 out.println("<table border='1'>");
-                out.println("<tr><th>Method</th><th>Result</th><th>Bounds</th><th>Partitions</th><th>Function</th></tr>");
+                out.println("<tr><th>Method</th><th>Result</th><th>Bounds</th><th>Partitions</th><th>Error Estimate</th><th>Evaluations</th><th>Function</th></tr>");
                 for (ResultsEntity resultFromDB : results) {
                     out.println("<tr>");
                     out.println("<td>" + resultFromDB.getMethod() + "</td>");
                     out.println("<td>" + resultFromDB.getResult() + "</td>");
                     out.println("<td>[" + resultFromDB.getLowerBound() + ", " + resultFromDB.getUpperBound() + "]</td>");
                     out.println("<td>" + resultFromDB.getPartitions() + "</td>");
-                    out.println("<td>" + resultFromDB.getFunction().getFunctionName() + " f(x) = "
-                            + (resultFromDB.getFunction().getFunctionName().equals("quadratic") ? resultFromDB.getFunction().getA() + "x² + " : "")
-                        + resultFromDB.getFunction().getB() + "x + " + resultFromDB.getFunction().getC() + "</td>");
+                    out.println("<td>" + (resultFromDB.getErrorEstimate() == null ? "-" : resultFromDB.getErrorEstimate()) + "</td>");
+                    out.println("<td>" + (resultFromDB.getEvaluations() == null ? "-" : resultFromDB.getEvaluations()) + "</td>");
+                    out.println("<td>" + describeFunction(resultFromDB.getFunction()) + "</td>");
                     out.println("</tr>");
                 }
                 out.println("</table>");
             }
+            if (after != null) {
+                out.println("<a href='HistoryServlet?limit=" + limit + "'>First page</a>");
+            }
+            if (hasNextPage) {
+                out.println("<a href='HistoryServlet?after=" + results.get(results.size() - 1).getId() + "&limit=" + limit + "'>Next page</a>");
+            }
+            out.println("<br>");
+            out.println("<p>Export the full history: <a href='HistoryExport?format=html'>HTML</a> "
+                    + "<a href='HistoryExport?format=jsonl'>JSON Lines</a> <a href='HistoryExport?format=csv'>CSV</a></p>");
             out.println("<a href='index.html'>Back</a>");
             out.println("</body>");
             out.println("</html>");
@@ -163,22 +207,50 @@ public class HistoryServlet extends HttpServlet {
     }// </editor-fold>
 
     /**
-     * Finds and retrieves all objects of type ResultsEntity from the database.
-     * This method uses JPA to query the database and return all the results.
+     * Describes the function of a stored result.
+     * Only linear and quadratic functions are described by their coefficients a, b and c.
+     * A polynomial keeps just its three lowest coefficients there, so it is described by its packed coefficients,
+     * and any other function is stored under its normalized expression, which describes it by itself.
      *
-     * @return A list of ResultsEntity objects
+     * @param function the stored function
+     * @return the text shown in the history table
      */
-    public List<ResultsEntity> findObjects() {
-        List<ResultsEntity> resultList = null;
-        //EntityManagerFactory emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
+    static String describeFunction(FunctionEntity function) {
+        if (function.getCoefficients() != null) {
+            return "polynomial f(x) = " + PolynomialFunction.unpack(function.getCoefficients());
+        }
+        String name = function.getFunctionName();
+        if (!"linear".equals(name) && !"quadratic".equals(name)) {
+            return name;
+        }
+        return name + " f(x) = " + ("quadratic".equals(name) ? function.getA() + "x² + " : "")
+                + function.getB() + "x + " + function.getC();
+    }
+
+    /**
+     * Finds one page of results, newest first, together with their functions.
+     * The function of every result is fetched by the same query, and the page is read
+     * through the descending index on the id, so the cost does not grow with the size of the table.
+     *
+     * @param after the id of the last result of the previous page, or null for the first page
+     * @param limit the maximum number of results
+     * @return A list of at most limit ResultsEntity objects with ids below after
+     */
+    public List<ResultsEntity> findObjects(Long after, int limit) {
+        List<ResultsEntity> resultList = new ArrayList<>();
+        HistoryQueryEvent event = new HistoryQueryEvent();
+        event.begin();
         EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
         try {
-            Query query = em.createQuery("SELECT r FROM ResultsEntity r");
-            resultList = query.getResultList();
+            TypedQuery<ResultsEntity> query = em.createQuery("SELECT r FROM ResultsEntity r JOIN FETCH r.function"
+                    + (after == null ? "" : " WHERE r.id < :after") + " ORDER BY r.id DESC", ResultsEntity.class);
+            if (after != null) {
+                query.setParameter("after", after);
+            }
+            resultList = query.setMaxResults(limit).getResultList();
+            event.commit("page", null, limit, resultList.size());
         } catch (PersistenceException e) {
             e.printStackTrace(); // replace with proper message for the client
-            em.getTransaction().rollback();
         } finally {
             em.close();
         }
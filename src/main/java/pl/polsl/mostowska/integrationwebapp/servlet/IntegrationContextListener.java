@@ -0,0 +1,152 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import pl.polsl.mostowska.integrationwebapp.model.EngineSettings;
+import pl.polsl.mostowska.integrationwebapp.model.HistoryRecord;
+import pl.polsl.mostowska.integrationwebapp.model.IntegrationEngine;
+import pl.polsl.mostowska.integrationwebapp.model.IntegrationMetrics;
+import pl.polsl.mostowska.integrationwebapp.model.JobManager;
+import pl.polsl.mostowska.integrationwebapp.model.ResultCache;
+import pl.polsl.mostowska.integrationwebapp.model.RingBuffer;
+
+/**
+ * Application listener creating the services shared by all servlets when the application starts
+ * and releasing them when it stops.
+ * The services are stored as context attributes and configured with context parameters from web.xml.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.4
+ */
+@WebListener
+public class IntegrationContextListener implements ServletContextListener {
+    /** Name of the context attribute holding the shared {@link IntegrationEngine}. */
+    public static final String ENGINE_ATTRIBUTE = "integrationEngine";
+
+    /** Name of the context attribute holding the shared {@link ResultCache}; absent if the cache is disabled. */
+    public static final String CACHE_ATTRIBUTE = "resultCache";
+
+    /** Name of the context attribute holding the {@link RingBuffer} of the most recent {@link HistoryRecord}s. */
+    public static final String HISTORY_ATTRIBUTE = "history";
+
+    /** Name of the context attribute holding the {@link JobManager} running asynchronous integrations. */
+    public static final String JOBS_ATTRIBUTE = "jobManager";
+
+    /** Name of the context attribute holding the {@link IntegrationMetrics} of the application. */
+    public static final String METRICS_ATTRIBUTE = "integrationMetrics";
+
+    /** Default maximum number of cached integration results. */
+    static final int DEFAULT_CACHE_ENTRIES = 1024;
+
+    /** Default number of recent calculations kept in memory. */
+    static final int DEFAULT_HISTORY_CAPACITY = 1000;
+
+    /** Default number of asynchronous jobs running at the same time. */
+    static final int DEFAULT_JOB_THREADS = 2;
+
+    /** Default number of asynchronous jobs waiting for a thread. */
+    static final int DEFAULT_JOB_QUEUE_CAPACITY = 64;
+
+    /** Default number of finished asynchronous jobs kept for polling. */
+    static final int DEFAULT_RETAINED_JOBS = 1000;
+
+    /**
+     * Creates the metrics, the integration engine, the result cache, the in-memory history and the job manager
+     * configured with the context parameters.
+     *
+     * @param event the event containing the servlet context
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        EngineSettings defaults = EngineSettings.defaults();
+        EngineSettings settings = new EngineSettings(
+                intParameter(context, "integration.parallelThreshold", defaults.parallelThreshold()),
+                intParameter(context, "integration.chunkPartitions", defaults.chunkPartitions()),
+                intParameter(context, "integration.parallelism", defaults.parallelism()),
+                booleanParameter(context, "integration.closedForm", defaults.closedForm()));
+        IntegrationMetrics metrics = new IntegrationMetrics();
+        context.setAttribute(METRICS_ATTRIBUTE, metrics);
+        IntegrationEngine engine = new IntegrationEngine(settings, metrics);
+        context.setAttribute(ENGINE_ATTRIBUTE, engine);
+
+        int cacheEntries = intParameter(context, "integration.cache.maxEntries", DEFAULT_CACHE_ENTRIES);
+        if (cacheEntries > 0) {
+            ResultCache cache = new ResultCache(cacheEntries, intParameter(context, "integration.cache.ttlSeconds", 0));
+            context.setAttribute(CACHE_ATTRIBUTE, cache);
+            metrics.setCache(cache);
+        }
+
+        context.setAttribute(HISTORY_ATTRIBUTE,
+                new RingBuffer<HistoryRecord>(intParameter(context, "integration.history.capacity", DEFAULT_HISTORY_CAPACITY)));
+
+        context.setAttribute(JOBS_ATTRIBUTE, new JobManager(engine,
+                intParameter(context, "integration.jobs.threads", DEFAULT_JOB_THREADS),
+                intParameter(context, "integration.jobs.queueCapacity", DEFAULT_JOB_QUEUE_CAPACITY),
+                intParameter(context, "integration.jobs.retained", DEFAULT_RETAINED_JOBS)));
+    }
+
+    /**
+     * Cancels the running jobs, shuts down the integration engine and its worker threads
+     * and drops the result cache, the in-memory history and the metrics.
+     *
+     * @param event the event containing the servlet context
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        if (context.getAttribute(JOBS_ATTRIBUTE) instanceof JobManager jobs) {
+            jobs.close();
+        }
+        context.removeAttribute(JOBS_ATTRIBUTE);
+        if (context.getAttribute(ENGINE_ATTRIBUTE) instanceof IntegrationEngine engine) {
+            engine.close();
+        }
+        context.removeAttribute(ENGINE_ATTRIBUTE);
+        context.removeAttribute(CACHE_ATTRIBUTE);
+        context.removeAttribute(HISTORY_ATTRIBUTE);
+        context.removeAttribute(METRICS_ATTRIBUTE);
+    }
+
+    /**
+     * Returns the in-memory history of the application.
+     *
+     * @param context the servlet context
+     * @return the history, or null if the listener has not created it
+     */
+    // Only contextInitialized sets the attribute, always to a RingBuffer of HistoryRecords
+    @SuppressWarnings("unchecked")
+    public static RingBuffer<HistoryRecord> history(ServletContext context) {
+        return context.getAttribute(HISTORY_ATTRIBUTE) instanceof RingBuffer<?> history
+                ? (RingBuffer<HistoryRecord>) history : null;
+    }
+
+    /**
+     * Reads an integer context parameter.
+     *
+     * @param context the servlet context
+     * @param name the name of the parameter
+     * @param defaultValue the value used if the parameter is not set
+     * @return the value of the parameter
+     * @throws NumberFormatException if the parameter is not a valid integer
+     */
+    static int intParameter(ServletContext context, String name, int defaultValue) {
+        String value = context.getInitParameter(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Reads a boolean context parameter.
+     *
+     * @param context the servlet context
+     * @param name the name of the parameter
+     * @param defaultValue the value used if the parameter is not set
+     * @return the value of the parameter
+     */
+    static boolean booleanParameter(ServletContext context, String name, boolean defaultValue) {
+        String value = context.getInitParameter(name);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
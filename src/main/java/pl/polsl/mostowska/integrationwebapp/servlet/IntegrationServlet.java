@@ -4,36 +4,48 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import jakarta.persistence.PersistenceException;
-import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import pl.polsl.mostowska.integrationwebapp.model.*;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Servlet for performing numerical integration calculations.
- * Handles integration methods (trapezoidal, rectangle) and functions (linear, quadratic),
+ * Handles integration methods (trapezoidal, rectangle, Simpson, adaptive Simpson, Gauss-Kronrod, Romberg)
+ * and functions (linear, quadratic),
  * and provides the result in a web interface.
  * Also manages history of integration results and stores them in cookies.
+ * Every integration request and every result stored in the request thread is recorded in the metrics of the application.
+ * The time of every phase of a successful request (parsing the parameters, integrating, persisting the result
+ * and rendering the page) is sent in the Server-Timing header of the response.
  * 
  * @author Wiktoria Mostowska
- * @version 2.0
+ * @version 3.3
  */
 @WebServlet(name = "IntegrationServlet", urlPatterns = {"/IntegrationServlet"})
-public class IntegrationServlet extends HttpServlet {    
+public class IntegrationServlet extends MeteredServlet {    
     private static EntityManagerFactory emf;
+    /** Stores each function once and caches the ids of recently used functions. */
+    private static FunctionRepository functions;
+    /** Background writer persisting the results, or null if results are persisted in the request thread. */
+    private static ResultWriter resultWriter;
+    /** Whether stored results are looked up in the database before recomputing a request. */
+    private boolean memoization;
     /**
-     * Initializes the servlet by setting up context attributes for integration models and history.
-     * If they are not already present in the context, they are created.
+     * Initializes the servlet by creating the entity manager factory and the services storing the results.
      *
      * @throws ServletException if an error occurs during servlet initialization.
      */
@@ -41,36 +53,62 @@ public class IntegrationServlet extends HttpServlet {
     public void init() throws ServletException {
         super.init();
         
-        if (getServletContext().getAttribute("history") == null) {
-            getServletContext().setAttribute("history", new ArrayList<String>());
+        if (emf == null) {
+            emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
         }
-        
-        if (getServletContext().getAttribute("rectangleModel") == null) {
-        getServletContext().setAttribute("rectangleModel", new Rectangle());
+        if (functions == null) {
+            functions = new FunctionRepository(emf);
         }
-        
-        if (getServletContext().getAttribute("trapezoidModel") == null) {
-            getServletContext().setAttribute("trapezoidModel", new Trapezoid());
+        ServletContext context = getServletContext();
+        if (resultWriter == null && IntegrationContextListener.booleanParameter(context, "integration.writeBehind", true)) {
+            IntegrationMetrics metrics = metrics();
+            resultWriter = new ResultWriter(emf, functions,
+                    IntegrationContextListener.intParameter(context, "integration.writeBehind.queueCapacity", 10000),
+                    IntegrationContextListener.intParameter(context, "integration.writeBehind.batchSize", 100),
+                    IntegrationContextListener.intParameter(context, "integration.writeBehind.flushMillis", 200),
+                    metrics);
+            if (metrics != null) {
+                metrics.setResultWriter(resultWriter);
+            }
         }
-        
-        if (emf == null) {
-            emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
+        memoization = IntegrationContextListener.booleanParameter(getServletContext(), "integration.memoization", true);
+    }
+    
+    /**
+     * Writes all results still queued by the background writer before the servlet is taken out of service.
+     */
+    @Override
+    public void destroy() {
+        if (resultWriter != null) {
+            resultWriter.close();
+            resultWriter = null;
+            IntegrationMetrics metrics = metrics();
+            if (metrics != null) {
+                metrics.setResultWriter(null);
+            }
         }
+        super.destroy();
     }
     
     /**
      * Creates a function model based on the function name and parameters.
      *
-     * @param functionName the name of the function (e.g., "linear", "quadratic").
+     * @param functionName the name of the function (e.g., "linear", "quadratic", "polynomial", "expression").
      * @param a the first parameter of the function (used only for quadratic functions).
      * @param b the second parameter of the function.
      * @param c the third parameter of the function.
-     * @return a function model object (LinearFunction or QuadraticFunction).
+     * @param expression the text of a user-defined expression in x (used only for expression functions).
+     * @param coefficients the comma-separated coefficients from the highest power of x down (used only for polynomial functions).
+     * @return a function model object (LinearFunction, QuadraticFunction, PolynomialFunction or a compiled ExpressionFunction),
+     *         or null if the function name is unknown.
+     * @throws IllegalArgumentException if the expression or the coefficients are not valid.
      */
-    private FunctionModel createFunction(String functionName, double a, double b, double c) {
+    private FunctionModel createFunction(String functionName, double a, double b, double c, String expression, String coefficients) {
         return switch (functionName) {
             case "linear" -> new LinearFunction(b, c);
             case "quadratic" -> new QuadraticFunction(a, b, c);
+            case "polynomial" -> PolynomialFunction.parse(coefficients);
+            case "expression" -> ExpressionFunction.compile(expression);
             default -> null;
         };
     }
@@ -87,6 +125,72 @@ public class IntegrationServlet extends HttpServlet {
         return new IntegrationParameters(lowerBound, upperBound, partitions);
     }
     
+    /**
+     * Creates the tolerance of the adaptive methods from the request parameters.
+     * Missing parameters fall back to the default tolerances.
+     *
+     * @param absolute the absolute tolerance parameter, may be null or empty.
+     * @param relative the relative tolerance parameter, may be null or empty.
+     * @return the tolerance.
+     * @throws NumberFormatException if a parameter is not a valid number.
+     * @throws IllegalArgumentException if the tolerances are invalid.
+     */
+    private Tolerance createTolerance(String absolute, String relative) {
+        double absoluteTolerance = absolute == null || absolute.isEmpty() ? Tolerance.DEFAULT_TOLERANCE : Double.parseDouble(absolute);
+        double relativeTolerance = relative == null || relative.isEmpty() ? Tolerance.DEFAULT_TOLERANCE : Double.parseDouble(relative);
+        return new Tolerance(absoluteTolerance, relativeTolerance);
+    }
+    
+    /**
+     * Finds the summation strategy of the rectangle and trapezoidal methods selected in the request.
+     * A missing parameter falls back to the default strategy.
+     *
+     * @param name the summation parameter, may be null or empty.
+     * @return the summation strategy.
+     * @throws IllegalArgumentException if the strategy is unknown.
+     */
+    private Summation createSummation(String name) {
+        if (name == null || name.isEmpty()) {
+            return IntegrationOptions.defaults().summation();
+        }
+        Summation summation = Summation.fromName(name);
+        if (summation == null) {
+            throw new IllegalArgumentException("Unknown summation: " + name);
+        }
+        return summation;
+    }
+    
+    /**
+     * Integrates the function, reusing earlier results where possible.
+     * A repeated request is answered from the shared result cache; on a miss, an equivalent result stored
+     * in the database is used if memoization is enabled. Only if both miss is the integral computed.
+     * The request is recorded in the metrics either way.
+     *
+     * @param engine the shared integration engine.
+     * @param method the integration method.
+     * @param function the function to integrate.
+     * @param parameters the integration bounds and number of partitions.
+     * @param options the integration options.
+     * @return the result of the integration.
+     */
+    private IntegrationResult integrate(IntegrationEngine engine, IntegrationMethod method, FunctionModel function,
+            IntegrationParameters parameters, IntegrationOptions options) {
+        IntegrationMetrics metrics = metrics();
+        if (metrics != null) {
+            metrics.recordRequest(method, function, parameters);
+        }
+        ResultCache cache = (ResultCache) getServletContext().getAttribute(IntegrationContextListener.CACHE_ATTRIBUTE);
+        ResultKey key = cache == null && !memoization ? null : ResultKey.of(method, function, parameters, options);
+        if (key == null) {
+            return engine.integrate(method, function, parameters, options);
+        }
+        Supplier<IntegrationResult> computation = () -> {
+            IntegrationResult stored = memoization ? findStoredResult(key) : null;
+            return stored != null ? stored : engine.integrate(method, function, parameters, options);
+        };
+        return cache == null ? computation.get() : cache.getOrCompute(key, computation);
+    }
+    
     /**
      * Processes requests for both HTTP <code>GET</code> and <code>POST</code> methods.
      * This method performs integration calculations and returns the result to the client.
@@ -98,18 +202,21 @@ public class IntegrationServlet extends HttpServlet {
      */
     protected void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        ServerTiming timing = new ServerTiming();
         response.setContentType("text/html;charset=UTF-8");
         ResultsEntity resultEntity = new ResultsEntity();
-        FunctionEntity functionEntity = new FunctionEntity();
-        List<String> history = (List<String>) getServletContext().getAttribute("history");
+        RingBuffer<HistoryRecord> history = IntegrationContextListener.history(getServletContext());
         try (PrintWriter out = response.getWriter()) {
-            IntegrationModel model = (IntegrationModel) getServletContext().getAttribute("rectangleModel");
+            // The engine is stateless, so a single instance created by the context listener is shared by all request threads.
+            IntegrationEngine engine = (IntegrationEngine) getServletContext().getAttribute(IntegrationContextListener.ENGINE_ATTRIBUTE);
             String method = request.getParameter("method");
             String functionName = request.getParameter("function");
             double lowerBound = Double.parseDouble(request.getParameter("lowerBound"));
             double upperBound = Double.parseDouble(request.getParameter("upperBound"));
-            double b = Double.parseDouble(request.getParameter("b"));
-            double c = Double.parseDouble(request.getParameter("c"));
+            // Expression and polynomial functions do not use the coefficient fields
+            boolean expressionFunction = "expression".equals(functionName) || "polynomial".equals(functionName);
+            double b = expressionFunction ? 0 : Double.parseDouble(request.getParameter("b"));
+            double c = expressionFunction ? 0 : Double.parseDouble(request.getParameter("c"));
             int partitions = Integer.parseInt(request.getParameter("partitions"));
             String aParam = request.getParameter("a");
             
@@ -129,68 +236,102 @@ public class IntegrationServlet extends HttpServlet {
                 a = Double.parseDouble(aParam);
             }
             
-            FunctionModel function = createFunction(functionName, a, b, c);
-            
-            if ("trapezoid".equals(method)) {
-                model = (IntegrationModel) getServletContext().getAttribute("trapezoidModel");
-            } else if ("rectangle".equals(method)) {
-                model = (IntegrationModel) getServletContext().getAttribute("rectangleModel");
-            }
+            FunctionModel function = createFunction(functionName, a, b, c, request.getParameter("expression"),
+                    request.getParameter("coefficients"));
+            IntegrationMethod integrationMethod = IntegrationMethod.fromName(method);
 
-            if (function != null && model != null) {
-                model.setFunction(function);
+            if (function != null && integrationMethod != null) {
                 IntegrationParameters parameters = createIntegrationParameters(lowerBound, upperBound, partitions);
-                model.setParameters(parameters);
-                double result = model.calculate();
-                //var sameFunc = false;
-//                for(FunctionEntity functionFromDB: findObjects()) {
-//                    if (functionFromDB.getFunctionName().equals(functionName) && functionFromDB.getA().equals(a) && functionFromDB.getB().equals(b) && functionFromDB.getC().equals(c))
-//                    {
-//                        functionEntity = functionFromDB;
-//                        sameFunc = true;
-//                    }
-//                }
-                //if (sameFunc == false) {
-                    functionEntity.setFunctionName(functionName);
-                    functionEntity.setA(a);
-                    functionEntity.setB(b);
-                    functionEntity.setC(c);
-                //}
-                resultEntity.setFunction(functionEntity);
+                IntegrationOptions options = IntegrationOptions.defaults()
+                        .withSampleCapture(SampleCapture.parse(request.getParameter("capture"), request.getParameter("capturePoints")))
+                        .withTolerance(createTolerance(request.getParameter("absoluteTolerance"), request.getParameter("relativeTolerance")))
+                        .withRombergTable(request.getParameter("rombergTable") != null)
+                        .withSummation(createSummation(request.getParameter("summation")));
+                timing.phase("parse");
+                IntegrationResult integration = integrate(engine, integrationMethod, function, parameters, options);
+                timing.phase("integrate");
+                double result = integration.value();
                 resultEntity.setMethod(method);
                 resultEntity.setLowerBound(lowerBound);
                 resultEntity.setUpperBound(upperBound);
                 resultEntity.setPartitions(partitions);
                 resultEntity.setResult(result);
+                resultEntity.setErrorEstimate(Double.isNaN(integration.errorEstimate()) ? null : integration.errorEstimate());
+                resultEntity.setEvaluations(integration.evaluations());
+                // Set here rather than on persist, because write-behind may store the result later
+                resultEntity.setCreatedAt(LocalDateTime.now());
                 
-                functionEntity.getResults().add(resultEntity);
-                persistObject(functionEntity);
+                // Linear functions ignore a, so it is stored as 0 and equivalent requests share one function row;
+                // expression functions are stored under their normalized expression
+                // and polynomial functions under their text with the packed coefficients
+                String expression = function instanceof ExpressionFunction compiled ? compiled.getExpression() : null;
+                if (function instanceof PolynomialFunction polynomial) {
+                    expression = polynomial.toString();
+                    persistResult(resultEntity, expression, polynomial.coefficient(2), polynomial.coefficient(1),
+                            polynomial.coefficient(0), polynomial.pack());
+                } else {
+                    persistResult(resultEntity, expression != null ? expression : functionName,
+                            function instanceof QuadraticFunction ? a : 0, b, c, null);
+                }
+                timing.phase("persist");
                 
-                String record = "Method: " + method + ", Result: " + result +
-                        " for bounds [" + lowerBound + ", " + upperBound + "] and " + partitions + " partitions, " +
-                        "for function: " + functionName + " f(x) = " + (function instanceof QuadraticFunction ? a + "x² + " : "") + b + "x + " + c;
+                // The history keeps only the numbers; the text is built again whenever the history is viewed
+                HistoryRecord historyRecord = new HistoryRecord(integrationMethod, result, integration.errorEstimate(),
+                        lowerBound, upperBound, partitions, integration.evaluations(), IntegrationMetrics.FunctionType.of(function),
+                        a, b, c, expression);
+                String record = historyRecord.format();
                 
                 String encodedRecord = URLEncoder.encode(record, StandardCharsets.UTF_8);
                 Cookie resultCookie = new Cookie("lastResult", encodedRecord);
                 resultCookie.setMaxAge(24 * 60 * 60);
                 response.addCookie(resultCookie);
-                history.add(record);
+                if (history != null) {
+                    history.add(historyRecord);
+                }
                 
-                out.println("<!DOCTYPE html>");
-                out.println("<html>");
-                out.println("<head>");
-                out.println("<title>Integration Result</title>");
-                out.println("</head>");
-                out.println("<body>");
-                out.println("<h1>Integration Result at " + request.getContextPath() + "</h1>");
-                out.println("<p>" + record + "</p>");
-                out.println("<a href='HistoryServlet'>Go to History</a>");
-                out.println("<br>");
-                out.println("<a href='index.html'>Back</a>");
-                out.println("</body>");
-                out.println("</html>");
+                // The header has to be set before the page is written, so the page is rendered into a buffer first
+                StringWriter page = new StringWriter();
+                PrintWriter html = new PrintWriter(page);
+                html.println("<!DOCTYPE html>");
+                html.println("<html>");
+                html.println("<head>");
+                html.println("<title>Integration Result</title>");
+                html.println("</head>");
+                html.println("<body>");
+                html.println("<h1>Integration Result at " + request.getContextPath() + "</h1>");
+                html.println("<p>" + record + "</p>");
+                if (integration.sampleCount() > 0) {
+                    double[] samples = integration.samples();
+                    html.println("<p>Captured samples (" + samples.length + "):</p>");
+                    html.println("<p>" + Arrays.toString(samples) + "</p>");
+                }
+                double[][] rombergTable = integration.rombergTable();
+                if (rombergTable.length > 0) {
+                    html.println("<p>Romberg table:</p>");
+                    html.println("<table border='1'>");
+                    for (int k = 0; k < rombergTable.length; k++) {
+                        html.println("<tr><th>" + (1L << k) + "</th>");
+                        for (double entry : rombergTable[k]) {
+                            html.println("<td>" + entry + "</td>");
+                        }
+                        html.println("</tr>");
+                    }
+                    html.println("</table>");
+                }
+                html.println("<a href='HistoryServlet'>Go to History</a>");
+                html.println("<br>");
+                html.println("<a href='index.html'>Back</a>");
+                html.println("</body>");
+                html.println("</html>");
+                timing.phase("render");
+                response.setHeader(ServerTiming.HEADER, timing.header());
+                out.write(page.toString());
+            }
+            else {
+                // The error page is sent with status 200, so it is not counted by the status of the response
+                recordError(IntegrationMetrics.ErrorKind.INVALID_REQUEST);
+                out.println("<h1>Error: Invalid method or function selected.</h1>");
             }
-            else {out.println("<h1>Error: Invalid method or function selected.</h1>");}
         } catch (NumberFormatException e) {
             // Handle invalid number format
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid input data format.");
@@ -245,74 +386,80 @@ public class IntegrationServlet extends HttpServlet {
     }// </editor-fold>
 
     /**
-     * Persists an object to the database using JPA.
+     * Finds the stored result of an equivalent request in the database.
+     * The conditions of the lookup are described by {@link StoredResultQuery}.
+     * The stored result reports no function evaluations, as none were performed for this request.
      *
-     * @param object the object to persist.
+     * @param key the canonical key of the request.
+     * @return the stored result, or null if there is none.
      */
-    void persistObject(Object object) {
-        //EntityManagerFactory emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
-        EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
-        try {
-            em.persist(object);
-            em.getTransaction().commit();
-        } catch (PersistenceException e) {
-            e.printStackTrace(); // replace with proper message for the client
-            em.getTransaction().rollback();
-        } finally {
-            em.close();
+    private IntegrationResult findStoredResult(ResultKey key) {
+        StoredResultQuery lookup = StoredResultQuery.of(key);
+        if (lookup == null) {
+            return null;
         }
-    }
-    
-    /**
-    * Finds a FunctionEntity based on its parameters.
-    *
-    * @param functionName the name of the function.
-    * @param a the first parameter of the function.
-    * @param b the second parameter of the function.
-    * @param c the third parameter of the function.
-    * @return the existing FunctionEntity or null if not found.
-    */
-    private FunctionEntity findFunctionByParameters(String functionName, double a, double b, double c) {
-        //EntityManagerFactory emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
         EntityManager em = emf.createEntityManager();
-        FunctionEntity functionEntity = null;
         try {
-            Query query = em.createQuery("SELECT f FROM FunctionEntity f WHERE f.functionName = :functionName AND f.a = :a AND f.b = :b AND f.c = :c");
-            query.setParameter("functionName", functionName);
-            query.setParameter("a", a);
-            query.setParameter("b", b);
-            query.setParameter("c", c);
-
-            functionEntity = (FunctionEntity) query.getSingleResult();
+            TypedQuery<ResultsEntity> query = em.createQuery(lookup.jpql(), ResultsEntity.class);
+            lookup.parameters().forEach(query::setParameter);
+            List<ResultsEntity> stored = query.setMaxResults(1).getResultList();
+            if (stored.isEmpty()) {
+                return null;
+            }
+            Double errorEstimate = stored.get(0).getErrorEstimate();
+            return new IntegrationResult(key.method(), key.parameters(), stored.get(0).getResult(), 0,
+                    errorEstimate == null ? Double.NaN : errorEstimate, new double[0], new double[0][]);
         } catch (PersistenceException e) {
-            // Function not found or another error occurred
+            // The database only saves work here, so the request is computed if the lookup fails
+            return null;
         } finally {
             em.close();
         }
-        return functionEntity;
     }
     
     /**
-    * Finds and retrieves all objects of type FunctionEntity from the database.
-    * This method uses JPA to query the database and return all the results.
-    *
-    * @return A list of FunctionEntity objects
-    */
-    public List<FunctionEntity> findObjects() {
-        List<FunctionEntity> functionList = null;
-        //EntityManagerFactory emf = Persistence.createEntityManagerFactory("pl.polsl.lab_WebJPADemo_war_1.0PU");
+     * Persists a result, linked to the stored row of its function.
+     * The function row is found or created by the {@link FunctionRepository}, so each distinct function
+     * is stored only once, and only a reference to it is loaded into the persistence context.
+     * In write-behind mode the result is only queued, and the response does not wait for the database;
+     * otherwise the duration of the transaction is recorded in the metrics and as a {@link PersistEvent}.
+     *
+     * @param resultEntity the result to persist.
+     * @param functionName the name of the function.
+     * @param a the first parameter of the function.
+     * @param b the second parameter of the function.
+     * @param c the third parameter of the function.
+     * @param coefficients the packed coefficients of a polynomial function, or null.
+     */
+    void persistResult(ResultsEntity resultEntity, String functionName, double a, double b, double c, byte[] coefficients) {
+        if (resultWriter != null) {
+            resultWriter.submit(resultEntity, functionName, a, b, c, coefficients);
+            return;
+        }
+        long start = System.nanoTime();
+        PersistEvent event = new PersistEvent();
+        event.begin();
         EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
         try {
-            Query query = em.createQuery("SELECT f FROM FunctionEntity f");
-            functionList = query.getResultList();
+            Long functionId = functions.findOrCreate(functionName, a, b, c, coefficients);
+            em.getTransaction().begin();
+            resultEntity.setFunction(em.getReference(FunctionEntity.class, functionId));
+            em.persist(resultEntity);
+            em.getTransaction().commit();
+            IntegrationMetrics metrics = metrics();
+            if (metrics != null) {
+                metrics.recordPersistence(IntegrationMetrics.PersistenceMode.REQUEST, System.nanoTime() - start);
+            }
+            event.commit(IntegrationMetrics.PersistenceMode.REQUEST, List.of(resultEntity), true);
         } catch (PersistenceException e) {
             e.printStackTrace(); // replace with proper message for the client
-            em.getTransaction().rollback();
+            recordError(IntegrationMetrics.ErrorKind.PERSISTENCE);
+            event.commit(IntegrationMetrics.PersistenceMode.REQUEST, List.of(resultEntity), false);
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
         } finally {
             em.close();
         }
-        return functionList;
     }
 }
@@ -0,0 +1,69 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import pl.polsl.mostowska.integrationwebapp.model.IntegrationMetrics;
+
+/**
+ * Base of the servlets recording their requests in the {@link IntegrationMetrics} of the application.
+ * The duration of every request is recorded under the name of the servlet, and a request answered with
+ * a client error status or failing with an exception is counted as an error.
+ * The metrics are optional: without the context listener nothing is recorded, so every use checks for null.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public abstract class MeteredServlet extends HttpServlet {
+
+    /**
+     * Dispatches the request to the doGet or doPost method and records its duration and errors.
+     *
+     * @param request the servlet request
+     * @param response the servlet response
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        IntegrationMetrics metrics = metrics();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            super.service(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            if (metrics != null) {
+                metrics.recordServletRequest(getServletName(), System.nanoTime() - start);
+                if (failed) {
+                    metrics.recordError(IntegrationMetrics.ErrorKind.FAILURE);
+                } else if (response.getStatus() >= HttpServletResponse.SC_BAD_REQUEST) {
+                    metrics.recordError(IntegrationMetrics.ErrorKind.INVALID_REQUEST);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of the application.
+     *
+     * @return the shared metrics, or null if the context listener has not created them
+     */
+    protected IntegrationMetrics metrics() {
+        return (IntegrationMetrics) getServletContext().getAttribute(IntegrationContextListener.METRICS_ATTRIBUTE);
+    }
+
+    /**
+     * Records an error in the metrics of the application, if there are any.
+     *
+     * @param kind the kind of the error
+     */
+    protected void recordError(IntegrationMetrics.ErrorKind kind) {
+        IntegrationMetrics metrics = metrics();
+        if (metrics != null) {
+            metrics.recordError(kind);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import java.util.Locale;
+
+/**
+ * Measures the consecutive phases of a request with {@link System#nanoTime()} and formats them
+ * as a {@code Server-Timing} response header, e.g. {@code parse;dur=0.412, integrate;dur=12.031, total;dur=12.913},
+ * which the network panel of the browser developer tools shows for every request.
+ * The durations are in milliseconds, as the header requires.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+final class ServerTiming {
+    /** Name of the response header. */
+    static final String HEADER = "Server-Timing";
+
+    private final long start = System.nanoTime();
+    private long phaseStart = start;
+    private final StringBuilder phases = new StringBuilder();
+
+    /**
+     * Ends the current phase, which started when the previous phase ended or when the timing was created.
+     *
+     * @param name the name of the phase, a token without spaces, commas or semicolons
+     */
+    void phase(String name) {
+        long now = System.nanoTime();
+        append(name, now - phaseStart);
+        phaseStart = now;
+    }
+
+    /**
+     * Returns the value of the header: all ended phases followed by the total time.
+     *
+     * @return the value of the Server-Timing header
+     */
+    String header() {
+        int length = phases.length();
+        append("total", System.nanoTime() - start);
+        String header = phases.toString();
+        phases.setLength(length);
+        return header;
+    }
+
+    private void append(String name, long nanos) {
+        if (!phases.isEmpty()) {
+            phases.append(", ");
+        }
+        phases.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+}
@@ -0,0 +1,180 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the tolerance-driven integration methods:
+ * {@link Simpson}, {@link AdaptiveSimpson} and {@link GaussKronrod}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class AdaptiveIntegrationTest {
+
+    /**
+     * Creates the model of the given method.
+     *
+     * @param method the request name of the method
+     * @return the model
+     */
+    private static AdaptiveIntegrationModel model(String method) {
+        return switch (method) {
+            case "simpson" -> new Simpson();
+            case "adaptiveSimpson" -> new AdaptiveSimpson();
+            case "gaussKronrod" -> new GaussKronrod();
+            default -> throw new IllegalArgumentException(method);
+        };
+    }
+
+    /**
+     * Test that each method reaches the tolerance for smooth and peaked functions
+     * and that its error estimate is consistent with the true error.
+     *
+     * @param method the request name of the method
+     * @param function the name of the test function
+     * @param lowerBound the lower bound
+     * @param upperBound the upper bound
+     * @param expected the exact integral
+     */
+    @ParameterizedTest
+    @DisplayName("Test adaptive methods reach the tolerance")
+    @CsvSource({
+        "simpson, sin, 0, 3.141592653589793, 2.0",
+        "simpson, exp, -1, 2, 7.021176657759208",
+        "simpson, peak, -1, 1, 0.03121593320216463",
+        "adaptiveSimpson, sin, 0, 3.141592653589793, 2.0",
+        "adaptiveSimpson, exp, -1, 2, 7.021176657759208",
+        "adaptiveSimpson, peak, -1, 1, 0.03121593320216463",
+        "gaussKronrod, sin, 0, 3.141592653589793, 2.0",
+        "gaussKronrod, exp, -1, 2, 7.021176657759208",
+        "gaussKronrod, peak, -1, 1, 0.03121593320216463"
+    })
+    public void testReachesTolerance(String method, String function, double lowerBound, double upperBound, double expected) {
+        AdaptiveIntegrationModel model = model(method);
+        model.setFunction(switch (function) {
+            case "sin" -> Math::sin;
+            case "exp" -> Math::exp;
+            // Narrow peak 1 / (1 + 10000 x²), integral 2 atan(100) / 100
+            default -> x -> 1 / (1 + 10000 * x * x);
+        });
+        model.setParameters(new IntegrationParameters(lowerBound, upperBound, 1 << 20));
+        model.setTolerance(new Tolerance(1e-9, 0));
+
+        double value = model.calculate();
+
+        assertEquals(expected, value, 1e-8);
+        assertTrue(model.getErrorEstimate() <= 1e-9, "Error estimate " + model.getErrorEstimate());
+        assertTrue(model.getEvaluations() > 0);
+    }
+
+    /**
+     * Test that the adaptive methods need far fewer evaluations than the rectangle method for the same accuracy.
+     */
+    @Test
+    @DisplayName("Test adaptive methods need fewer evaluations")
+    public void testFewerEvaluations() {
+        FunctionModel function = Math::sin;
+        IntegrationParameters params = new IntegrationParameters(0, Math.PI, 1 << 20);
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            IntegrationOptions options = IntegrationOptions.defaults().withTolerance(new Tolerance(1e-10, 0));
+            // The midpoint rule needs about 2^17 partitions to reach an error of 1e-10 for sin over [0, π]
+            IntegrationResult rectangle = engine.integrate(IntegrationMethod.RECTANGLE, function,
+                    new IntegrationParameters(0, Math.PI, 1 << 17), options);
+            assertEquals(2.0, rectangle.value(), 1e-9);
+
+            for (IntegrationMethod method : new IntegrationMethod[] {
+                    IntegrationMethod.SIMPSON, IntegrationMethod.ADAPTIVE_SIMPSON, IntegrationMethod.GAUSS_KRONROD}) {
+                IntegrationResult result = engine.integrate(method, function, params, options);
+                assertEquals(2.0, result.value(), 1e-10, method.getName());
+                assertTrue(result.evaluations() * 100 < rectangle.evaluations(),
+                        method.getName() + " used " + result.evaluations() + " evaluations.");
+            }
+        }
+    }
+
+    /**
+     * Test that the number of partitions limits the number of subintervals
+     * and that the error estimate then reports the missed tolerance.
+     *
+     * @param method the request name of the method
+     */
+    @ParameterizedTest
+    @DisplayName("Test subinterval limit")
+    @CsvSource({"simpson", "adaptiveSimpson", "gaussKronrod"})
+    public void testSubintervalLimit(String method) {
+        AdaptiveIntegrationModel model = model(method);
+        model.setFunction(Math::sqrt);
+        model.setParameters(new IntegrationParameters(0, 1, 4));
+        model.setTolerance(new Tolerance(1e-14, 0));
+
+        double value = model.calculate();
+
+        assertEquals(2.0 / 3, value, 1e-2);
+        assertTrue(model.getErrorEstimate() > 1e-14);
+        // Every bisection of a Gauss-Kronrod subinterval costs two 15-point rules
+        assertTrue(model.getEvaluations() <= 4 * 2 * 15);
+    }
+
+    /**
+     * Test that the engine matches the models and reports the error estimate.
+     *
+     * @param method the request name of the method
+     */
+    @ParameterizedTest
+    @DisplayName("Test engine matches adaptive models")
+    @CsvSource({"simpson", "adaptiveSimpson", "gaussKronrod"})
+    public void testEngineMatchesModel(String method) {
+        FunctionModel function = x -> Math.exp(-x * x);
+        IntegrationParameters params = new IntegrationParameters(-2, 3, 1000);
+        AdaptiveIntegrationModel model = model(method);
+        model.setFunction(function);
+        model.setParameters(params);
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            IntegrationResult result = engine.integrate(IntegrationMethod.fromName(method), function, params);
+            assertEquals(model.calculate(), result.value(), 0.0);
+            assertEquals(model.getErrorEstimate(), result.errorEstimate(), 0.0);
+            assertEquals(model.getEvaluations(), result.evaluations());
+        }
+    }
+
+    /**
+     * Test the validation of the parameters and tolerances.
+     */
+    @Test
+    @DisplayName("Test invalid parameters and tolerances")
+    public void testInvalidInput() {
+        Simpson simpson = new Simpson();
+        simpson.setFunction(x -> x);
+        assertThrows(NullPointerException.class, simpson::calculate);
+        simpson.setParameters(new IntegrationParameters(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, simpson::calculate);
+        simpson.setParameters(new IntegrationParameters(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, simpson::calculate);
+        simpson.setParameters(new IntegrationParameters(0, 1, 10));
+        simpson.setFunction(null);
+        assertThrows(IllegalStateException.class, simpson::calculate);
+
+        assertThrows(IllegalArgumentException.class, () -> new Tolerance(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Tolerance(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Tolerance(Double.NaN, 1));
+    }
+
+    /**
+     * Test that an empty interval integrates to zero.
+     *
+     * @param method the request name of the method
+     */
+    @ParameterizedTest
+    @DisplayName("Test empty interval")
+    @CsvSource({"simpson", "adaptiveSimpson", "gaussKronrod"})
+    public void testEmptyInterval(String method) {
+        AdaptiveIntegrationModel model = model(method);
+        model.setFunction(Math::exp);
+        model.setParameters(new IntegrationParameters(1.5, 1.5, 100));
+        assertEquals(0.0, model.calculate(), 0.0);
+    }
+}
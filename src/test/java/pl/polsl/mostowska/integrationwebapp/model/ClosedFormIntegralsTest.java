@@ -0,0 +1,132 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Property-based tests for the closed-form rectangle and trapezoidal sums of polynomials.
+ * Random polynomials, bounds and partition counts are generated from a fixed seed,
+ * and the closed forms must agree with the iterative Rectangle and Trapezoid implementations.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class ClosedFormIntegralsTest {
+
+    /** Number of random cases generated for each property. */
+    private static final int CASES = 300;
+
+    /**
+     * Generates random linear and quadratic functions with random bounds and partition counts.
+     *
+     * @return the arguments for the property tests
+     */
+    static Stream<Arguments> randomPolynomials() {
+        Random random = new Random(20241018L);
+        return Stream.generate(() -> {
+            double a = random.nextBoolean() ? 0 : random.nextDouble(-10, 10);
+            double b = random.nextDouble(-10, 10);
+            double c = random.nextDouble(-10, 10);
+            FunctionModel function = a == 0 ? new LinearFunction(b, c) : new QuadraticFunction(a, b, c);
+            double lowerBound = random.nextDouble(-100, 100);
+            double upperBound = lowerBound + random.nextDouble(0, 50);
+            int partitions = 1 + random.nextInt(random.nextBoolean() ? 10 : 20000);
+            return Arguments.of(function, new IntegrationParameters(lowerBound, upperBound, partitions));
+        }).limit(CASES);
+    }
+
+    /**
+     * Property: the closed-form sums equal the iterative sums within floating-point tolerance.
+     *
+     * @param function the polynomial to integrate
+     * @param params the integration parameters
+     */
+    @ParameterizedTest
+    @DisplayName("Test closed form matches iterative methods")
+    @MethodSource("randomPolynomials")
+    public void testMatchesIterative(FunctionModel function, IntegrationParameters params) {
+        FunctionData data = PolynomialKernels.coefficients(function);
+        Rectangle rectangle = new Rectangle();
+        rectangle.setFunction(function);
+        rectangle.setParameters(params);
+        Trapezoid trapezoid = new Trapezoid();
+        trapezoid.setFunction(function);
+        trapezoid.setParameters(params);
+        double tolerance = 1e-10 * scale(data, params) + 1e-12;
+
+        assertEquals(rectangle.calculate(), ClosedFormIntegrals.rectangle(data, params), tolerance);
+        assertEquals(trapezoid.calculate(), ClosedFormIntegrals.trapezoid(data, params), tolerance);
+    }
+
+    /**
+     * Property: the engine uses the closed form for polynomials and reports no function evaluations.
+     *
+     * @param function the polynomial to integrate
+     * @param params the integration parameters
+     */
+    @ParameterizedTest
+    @DisplayName("Test engine uses the closed form for polynomials")
+    @MethodSource("randomPolynomials")
+    public void testEngineUsesClosedForm(FunctionModel function, IntegrationParameters params) {
+        FunctionData data = PolynomialKernels.coefficients(function);
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            IntegrationResult result = engine.integrate(IntegrationMethod.TRAPEZOID, function, params);
+            assertEquals(ClosedFormIntegrals.trapezoid(data, params), result.value(), 0.0);
+            assertEquals(0, result.evaluations());
+        }
+    }
+
+    /**
+     * Test that the maximum number of partitions is answered immediately and converges to the exact integral.
+     */
+    @Test
+    @DisplayName("Test closed form with Integer.MAX_VALUE partitions")
+    public void testMaximumPartitions() {
+        QuadraticFunction function = new QuadraticFunction(3, -2, 1);
+        IntegrationParameters params = new IntegrationParameters(-1, 2, Integer.MAX_VALUE);
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            long start = System.nanoTime();
+            IntegrationResult rectangle = engine.integrate(IntegrationMethod.RECTANGLE, function, params);
+            IntegrationResult trapezoid = engine.integrate(IntegrationMethod.TRAPEZOID, function, params);
+            long elapsed = System.nanoTime() - start;
+
+            // Integral of 3x² - 2x + 1 over [-1, 2] is [x³ - x² + x] = 6 - (-3) = 9
+            assertEquals(9.0, rectangle.value(), 1e-12);
+            assertEquals(9.0, trapezoid.value(), 1e-12);
+            assertTrue(elapsed < 100_000_000L, "Closed form took " + elapsed + " ns.");
+        }
+    }
+
+    /**
+     * Test that disabling the closed form falls back to evaluating the function.
+     */
+    @Test
+    @DisplayName("Test closed form can be disabled")
+    public void testDisabled() {
+        IntegrationParameters params = new IntegrationParameters(0, 1, 1000);
+        try (IntegrationEngine engine = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, 1024, 1, false))) {
+            IntegrationResult result = engine.integrate(IntegrationMethod.RECTANGLE, new QuadraticFunction(1, 0, 0), params);
+            assertEquals(1000, result.evaluations());
+            assertEquals(1.0 / 3, result.value(), 1e-6);
+        }
+    }
+
+    /**
+     * Estimates the magnitude of the integral terms, used to scale the tolerance.
+     *
+     * @param data the coefficients of the polynomial
+     * @param params the integration parameters
+     * @return the width of the interval times a bound of |f| on the interval
+     */
+    private static double scale(FunctionData data, IntegrationParameters params) {
+        double m = Math.max(Math.abs(params.lowerBound()), Math.abs(params.upperBound()));
+        double bound = Math.abs(data.a()) * m * m + Math.abs(data.b()) * m + Math.abs(data.c());
+        return (params.upperBound() - params.lowerBound()) * bound;
+    }
+}
@@ -0,0 +1,124 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the parsing and compilation of user-defined expression functions.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class ExpressionFunctionTest {
+
+    /**
+     * Test that the compiled functions give exactly the values of the interpreted syntax tree.
+     *
+     * @param text the expression
+     */
+    @ParameterizedTest
+    @DisplayName("Test compiled functions match the syntax tree")
+    @ValueSource(strings = {
+        "x", "-x", "2", "x + 1", "x - 1", "3 * x", "x / 3", "1 / x",
+        "x^2", "x^3", "x^4", "x^2.5", "x^x", "2^x", "-x^2", "(x + 1)^3 - (x - 1)^4",
+        "sin(x)*exp(-x^2)", "sqrt(abs(x)) + cbrt(x)", "log(1 + x^2) - ln(2 + x^2)", "log10(1 + abs(x))",
+        "atan2(x, 1 + x^2)", "hypot(x, 3)", "min(x, 0.5) * max(x, -0.5)", "pow(2, sin(x))",
+        "floor(x) + ceil(x)", "sinh(x) - cosh(x) + tanh(x)", "tan(x / 4) + atan(x)", "asin(x / 10) + acos(x / 10)",
+        "x + (x + (x + (x + (x + (x * (x - (x / (x + 1))))))))", "((((x))))", "1e-3 * x + 2E+2", "2 * e * pi * x",
+        "exp(-((x - 0.5)^2) / (2 * 0.1^2)) / sqrt(2 * pi * 0.1^2)"
+    })
+    public void testMatchesSyntaxTree(String text) {
+        Expression tree = ExpressionParser.parse(text);
+        ExpressionFunction function = ExpressionFunction.compile(text);
+        for (double x = -5; x <= 5; x += 0.125) {
+            assertEquals(tree.evaluate(x), function.evaluate(x), 0.0, text + " at x = " + x);
+        }
+    }
+
+    /**
+     * Test the values of expressions against hand-written Java.
+     *
+     * @param text the expression
+     * @param x the argument
+     * @param expected the expected value
+     */
+    @ParameterizedTest
+    @DisplayName("Test values and precedence")
+    @CsvSource({
+        "-x^2, 3, -9",
+        "2^3^2, 0, 512",
+        "-2^2, 0, -4",
+        "2*-x, 3, -6",
+        "1 - 2 - 3, 0, -4",
+        "12 / 3 / 2, 0, 2",
+        "1 + 2 * 3, 0, 7",
+        "(1 + 2) * 3, 0, 9",
+        "+x, 4, 4",
+        "x^-1, 4, 0.25",
+        "e, 0, 2.718281828459045",
+        "pi, 0, 3.141592653589793"
+    })
+    public void testValues(String text, double x, double expected) {
+        assertEquals(expected, ExpressionFunction.compile(text).evaluate(x), 1e-15);
+    }
+
+    /**
+     * Test that equivalent spellings share one compiled function and constants are folded.
+     */
+    @Test
+    @DisplayName("Test normalization and cache")
+    public void testNormalization() {
+        ExpressionFunction first = ExpressionFunction.compile("sin(x) * exp(-x^2)");
+        ExpressionFunction second = ExpressionFunction.compile("sin( x )*exp(-(x^2))");
+        assertSame(first, second);
+        assertEquals("(sin(x)*exp((-(x^2.0))))", first.getExpression());
+        assertEquals("(6.283185307179586*x)", ExpressionFunction.compile("2 * pi * x").getExpression());
+        assertEquals("(x*5.0)", ExpressionFunction.compile("x * (2 + sqrt(9))").getExpression());
+        assertTrue(ExpressionCompiler.cachedFunctions() <= ExpressionCompiler.CACHE_SIZE);
+    }
+
+    /**
+     * Test that invalid expressions are rejected.
+     *
+     * @param text the expression
+     */
+    @ParameterizedTest
+    @DisplayName("Test invalid expressions")
+    @ValueSource(strings = {"", "   ", "sin(x", "foo(x)", "x y", "pow(x)", "sin(x, x)", "2 +", "1..2", "(x))", "y", "x # 2", "*x"})
+    public void testInvalid(String text) {
+        assertThrows(IllegalArgumentException.class, () -> ExpressionFunction.compile(text));
+    }
+
+    /**
+     * Test the limits of the length and the nesting of expressions.
+     */
+    @Test
+    @DisplayName("Test too long and too deep expressions")
+    public void testLimits() {
+        assertThrows(IllegalArgumentException.class, () -> ExpressionFunction.compile("x+".repeat(600) + "x"));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionFunction.compile("(".repeat(150) + "x" + ")".repeat(150)));
+        assertThrows(IllegalArgumentException.class, () -> ExpressionFunction.compile(null));
+        assertEquals(-1.0, ExpressionFunction.compile("-".repeat(51) + "1 + 0 * x").evaluate(0), 0.0);
+    }
+
+    /**
+     * Test that compiled functions are integrated by the engine.
+     */
+    @Test
+    @DisplayName("Test integration of a compiled function")
+    public void testIntegration() {
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            IntegrationResult result = engine.integrate(IntegrationMethod.GAUSS_KRONROD,
+                    ExpressionFunction.compile("sin(x)"), new IntegrationParameters(0, Math.PI, 100));
+            assertEquals(2.0, result.value(), 1e-12);
+            result = engine.integrate(IntegrationMethod.RECTANGLE,
+                    ExpressionFunction.compile("x^2"), new IntegrationParameters(0, 1, 1000));
+            // The midpoint sum of x² over [0, 1] with n partitions is 1/3 - 1/(12n²)
+            assertEquals(1.0 / 3 - 1.0 / 12e6, result.value(), 1e-12);
+        }
+    }
+}
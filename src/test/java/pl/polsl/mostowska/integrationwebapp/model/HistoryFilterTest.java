@@ -0,0 +1,101 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the history filter and groupings.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public class HistoryFilterTest {
+
+    /**
+     * Test that an empty filter has no WHERE clause.
+     */
+    @Test
+    @DisplayName("Test filter selecting every result")
+    public void testAll() {
+        assertEquals("", HistoryFilter.ALL.where());
+        assertTrue(HistoryFilter.ALL.parameters().isEmpty());
+    }
+
+    /**
+     * Test the WHERE clause and the parameters of a filter using every condition.
+     */
+    @Test
+    @DisplayName("Test filter with every condition")
+    public void testEveryCondition() {
+        HistoryFilter filter = new HistoryFilter("romberg", "quadratic",
+                new HistoryFilter.Range(1.0, 2.0), new HistoryFilter.Range(null, 0.0), new HistoryFilter.Range(-1.0, null),
+                new HistoryFilter.Range(0.0, null), new HistoryFilter.Range(null, 10.0),
+                LocalDate.of(2024, 10, 1), LocalDate.of(2024, 10, 31));
+
+        assertEquals(" WHERE r.method = :method AND f.functionName = :function"
+                + " AND f.a >= :aMin AND f.a <= :aMax AND f.b <= :bMax AND f.c >= :cMin"
+                + " AND r.lowerBound >= :lowerBoundMin AND r.upperBound <= :upperBoundMax"
+                + " AND r.createdAt >= :from AND r.createdAt < :to", filter.where());
+        Map<String, Object> parameters = filter.parameters();
+        assertEquals(10, parameters.size());
+        assertEquals("romberg", parameters.get("method"));
+        assertEquals(2.0, parameters.get("aMax"));
+        assertEquals(LocalDate.of(2024, 10, 1).atStartOfDay(), parameters.get("from"));
+        // The last day is included
+        assertEquals(LocalDate.of(2024, 11, 1).atStartOfDay(), parameters.get("to"));
+    }
+
+    /**
+     * Test the conditions selecting the polynomial and the expression functions by their packed coefficients.
+     */
+    @Test
+    @DisplayName("Test polynomial and expression filters")
+    public void testPolynomialAndExpression() {
+        assertEquals(" WHERE f.coefficients IS NOT NULL",
+                new HistoryFilter(null, "polynomial", null, null, null, null, null, null, null).where());
+        assertEquals(" WHERE f.functionName NOT IN ('linear', 'quadratic') AND f.coefficients IS NULL",
+                new HistoryFilter(null, "expression", null, null, null, null, null, null, null).where());
+    }
+
+    /**
+     * Test that invalid filters are rejected.
+     *
+     * @param method the method name
+     * @param function the function name
+     * @param min the range minimum
+     * @param max the range maximum
+     * @param from the first day
+     * @param to the last day
+     */
+    @ParameterizedTest
+    @DisplayName("Test invalid filters")
+    @CsvSource({
+        "unknown, , , , , ",
+        ", cubic, , , , ",
+        ", , 2, 1, , ",
+        ", , NaN, , , ",
+        ", , , Infinity, , ",
+        ", , , , 2024-10-02, 2024-10-01"
+    })
+    public void testInvalid(String method, String function, Double min, Double max, LocalDate from, LocalDate to) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HistoryFilter(method, function, new HistoryFilter.Range(min, max), null, null, null, null, from, to));
+    }
+
+    /**
+     * Test the lookup of the groupings by request name.
+     */
+    @Test
+    @DisplayName("Test grouping names")
+    public void testGrouping() {
+        assertEquals(HistoryGrouping.NONE, HistoryGrouping.fromName(null));
+        assertEquals(HistoryGrouping.PARTITIONS, HistoryGrouping.fromName("partitions"));
+        assertEquals("r.method", HistoryGrouping.fromName("method").getPath());
+        assertNull(HistoryGrouping.fromName("day"));
+    }
+}
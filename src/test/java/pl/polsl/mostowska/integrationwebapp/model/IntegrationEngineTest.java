@@ -0,0 +1,221 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Unit tests for the stateless IntegrationEngine.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class IntegrationEngineTest {
+    /** Instance of IntegrationEngine shared by all tests and threads. */
+    private IntegrationEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new IntegrationEngine();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.close();
+    }
+
+    /**
+     * Test that the engine gives the same results as the integration models.
+     *
+     * @param a the lower bound of the interval
+     * @param b the upper bound of the interval
+     * @param n the number of partitions
+     */
+    @ParameterizedTest
+    @DisplayName("Test engine matches integration models")
+    @CsvSource({
+        "0, 2, 20",
+        "1, 3, 50",
+        "-2, 5, 100000"
+    })
+    public void testMatchesModels(double a, double b, int n) {
+        FunctionModel function = x -> x * x - 3 * x;
+        IntegrationParameters params = new IntegrationParameters(a, b, n);
+        Rectangle rectangle = new Rectangle();
+        rectangle.setFunction(function);
+        rectangle.setParameters(params);
+        Trapezoid trapezoid = new Trapezoid();
+        trapezoid.setFunction(function);
+        trapezoid.setParameters(params);
+
+        IntegrationResult rectangleResult = engine.integrate(IntegrationMethod.RECTANGLE, function, params);
+        IntegrationResult trapezoidResult = engine.integrate(IntegrationMethod.TRAPEZOID, function, params);
+
+        assertEquals(rectangle.calculate(), rectangleResult.value(), 0.0);
+        assertEquals(trapezoid.calculate(), trapezoidResult.value(), 0.0);
+        assertEquals(n, rectangleResult.evaluations());
+        assertEquals(n + 1, trapezoidResult.evaluations());
+    }
+
+    /**
+     * Test that invalid parameters are rejected with the same messages as the integration models.
+     */
+    @Test
+    @DisplayName("Test engine validation")
+    public void testValidation() {
+        FunctionModel function = x -> x;
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> engine.integrate(IntegrationMethod.RECTANGLE, function, new IntegrationParameters(2, 1, 10)));
+        assertEquals("Upper bound (b) cannot be less than lower bound (a).", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.integrate(null, function, new IntegrationParameters(0, 1, 10)));
+        assertThrows(IllegalStateException.class,
+            () -> engine.integrate(IntegrationMethod.TRAPEZOID, null, new IntegrationParameters(0, 1, 10)));
+    }
+
+    /**
+     * Stress test running many different integrations on one engine from several threads at once.
+     * Every thread integrates its own function with its own bounds and captures all samples,
+     * so any state shared between calls would show up as a wrong value or foreign samples.
+     *
+     * @throws Exception if a worker thread fails
+     */
+    @Test
+    @DisplayName("Test concurrent integrations do not affect each other")
+    public void testConcurrentIntegrations() throws Exception {
+        int threads = 8;
+        int iterations = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int id = t;
+                futures.add(executor.submit(() -> {
+                    // Function and parameters unique to this thread: f(x) = id * x + id over [id, id + 1]
+                    FunctionModel function = x -> id * x + id;
+                    IntegrationMethod method = id % 2 == 0 ? IntegrationMethod.RECTANGLE : IntegrationMethod.TRAPEZOID;
+                    IntegrationParameters params = new IntegrationParameters(id, id + 1, 1000 + id);
+                    IntegrationOptions options = IntegrationOptions.defaults().withSampleCapture(SampleCapture.full());
+                    double expected = id * (id + 0.5) + id;
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        IntegrationResult result = engine.integrate(method, function, params, options);
+                        assertEquals(expected, result.value(), 1e-9, "Thread " + id + " got a foreign result.");
+                        assertSame(params, result.parameters());
+                        double[] samples = result.samples();
+                        int expectedSamples = method == IntegrationMethod.RECTANGLE ? params.partitions() : params.partitions() + 1;
+                        assertEquals(expectedSamples, samples.length, "Thread " + id + " got foreign samples.");
+                        for (double sample : samples) {
+                            assertTrue(sample >= id * id + id && sample <= id * (id + 1) + id,
+                                "Thread " + id + " got a foreign sample " + sample);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that parallel integration is bit-for-bit reproducible and agrees with the sequential result.
+     *
+     * @param method the integration method
+     * @param n the number of partitions
+     */
+    @ParameterizedTest
+    @DisplayName("Test parallel integration is reproducible")
+    @CsvSource({
+        "RECTANGLE, 1000003",
+        "TRAPEZOID, 1000003",
+        "RECTANGLE, 4096",
+        "TRAPEZOID, 4097"
+    })
+    public void testParallelIntegration(IntegrationMethod method, int n) {
+        FunctionModel function = x -> Math.sin(x) * x;
+        IntegrationParameters params = new IntegrationParameters(-1, 4, n);
+        double sequential;
+        try (IntegrationEngine sequentialEngine = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, 1024, 1, true))) {
+            sequential = sequentialEngine.integrate(method, function, params).value();
+        }
+        try (IntegrationEngine parallelEngine = new IntegrationEngine(new EngineSettings(1000, 1024, 4, true))) {
+            double first = parallelEngine.integrate(method, function, params).value();
+            for (int i = 0; i < 20; i++) {
+                assertEquals(first, parallelEngine.integrate(method, function, params).value(), 0.0,
+                    "Parallel result should not depend on thread scheduling.");
+            }
+            assertEquals(sequential, first, 1e-12 * Math.abs(sequential) + 1e-15);
+        }
+        // Same chunking on a pool of a different size gives the same bits
+        try (IntegrationEngine otherEngine = new IntegrationEngine(new EngineSettings(1000, 1024, 2, true))) {
+            try (IntegrationEngine parallelEngine = new IntegrationEngine(new EngineSettings(1000, 1024, 4, true))) {
+                assertEquals(parallelEngine.integrate(method, function, params).value(),
+                    otherEngine.integrate(method, function, params).value(), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Test that parallel integration runs on the engine's own pool and not on the calling thread pool.
+     */
+    @Test
+    @DisplayName("Test parallel integration uses the engine pool")
+    public void testParallelIntegrationUsesOwnPool() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        FunctionModel function = x -> {
+            threadNames.add(Thread.currentThread().getName());
+            return x;
+        };
+        try (IntegrationEngine parallelEngine = new IntegrationEngine(new EngineSettings(1000, 100, 2, true))) {
+            IntegrationResult result = parallelEngine.integrate(IntegrationMethod.RECTANGLE, function,
+                new IntegrationParameters(0, 1, 100_000));
+            assertEquals(0.5, result.value(), 1e-12);
+        }
+        assertFalse(threadNames.isEmpty());
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("integration-worker-")),
+            "Chunks should only run on the engine's worker threads: " + threadNames);
+    }
+
+    /**
+     * Test that a batch of integrations runs on the engine's pool and keeps the order of the inputs.
+     */
+    @Test
+    @DisplayName("Test batch of integrations")
+    public void testInvokeAll() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<Integer> partitions = IntStream.rangeClosed(1, 200).boxed().toList();
+        try (IntegrationEngine parallelEngine = new IntegrationEngine(new EngineSettings(1000, 100, 4, true))) {
+            List<Double> values = parallelEngine.invokeAll(partitions, n -> {
+                threadNames.add(Thread.currentThread().getName());
+                return parallelEngine.integrate(IntegrationMethod.RECTANGLE, new QuadraticFunction(1, 0, 0),
+                    new IntegrationParameters(0, 1, n)).value();
+            });
+            for (int i = 0; i < partitions.size(); i++) {
+                // The midpoint sum of x² over [0, 1] with n partitions is 1/3 - 1/(12n²)
+                double n = partitions.get(i);
+                assertEquals(1.0 / 3 - 1 / (12 * n * n), values.get(i), 1e-12);
+            }
+        }
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("integration-worker-")),
+            "Batch tasks should only run on the engine's worker threads: " + threadNames);
+    }
+}
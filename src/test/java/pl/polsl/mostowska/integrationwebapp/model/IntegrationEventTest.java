@@ -0,0 +1,134 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the JDK Flight Recorder events of the integrations and the persistence transactions.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class IntegrationEventTest {
+
+    /**
+     * Test that a recording receives an event for every computed integration with its fields.
+     *
+     * @throws IOException if the recording cannot be written or read
+     */
+    @Test
+    @DisplayName("Test integration events")
+    public void testIntegrationEvents() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording(); IntegrationEngine engine = new IntegrationEngine()) {
+            recording.enable(IntegrationEvent.class);
+            recording.start();
+            engine.integrate(IntegrationMethod.RECTANGLE, Math::sin, new IntegrationParameters(0, 1, 1000));
+            engine.integrate(IntegrationMethod.TRAPEZOID, new QuadraticFunction(1, 0, 0), new IntegrationParameters(0, 1, 500));
+            recording.stop();
+            events = read(recording);
+        }
+
+        assertEquals(2, events.size());
+        RecordedEvent rectangle = events.get(0);
+        assertEquals("rectangle", rectangle.getString("method"));
+        assertEquals("other", rectangle.getString("function"));
+        assertEquals(1000, rectangle.getInt("partitions"));
+        assertEquals(1000, rectangle.getLong("evaluations"));
+        assertEquals(1.0, rectangle.getDouble("upperBound"));
+        assertFalse(rectangle.getBoolean("closedForm"));
+        RecordedEvent trapezoid = events.get(1);
+        assertEquals("quadratic", trapezoid.getString("function"));
+        assertEquals(0, trapezoid.getLong("evaluations"));
+        assertTrue(trapezoid.getBoolean("closedForm"));
+        assertNull(rectangle.getStackTrace());
+    }
+
+    /**
+     * Test that a persistence event adds up the results of a batch.
+     *
+     * @throws IOException if the recording cannot be written or read
+     */
+    @Test
+    @DisplayName("Test persist event of a batch")
+    public void testPersistEvent() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PersistEvent.class);
+            recording.start();
+            PersistEvent same = new PersistEvent();
+            same.begin();
+            same.commit(IntegrationMetrics.PersistenceMode.BATCH, List.of(result("simpson", 100, 17L), result("simpson", 50, null)), true);
+            PersistEvent mixed = new PersistEvent();
+            mixed.begin();
+            mixed.commit(IntegrationMetrics.PersistenceMode.WRITE_BEHIND, List.of(result("simpson", 1, 5L), result("rectangle", 2, 2L)), false);
+            recording.stop();
+            events = read(recording);
+        }
+
+        assertEquals(2, events.size());
+        assertEquals("batch", events.get(0).getString("mode"));
+        assertEquals("simpson", events.get(0).getString("method"));
+        assertEquals(2, events.get(0).getInt("results"));
+        assertEquals(150, events.get(0).getLong("partitions"));
+        assertEquals(17, events.get(0).getLong("evaluations"));
+        assertTrue(events.get(0).getBoolean("committed"));
+        assertEquals("write_behind", events.get(1).getString("mode"));
+        assertNull(events.get(1).getString("method"));
+        assertFalse(events.get(1).getBoolean("committed"));
+    }
+
+    /**
+     * Test that no event is committed while no recording is running.
+     */
+    @Test
+    @DisplayName("Test events without a recording")
+    public void testWithoutRecording() {
+        IntegrationEvent event = new IntegrationEvent();
+        event.begin();
+        assertFalse(event.shouldCommit());
+    }
+
+    /**
+     * Creates a result as stored in the database.
+     *
+     * @param method the name of the method
+     * @param partitions the number of partitions
+     * @param evaluations the number of evaluations, or null
+     * @return the result
+     */
+    private static ResultsEntity result(String method, int partitions, Long evaluations) {
+        ResultsEntity result = new ResultsEntity();
+        result.setMethod(method);
+        result.setPartitions(partitions);
+        result.setEvaluations(evaluations);
+        return result;
+    }
+
+    /**
+     * Reads the events of a stopped recording.
+     *
+     * @param recording the recording
+     * @return the events in the order they were committed
+     * @throws IOException if the recording cannot be written or read
+     */
+    private static List<RecordedEvent> read(Recording recording) throws IOException {
+        Path file = Files.createTempFile("integration", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+                    .toList();
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the metrics of the integration service, their histograms and their Prometheus text format.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class IntegrationMetricsTest {
+
+    /**
+     * Test that every value falls into a bucket whose bounds enclose it.
+     *
+     * @param value the recorded value
+     */
+    @ParameterizedTest
+    @DisplayName("Test histogram buckets enclose the values")
+    @CsvSource({"0", "1", "2", "8", "9", "15", "16", "17", "1000", "1023", "1024", "1025", "123456789",
+        "4611686018427387904", "9223372036854775807"})
+    public void testBuckets(long value) {
+        int bucket = Histogram.bucket(value);
+        assertTrue(bucket >= 0 && bucket < Histogram.BUCKETS);
+        assertTrue(value <= Histogram.upperBound(bucket));
+        if (bucket > 0) {
+            assertTrue(value > Histogram.upperBound(bucket - 1));
+        }
+        // The width of a bucket is at most 1/8 of its values
+        assertTrue(Histogram.upperBound(bucket) - value <= Math.max(1, value / Histogram.SUB_BUCKETS));
+    }
+
+    /**
+     * Test that powers of two are bucket bounds, so the cumulative counts up to them are exact.
+     */
+    @Test
+    @DisplayName("Test histogram counts up to powers of two")
+    public void testCountAtMost() {
+        Histogram histogram = new Histogram();
+        for (long value = 0; value <= 5000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-7);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(5002, snapshot.count());
+        assertEquals(5000L * 5001 / 2, snapshot.sum());
+        for (int power = 0; power <= 12; power++) {
+            // The values 0 to 2^power and the negative value recorded as 0
+            assertEquals((1L << power) + 2, snapshot.countAtMost(1L << power));
+        }
+    }
+
+    /**
+     * Test that the percentiles are within 1/8 above the exact values.
+     *
+     * @param percentile the percentile
+     * @param exact the exact percentile of the values 1 to 10000
+     */
+    @ParameterizedTest
+    @DisplayName("Test histogram percentiles")
+    @CsvSource({"50, 5000", "90, 9000", "99, 9900", "100, 10000"})
+    public void testPercentile(double percentile, long exact) {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        long estimate = histogram.snapshot().percentile(percentile);
+        assertTrue(estimate >= exact && estimate <= exact + exact / Histogram.SUB_BUCKETS, "Estimate " + estimate);
+        assertThrows(IllegalArgumentException.class, () -> histogram.snapshot().percentile(101));
+        assertEquals(0, new Histogram().snapshot().percentile(50));
+    }
+
+    /**
+     * Test that concurrent recording loses no values.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test concurrent recording")
+    public void testConcurrent() throws InterruptedException {
+        int threads = 8;
+        int perThread = 50_000;
+        IntegrationMetrics metrics = new IntegrationMetrics();
+        IntegrationParameters parameters = new IntegrationParameters(0, 1, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    metrics.recordRequest(IntegrationMethod.RECTANGLE, new LinearFunction(1, 0), parameters);
+                    metrics.recordError(IntegrationMetrics.ErrorKind.FAILURE);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals((long) threads * perThread, metrics.requests(IntegrationMethod.RECTANGLE, IntegrationMetrics.FunctionType.LINEAR));
+        assertEquals((long) threads * perThread, metrics.errors(IntegrationMetrics.ErrorKind.FAILURE));
+        assertTrue(metrics.scrape().contains("integration_partitions_count " + threads * perThread + "\n"));
+    }
+
+    /**
+     * Test that functions are counted by their type.
+     */
+    @Test
+    @DisplayName("Test function types")
+    public void testFunctionTypes() {
+        assertEquals(IntegrationMetrics.FunctionType.LINEAR, IntegrationMetrics.FunctionType.of(new LinearFunction(1, 2)));
+        assertEquals(IntegrationMetrics.FunctionType.QUADRATIC, IntegrationMetrics.FunctionType.of(new QuadraticFunction(1, 2, 3)));
+        assertEquals(IntegrationMetrics.FunctionType.POLYNOMIAL, IntegrationMetrics.FunctionType.of(new PolynomialFunction(1, 2, 3, 4)));
+        assertEquals(IntegrationMetrics.FunctionType.EXPRESSION, IntegrationMetrics.FunctionType.of(ExpressionFunction.compile("sin(x)")));
+        assertEquals(IntegrationMetrics.FunctionType.OTHER, IntegrationMetrics.FunctionType.of(Math::sin));
+        assertEquals(IntegrationMetrics.FunctionType.OTHER, IntegrationMetrics.FunctionType.of(null));
+    }
+
+    /**
+     * Test that the engine records its computations and the page lists them in the Prometheus text format.
+     */
+    @Test
+    @DisplayName("Test scrape in Prometheus text format")
+    public void testScrape() {
+        IntegrationMetrics metrics = new IntegrationMetrics();
+        ResultCache cache = new ResultCache(10, 0);
+        metrics.setCache(cache);
+        IntegrationParameters parameters = new IntegrationParameters(0, 1, 1000);
+        // Without the closed form, the quadratic function is evaluated at every node
+        try (IntegrationEngine engine = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, 1024, 1, false), metrics)) {
+            FunctionModel function = new QuadraticFunction(1, 0, 0);
+            ResultKey key = ResultKey.of(IntegrationMethod.TRAPEZOID, function, parameters, IntegrationOptions.defaults());
+            for (int i = 0; i < 3; i++) {
+                metrics.recordRequest(IntegrationMethod.TRAPEZOID, function, parameters);
+                cache.getOrCompute(key, () -> engine.integrate(IntegrationMethod.TRAPEZOID, function, parameters));
+            }
+        }
+        metrics.recordPersistence(IntegrationMetrics.PersistenceMode.BATCH, 3_000_000);
+        metrics.recordServletRequest("IntegrationServlet", 1_000);
+
+        String page = metrics.scrape();
+        assertTrue(page.contains("# TYPE integration_requests_total counter\n"));
+        assertTrue(page.contains("integration_requests_total{method=\"trapezoid\",function=\"quadratic\"} 3\n"));
+        assertTrue(page.contains("integration_requests_total{method=\"rectangle\",function=\"linear\"} 0\n"));
+        // The integral is computed once and answered from the cache twice
+        assertTrue(page.contains("integration_compute_seconds_count{method=\"trapezoid\"} 1\n"));
+        assertTrue(page.contains("integration_compute_seconds_bucket{method=\"trapezoid\",le=\"+Inf\"} 1\n"));
+        assertTrue(page.contains("integration_function_evaluations_total{method=\"trapezoid\"} 1001\n"));
+        assertTrue(page.contains("integration_partitions_bucket{le=\"256.0\"} 0\n"));
+        assertTrue(page.contains("integration_partitions_bucket{le=\"1024.0\"} 3\n"));
+        assertTrue(page.contains("integration_partitions_sum 3000.0\n"));
+        assertTrue(page.contains("integration_persistence_seconds_bucket{mode=\"batch\",le=\"0.004194304\"} 1\n"));
+        assertTrue(page.contains("integration_persistence_seconds_bucket{mode=\"batch\",le=\"0.001048576\"} 0\n"));
+        assertTrue(page.contains("integration_servlet_request_seconds_count{servlet=\"IntegrationServlet\"} 1\n"));
+        assertTrue(page.contains("integration_errors_total{kind=\"persistence\"} 0\n"));
+        assertTrue(page.contains("integration_cache_hits_total 2\n"));
+        assertTrue(page.contains("integration_cache_hit_ratio 0.6666666666666666\n"));
+        assertFalse(page.contains("integration_write_behind_pending"));
+    }
+
+    /**
+     * Test that label values are escaped.
+     */
+    @Test
+    @DisplayName("Test label escaping")
+    public void testLabels() {
+        assertEquals("", PrometheusText.labels());
+        assertEquals("{a=\"x\\\"y\",b=\"1\\\\2\\n\"}", PrometheusText.labels("a", "x\"y", "b", "1\\2\n"));
+        assertEquals("+Inf", PrometheusText.number(Double.POSITIVE_INFINITY));
+        assertEquals("NaN", PrometheusText.number(Double.NaN));
+    }
+}
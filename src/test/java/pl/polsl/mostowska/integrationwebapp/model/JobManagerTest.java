@@ -0,0 +1,215 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the asynchronous integration jobs.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class JobManagerTest {
+
+    private static final IntegrationParameters LARGE = new IntegrationParameters(0, 1, 1_000_000);
+
+    private IntegrationEngine engine;
+
+    /** Released to let blocked functions continue. */
+    private CountDownLatch release;
+
+    /**
+     * Creates an engine summing chunks of 1000 partitions on a single worker thread.
+     */
+    @BeforeEach
+    public void setUp() {
+        engine = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, 1000, 1, true));
+        release = new CountDownLatch(1);
+    }
+
+    /**
+     * Releases blocked functions and shuts down the engine.
+     */
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        engine.close();
+    }
+
+    /**
+     * Creates a function that blocks after the given number of evaluations until {@link #release} is counted down.
+     *
+     * @param evaluations the number of evaluations before the function blocks
+     * @param blocked counted down when the function blocks
+     * @return the function f(x) = x
+     */
+    private FunctionModel blockingFunction(long evaluations, CountDownLatch blocked) {
+        AtomicLong count = new AtomicLong();
+        return x -> {
+            if (count.incrementAndGet() == evaluations) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return x;
+        };
+    }
+
+    /**
+     * Waits until a job reaches a final state.
+     *
+     * @param jobs the job manager
+     * @param id the id of the job
+     * @return the final state of the job
+     * @throws InterruptedException if the test is interrupted
+     */
+    private static JobManager.Snapshot awaitFinished(JobManager jobs, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        JobManager.Snapshot snapshot = jobs.status(id);
+        while (!snapshot.state().isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "Job did not finish: " + snapshot);
+            Thread.sleep(5);
+            snapshot = jobs.status(id);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Test that a job completes with the result of the engine.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test completed job")
+    public void testCompleted() throws InterruptedException {
+        List<IntegrationResult> stored = new CopyOnWriteArrayList<>();
+        try (JobManager jobs = new JobManager(engine, 1, 4, 10)) {
+            String id = jobs.submit(IntegrationMethod.TRAPEZOID, Math::exp, LARGE, IntegrationOptions.defaults(), stored::add);
+            JobManager.Snapshot snapshot = awaitFinished(jobs, id);
+
+            assertEquals(JobManager.State.COMPLETED, snapshot.state());
+            assertEquals(1.0, snapshot.progress(), 0.0);
+            assertEquals(Math.E - 1, snapshot.result().value(), 1e-9);
+            assertEquals(List.of(snapshot.result()), stored);
+        }
+    }
+
+    /**
+     * Test that a running job reports its progress and stops when it is cancelled.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test progress and cancellation of a running job")
+    public void testCancelRunning() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (JobManager jobs = new JobManager(engine, 1, 4, 10)) {
+            String id = jobs.submit(IntegrationMethod.RECTANGLE, blockingFunction(250_500, blocked), LARGE,
+                    IntegrationOptions.defaults(), null);
+            assertTrue(blocked.await(30, TimeUnit.SECONDS));
+
+            JobManager.Snapshot running = jobs.status(id);
+            assertEquals(JobManager.State.RUNNING, running.state());
+            // About 250 chunks of 1000 partitions are done; a thread helping the pool may hold a partial chunk
+            assertEquals(0.25, running.progress(), 0.003);
+
+            jobs.cancel(id);
+            release.countDown();
+            JobManager.Snapshot cancelled = awaitFinished(jobs, id);
+            assertEquals(JobManager.State.CANCELLED, cancelled.state());
+            assertNull(cancelled.result());
+            assertTrue(cancelled.progress() < 0.26, "Job continued after cancellation: " + cancelled.progress());
+        }
+    }
+
+    /**
+     * Test that a queued job is cancelled at once and a full queue rejects new jobs.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test queued jobs and full queue")
+    public void testQueue() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (JobManager jobs = new JobManager(engine, 1, 1, 10)) {
+            String running = jobs.submit(IntegrationMethod.RECTANGLE, blockingFunction(1, blocked), LARGE,
+                    IntegrationOptions.defaults(), null);
+            assertTrue(blocked.await(30, TimeUnit.SECONDS));
+            String queued = jobs.submit(IntegrationMethod.RECTANGLE, x -> x, LARGE, IntegrationOptions.defaults(), null);
+            assertEquals(1, jobs.queued());
+            assertThrows(RejectedExecutionException.class,
+                    () -> jobs.submit(IntegrationMethod.RECTANGLE, x -> x, LARGE, IntegrationOptions.defaults(), null));
+
+            assertEquals(JobManager.State.CANCELLED, jobs.cancel(queued).state());
+            assertEquals(0, jobs.queued());
+            release.countDown();
+            assertEquals(JobManager.State.COMPLETED, awaitFinished(jobs, running).state());
+            assertEquals(JobManager.State.CANCELLED, jobs.status(queued).state());
+        }
+    }
+
+    /**
+     * Test that invalid jobs are rejected when they are submitted and failing jobs report their error.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test invalid and failing jobs")
+    public void testInvalid() throws InterruptedException {
+        try (JobManager jobs = new JobManager(engine, 1, 4, 10)) {
+            assertThrows(IllegalArgumentException.class, () -> jobs.submit(IntegrationMethod.RECTANGLE, x -> x,
+                    new IntegrationParameters(1, 0, 10), IntegrationOptions.defaults(), null));
+            assertThrows(IllegalArgumentException.class, () -> jobs.submit(IntegrationMethod.ROMBERG, null,
+                    LARGE, IntegrationOptions.defaults(), null));
+
+            String id = jobs.submit(IntegrationMethod.RECTANGLE, x -> Double.NaN, LARGE, IntegrationOptions.defaults(), null);
+            JobManager.Snapshot failed = awaitFinished(jobs, id);
+            assertEquals(JobManager.State.FAILED, failed.state());
+            assertEquals("Integration result is not a finite number.", failed.error());
+            assertNull(jobs.status("unknown"));
+            assertNull(jobs.cancel("unknown"));
+        }
+    }
+
+    /**
+     * Test that a watcher receives the progress and the final state, and only the retained finished jobs are kept.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test watching and retention of jobs")
+    public void testWatchAndRetention() throws InterruptedException {
+        try (JobManager jobs = new JobManager(engine, 1, 4, 1)) {
+            String first = jobs.submit(IntegrationMethod.RECTANGLE, x -> x, LARGE, IntegrationOptions.defaults(), null);
+            List<JobManager.Snapshot> received = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            assertTrue(jobs.watch(first, snapshot -> {
+                received.add(snapshot);
+                if (snapshot.state().isFinished()) {
+                    finished.countDown();
+                }
+            }, 1));
+            assertTrue(finished.await(30, TimeUnit.SECONDS));
+            Thread.sleep(20);
+            assertEquals(JobManager.State.COMPLETED, received.get(received.size() - 1).state());
+            assertEquals(1, received.stream().filter(snapshot -> snapshot.state().isFinished()).count());
+
+            String second = jobs.submit(IntegrationMethod.RECTANGLE, x -> x, LARGE, IntegrationOptions.defaults(), null);
+            awaitFinished(jobs, second);
+            assertNull(jobs.status(first));
+            assertFalse(jobs.watch(first, snapshot -> { }, 1));
+        }
+    }
+}
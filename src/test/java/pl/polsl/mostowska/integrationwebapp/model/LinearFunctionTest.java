@@ -84,32 +84,34 @@ public class LinearFunctionTest {
     }
     
     /**
-     * Test for invalid inputs that should throw exceptions.
-     * These cases validate error handling in the constructor or evaluate method.
+     * Test for invalid coefficients, which are rejected when the function is created.
      * 
      * @param b Coefficient for the linear term (x).
      * @param c Constant term.
-     * @param x Value of x to evaluate.
      */
     @ParameterizedTest
-    @DisplayName("Test invalid inputs for linear function")
+    @DisplayName("Test invalid coefficients for linear function")
     @CsvSource({
-        "Infinity, 1, 0",  // Invalid coefficient for b
-        "1, NaN, 0",       // Invalid constant term
-        "1, 1, NaN"        // Invalid x value for evaluation
+        "Infinity, 1",  // Invalid coefficient for b
+        "1, NaN",       // Invalid constant term
+        "-Infinity, NaN"
     })
-    public void testInvalidInputs(double b, double c, double x) {
-        linear = new LinearFunction(b, c);
-        if (Double.isInfinite(b) || Double.isNaN(c)) {
-            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-                () -> linear.evaluate(x), 
-                String.format("Invalid coefficients: b = %f, c = %f", b, c));
-            assertEquals("Coefficients b and c cannot be NaN or infinite.", exception.getMessage());
-        } else if (Double.isNaN(x)) {
-            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-                () -> linear.evaluate(x), 
-                String.format("Invalid x value: %f for f(x) = %fx + %f", x, b, c));
-            assertEquals("x value cannot be NaN or infinite.", exception.getMessage());
-        }
+    public void testInvalidCoefficients(double b, double c) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
+            () -> new LinearFunction(b, c), 
+            String.format("Invalid coefficients: b = %f, c = %f", b, c));
+        assertEquals("Coefficients b and c cannot be NaN or infinite.", exception.getMessage());
+    }
+
+    /**
+     * Test that x is not validated on every evaluation; a non-finite x yields a non-finite value.
+     * 
+     * @param x Value of x to evaluate.
+     */
+    @ParameterizedTest
+    @DisplayName("Test non-finite x for linear function")
+    @CsvSource({"NaN", "Infinity", "-Infinity"})
+    public void testNonFiniteX(double x) {
+        assertFalse(Double.isFinite(linear.evaluate(x)));
     }
 }
@@ -0,0 +1,243 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Tests for {@link PolynomialFunction}: Horner evaluation, the packed form, the text,
+ * and the closed-form integral and sums of polynomials of degree above two.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class PolynomialFunctionTest {
+
+    /** Number of random polynomials generated for each property. */
+    private static final int CASES = 100;
+
+    /**
+     * Test the evaluation of polynomials given from the highest power down.
+     *
+     * @param coefficients the comma-separated coefficients
+     * @param x the input value
+     * @param expected the expected value
+     */
+    @ParameterizedTest
+    @DisplayName("Test evaluation")
+    @CsvSource({
+        "'5', 3, 5",
+        "'2, 1', 3, 7",
+        "'1, 0, -2', 3, 7",
+        "'1, -6, 11, -6', 2.5, -0.375",
+        "'1, 0, 0, 0, 0, 1', -2, -31",
+        "'0, 0, 3, 1', 4, 13"
+    })
+    public void testEvaluate(String coefficients, double x, double expected) {
+        PolynomialFunction function = PolynomialFunction.parse(coefficients);
+        assertEquals(expected, function.evaluate(x), 1e-12);
+        assertEquals(expected, new PolynomialFunction(function.getCoefficients(), true).evaluate(x), 1e-12);
+    }
+
+    /**
+     * Test that a degree-20 polynomial evaluated with Horner's scheme matches the sum of its terms.
+     */
+    @Test
+    @DisplayName("Test degree-20 polynomial")
+    public void testDegreeTwenty() {
+        Random random = new Random(20241022L);
+        double[] coefficients = random.doubles(21, -1, 1).toArray();
+        PolynomialFunction plain = new PolynomialFunction(coefficients);
+        PolynomialFunction fused = new PolynomialFunction(coefficients, true);
+        assertEquals(20, plain.getDegree());
+        assertTrue(fused.isFused());
+        for (double x = -1.5; x <= 1.5; x += 0.125) {
+            double expected = 0;
+            for (int i = 0; i < coefficients.length; i++) {
+                expected += coefficients[i] * Math.pow(x, i);
+            }
+            double tolerance = 1e-12 * Math.max(1, Math.pow(Math.abs(x), 20));
+            assertEquals(expected, plain.evaluate(x), tolerance);
+            assertEquals(expected, fused.evaluate(x), tolerance);
+        }
+    }
+
+    /**
+     * Test that trailing zero coefficients and negative zeros are dropped.
+     */
+    @Test
+    @DisplayName("Test normalized coefficients")
+    public void testNormalized() {
+        PolynomialFunction function = new PolynomialFunction(1, -0.0, 2, 0, 0);
+        assertEquals(2, function.getDegree());
+        assertArrayEquals(new double[] {1, 0, 2}, function.getCoefficients());
+        assertEquals(0.0, function.coefficient(5));
+        assertEquals(function, PolynomialFunction.fromHighestPower(2, 0, 1));
+        assertEquals(function.hashCode(), PolynomialFunction.fromHighestPower(2, 0, 1).hashCode());
+        assertEquals(0, new PolynomialFunction(0, 0).getDegree());
+    }
+
+    /**
+     * Test that invalid coefficients are rejected.
+     *
+     * @param coefficients the comma-separated coefficients
+     */
+    @ParameterizedTest
+    @DisplayName("Test invalid coefficients")
+    @CsvSource({"''", "'1, , 2'", "'1, x'", "'NaN'", "'1, Infinity'"})
+    public void testInvalid(String coefficients) {
+        assertThrows(IllegalArgumentException.class, () -> PolynomialFunction.parse(coefficients));
+    }
+
+    /**
+     * Test that the degree is limited.
+     */
+    @Test
+    @DisplayName("Test maximum degree")
+    public void testMaximumDegree() {
+        double[] coefficients = new double[PolynomialFunction.MAX_DEGREE + 2];
+        coefficients[PolynomialFunction.MAX_DEGREE] = 1;
+        assertEquals(PolynomialFunction.MAX_DEGREE, new PolynomialFunction(coefficients).getDegree());
+        coefficients[PolynomialFunction.MAX_DEGREE + 1] = 1;
+        assertThrows(IllegalArgumentException.class, () -> new PolynomialFunction(coefficients));
+        assertThrows(IllegalArgumentException.class, () -> new PolynomialFunction());
+    }
+
+    /**
+     * Test the packed form used by the database.
+     */
+    @Test
+    @DisplayName("Test packed form")
+    public void testPack() {
+        PolynomialFunction function = PolynomialFunction.fromHighestPower(-0.25, 3, 0, 1e-300, 7);
+        byte[] packed = function.pack();
+        assertEquals(5 * Double.BYTES, packed.length);
+        // Little-endian 7.0 = 0x401C000000000000
+        assertEquals(0x1C, packed[6]);
+        assertEquals(0x40, packed[7]);
+        assertEquals(function, PolynomialFunction.unpack(packed));
+        assertThrows(IllegalArgumentException.class, () -> PolynomialFunction.unpack(new byte[7]));
+        assertThrows(IllegalArgumentException.class, () -> PolynomialFunction.unpack(new byte[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> PolynomialFunction.unpack(new byte[PolynomialFunction.MAX_PACKED_LENGTH + Double.BYTES]));
+    }
+
+    /**
+     * Test the text of polynomials and that it compiles to the same function.
+     *
+     * @param coefficients the comma-separated coefficients
+     * @param expected the expected text
+     */
+    @ParameterizedTest
+    @DisplayName("Test text")
+    @CsvSource(delimiter = ';', value = {
+        "1.5, -2, 0, 1; 1.5*x^3 - 2.0*x^2 + 1.0",
+        "-1, 0; -1.0*x",
+        "0, 2, 0, 0; 2.0*x^2",
+        "0; 0.0",
+        "1e-20, 3; 1.0E-20*x + 3.0"
+    })
+    public void testToString(String coefficients, String expected) {
+        PolynomialFunction function = PolynomialFunction.parse(coefficients);
+        assertEquals(expected, function.toString());
+        ExpressionFunction compiled = ExpressionFunction.compile(function.toString());
+        for (double x = -2; x <= 2; x += 0.5) {
+            assertEquals(function.evaluate(x), compiled.evaluate(x), 1e-12);
+        }
+    }
+
+    /**
+     * Test the exact integral.
+     *
+     * @param coefficients the comma-separated coefficients
+     * @param lowerBound the lower bound
+     * @param upperBound the upper bound
+     * @param expected the expected integral
+     */
+    @ParameterizedTest
+    @DisplayName("Test exact integral")
+    @CsvSource({
+        "'1, 0, 0, 0', 0, 2, 4",
+        "'3, -2, 1', -1, 2, 9",
+        "'5, 0, 0, 0, 0', -1, 1, 2",
+        "'1, 0, 0, 0, 0, 0, 0, 0', 1024, 1024.0009765625, 1.1529253529048842e18",
+        "'7', 3, 1, -14"
+    })
+    public void testIntegral(String coefficients, double lowerBound, double upperBound, double expected) {
+        assertEquals(expected, PolynomialFunction.parse(coefficients).integral(lowerBound, upperBound), Math.abs(expected) * 1e-12);
+    }
+
+    /**
+     * Generates random polynomials of degree 3 to 20 with random bounds and partition counts
+     * large enough for the closed-form sums.
+     *
+     * @return the arguments for the property tests
+     */
+    static Stream<Arguments> randomPolynomials() {
+        Random random = new Random(20241022L);
+        return Stream.generate(() -> {
+            int degree = 3 + random.nextInt(18);
+            PolynomialFunction function = new PolynomialFunction(random.doubles(degree + 1, -2, 2).toArray());
+            double lowerBound = random.nextDouble(-3, 2);
+            double upperBound = lowerBound + random.nextDouble(0, 3);
+            int partitions = ClosedFormIntegrals.MIN_EULER_MACLAURIN_PARTITIONS + random.nextInt(100_000);
+            return Arguments.of(function, new IntegrationParameters(lowerBound, upperBound, partitions));
+        }).limit(CASES);
+    }
+
+    /**
+     * Property: the engine sums polynomials of degree above two in closed form,
+     * matching the sums evaluated point by point.
+     *
+     * @param function the polynomial to integrate
+     * @param params the integration parameters
+     */
+    @ParameterizedTest
+    @DisplayName("Test closed-form sums match iterative methods")
+    @MethodSource("randomPolynomials")
+    public void testClosedFormSums(PolynomialFunction function, IntegrationParameters params) {
+        double m = Math.max(1, Math.max(Math.abs(params.lowerBound()), Math.abs(params.upperBound())));
+        double bound = 0;
+        for (double coefficient : function.getCoefficients()) {
+            bound += Math.abs(coefficient);
+        }
+        double tolerance = 1e-10 * (params.upperBound() - params.lowerBound()) * bound * Math.pow(m, function.getDegree()) + 1e-12;
+        try (IntegrationEngine closedForm = new IntegrationEngine();
+                IntegrationEngine iterative = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, 1024, 1, false))) {
+            for (IntegrationMethod method : new IntegrationMethod[] {IntegrationMethod.RECTANGLE, IntegrationMethod.TRAPEZOID}) {
+                IntegrationResult result = closedForm.integrate(method, function, params);
+                assertEquals(0, result.evaluations());
+                assertEquals(iterative.integrate(method, function, params).value(), result.value(), tolerance);
+            }
+        }
+    }
+
+    /**
+     * Test that polynomials of degree at most two use the coefficients of the quadratic kernels,
+     * and that few partitions are still evaluated point by point.
+     */
+    @Test
+    @DisplayName("Test low degree and few partitions")
+    public void testKernelSelection() {
+        PolynomialFunction quadratic = PolynomialFunction.fromHighestPower(3, -2, 1);
+        assertEquals(new FunctionData(3, -2, 1), PolynomialKernels.coefficients(quadratic));
+        assertNull(PolynomialKernels.coefficients(PolynomialFunction.fromHighestPower(1, 0, 0, 0)));
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            IntegrationParameters params = new IntegrationParameters(-1, 2, 10_000);
+            assertEquals(engine.integrate(IntegrationMethod.TRAPEZOID, new QuadraticFunction(3, -2, 1), params).value(),
+                    engine.integrate(IntegrationMethod.TRAPEZOID, quadratic, params).value(), 0.0);
+
+            // The midpoint sum of x³ over [0, 1] with n partitions is 1/4 - 1/(8n²)
+            IntegrationResult few = engine.integrate(IntegrationMethod.RECTANGLE, PolynomialFunction.fromHighestPower(1, 0, 0, 0),
+                    new IntegrationParameters(0, 1, 10));
+            assertEquals(10, few.evaluations());
+            assertEquals(0.25 - 1.0 / 800, few.value(), 1e-15);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Unit tests for the vectorized polynomial kernels.
+ * Surefire runs with the jdk.incubator.vector module, so the vectorized kernels are available.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public class PolynomialKernelsTest {
+
+    /**
+     * Test that the Vector API is picked up when the module is added to the JVM.
+     */
+    @Test
+    @DisplayName("Test vector kernels are available")
+    public void testAvailable() {
+        assertTrue(PolynomialKernels.isAvailable());
+    }
+
+    /**
+     * Test that the vectorized sums agree with the scalar sums over the same points,
+     * including ranges that do not fill whole vectors.
+     *
+     * @param a Coefficient for the quadratic term.
+     * @param b Coefficient for the linear term.
+     * @param c Constant term.
+     * @param from the index of the first point
+     * @param to the index after the last point
+     */
+    @ParameterizedTest
+    @DisplayName("Test vector kernels match the scalar path")
+    @CsvSource({
+        "1, 2, 3, 0, 1",
+        "1, 2, 3, 0, 7",
+        "-0.5, 4, -1, 3, 1000",
+        "2.25, -3, 0.5, 0, 100001",
+        "0, 1.5, -2, 17, 65536"
+    })
+    public void testMatchesScalar(double a, double b, double c, int from, int to) {
+        QuadraticFunction function = new QuadraticFunction(a, b, c);
+        FunctionData data = PolynomialKernels.coefficients(function);
+        double lowerBound = -1.25;
+        double h = 3.5 / to;
+
+        double scalarMidpoints = Rectangle.heightSum(function, lowerBound, h, from, to, null);
+        double scalarNodes = Trapezoid.nodeSum(function, lowerBound, h, from, to, null);
+
+        assertEquals(scalarMidpoints, PolynomialKernels.midpointSum(data, lowerBound, h, from, to),
+            1e-12 * (to - from) * (Math.abs(a) + Math.abs(b) + Math.abs(c)) * 10);
+        assertEquals(scalarNodes, PolynomialKernels.nodeSum(data, lowerBound, h, from, to),
+            1e-12 * (to - from) * (Math.abs(a) + Math.abs(b) + Math.abs(c)) * 10);
+    }
+
+    /**
+     * Test that the vectorized kernels of every summation strategy agree with the scalar sums of the same strategy.
+     *
+     * @param summation the summation strategy
+     */
+    @ParameterizedTest
+    @DisplayName("Test vector kernels of every summation")
+    @EnumSource(Summation.class)
+    public void testSummation(Summation summation) {
+        QuadraticFunction function = new QuadraticFunction(2.25, -3, 0.5);
+        FunctionData data = PolynomialKernels.coefficients(function);
+        int to = 100_003;
+        double h = 3.5 / to;
+        double tolerance = 1e-13 * to;
+        assertEquals(Rectangle.heightSum(function, -1.25, h, 0, to, null, summation),
+                PolynomialKernels.midpointSum(data, -1.25, h, 0, to, summation), tolerance);
+        assertEquals(Trapezoid.nodeSum(function, -1.25, h, 1, to, null, summation),
+                PolynomialKernels.nodeSum(data, -1.25, h, 1, to, summation), tolerance);
+    }
+
+    /**
+     * Test that only linear and quadratic functions use the kernels.
+     */
+    @Test
+    @DisplayName("Test polynomial detection")
+    public void testCoefficients() {
+        assertEquals(new FunctionData(0, 2, 3), PolynomialKernels.coefficients(new LinearFunction(new FunctionData(9, 2, 3))));
+        assertEquals(new FunctionData(1, 2, 3), PolynomialKernels.coefficients(new QuadraticFunction(1, 2, 3)));
+        assertNull(PolynomialKernels.coefficients(x -> x * x));
+    }
+}
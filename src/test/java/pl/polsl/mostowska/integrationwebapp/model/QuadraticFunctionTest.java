@@ -4,6 +4,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.api.DisplayName;
@@ -89,33 +90,38 @@ public class QuadraticFunctionTest {
     }
 
     /**
-     * Test for invalid inputs that should throw exceptions.
-     * These cases validate error handling in the constructor or evaluate method.
+     * Test for invalid coefficients, which are rejected when the function is created.
      * 
      * @param a Coefficient for the quadratic term (x²).
      * @param b Coefficient for the linear term (x).
      * @param c Constant term.
-     * @param x Value of x to evaluate.
      */
     @ParameterizedTest
-    @DisplayName("Test invalid inputs for quadratic function")
+    @DisplayName("Test invalid coefficients for quadratic function")
     @CsvSource({
-        "Infinity, 1, 1, 0",  // Invalid coefficient for a (Infinity)
-        "1, NaN, 1, 0",       // Invalid coefficient for b (NaN)
-        "1, 1, 1, NaN"        // Invalid x value for evaluation (NaN)
+        "Infinity, 1, 1",  // Invalid coefficient for a (Infinity)
+        "1, NaN, 1",       // Invalid coefficient for b (NaN)
+        "1, 1, -Infinity"  // Invalid constant term (-Infinity)
     })
-    public void testInvalidInputs(double a, double b, double c, double x) {
-        quadratic = new QuadraticFunction(a, b, c);
-        if (Double.isInfinite(a) || Double.isNaN(b) || Double.isNaN(c)) {
-            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-                () -> quadratic.evaluate(x), 
-                String.format("Invalid coefficients: a = %f, b = %f, c = %f", a, b, c));
-            assertEquals("Coefficients a, b, and c cannot be NaN or infinite.", exception.getMessage());
-        } else if (Double.isNaN(x)) {
-            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-                () -> quadratic.evaluate(x), 
-                String.format("Invalid x value: %f for f(x) = %fx² + %fx + %f", x, a, b, c));
-            assertEquals("x value cannot be NaN or infinite.", exception.getMessage());
-        }
+    public void testInvalidCoefficients(double a, double b, double c) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
+            () -> new QuadraticFunction(a, b, c), 
+            String.format("Invalid coefficients: a = %f, b = %f, c = %f", a, b, c));
+        assertEquals("Coefficients a, b, and c cannot be NaN or infinite.", exception.getMessage());
+    }
+
+    /**
+     * Test that a non-finite x yields a non-finite value, and that an overflowing value
+     * is rejected once for the whole integration.
+     */
+    @Test
+    @DisplayName("Test non-finite values are rejected by the integration")
+    public void testNonFiniteValue() {
+        assertTrue(Double.isNaN(quadratic.evaluate(Double.NaN)));
+        Rectangle rectangle = new Rectangle();
+        rectangle.setFunction(new QuadraticFunction(1e308, 0, 0));
+        rectangle.setParameters(new IntegrationParameters(0, 10, 4));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, rectangle::calculate);
+        assertEquals("Integration result is not a finite number.", exception.getMessage());
     }
 }
@@ -9,6 +9,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
 
 /**
  * Unit tests for the Rectangle class implementing the rectangle method for numerical integration.
@@ -17,7 +20,7 @@ import org.junit.jupiter.api.DisplayName;
  * and error handling of the Rectangle class.
  * 
  * @author Wiktoria Mostowska
- * @version 1.0
+ * @version 1.3
  */
 public class RectangleTest {
     /** Instance of Rectangle for testing. */
@@ -225,4 +228,70 @@ public class RectangleTest {
             assertEquals("Number of partitions must be a valid positive number, not Infinity, NaN, or zero.", exception.getMessage());
         }
     }
+    
+    /**
+     * Test that capturing every height does not change the result and that it is disabled by default.
+     * 
+     * @param a the lower bound of the interval
+     * @param b the upper bound of the interval
+     * @param n the number of partitions
+     */
+    @ParameterizedTest
+    @DisplayName("Test full sample capture matches capture disabled")
+    @CsvSource({
+        "0, 2, 20",
+        "-1, 3, 1000",
+        "0.5, 7.25, 10000"   // SampleCapture.MAX_POINTS, the most values a full capture keeps
+    })
+    public void testFullCaptureMatchesCaptureDisabled(double a, double b, int n) {
+        IntegrationParameters params = new IntegrationParameters(a, b, n);
+        rectangle.setParameters(params);
+        double expected = rectangle.calculate();
+        assertEquals(0, rectangle.getSamples().length, "Capture should be disabled by default.");
+
+        rectangle.setSampleCapture(SampleCapture.full());
+        double result = rectangle.calculate();
+
+        assertEquals(expected, result, 0.0, "Capturing heights should not change the result.");
+        assertEquals(n, rectangle.getSamples().length, "Full capture should store every rectangle height.");
+        double h = (b - a) / n;
+        double x = a + h / 2;
+        assertEquals(x * x, rectangle.getSamples()[0], 0.0, "The first sample should be the first midpoint height.");
+    }
+
+    /**
+     * Test integration with 10^8 partitions and sample capture disabled.
+     * The test is tagged bounded-heap, so surefire runs it in a separate JVM with a 128 MB heap,
+     * which would not hold 10^8 boxed heights, and the allocation counter of the current thread must stay nearly flat.
+     */
+    @Test
+    @Tag("bounded-heap")
+    @DisplayName("Test 10^8 partitions without sample capture")
+    public void testHundredMillionPartitionsWithoutCapture() {
+        IntegrationParameters params = new IntegrationParameters(0, 3, 100_000_000);
+        rectangle.setParameters(params);
+
+        long allocatedBefore = allocatedBytes();
+        double result = rectangle.calculate();
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        // Integral of x^2 from 0 to 3 is 9
+        assertEquals(9.0, result, 1e-9, "Result should be the exact integral of x^2 over [0, 3].");
+        if (allocatedBefore >= 0) {
+            assertTrue(allocated < 1024 * 1024, String.format("Integration allocated %d bytes.", allocated));
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread, or -1 if not supported by the JVM.
+     * 
+     * @return the allocated bytes of the current thread
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,137 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the {@link ResultCache} and the canonical {@link ResultKey}.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class ResultCacheTest {
+
+    /**
+     * Creates the key of a rectangle integration of a linear function with default options.
+     *
+     * @param c the constant term of the function
+     * @return the key
+     */
+    private static ResultKey key(double c) {
+        return ResultKey.of(IntegrationMethod.RECTANGLE, new LinearFunction(1, c),
+                new IntegrationParameters(0, 1, 10), IntegrationOptions.defaults());
+    }
+
+    /**
+     * Creates a result with the given value.
+     *
+     * @param value the value of the integral
+     * @return the result
+     */
+    private static IntegrationResult result(double value) {
+        return new IntegrationResult(IntegrationMethod.RECTANGLE, new IntegrationParameters(0, 1, 10),
+                value, 10, Double.NaN, new double[0], new double[0][]);
+    }
+
+    /**
+     * Test that a repeated request is answered from the cache without computing it again.
+     */
+    @Test
+    @DisplayName("Test hits and misses")
+    public void testHitsAndMisses() {
+        ResultCache cache = new ResultCache(10, 0);
+        AtomicInteger computations = new AtomicInteger();
+
+        IntegrationResult first = cache.getOrCompute(key(1), () -> {
+            computations.incrementAndGet();
+            return result(1.5);
+        });
+        IntegrationResult second = cache.getOrCompute(key(1), () -> {
+            computations.incrementAndGet();
+            return result(2.5);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+        ResultCache.Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(1, statistics.misses());
+        assertEquals(1, statistics.size());
+        assertEquals(0.5, statistics.hitRatio(), 0.0);
+    }
+
+    /**
+     * Test that the least recently used entry is evicted when the cache is full.
+     */
+    @Test
+    @DisplayName("Test LRU eviction")
+    public void testEviction() {
+        ResultCache cache = new ResultCache(2, 0);
+        cache.put(key(1), result(1));
+        cache.put(key(2), result(2));
+        // Reading the first entry makes the second one the least recently used
+        assertNotNull(cache.get(key(1)));
+        cache.put(key(3), result(3));
+
+        assertNotNull(cache.get(key(1)));
+        assertNull(cache.get(key(2)));
+        assertNotNull(cache.get(key(3)));
+        assertEquals(1, cache.getStatistics().evictions());
+        assertEquals(2, cache.getStatistics().size());
+    }
+
+    /**
+     * Test that entries expire after the time to live.
+     */
+    @Test
+    @DisplayName("Test TTL expiry")
+    public void testExpiry() {
+        AtomicLong now = new AtomicLong(-500);
+        ResultCache cache = new ResultCache(10, 1000, now::get);
+        cache.put(key(1), result(1));
+
+        now.addAndGet(999);
+        assertNotNull(cache.get(key(1)));
+        now.addAndGet(1);
+        assertNull(cache.get(key(1)));
+        assertEquals(1, cache.getStatistics().expirations());
+        assertEquals(0, cache.getStatistics().size());
+    }
+
+    /**
+     * Test that equivalent requests share a key and that uncacheable requests have none.
+     */
+    @Test
+    @DisplayName("Test canonical keys")
+    public void testCanonicalKey() {
+        IntegrationParameters params = new IntegrationParameters(-0.0, 2, 100);
+        IntegrationOptions options = IntegrationOptions.defaults();
+        IntegrationOptions otherTolerance = options.withTolerance(new Tolerance(1e-3, 0));
+
+        assertEquals(ResultKey.of(IntegrationMethod.TRAPEZOID, new LinearFunction(2, -0.0), params, options),
+                ResultKey.of(IntegrationMethod.TRAPEZOID, new QuadraticFunction(0, 2, 0), new IntegrationParameters(0, 2, 100), options));
+        assertEquals(ResultKey.of(IntegrationMethod.RECTANGLE, new LinearFunction(2, 1), params, options),
+                ResultKey.of(IntegrationMethod.RECTANGLE, new LinearFunction(2, 1), params, otherTolerance));
+        assertNotEquals(ResultKey.of(IntegrationMethod.SIMPSON, new LinearFunction(2, 1), params, options),
+                ResultKey.of(IntegrationMethod.SIMPSON, new LinearFunction(2, 1), params, otherTolerance));
+        assertNotEquals(ResultKey.of(IntegrationMethod.RECTANGLE, new LinearFunction(2, 1), params, options),
+                ResultKey.of(IntegrationMethod.TRAPEZOID, new LinearFunction(2, 1), params, options));
+
+        assertNull(ResultKey.of(IntegrationMethod.RECTANGLE, x -> x, params, options));
+        assertNull(ResultKey.of(IntegrationMethod.RECTANGLE, new LinearFunction(2, 1), params,
+                options.withSampleCapture(SampleCapture.full())));
+    }
+
+    /**
+     * Test the validation of the cache settings.
+     */
+    @Test
+    @DisplayName("Test invalid cache settings")
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(10, -1));
+    }
+}
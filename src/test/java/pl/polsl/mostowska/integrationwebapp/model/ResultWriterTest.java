@@ -0,0 +1,329 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.RollbackException;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pl.polsl.mostowska.integrationwebapp.model.TestProxies.proxy;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the write-behind {@link ResultWriter} and the {@link FunctionRepository} it uses.
+ * The persistence provider is replaced by an in-memory fake recording the committed transactions.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.3
+ */
+public class ResultWriterTest {
+
+    /**
+     * In-memory stand-in for the JPA interfaces used by the writer and the repository.
+     * Every committed transaction is recorded as the list of objects it persisted.
+     */
+    private static final class FakePersistence {
+        private final List<List<Object>> commits = new CopyOnWriteArrayList<>();
+        private final List<FunctionEntity> functions = new CopyOnWriteArrayList<>();
+        private final AtomicLong ids = new AtomicLong();
+        private volatile long commitDelayMillis;
+        private volatile boolean failResults;
+        /** Name of a function whose lookup throws an unexpected exception, or null. */
+        private volatile String failingFunction;
+
+        EntityManagerFactory factory() {
+            return proxy(EntityManagerFactory.class, (method, args) -> switch (method) {
+                case "createEntityManager" -> entityManager();
+                default -> null;
+            });
+        }
+
+        private EntityManager entityManager() {
+            List<Object> persisted = new ArrayList<>();
+            boolean[] active = new boolean[1];
+            EntityTransaction transaction = proxy(EntityTransaction.class, (method, args) -> switch (method) {
+                case "begin" -> {
+                    active[0] = true;
+                    yield null;
+                }
+                case "commit" -> {
+                    active[0] = false;
+                    if (failResults && persisted.stream().anyMatch(ResultsEntity.class::isInstance)) {
+                        throw new RollbackException("Rejected by the test.");
+                    }
+                    sleep(commitDelayMillis);
+                    commits.add(List.copyOf(persisted));
+                    yield null;
+                }
+                case "rollback" -> {
+                    active[0] = false;
+                    yield null;
+                }
+                case "isActive" -> active[0];
+                default -> null;
+            });
+            return proxy(EntityManager.class, (method, args) -> switch (method) {
+                case "getTransaction" -> transaction;
+                case "persist" -> {
+                    if (args[0] instanceof FunctionEntity function) {
+                        function.setId(ids.incrementAndGet());
+                        functions.add(function);
+                    }
+                    persisted.add(args[0]);
+                    yield null;
+                }
+                case "getReference" -> {
+                    FunctionEntity reference = new FunctionEntity();
+                    reference.setId((Long) args[1]);
+                    yield reference;
+                }
+                case "createQuery" -> functionIdQuery();
+                default -> null;
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private TypedQuery<Long> functionIdQuery() {
+            Object[] parameters = new Object[4];
+            TypedQuery<Long>[] self = new TypedQuery[1];
+            self[0] = proxy(TypedQuery.class, (method, args) -> switch (method) {
+                case "setParameter" -> {
+                    int index = List.of("functionName", "a", "b", "c").indexOf(args[0]);
+                    parameters[index] = args[1];
+                    yield self[0];
+                }
+                case "setMaxResults" -> self[0];
+                case "getResultList" -> {
+                    if (parameters[0].equals(failingFunction)) {
+                        throw new IllegalStateException("Lookup failed in the test.");
+                    }
+                    yield functions.stream()
+                        .filter(f -> f.getFunctionName().equals(parameters[0]) && f.getA().equals(parameters[1])
+                                && f.getB().equals(parameters[2]) && f.getC().equals(parameters[3]))
+                        .map(FunctionEntity::getId)
+                        .limit(1)
+                        .toList();
+                }
+                default -> null;
+            });
+            return self[0];
+        }
+
+        /**
+         * Returns the persisted results in commit order.
+         *
+         * @return the persisted results
+         */
+        List<ResultsEntity> results() {
+            return commits.stream().flatMap(List::stream)
+                    .filter(ResultsEntity.class::isInstance).map(ResultsEntity.class::cast).toList();
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Creates a result with the given value.
+     *
+     * @param value the value of the integral
+     * @return the result entity
+     */
+    private static ResultsEntity result(double value) {
+        ResultsEntity result = new ResultsEntity();
+        result.setMethod("rectangle");
+        result.setResult(value);
+        return result;
+    }
+
+    /**
+     * Test that all submitted results are written in batches and flushed by close().
+     */
+    @Test
+    @DisplayName("Test batching and flush on close")
+    public void testBatchingAndClose() {
+        FakePersistence persistence = new FakePersistence();
+        EntityManagerFactory emf = persistence.factory();
+        ResultWriter writer = new ResultWriter(emf, new FunctionRepository(emf), 1000, 10, 10_000);
+
+        for (int i = 0; i < 95; i++) {
+            writer.submit(result(i), "linear", 0, 1, i % 3);
+        }
+        writer.close();
+
+        List<ResultsEntity> results = persistence.results();
+        assertEquals(95, results.size());
+        assertEquals(95, writer.written());
+        assertEquals(0, writer.pending());
+        assertTrue(writer.batches() <= 10 + 1, "Committed " + writer.batches() + " batches.");
+        for (int i = 0; i < 95; i++) {
+            assertEquals(i, results.get(i).getResult(), 0.0);
+            assertNotNull(results.get(i).getFunction().getId());
+        }
+        // Three distinct functions are stored once each
+        assertEquals(3, persistence.functions.size());
+    }
+
+    /**
+     * Test that results submitted while the writer is closed are written, not left in the queue.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test submit racing with close")
+    public void testSubmitDuringClose() throws InterruptedException {
+        int threads = 4;
+        int perThread = 200;
+        FakePersistence persistence = new FakePersistence();
+        EntityManagerFactory emf = persistence.factory();
+        ResultWriter writer = new ResultWriter(emf, new FunctionRepository(emf), 1000, 10, 0);
+        CountDownLatch started = new CountDownLatch(threads);
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < perThread; i++) {
+                    writer.submit(result(i), "linear", 0, 1, 1);
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+        started.await();
+        writer.close();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        assertEquals(0, writer.pending());
+        assertEquals(0, writer.failed());
+        assertEquals(threads * perThread, writer.written());
+        assertEquals(threads * perThread, persistence.results().size());
+    }
+
+    /**
+     * Test that a partial batch is written after the flush interval without closing the writer.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test flush interval")
+    public void testFlushInterval() throws InterruptedException {
+        FakePersistence persistence = new FakePersistence();
+        EntityManagerFactory emf = persistence.factory();
+        try (ResultWriter writer = new ResultWriter(emf, new FunctionRepository(emf), 1000, 100, 20)) {
+            writer.submit(result(1), "quadratic", 1, 2, 3);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (writer.written() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, writer.written());
+        }
+    }
+
+    /**
+     * Test that a full queue blocks the submitting thread instead of dropping results.
+     */
+    @Test
+    @DisplayName("Test backpressure")
+    public void testBackpressure() {
+        FakePersistence persistence = new FakePersistence();
+        persistence.commitDelayMillis = 50;
+        EntityManagerFactory emf = persistence.factory();
+        ResultWriter writer = new ResultWriter(emf, new FunctionRepository(emf), 2, 1, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            writer.submit(result(i), "linear", 0, 1, 1);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        writer.close();
+
+        // The function insert commits once, then six single-result batches of 50 ms each, of which two fit in the queue
+        assertTrue(elapsedMillis >= 100, "Submitting took only " + elapsedMillis + " ms.");
+        assertEquals(6, persistence.results().size());
+    }
+
+    /**
+     * Test that failed inserts are counted and do not stop the writer.
+     */
+    @Test
+    @DisplayName("Test failed inserts")
+    public void testFailures() {
+        FakePersistence persistence = new FakePersistence();
+        persistence.failResults = true;
+        EntityManagerFactory emf = persistence.factory();
+        ResultWriter writer = new ResultWriter(emf, new FunctionRepository(emf), 100, 4, 10_000);
+        for (int i = 0; i < 4; i++) {
+            writer.submit(result(i), "linear", 0, 1, 1);
+        }
+        writer.close();
+
+        assertEquals(0, writer.written());
+        assertEquals(4, writer.failed());
+        assertEquals(Collections.emptyList(), persistence.results());
+    }
+
+    /**
+     * Test that an unexpected exception fails only the affected results and does not end the writer thread.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test unexpected exceptions")
+    public void testUnexpectedException() throws InterruptedException {
+        FakePersistence persistence = new FakePersistence();
+        persistence.failingFunction = "broken";
+        EntityManagerFactory emf = persistence.factory();
+        ResultWriter writer = new ResultWriter(emf, new FunctionRepository(emf), 100, 3, 10_000);
+        writer.submit(result(0), "linear", 0, 1, 1);
+        writer.submit(result(1), "broken", 0, 1, 1);
+        writer.submit(result(2), "linear", 0, 1, 2);
+
+        // The batch is retried one by one, and a later result is still written by the same thread
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.written() + writer.failed() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        writer.submit(result(3), "linear", 0, 1, 1);
+        writer.close();
+
+        assertEquals(1, writer.failed());
+        assertEquals(3, writer.written());
+        assertEquals(List.of(0.0, 2.0, 3.0), persistence.results().stream().map(ResultsEntity::getResult).toList());
+    }
+
+    /**
+     * Test that the function repository caches ids and normalises negative zeros.
+     */
+    @Test
+    @DisplayName("Test function find-or-create")
+    public void testFunctionRepository() {
+        FakePersistence persistence = new FakePersistence();
+        FunctionRepository repository = new FunctionRepository(persistence.factory(), 2);
+
+        Long first = repository.findOrCreate("linear", 0, 1, -0.0);
+        assertEquals(first, repository.findOrCreate("linear", 0, 1, 0.0));
+        Long second = repository.findOrCreate("quadratic", 1, 1, 0);
+        repository.findOrCreate("quadratic", 2, 1, 0);
+
+        assertEquals(2, repository.cachedIds());
+        assertEquals(3, persistence.functions.size());
+        // The evicted function is found in the database instead of being inserted again
+        assertEquals(first, repository.findOrCreate("linear", 0, 1, 0));
+        assertNotEquals(first, second);
+        assertEquals(3, persistence.functions.size());
+    }
+}
@@ -0,0 +1,132 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the ring buffer of the in-memory history and the formatting of its records.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public class RingBufferTest {
+
+    /**
+     * Test that the buffer keeps the newest elements, newest first.
+     *
+     * @param capacity the capacity of the buffer
+     * @param added the number of added elements
+     */
+    @ParameterizedTest
+    @DisplayName("Test buffer keeps the newest elements")
+    @CsvSource({"1, 0", "1, 5", "3, 2", "3, 3", "3, 10", "100, 1000"})
+    public void testNewestFirst(int capacity, int added) {
+        RingBuffer<Integer> buffer = new RingBuffer<>(capacity);
+        for (int i = 0; i < added; i++) {
+            buffer.add(i);
+        }
+        List<Integer> snapshot = buffer.snapshot();
+        assertEquals(Math.min(capacity, added), snapshot.size());
+        assertEquals(snapshot.size(), buffer.size());
+        assertEquals(added, buffer.added());
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals(added - 1 - i, snapshot.get(i));
+        }
+    }
+
+    /**
+     * Test that invalid capacities and null elements are rejected.
+     */
+    @Test
+    @DisplayName("Test invalid capacity and element")
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(1).add(null));
+    }
+
+    /**
+     * Test that concurrent writers keep exactly the capacity, with no duplicates and no lost slots,
+     * while readers take snapshots.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test concurrent writers and readers")
+    public void testConcurrent() throws InterruptedException {
+        int threads = 8;
+        int perThread = 20_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            executor.execute(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perThread; i++) {
+                    buffer.add(offset + i);
+                }
+            });
+        }
+        executor.execute(() -> {
+            awaitQuietly(start);
+            for (int i = 0; i < 1000; i++) {
+                List<Integer> snapshot = buffer.snapshot();
+                if (snapshot.size() > 64 || snapshot.size() != new HashSet<>(snapshot).size()) {
+                    consistent.set(false);
+                }
+            }
+        });
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(consistent.get(), "A snapshot was too large or contained duplicates.");
+
+        List<Integer> snapshot = buffer.snapshot();
+        Set<Integer> distinct = new HashSet<>(snapshot);
+        assertEquals((long) threads * perThread, buffer.added());
+        assertEquals(64, snapshot.size());
+        assertEquals(64, distinct.size());
+    }
+
+    /**
+     * Test the text of the history records of every function type.
+     */
+    @Test
+    @DisplayName("Test history record format")
+    public void testFormat() {
+        assertEquals("Method: rectangle, Result: 2.5 for bounds [0.0, 1.0] and 10 partitions, 0 evaluations, "
+                + "for function: linear f(x) = 1.0x + 2.0",
+                new HistoryRecord(IntegrationMethod.RECTANGLE, 2.5, Double.NaN, 0, 1, 10, 0, IntegrationMetrics.FunctionType.LINEAR, 7, 1, 2, null).format());
+        assertEquals("Method: romberg, Result: 0.5 ± 1.0E-12 for bounds [-1.0, 1.0] and at most 64 subintervals, 33 evaluations, "
+                + "for function: quadratic f(x) = 3.0x² + 0.0x + -0.5",
+                new HistoryRecord(IntegrationMethod.ROMBERG, 0.5, 1e-12, -1, 1, 64, 33, IntegrationMetrics.FunctionType.QUADRATIC, 3, 0, -0.5, null).format());
+        assertEquals("Method: simpson, Result: 2.0 ± 0.0 for bounds [0.0, 3.141592653589793] and at most 100 subintervals, 17 evaluations, "
+                + "for function: expression f(x) = sin(x)",
+                new HistoryRecord(IntegrationMethod.SIMPSON, 2, 0, 0, Math.PI, 100, 17, IntegrationMetrics.FunctionType.EXPRESSION, 0, 0, 0, "sin(x)").format());
+        String polynomial = new PolynomialFunction(1, 0, 0, 0, 0, 1).toString();
+        assertEquals("Method: trapezoid, Result: 1.5 for bounds [0.0, 1.0] and 8 partitions, 9 evaluations, "
+                + "for function: polynomial f(x) = " + polynomial,
+                new HistoryRecord(IntegrationMethod.TRAPEZOID, 1.5, Double.NaN, 0, 1, 8, 9, IntegrationMetrics.FunctionType.POLYNOMIAL,
+                        0, 0, 0, polynomial).format());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
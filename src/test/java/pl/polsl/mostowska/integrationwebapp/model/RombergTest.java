@@ -0,0 +1,132 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the {@link Romberg} integration method.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class RombergTest {
+
+    /**
+     * Test that polynomials are integrated exactly with a handful of evaluations.
+     *
+     * @param a the quadratic coefficient
+     * @param b the linear coefficient
+     * @param c the constant term
+     * @param lowerBound the lower bound
+     * @param upperBound the upper bound
+     */
+    @ParameterizedTest
+    @DisplayName("Test polynomials are integrated exactly")
+    @CsvSource({
+        "1, 0, 0, 0, 1",
+        "3, -2, 1, -1, 2",
+        "-0.5, 4, 7, -10, 25",
+        "0, 2, -3, 5, 6"
+    })
+    public void testPolynomials(double a, double b, double c, double lowerBound, double upperBound) {
+        Romberg romberg = new Romberg();
+        romberg.setFunction(new QuadraticFunction(a, b, c));
+        romberg.setParameters(new IntegrationParameters(lowerBound, upperBound, 1 << 20));
+
+        double expected = ClosedFormIntegrals.exact(new FunctionData(a, b, c), lowerBound, upperBound);
+
+        assertEquals(expected, romberg.calculate(), 1e-12 * Math.max(1, Math.abs(expected)));
+        // Rows with 1, 2 and 4 subintervals
+        assertEquals(5, romberg.getEvaluations());
+    }
+
+    /**
+     * Test that a smooth function reaches high accuracy with a few hundred evaluations.
+     */
+    @Test
+    @DisplayName("Test smooth function accuracy")
+    public void testSmoothFunction() {
+        Romberg romberg = new Romberg();
+        romberg.setFunction(Math::exp);
+        romberg.setParameters(new IntegrationParameters(-1, 2, 1 << 20));
+        romberg.setTolerance(new Tolerance(1e-12, 0));
+
+        double value = romberg.calculate();
+
+        assertEquals(Math.exp(2) - Math.exp(-1), value, 1e-12);
+        assertTrue(romberg.getEvaluations() < 300, "Used " + romberg.getEvaluations() + " evaluations.");
+    }
+
+    /**
+     * Test that the first column of the table holds the trapezoidal sums with 2^k partitions
+     * and that the table is only kept on request.
+     */
+    @Test
+    @DisplayName("Test Romberg table")
+    public void testTable() {
+        FunctionModel function = x -> Math.sin(x) * x;
+        Romberg romberg = new Romberg();
+        romberg.setFunction(function);
+        romberg.setParameters(new IntegrationParameters(0, 3, 1 << 20));
+        romberg.calculate();
+        assertEquals(0, romberg.getTable().length);
+
+        romberg.setTableRequested(true);
+        double value = romberg.calculate();
+        double[][] table = romberg.getTable();
+
+        assertTrue(table.length > 2);
+        for (int k = 0; k < table.length; k++) {
+            assertEquals(k + 1, table[k].length);
+            Trapezoid trapezoid = new Trapezoid();
+            trapezoid.setFunction(function);
+            trapezoid.setParameters(new IntegrationParameters(0, 3, 1 << k));
+            assertEquals(trapezoid.calculate(), table[k][0], 1e-12);
+        }
+        assertEquals(value, table[table.length - 1][table.length - 1], 0.0);
+    }
+
+    /**
+     * Test that the number of partitions limits the size of the table.
+     */
+    @Test
+    @DisplayName("Test partition limit")
+    public void testPartitionLimit() {
+        Romberg romberg = new Romberg();
+        romberg.setFunction(Math::sqrt);
+        romberg.setParameters(new IntegrationParameters(0, 1, 16));
+        romberg.setTolerance(new Tolerance(1e-15, 0));
+        romberg.setTableRequested(true);
+
+        romberg.calculate();
+
+        assertEquals(5, romberg.getTable().length);
+        assertEquals(17, romberg.getEvaluations());
+    }
+
+    /**
+     * Test that the engine matches the model and returns the table on request.
+     */
+    @Test
+    @DisplayName("Test engine matches Romberg model")
+    public void testEngine() {
+        FunctionModel function = x -> 1 / (1 + x * x);
+        IntegrationParameters params = new IntegrationParameters(0, 1, 1 << 20);
+        Romberg romberg = new Romberg();
+        romberg.setFunction(function);
+        romberg.setParameters(params);
+        romberg.setTableRequested(true);
+        try (IntegrationEngine engine = new IntegrationEngine()) {
+            IntegrationResult result = engine.integrate(IntegrationMethod.ROMBERG, function, params,
+                    IntegrationOptions.defaults().withRombergTable(true));
+            assertEquals(romberg.calculate(), result.value(), 0.0);
+            assertEquals(Math.PI / 4, result.value(), 1e-10);
+            assertEquals(romberg.getEvaluations(), result.evaluations());
+            assertArrayEquals(romberg.getTable(), result.rombergTable());
+            assertEquals(0, engine.integrate(IntegrationMethod.ROMBERG, function, params).rombergTable().length);
+        }
+    }
+}
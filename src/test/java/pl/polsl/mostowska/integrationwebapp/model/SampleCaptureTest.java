@@ -0,0 +1,108 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Unit tests for the sample capture modes used by the integration models.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public class SampleCaptureTest {
+    /** Instance of Trapezoid for testing, integrating f(x) = x over [0, n] so that node i has value i. */
+    private Trapezoid trapezoid;
+
+    @BeforeEach
+    public void setUp() {
+        trapezoid = new Trapezoid();
+        trapezoid.setFunction(x -> x);
+    }
+
+    /**
+     * Test that strided capture keeps every k-th value and never more than the requested number of points.
+     *
+     * @param n the number of partitions
+     * @param points the maximum number of captured points
+     * @param expectedLength the expected number of captured points
+     * @param expectedStride the expected distance between captured values
+     */
+    @ParameterizedTest
+    @DisplayName("Test strided capture")
+    @CsvSource({
+        "9, 5, 5, 2",     // 10 nodes, every 2nd
+        "9, 4, 4, 3",     // 10 nodes, every 3rd
+        "9, 100, 10, 1",  // more points than nodes keeps all of them
+        "999, 10, 10, 100"
+    })
+    public void testStridedCapture(int n, int points, int expectedLength, int expectedStride) {
+        trapezoid.setParameters(new IntegrationParameters(0, n, n));
+        trapezoid.setSampleCapture(SampleCapture.strided(points));
+        trapezoid.calculate();
+
+        double[] samples = trapezoid.getSamples();
+        assertEquals(expectedLength, samples.length);
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(i * expectedStride, samples[i], 1e-9, "Sample " + i + " should be node " + i * expectedStride);
+        }
+    }
+
+    /**
+     * Test that min/max capture keeps the extremes of each bucket.
+     */
+    @Test
+    @DisplayName("Test min/max capture")
+    public void testMinMaxCapture() {
+        trapezoid.setParameters(new IntegrationParameters(0, 99, 99));
+        trapezoid.setSampleCapture(SampleCapture.minMax(4));
+        trapezoid.calculate();
+
+        assertArrayEquals(new double[] {0, 24, 25, 49, 50, 74, 75, 99}, trapezoid.getSamples(), 1e-9);
+    }
+
+    /**
+     * Test that capture settings are parsed from request parameters.
+     */
+    @Test
+    @DisplayName("Test parsing capture settings")
+    public void testParse() {
+        assertSame(SampleCapture.off(), SampleCapture.parse(null, null));
+        assertSame(SampleCapture.off(), SampleCapture.parse("off", "5"));
+        assertEquals(SampleCapture.full(), SampleCapture.parse("full", null));
+        assertEquals(SampleCapture.strided(7), SampleCapture.parse("strided", "7"));
+        assertEquals(SampleCapture.minMax(3), SampleCapture.parse("minmax", "3"));
+        assertThrows(IllegalArgumentException.class, () -> SampleCapture.parse("strided", "0"));
+        assertThrows(IllegalArgumentException.class, () -> SampleCapture.parse("unknown", "1"));
+        assertEquals(SampleCapture.strided(SampleCapture.MAX_POINTS), SampleCapture.parse("strided", "10000"));
+        assertThrows(IllegalArgumentException.class, () -> SampleCapture.parse("strided", "10001"));
+        assertThrows(IllegalArgumentException.class, () -> SampleCapture.parse("minmax", "2147483647"));
+    }
+
+    /**
+     * Test that full capture of more values than the cap is downsampled, and that the buffers
+     * for the trapezoid nodes of Integer.MAX_VALUE partitions are created without overflow.
+     *
+     * @param mode the capture mode
+     * @param sampleCount the number of values produced by the integration
+     * @param expectedLength the expected number of captured values
+     */
+    @ParameterizedTest
+    @DisplayName("Test capture is capped")
+    @CsvSource({
+        "full, 10000, 10000",
+        "full, 10001, 5001",
+        "full, 2147483648, 10000",    // Integer.MAX_VALUE partitions + 1 node
+        "strided, 2147483648, 10000",
+        "minmax, 2147483648, 20000"
+    })
+    public void testCap(String mode, long sampleCount, int expectedLength) {
+        SampleBuffer buffer = SampleCapture.parse(mode, String.valueOf(SampleCapture.MAX_POINTS)).newBuffer(sampleCount);
+        buffer.record(0, 1);
+        buffer.record((int) (sampleCount - 1), 2);
+        assertEquals(expectedLength, buffer.toArray().length);
+    }
+}
@@ -0,0 +1,111 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the query finding stored results of equivalent requests.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.2
+ */
+public class StoredResultQueryTest {
+
+    /** Integration bounds and partitions of the tested requests. */
+    private static final IntegrationParameters PARAMETERS = new IntegrationParameters(-1, 2, 100);
+
+    /**
+     * Test the query and the parameters of a rectangle request.
+     */
+    @Test
+    @DisplayName("Test stored result query")
+    public void testQuery() {
+        ResultKey key = ResultKey.of(IntegrationMethod.RECTANGLE, new QuadraticFunction(1, -0.0, 3), PARAMETERS,
+                IntegrationOptions.defaults());
+        StoredResultQuery query = StoredResultQuery.of(key);
+
+        assertEquals("SELECT r FROM ResultsEntity r JOIN r.function f WHERE r.method = :method"
+                + " AND r.lowerBound = :lowerBound AND r.upperBound = :upperBound AND r.partitions = :partitions"
+                + " AND f.functionName IN ('linear', 'quadratic') AND f.coefficients IS NULL"
+                + " AND f.a = :a AND f.b = :b AND f.c = :c AND r.result IS NOT NULL", query.jpql());
+        assertEquals(Map.of("method", "rectangle", "lowerBound", -1.0, "upperBound", 2.0, "partitions", 100,
+                "a", 1.0, "b", 0.0, "c", 3.0), query.parameters());
+    }
+
+    /**
+     * Test that a lookup of the zero polynomial cannot match a stored expression.
+     * Expressions are stored under their text with a = b = c = 0, so only the function name tells them apart.
+     */
+    @Test
+    @DisplayName("Test expressions do not answer zero polynomials")
+    public void testExpressionExcluded() {
+        ResultKey key = ResultKey.of(IntegrationMethod.TRAPEZOID, new LinearFunction(0, 0), PARAMETERS,
+                IntegrationOptions.defaults());
+        StoredResultQuery query = StoredResultQuery.of(key);
+
+        assertEquals(0.0, query.parameters().get("a"));
+        assertEquals(0.0, query.parameters().get("b"));
+        assertEquals(0.0, query.parameters().get("c"));
+        assertTrue(query.jpql().contains(" AND f.functionName IN ('linear', 'quadratic') AND "), query.jpql());
+    }
+
+    /**
+     * Test that a quadratic lookup cannot match a stored polynomial of higher degree.
+     * The polynomial x³ + x² is stored with a = 1, b = 0 and c = 0 next to its packed coefficients,
+     * so the row is told apart from the quadratic x² only by its packed coefficients.
+     */
+    @Test
+    @DisplayName("Test polynomials do not answer quadratic functions")
+    public void testPolynomialExcluded() {
+        PolynomialFunction stored = new PolynomialFunction(0, 0, 1, 1);
+        ResultKey key = ResultKey.of(IntegrationMethod.SIMPSON, new QuadraticFunction(1, 0, 0), PARAMETERS,
+                IntegrationOptions.defaults());
+        StoredResultQuery query = StoredResultQuery.of(key);
+
+        assertEquals(stored.coefficient(2), query.parameters().get("a"));
+        assertEquals(stored.coefficient(1), query.parameters().get("b"));
+        assertEquals(stored.coefficient(0), query.parameters().get("c"));
+        assertTrue(query.jpql().contains(" AND f.coefficients IS NULL AND "), query.jpql());
+    }
+
+    /**
+     * Test that only requests with the default summation strategy are answered from the database,
+     * as the strategy of the stored results is not recorded.
+     */
+    @Test
+    @DisplayName("Test summation strategies are computed")
+    public void testSummation() {
+        for (Summation summation : Summation.values()) {
+            ResultKey key = ResultKey.of(IntegrationMethod.TRAPEZOID, new LinearFunction(1, 2), PARAMETERS,
+                    IntegrationOptions.defaults().withSummation(summation));
+            assertEquals(summation == IntegrationOptions.defaults().summation(), StoredResultQuery.of(key) != null,
+                    summation.toString());
+        }
+        // The adaptive methods do not sum partitions, so their keys have no strategy
+        ResultKey adaptive = ResultKey.of(IntegrationMethod.SIMPSON, new LinearFunction(1, 2), PARAMETERS,
+                IntegrationOptions.defaults().withSummation(Summation.NAIVE));
+        assertNotNull(StoredResultQuery.of(adaptive));
+    }
+
+    /**
+     * Test that adaptive results must meet the tolerance and that Romberg tables are always computed.
+     */
+    @Test
+    @DisplayName("Test tolerance and Romberg table lookups")
+    public void testAdaptive() {
+        Tolerance tolerance = IntegrationOptions.defaults().tolerance();
+        ResultKey key = ResultKey.of(IntegrationMethod.GAUSS_KRONROD, new LinearFunction(1, 0), PARAMETERS,
+                IntegrationOptions.defaults());
+        StoredResultQuery query = StoredResultQuery.of(key);
+
+        assertTrue(query.jpql().endsWith(" AND (r.errorEstimate <= :absolute OR r.errorEstimate <= :relative * ABS(r.result))"));
+        assertEquals(tolerance.absolute(), query.parameters().get("absolute"));
+        assertEquals(tolerance.relative(), query.parameters().get("relative"));
+
+        ResultKey table = ResultKey.of(IntegrationMethod.ROMBERG, new LinearFunction(1, 0), PARAMETERS,
+                IntegrationOptions.defaults().withRombergTable(true));
+        assertNull(StoredResultQuery.of(table));
+    }
+}
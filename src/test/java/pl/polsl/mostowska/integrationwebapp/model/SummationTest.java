@@ -0,0 +1,123 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Unit tests for the summation strategies of the rectangle and trapezoidal sums.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class SummationTest {
+
+    /**
+     * Test the lookup of the strategies by request name.
+     *
+     * @param name the request name
+     * @param expected the expected strategy
+     */
+    @ParameterizedTest
+    @DisplayName("Test summation names")
+    @CsvSource({"naive, NAIVE", "neumaier, NEUMAIER", "pairwise, PAIRWISE"})
+    public void testFromName(String name, Summation expected) {
+        assertEquals(expected, Summation.fromName(name));
+        assertEquals(name, expected.getName());
+        assertNull(Summation.fromName("kahan"));
+    }
+
+    /**
+     * Test the rounding error of every strategy on ten million copies of 0.1,
+     * against the exact sum of the double values.
+     */
+    @Test
+    @DisplayName("Test accuracy on ten million values")
+    public void testAccuracy() {
+        int n = 10_000_000;
+        double exact = new BigDecimal(0.1).multiply(BigDecimal.valueOf(n)).doubleValue();
+        FunctionModel tenth = x -> 0.1;
+
+        double naiveError = Math.abs(Summation.NAIVE.sum(tenth, 0, 1, 0, 0, n, null) - exact);
+        double neumaierError = Math.abs(Summation.NEUMAIER.sum(tenth, 0, 1, 0, 0, n, null) - exact);
+        double pairwiseError = Math.abs(Summation.PAIRWISE.sum(tenth, 0, 1, 0, 0, n, null) - exact);
+
+        assertTrue(neumaierError <= Math.ulp(exact), "Compensated error " + neumaierError);
+        assertTrue(pairwiseError <= 16 * Math.ulp(exact), "Pairwise error " + pairwiseError);
+        assertTrue(naiveError > 1000 * Math.ulp(exact), "Naive error " + naiveError);
+    }
+
+    /**
+     * Test that compensated summation recovers small values added to a large one.
+     */
+    @Test
+    @DisplayName("Test compensation of values larger than the sum")
+    public void testCancellation() {
+        // 1, 1e100, 1, -1e100 sums to 2, which naive summation loses completely
+        double[] values = {1, 1e100, 1, -1e100};
+        FunctionModel function = x -> values[(int) x];
+        assertEquals(2.0, Summation.NEUMAIER.sum(function, 0, 1, 0, 0, values.length, null), 0.0);
+        assertEquals(0.0, Summation.NAIVE.sum(function, 0, 1, 0, 0, values.length, null), 0.0);
+    }
+
+    /**
+     * Test that every strategy reports an infinite sum instead of NaN.
+     *
+     * @param summation the strategy
+     */
+    @ParameterizedTest
+    @DisplayName("Test infinite values")
+    @EnumSource(Summation.class)
+    public void testInfinite(Summation summation) {
+        FunctionModel function = x -> x == 3 ? Double.POSITIVE_INFINITY : x;
+        assertEquals(Double.POSITIVE_INFINITY, summation.sum(function, 0, 1, 0, 0, 1000, null));
+    }
+
+    /**
+     * Test that every strategy evaluates the same points, captures the same samples
+     * and agrees with the others, also for ranges not filling whole blocks.
+     *
+     * @param summation the strategy
+     */
+    @ParameterizedTest
+    @DisplayName("Test strategies agree")
+    @EnumSource(Summation.class)
+    public void testAgree(Summation summation) {
+        FunctionModel function = x -> Math.sin(x) * x;
+        IntegrationParameters params = new IntegrationParameters(-1, 4, 1003);
+        SampleBuffer expectedSamples = SampleCapture.full().newBuffer(params.partitions());
+        SampleBuffer samples = SampleCapture.full().newBuffer(params.partitions());
+        double expected = Rectangle.integrate(function, params, expectedSamples, Summation.NEUMAIER);
+
+        assertEquals(expected, Rectangle.integrate(function, params, samples, summation), 1e-14);
+        assertArrayEquals(expectedSamples.toArray(), samples.toArray(), 0.0);
+        assertEquals(Trapezoid.integrate(function, params, null, Summation.NEUMAIER),
+                Trapezoid.integrate(function, params, null, summation), 1e-14);
+    }
+
+    /**
+     * Test that the engine uses the strategy of the options and that the cache keys tell them apart.
+     */
+    @Test
+    @DisplayName("Test engine summation option")
+    public void testEngineOption() {
+        FunctionModel tenth = x -> 0.1;
+        IntegrationParameters params = new IntegrationParameters(0, 1, 1_000_000);
+        IntegrationOptions naive = IntegrationOptions.defaults().withSummation(Summation.NAIVE);
+        try (IntegrationEngine engine = new IntegrationEngine(new EngineSettings(Integer.MAX_VALUE, 1024, 1, true))) {
+            assertEquals(Summation.NAIVE.sum(tenth, 0, 1e-6, 0.5e-6, 0, 1_000_000, null) * 1e-6,
+                    engine.integrate(IntegrationMethod.RECTANGLE, tenth, params, naive).value(), 0.0);
+            assertEquals(0.1, engine.integrate(IntegrationMethod.RECTANGLE, tenth, params).value(), 2e-17);
+        }
+        QuadraticFunction function = new QuadraticFunction(1, 0, 0);
+        assertNotEquals(ResultKey.of(IntegrationMethod.TRAPEZOID, function, params, naive),
+                ResultKey.of(IntegrationMethod.TRAPEZOID, function, params, IntegrationOptions.defaults()));
+        assertEquals(ResultKey.of(IntegrationMethod.SIMPSON, function, params, naive),
+                ResultKey.of(IntegrationMethod.SIMPSON, function, params, IntegrationOptions.defaults()));
+        assertThrows(IllegalArgumentException.class, () -> IntegrationOptions.defaults().withSummation(null));
+    }
+}
@@ -0,0 +1,44 @@
+package pl.polsl.mostowska.integrationwebapp.model;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Helper creating fake implementations of the JPA and JDBC interfaces used by the tests.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public final class TestProxies {
+
+    /**
+     * Answers the calls of a fake implementation.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Answers one call.
+         *
+         * @param method the name of the called method
+         * @param args the arguments of the call, or null if it has none
+         * @return the value returned by the call
+         */
+        Object handle(String method, Object[] args);
+    }
+
+    private TestProxies() {
+    }
+
+    /**
+     * Creates a fake implementation of an interface.
+     *
+     * @param <T> the type of the fake
+     * @param type the implemented interface
+     * @param handler the handler answering the calls
+     * @return the fake implementation
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(Class<?> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+    }
+}
@@ -0,0 +1,114 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pl.polsl.mostowska.integrationwebapp.model.TestProxies.proxy;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the cursor of the history export.
+ * The JDBC driver is replaced by a fake connection generating the rows on demand.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public class HistoryExportServletTest {
+
+    /**
+     * Fake JDBC connection whose query returns the given number of generated rows.
+     * The calls preparing the statement are recorded.
+     */
+    private static final class FakeConnection {
+        private final List<String> calls = new ArrayList<>();
+        private final long rowCount;
+
+        FakeConnection(long rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        Connection connection() {
+            return proxy(Connection.class, (method, args) -> {
+                if (method.equals("prepareStatement")) {
+                    calls.add("prepareStatement " + args[0] + " " + args[1] + " " + args[2]);
+                    return statement();
+                }
+                return null;
+            });
+        }
+
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+                case "setFetchSize" -> {
+                    calls.add("setFetchSize " + args[0]);
+                    yield null;
+                }
+                case "executeQuery" -> rows();
+                default -> null;
+            });
+        }
+
+        private ResultSet rows() {
+            long[] current = {0};
+            return proxy(ResultSet.class, (method, args) -> switch (method) {
+                case "next" -> ++current[0] <= rowCount;
+                case "getObject" -> switch ((Integer) args[0]) {
+                    case 1 -> current[0];
+                    case 2 -> "rectangle";
+                    case 5 -> 100;
+                    case 7 -> null;
+                    case 8 -> 100L;
+                    case 9 -> "linear";
+                    default -> 0.5 * current[0];
+                };
+                default -> null;
+            });
+        }
+    }
+
+    /**
+     * Test that the export opens a forward-only, read-only cursor with a fetch size and writes every row.
+     *
+     * @throws SQLException if the fake connection fails
+     */
+    @Test
+    @DisplayName("Test export cursor")
+    public void testCursor() throws SQLException {
+        FakeConnection fake = new FakeConnection(3);
+        StringWriter text = new StringWriter();
+        try (PrintWriter out = new PrintWriter(text)) {
+            assertEquals(3, HistoryExportServlet.export(fake.connection(), HistoryFormat.CSV, out));
+        }
+
+        assertEquals(List.of("prepareStatement " + HistoryExportServlet.EXPORT_SQL + " " + ResultSet.TYPE_FORWARD_ONLY
+                + " " + ResultSet.CONCUR_READ_ONLY, "setFetchSize " + HistoryExportServlet.FETCH_SIZE), fake.calls);
+        String[] lines = text.toString().split("\r?\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[3].startsWith("3,rectangle,1.5,1.5,100,1.5,,100,linear,"), lines[3]);
+    }
+
+    /**
+     * Test that the heap usage of the export does not grow with the number of rows.
+     * The test runs in the bounded-heap execution with a 128 MB heap, which the rows would exceed
+     * by several times if they were collected before they are written.
+     *
+     * @throws SQLException if the fake connection fails
+     */
+    @Test
+    @Tag("bounded-heap")
+    @DisplayName("Test export of two million rows in a bounded heap")
+    public void testBoundedHeap() throws SQLException {
+        try (PrintWriter out = new PrintWriter(Writer.nullWriter())) {
+            assertEquals(2_000_000, HistoryExportServlet.export(new FakeConnection(2_000_000).connection(), HistoryFormat.JSON_LINES, out));
+        }
+    }
+}
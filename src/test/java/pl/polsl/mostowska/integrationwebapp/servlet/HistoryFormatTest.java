@@ -0,0 +1,94 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the row formats of the history export.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class HistoryFormatTest {
+
+    /** A row as selected by the export query. */
+    private static final Object[] ROW = {7L, "rectangle", -1.5, 2.0, 100, 0.25, null, 100L, "quadratic", 1.0, 0.0, -2.0};
+
+    /**
+     * Writes a complete export of the given rows.
+     *
+     * @param format the output format
+     * @param rows the rows to export
+     * @return the written text
+     */
+    private static String export(HistoryFormat format, Object[]... rows) {
+        StringWriter text = new StringWriter();
+        try (PrintWriter out = new PrintWriter(text)) {
+            format.writeHeader(out);
+            for (Object[] row : rows) {
+                format.writeRow(out, row);
+            }
+            format.writeFooter(out);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Test the CSV header, empty cells and quoting.
+     */
+    @Test
+    @DisplayName("Test CSV export")
+    public void testCsv() {
+        Object[] quoted = ROW.clone();
+        quoted[1] = "a,\"b\"";
+        assertEquals("id,method,lowerBound,upperBound,partitions,result,errorEstimate,evaluations,function,a,b,c\r\n"
+                + "7,rectangle,-1.5,2.0,100,0.25,,100,quadratic,1.0,0.0,-2.0\r\n"
+                + "7,\"a,\"\"b\"\"\",-1.5,2.0,100,0.25,,100,quadratic,1.0,0.0,-2.0\r\n",
+                export(HistoryFormat.CSV, ROW, quoted));
+    }
+
+    /**
+     * Test that every row is one JSON object with numbers, strings and nulls.
+     */
+    @Test
+    @DisplayName("Test JSON Lines export")
+    public void testJsonLines() {
+        Object[] escaped = ROW.clone();
+        escaped[8] = "x\"\\\n";
+        escaped[5] = Double.NaN;
+        assertEquals("{\"id\":7,\"method\":\"rectangle\",\"lowerBound\":-1.5,\"upperBound\":2.0,\"partitions\":100,"
+                + "\"result\":0.25,\"errorEstimate\":null,\"evaluations\":100,\"function\":\"quadratic\",\"a\":1.0,\"b\":0.0,\"c\":-2.0}\n"
+                + "{\"id\":7,\"method\":\"rectangle\",\"lowerBound\":-1.5,\"upperBound\":2.0,\"partitions\":100,"
+                + "\"result\":null,\"errorEstimate\":null,\"evaluations\":100,\"function\":\"x\\\"\\\\\\n\",\"a\":1.0,\"b\":0.0,\"c\":-2.0}\n",
+                export(HistoryFormat.JSON_LINES, ROW, escaped));
+    }
+
+    /**
+     * Test that HTML cells are escaped and the table is closed.
+     */
+    @Test
+    @DisplayName("Test HTML export")
+    public void testHtml() {
+        Object[] escaped = ROW.clone();
+        escaped[1] = "<b>&";
+        String html = export(HistoryFormat.HTML, escaped);
+        assertTrue(html.contains("<td>&lt;b&gt;&amp;</td>"));
+        assertTrue(html.contains("<td>-</td>"));
+        assertTrue(html.trim().endsWith("</html>"));
+    }
+
+    /**
+     * Test the lookup of the formats by request name.
+     */
+    @Test
+    @DisplayName("Test format names")
+    public void testFromName() {
+        assertEquals(HistoryFormat.HTML, HistoryFormat.fromName(null));
+        assertEquals(HistoryFormat.JSON_LINES, HistoryFormat.fromName("jsonl"));
+        assertEquals(HistoryFormat.CSV, HistoryFormat.fromName("csv"));
+        assertNull(HistoryFormat.fromName("xml"));
+    }
+}
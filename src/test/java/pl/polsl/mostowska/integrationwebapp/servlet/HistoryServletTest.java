@@ -0,0 +1,68 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import pl.polsl.mostowska.integrationwebapp.model.ExpressionFunction;
+import pl.polsl.mostowska.integrationwebapp.model.FunctionEntity;
+import pl.polsl.mostowska.integrationwebapp.model.PolynomialFunction;
+
+/**
+ * Test class for the function column of the stored history table.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.1
+ */
+public class HistoryServletTest {
+
+    /**
+     * Creates a stored function.
+     *
+     * @param name the stored name
+     * @param a the coefficient a
+     * @param b the coefficient b
+     * @param c the coefficient c
+     * @return the function entity
+     */
+    private static FunctionEntity function(String name, double a, double b, double c) {
+        FunctionEntity function = new FunctionEntity();
+        function.setFunctionName(name);
+        function.setA(a);
+        function.setB(b);
+        function.setC(c);
+        return function;
+    }
+
+    /**
+     * Test that linear and quadratic functions are described by their coefficients.
+     */
+    @Test
+    @DisplayName("Test linear and quadratic functions in the history table")
+    public void testPolynomialTemplates() {
+        assertEquals("linear f(x) = 2.0x + -1.0", HistoryServlet.describeFunction(function("linear", 0, 2, -1)));
+        assertEquals("quadratic f(x) = 1.5x² + 0.0x + 3.0", HistoryServlet.describeFunction(function("quadratic", 1.5, 0, 3)));
+    }
+
+    /**
+     * Test that an expression, stored with zero coefficients, is shown by its expression only.
+     */
+    @Test
+    @DisplayName("Test expression functions in the history table")
+    public void testExpression() {
+        String expression = ExpressionFunction.compile("sin(x)").toString();
+        assertEquals(expression, HistoryServlet.describeFunction(function(expression, 0, 0, 0)));
+    }
+
+    /**
+     * Test that a polynomial is shown with all its coefficients, not the three lowest ones stored as a, b and c.
+     */
+    @Test
+    @DisplayName("Test polynomial functions in the history table")
+    public void testPolynomial() {
+        PolynomialFunction polynomial = new PolynomialFunction(1, 0, 0, 0, 0, 1);
+        FunctionEntity stored = function(polynomial.toString(), polynomial.coefficient(2), polynomial.coefficient(1),
+                polynomial.coefficient(0));
+        stored.setCoefficients(polynomial.pack());
+        assertEquals("polynomial f(x) = " + polynomial, HistoryServlet.describeFunction(stored));
+    }
+}
@@ -0,0 +1,65 @@
+package pl.polsl.mostowska.integrationwebapp.servlet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Test class for the Server-Timing header of the integration page.
+ *
+ * @author Wiktoria Mostowska
+ * @version 1.0
+ */
+public class ServerTimingTest {
+
+    /**
+     * Test that the phases are listed in order with their durations in milliseconds, followed by the total.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    @DisplayName("Test phases and total")
+    public void testPhases() throws InterruptedException {
+        ServerTiming timing = new ServerTiming();
+        timing.phase("parse");
+        Thread.sleep(20);
+        timing.phase("integrate");
+        String header = timing.header();
+
+        assertTrue(header.matches("parse;dur=\\d+\\.\\d{3}, integrate;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+        double integrate = duration(header, "integrate");
+        double total = duration(header, "total");
+        assertTrue(integrate >= 20, header);
+        assertTrue(total >= duration(header, "parse") + integrate - 0.002, header);
+    }
+
+    /**
+     * Test that the total can be read again and further phases are appended after the earlier ones.
+     */
+    @Test
+    @DisplayName("Test header read twice")
+    public void testHeaderTwice() {
+        ServerTiming timing = new ServerTiming();
+        assertTrue(timing.header().startsWith("total;dur="));
+        timing.phase("render");
+        String header = timing.header();
+        assertTrue(header.startsWith("render;dur="), header);
+        assertEquals(1, header.split("total").length - 1, header);
+    }
+
+    /**
+     * Reads the duration of a phase from the header.
+     *
+     * @param header the value of the header
+     * @param phase the name of the phase
+     * @return the duration in milliseconds
+     */
+    private static double duration(String header, String phase) {
+        for (String entry : header.split(", ")) {
+            if (entry.startsWith(phase + ";dur=")) {
+                return Double.parseDouble(entry.substring(phase.length() + 5));
+            }
+        }
+        throw new AssertionError("No phase " + phase + " in " + header);
+    }
+}